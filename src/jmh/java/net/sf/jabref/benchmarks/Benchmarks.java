@@ -1,11 +1,16 @@
 package net.sf.jabref.benchmarks;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import net.sf.jabref.BibDatabaseContext;
@@ -13,53 +18,169 @@ import net.sf.jabref.Defaults;
 import net.sf.jabref.Globals;
 import net.sf.jabref.JabRefPreferences;
 import net.sf.jabref.MetaData;
+import net.sf.jabref.bst.VM;
+import net.sf.jabref.collab.EntryDiff;
 import net.sf.jabref.exporter.BibDatabaseWriter;
 import net.sf.jabref.exporter.SaveException;
 import net.sf.jabref.exporter.SavePreferences;
+import net.sf.jabref.exporter.SaveSession;
 import net.sf.jabref.importer.ParserResult;
 import net.sf.jabref.importer.fileformat.BibtexParser;
+import net.sf.jabref.logic.autocompleter.AutoCompletePreferences;
+import net.sf.jabref.logic.autocompleter.AutoCompleter;
+import net.sf.jabref.logic.autocompleter.AutoCompleterFactory;
+import net.sf.jabref.logic.groups.AllEntriesGroup;
+import net.sf.jabref.logic.groups.GroupHierarchyType;
+import net.sf.jabref.logic.groups.GroupTreeNode;
+import net.sf.jabref.logic.groups.KeywordGroup;
+import net.sf.jabref.logic.groups.SearchGroup;
+import net.sf.jabref.logic.journals.JournalAbbreviationRepository;
+import net.sf.jabref.logic.labelpattern.LabelPatternUtil;
+import net.sf.jabref.logic.layout.Layout;
+import net.sf.jabref.logic.layout.LayoutHelper;
+import net.sf.jabref.logic.search.SearchMatcher;
 import net.sf.jabref.logic.search.SearchQuery;
+import net.sf.jabref.model.DuplicateFinder;
 import net.sf.jabref.model.database.BibDatabase;
 import net.sf.jabref.model.database.BibDatabaseMode;
 import net.sf.jabref.model.database.BibDatabaseModeDetection;
+import net.sf.jabref.model.entry.AuthorList;
 import net.sf.jabref.model.entry.BibEntry;
 
+import org.antlr.runtime.RecognitionException;
 import org.openjdk.jmh.Main;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.runner.RunnerException;
 
+/**
+ * Benchmarks of the operations working on a whole database, run for databases of different sizes generated by the
+ * {@link EntryGenerator}.
+ * <p>
+ * Run them with <code>gradlew jmh</code>, which writes the results to <code>build/reports/jmh/results.json</code>, and
+ * compare them with the baseline using <code>gradlew jmhCompare</code>, see {@link CompareWithBaseline}.
+ */
 @State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
 public class Benchmarks {
 
+    /**
+     * A simplified plain style: sorts the entries by author, year and title and formats the names of the authors.
+     */
+    private static final String BST_STYLE = "ENTRY { author title journal booktitle year } { } { label sort.key$ }\n"
+            + "INTEGERS { nameptr namesleft numnames }\n"
+            + "STRINGS { s t }\n"
+            + "FUNCTION {format.names} { 's := #1 'nameptr := s num.names$ 'numnames := numnames 'namesleft :=\n"
+            + "  { namesleft #0 > } { s nameptr \"{ff~}{vv~}{ll}{, jj}\" format.name$ 't :=\n"
+            + "    nameptr #1 > { \", \" * t * } 't if$ nameptr #1 + 'nameptr := namesleft #1 - 'namesleft := }\n"
+            + "  while$ }\n"
+            + "FUNCTION {presort} { author empty$ { \"\" } { author #1 \"{vv{ } }{ll{ }}\" format.name$ } if$\n"
+            + "  \" \" * year * \" \" * title purify$ * 'sort.key$ := }\n"
+            + "FUNCTION {output.entry} { \"\\bibitem{\" cite$ * \"}\" * write$ newline$\n"
+            + "  author empty$ { \"\" } { author format.names } if$ \". \" * title \"t\" change.case$ * \". \" *\n"
+            + "  journal empty$ { booktitle empty$ { \"\" } { booktitle } if$ } { journal } if$ * \", \" * year *\n"
+            + "  \".\" * write$ newline$ }\n"
+            + "READ\n"
+            + "ITERATE {presort}\n"
+            + "SORT\n"
+            + "ITERATE {output.entry}\n";
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
     String bibtexString;
-    BibDatabase database = new BibDatabase();
+    BibDatabase database;
+    List<BibEntry> changedOnDisk;
+    BibDatabase keyDatabase;
+    List<String> authorFields;
+    List<SearchMatcher> groupRules;
+    Layout layout;
+    VM vm;
+    AutoCompleterFactory autoCompleterFactory;
+    AutoCompleter<String> authorAutoCompleter;
+    File saveFile;
+
 
     @Setup
-    public void init() throws IOException, SaveException {
+    public void init() throws IOException, RecognitionException {
         Globals.prefs = JabRefPreferences.getInstance();
 
-        Random randomizer = new Random();
-        for (int i = 0; i < 1000; i++) {
-            BibEntry entry = new BibEntry();
-            entry.setCiteKey("id" + i);
-            entry.setField("title", "This is my title " + i);
-            entry.setField("author", "Firstname Lastname and FirstnameA LastnameA and FirstnameB LastnameB" + i);
-            entry.setField("journal", "Journal Title " + i);
-            entry.setField("year", "1" + i);
-            entry.setField("rnd", "2" + randomizer.nextInt());
-            database.insertEntry(entry);
-        }
+        database = new EntryGenerator(42).createDatabase(size);
+        keyDatabase = new EntryGenerator(42).createDatabase(size);
+        authorFields = database.getEntries().stream().map(entry -> entry.getField("author"))
+                .collect(Collectors.toList());
+
         BibDatabaseWriter databaseWriter = new BibDatabaseWriter();
         StringWriter stringWriter = new StringWriter();
-
         databaseWriter.writePartOfDatabase(stringWriter,
                 new BibDatabaseContext(database, new MetaData(), new Defaults()), database.getEntries(),
                 new SavePreferences());
         bibtexString = stringWriter.toString();
 
+        // the file on disk differs in about one percent of the entries
+        changedOnDisk = new ArrayList<>();
+        List<BibEntry> entries = database.getEntries();
+        for (int i = 0; i < entries.size(); i++) {
+            BibEntry copy = new BibEntry();
+            copy.setField(entries.get(i).getFieldMap());
+            if ((i % 100) == 7) {
+                copy.setField("title", copy.getField("title") + " revisited");
+            }
+            if ((i % 100) != 42) {
+                changedOnDisk.add(copy);
+            }
+        }
+        changedOnDisk.addAll(new EntryGenerator(4711).createEntries(size / 100));
+
+        GroupTreeNode root = new GroupTreeNode(new AllEntriesGroup());
+        root.addSubgroup(new KeywordGroup("Machine learning", "keywords", "machine learning", false, false,
+                GroupHierarchyType.INDEPENDENT));
+        GroupTreeNode networks = root.addSubgroup(new KeywordGroup("Networks", "title", "neural|graph", false, true,
+                GroupHierarchyType.INCLUDING));
+        networks.addSubgroup(new KeywordGroup("Springer", "publisher", "Springer", true, false,
+                GroupHierarchyType.INDEPENDENT));
+        networks.addSubgroup(new SearchGroup("Recent Smiths", "author = smith and year = 20", false, false,
+                GroupHierarchyType.REFINING));
+        groupRules = new ArrayList<>();
+        collectSearchRules(root, groupRules);
+
+        try (Reader reader = new InputStreamReader(Benchmarks.class.getResourceAsStream("/resource/layout/html.layout"),
+                StandardCharsets.UTF_8)) {
+            layout = new LayoutHelper(reader, new JournalAbbreviationRepository()).getLayoutFromText();
+        }
+
+        vm = new VM(BST_STYLE);
+
+        autoCompleterFactory = new AutoCompleterFactory(new AutoCompletePreferences(Globals.prefs));
+        authorAutoCompleter = autoCompleterFactory.getFor("author");
+        for (BibEntry entry : database.getEntries()) {
+            authorAutoCompleter.addBibtexEntry(entry);
+        }
+
+        saveFile = File.createTempFile("jabref-benchmark", ".bib");
+    }
+
+    private static void collectSearchRules(GroupTreeNode node, List<SearchMatcher> rules) {
+        rules.add(node.getSearchRule());
+        for (GroupTreeNode child : node.getChildren()) {
+            collectSearchRules(child, rules);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (!saveFile.delete()) {
+            saveFile.deleteOnExit();
+        }
     }
 
     @Benchmark
@@ -80,15 +201,119 @@ public class Benchmarks {
         return stringWriter.toString();
     }
 
+    @Benchmark
+    public File save() throws SaveException {
+        BibDatabaseWriter databaseWriter = new BibDatabaseWriter();
+        SaveSession session = databaseWriter.saveDatabase(
+                new BibDatabaseContext(database, new MetaData(), new Defaults()),
+                new SavePreferences().withEncoding(StandardCharsets.UTF_8).withMakeBackup(true));
+        session.commit(saveFile);
+        return saveFile;
+    }
+
     @Benchmark
     public List<BibEntry> search() {
         // FIXME: Reuse SearchWorker here
-        SearchQuery searchQuery = new SearchQuery("Journal Title 500", false, false);
+        SearchQuery searchQuery = new SearchQuery("Communications of the ACM", false, false);
         List<BibEntry> matchedEntries = new ArrayList<>();
         matchedEntries.addAll(database.getEntries().stream().filter(searchQuery::isMatch).collect(Collectors.toList()));
         return matchedEntries;
     }
 
+    @Benchmark
+    public List<BibEntry> searchGrammar() {
+        SearchQuery searchQuery = new SearchQuery("journal = \"Communications of the ACM\" and author != Smith", false,
+                false);
+        return database.getEntries().stream().filter(searchQuery::isMatch).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public int[] matchGroups() {
+        int[] counts = new int[groupRules.size()];
+        for (BibEntry entry : database.getEntries()) {
+            for (int i = 0; i < counts.length; i++) {
+                if (groupRules.get(i).isMatch(entry)) {
+                    counts[i]++;
+                }
+            }
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public List<BibEntry[]> findDuplicates() {
+        List<BibEntry[]> duplicates = new ArrayList<>();
+        new DuplicateFinder(database.getEntries(), BibDatabaseMode.BIBTEX)
+                .findDuplicatePairs((first, second) -> duplicates.add(new BibEntry[] {first, second}), () -> false);
+        return duplicates;
+    }
+
+    @Benchmark
+    public BibDatabase generateKeys() {
+        MetaData metaData = new MetaData();
+        for (BibEntry entry : keyDatabase.getEntries()) {
+            LabelPatternUtil.makeLabel(metaData, keyDatabase, entry);
+        }
+        return keyDatabase;
+    }
+
+    @Benchmark
+    public String exportLayout() {
+        StringBuilder result = new StringBuilder();
+        for (BibEntry entry : database.getEntries()) {
+            result.append(layout.doLayout(entry, database));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Empties the cache of parsed names before each call, so that the names are actually parsed.
+     */
+    @State(Scope.Thread)
+    public static class EmptyAuthorCache {
+
+        @Setup(Level.Invocation)
+        public void clear() {
+            AuthorList.clearCache();
+        }
+    }
+
+
+    @Benchmark
+    public List<AuthorList> parseAuthors(EmptyAuthorCache emptyCache) {
+        return authorFields.stream().map(AuthorList::parse).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<AuthorList> parseAuthorsCached() {
+        return authorFields.stream().map(AuthorList::parse).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public String runBst() {
+        return vm.run(database);
+    }
+
+    @Benchmark
+    public AutoCompleter<String> indexForAutoCompletion() {
+        AutoCompleter<String> autoCompleter = autoCompleterFactory.getFor("author");
+        for (BibEntry entry : database.getEntries()) {
+            autoCompleter.addBibtexEntry(entry);
+        }
+        return autoCompleter;
+    }
+
+    @Benchmark
+    public List<List<String>> autoComplete() {
+        return Arrays.asList("Sm", "M{", "Garc", "van", "K").stream().map(authorAutoCompleter::complete)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public EntryDiff scanChanges() {
+        return new EntryDiff(database.getEntries(), database.getEntries(), changedOnDisk);
+    }
+
     @Benchmark
     public BibDatabaseMode inferBibDatabaseMode() {
         return BibDatabaseModeDetection.inferMode(database);
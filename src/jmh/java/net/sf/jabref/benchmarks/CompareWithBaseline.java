@@ -0,0 +1,102 @@
+package net.sf.jabref.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Compares the JSON results of a benchmark run with a baseline, and fails if a benchmark got slower by more than the
+ * given tolerance, or if a benchmark has been run without being in the baseline or the other way round.
+ * <p>
+ * Usage: <code>CompareWithBaseline baseline.json results.json [tolerance]</code>, where the tolerance is a fraction
+ * of the baseline score and defaults to 0.2. The baseline is updated by copying the results of a run over it. As the
+ * scores depend on the machine, the baseline should be recorded on the machine running the comparison.
+ */
+public class CompareWithBaseline {
+
+    private static final double DEFAULT_TOLERANCE = 0.2;
+
+
+    public static void main(String[] args) throws IOException {
+        if ((args.length < 2) || (args.length > 3)) {
+            System.err.println("Usage: CompareWithBaseline baseline.json results.json [tolerance]");
+            System.exit(2);
+        }
+        double tolerance = args.length == 3 ? Double.parseDouble(args[2]) : DEFAULT_TOLERANCE;
+
+        Map<String, JSONObject> baseline = readResults(args[0]);
+        Map<String, JSONObject> results = readResults(args[1]);
+
+        int regressions = 0;
+        int missing = 0;
+        for (Map.Entry<String, JSONObject> result : results.entrySet()) {
+            JSONObject baselineResult = baseline.get(result.getKey());
+            if (baselineResult == null) {
+                missing++;
+                System.out.println(String.format(Locale.ENGLISH, "%-60s %12s", result.getKey(), "NOT IN BASELINE"));
+                continue;
+            }
+
+            double score = getScore(result.getValue());
+            double baselineScore = getScore(baselineResult);
+            // for the throughput higher is better, for all other modes the time per operation is measured
+            boolean higherIsBetter = "thrpt".equals(result.getValue().getString("mode"));
+            double change = (score - baselineScore) / baselineScore;
+            boolean regression = higherIsBetter ? (change < -tolerance) : (change > tolerance);
+            if (regression) {
+                regressions++;
+            }
+            System.out.println(String.format(Locale.ENGLISH, "%-60s %+11.1f%% %s", result.getKey(), change * 100,
+                    regression ? "REGRESSION" : ""));
+        }
+
+        for (String benchmark : baseline.keySet()) {
+            if (!results.containsKey(benchmark)) {
+                missing++;
+                System.out.println(String.format(Locale.ENGLISH, "%-60s %12s", benchmark, "NOT RUN"));
+            }
+        }
+
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) regressed by more than " + (tolerance * 100) + "%");
+        }
+        if (missing > 0) {
+            System.out.println(missing + " benchmark(s) are missing in the baseline or in the results,"
+                    + " record the baseline again with a full run");
+        }
+        if ((regressions > 0) || (missing > 0)) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return the results by benchmark name and parameters
+     */
+    private static Map<String, JSONObject> readResults(String file) throws IOException {
+        JSONArray array = new JSONArray(new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8));
+        Map<String, JSONObject> results = new LinkedHashMap<>();
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject result = array.getJSONObject(i);
+            StringBuilder key = new StringBuilder(result.getString("benchmark"));
+            JSONObject params = result.optJSONObject("params");
+            if (params != null) {
+                for (String name : params.keySet()) {
+                    key.append(' ').append(name).append('=').append(params.getString(name));
+                }
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+    private static double getScore(JSONObject result) {
+        return result.getJSONObject("primaryMetric").getDouble("score");
+    }
+}
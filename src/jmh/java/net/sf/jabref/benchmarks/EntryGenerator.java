@@ -0,0 +1,166 @@
+package net.sf.jabref.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.entry.BibEntry;
+
+/**
+ * Generates databases resembling real ones: entries of the common types with several authors in both name formats,
+ * LaTeX encoded characters, keywords, DOIs and abstracts. About every twentieth entry is a slightly changed copy of an
+ * earlier one, so that duplicate detection has something to find. The same seed always gives the same entries.
+ */
+class EntryGenerator {
+
+    private static final List<String> FIRST_NAMES = Arrays.asList("Anna", "Kevin", "J{\\\"o}rg", "Maria", "Li",
+            "Oliver", "Fran{\\c{c}}ois", "Yuki", "Carlos", "Emma", "Ahmed", "Sven", "Priya", "Tom\\'{a}{\\v{s}}");
+    private static final List<String> LAST_NAMES = Arrays.asList("Smith", "M{\\\"u}ller", "Garc{\\'i}a", "Wang",
+            "Shields", "Tanaka", "Kumar", "Dubois", "Novak", "Johansson", "Rossi", "Kowalski", "Nguyen", "Meier",
+            "Brown", "Silva", "Andersen", "Ivanov", "Horvat", "Okafor");
+    private static final List<String> VON_PARTS = Arrays.asList("van", "von", "de", "van der");
+    private static final List<String> TITLE_WORDS = Arrays.asList("analysis", "deep", "learning", "efficient",
+            "algorithms", "for", "the", "of", "a", "distributed", "systems", "model", "checking", "neural", "networks",
+            "in", "bibliographic", "databases", "survey", "approach", "towards", "scalable", "query", "processing",
+            "{B}ayesian", "inference", "graph", "semantic", "web", "evaluation", "on", "and", "with", "{\\\"u}ber",
+            "optimization", "parallel", "software", "engineering", "mining", "large", "data", "sets");
+    private static final List<String> JOURNALS = Arrays.asList("Journal of Machine Learning Research",
+            "IEEE Transactions on Software Engineering", "Communications of the ACM", "Information Systems",
+            "Bioinformatics", "Physical Review Letters", "Nature", "Aquaculture", "Scientometrics",
+            "ACM Computing Surveys");
+    private static final List<String> CONFERENCES = Arrays.asList("International Conference on Software Engineering",
+            "Conference on Neural Information Processing Systems", "Very Large Data Bases",
+            "European Conference on Digital Libraries", "Joint Conference on Digital Libraries");
+    private static final List<String> PUBLISHERS = Arrays.asList("Springer", "Elsevier", "ACM", "IEEE",
+            "MIT Press", "Wiley");
+    private static final List<String> KEYWORDS = Arrays.asList("bibliometrics", "machine learning", "databases",
+            "search", "software", "reproducibility", "citation analysis", "information retrieval", "ontology");
+
+    private final Random random;
+
+
+    EntryGenerator(long seed) {
+        random = new Random(seed);
+    }
+
+    BibDatabase createDatabase(int size) {
+        BibDatabase database = new BibDatabase();
+        database.insertEntries(createEntries(size));
+        return database;
+    }
+
+    List<BibEntry> createEntries(int count) {
+        List<BibEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if ((i > 0) && (random.nextInt(20) == 0)) {
+                entries.add(createChangedCopy(entries.get(random.nextInt(i)), i));
+            } else {
+                entries.add(createEntry(i));
+            }
+        }
+        return entries;
+    }
+
+    private BibEntry createEntry(int number) {
+        BibEntry entry = new BibEntry();
+        String authors = createAuthors();
+        String year = String.valueOf(1950 + random.nextInt(70));
+        entry.setField("author", authors);
+        entry.setField("title", createTitle());
+        entry.setField("year", year);
+        entry.setField("keywords", pickSome(KEYWORDS, 1 + random.nextInt(3)));
+        if (random.nextInt(3) > 0) {
+            entry.setField("doi", "10." + (1000 + random.nextInt(9000)) + "/" + Integer.toHexString(number));
+        }
+        if (random.nextInt(4) == 0) {
+            entry.setField("abstract", createTitle() + ". " + createTitle() + ". " + createTitle() + '.');
+        }
+
+        String type;
+        int kind = random.nextInt(10);
+        if (kind < 6) {
+            type = "article";
+            entry.setField("journal", pick(JOURNALS));
+            entry.setField("volume", String.valueOf(1 + random.nextInt(80)));
+            entry.setField("number", String.valueOf(1 + random.nextInt(12)));
+            // this fork only accepts a single page number for articles, also when parsing
+            entry.setField("pages", String.valueOf(1 + random.nextInt(900)));
+        } else if (kind < 9) {
+            type = "inproceedings";
+            entry.setField("booktitle", "Proceedings of the " + pick(CONFERENCES));
+            entry.setField("publisher", pick(PUBLISHERS));
+            int firstPage = 1 + random.nextInt(900);
+            entry.setField("pages", firstPage + "--" + (firstPage + random.nextInt(30)));
+        } else {
+            type = "book";
+            entry.setField("publisher", pick(PUBLISHERS));
+            entry.setField("address", "Berlin");
+        }
+        // the type is set last, as this fork validates the fields of articles and books when setting them
+        entry.setType(type);
+        entry.setCiteKey(createKey(authors, year, number));
+        return entry;
+    }
+
+    private BibEntry createChangedCopy(BibEntry original, int number) {
+        BibEntry copy = new BibEntry();
+        copy.setField(original.getFieldMap());
+        copy.setField("title", original.getField("title").replace("a", "e"));
+        copy.setCiteKey(original.getCiteKey() + '_' + number);
+        copy.setType(original.getType());
+        return copy;
+    }
+
+    private String createAuthors() {
+        int count = 1 + random.nextInt(4);
+        List<String> authors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String first = pick(FIRST_NAMES);
+            String last = pick(LAST_NAMES);
+            String von = random.nextInt(10) == 0 ? pick(VON_PARTS) + ' ' : "";
+            if (random.nextBoolean()) {
+                authors.add(von + last + ", " + first);
+            } else {
+                authors.add(first + ' ' + von + last);
+            }
+        }
+        if (random.nextInt(15) == 0) {
+            authors.add("others");
+        }
+        return String.join(" and ", authors);
+    }
+
+    private String createTitle() {
+        int length = 3 + random.nextInt(9);
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                title.append(' ');
+            }
+            title.append(pick(TITLE_WORDS));
+        }
+        title.setCharAt(0, Character.toUpperCase(title.charAt(0)));
+        return title.toString();
+    }
+
+    private static String createKey(String authors, String year, int number) {
+        String firstAuthor = authors.split(" and ")[0];
+        String lastName = firstAuthor.contains(",") ? firstAuthor.substring(0, firstAuthor.indexOf(','))
+                : firstAuthor.substring(firstAuthor.lastIndexOf(' ') + 1);
+        return lastName.replaceAll("[^A-Za-z]", "") + year + '_' + number;
+    }
+
+    private String pick(List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private String pickSome(List<String> values, int count) {
+        List<String> picked = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            picked.add(pick(values));
+        }
+        return String.join(", ", picked);
+    }
+}
@@ -0,0 +1,85 @@
+package net.sf.jabref.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.jabref.Globals;
+import net.sf.jabref.JabRefPreferences;
+import net.sf.jabref.gui.maintable.MainTableNameFormatter;
+import net.sf.jabref.model.entry.BibEntry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks formatting the author fields of a database for the main table, as done when repainting the table. The
+ * author lists are parsed in the first iteration and taken from the author list cache afterwards.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class NameFormatterBenchmarks {
+
+    private static final List<String> NAME_FORMAT_PREFS = Arrays.asList(JabRefPreferences.NAMES_AS_IS,
+            JabRefPreferences.NAMES_NATBIB, JabRefPreferences.NAMES_LAST_ONLY, JabRefPreferences.NAMES_FIRST_LAST,
+            JabRefPreferences.ABBR_AUTHOR_NAMES);
+
+    @Param({"natbib", "lastOnly", "firstLast", "lastFirst"})
+    String nameFormat;
+
+    List<String> authors;
+    Map<String, Boolean> previousPrefs;
+
+
+    @Setup
+    public void init() {
+        Globals.prefs = JabRefPreferences.getInstance();
+        previousPrefs = new HashMap<>();
+        for (String key : NAME_FORMAT_PREFS) {
+            previousPrefs.put(key, Globals.prefs.getBoolean(key));
+        }
+        Globals.prefs.putBoolean(JabRefPreferences.NAMES_AS_IS, false);
+        Globals.prefs.putBoolean(JabRefPreferences.NAMES_NATBIB, "natbib".equals(nameFormat));
+        Globals.prefs.putBoolean(JabRefPreferences.NAMES_LAST_ONLY, "lastOnly".equals(nameFormat));
+        Globals.prefs.putBoolean(JabRefPreferences.NAMES_FIRST_LAST, "firstLast".equals(nameFormat));
+        Globals.prefs.putBoolean(JabRefPreferences.ABBR_AUTHOR_NAMES, true);
+
+        authors = new ArrayList<>();
+        for (BibEntry entry : new EntryGenerator(42).createEntries(5000)) {
+            entry.getFieldOptional("author").ifPresent(authors::add);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        previousPrefs.forEach(Globals.prefs::putBoolean);
+    }
+
+    @Benchmark
+    public void formatAuthors(Blackhole blackhole) {
+        for (String author : authors) {
+            blackhole.consume(MainTableNameFormatter.formatName(author));
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void formatAuthorsConcurrently(Blackhole blackhole) {
+        for (String author : authors) {
+            blackhole.consume(MainTableNameFormatter.formatName(author));
+        }
+    }
+}
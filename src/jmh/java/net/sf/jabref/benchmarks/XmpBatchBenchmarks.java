@@ -0,0 +1,103 @@
+package net.sf.jabref.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.transform.TransformerException;
+
+import net.sf.jabref.Globals;
+import net.sf.jabref.JabRefPreferences;
+import net.sf.jabref.logic.xmp.XMPBatchWriter;
+import net.sf.jabref.logic.xmp.XMPUtil;
+import net.sf.jabref.model.entry.BibEntry;
+
+import org.apache.pdfbox.exceptions.COSVisitorException;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks writing the XMP metadata of many entries to generated PDF files, as done by "Write XMP-metadata".
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class XmpBatchBenchmarks {
+
+    @Param({"20", "100"})
+    int files;
+
+    File directory;
+    Map<BibEntry, List<File>> filesOfEntries;
+    int run;
+
+
+    @Setup
+    public void init() throws IOException, COSVisitorException, TransformerException {
+        Globals.prefs = JabRefPreferences.getInstance();
+
+        directory = Files.createTempDirectory("jabref-benchmark").toFile();
+        filesOfEntries = new LinkedHashMap<>();
+        for (BibEntry entry : new EntryGenerator(42).createEntries(files)) {
+            File pdfFile = new File(directory, entry.getId() + ".pdf");
+            try (PDDocument document = new PDDocument()) {
+                document.addPage(new PDPage());
+                document.save(pdfFile.getPath());
+            }
+            XMPUtil.writeXMP(pdfFile, entry, null);
+            filesOfEntries.put(entry, Collections.singletonList(pdfFile));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (List<File> pdfFiles : filesOfEntries.values()) {
+            pdfFiles.forEach(File::delete);
+        }
+        directory.delete();
+    }
+
+    /**
+     * Changes every entry, so that every file has to be written.
+     */
+    private void changeEntries() {
+        run++;
+        for (BibEntry entry : filesOfEntries.keySet()) {
+            entry.setField("note", "Run " + run);
+        }
+    }
+
+    @Benchmark
+    public int writeOneByOne() throws IOException, TransformerException {
+        changeEntries();
+        for (Map.Entry<BibEntry, List<File>> entryFiles : filesOfEntries.entrySet()) {
+            XMPUtil.writeXMP(entryFiles.getValue().get(0), entryFiles.getKey(), null);
+        }
+        return run;
+    }
+
+    @Benchmark
+    public List<XMPBatchWriter.Result> writeBatch() {
+        changeEntries();
+        return new XMPBatchWriter().write(filesOfEntries, null, () -> false, null);
+    }
+
+    @Benchmark
+    public List<XMPBatchWriter.Result> writeBatchUnchanged() {
+        return new XMPBatchWriter().write(filesOfEntries, null, () -> false, null);
+    }
+}
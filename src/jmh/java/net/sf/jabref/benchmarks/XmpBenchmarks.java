@@ -0,0 +1,70 @@
+package net.sf.jabref.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.transform.TransformerException;
+
+import net.sf.jabref.Globals;
+import net.sf.jabref.JabRefPreferences;
+import net.sf.jabref.logic.xmp.XMPUtil;
+import net.sf.jabref.model.entry.BibEntry;
+
+import org.apache.pdfbox.exceptions.COSVisitorException;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks writing and reading the XMP metadata of a single PDF file, as done for each linked file.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class XmpBenchmarks {
+
+    BibEntry entry;
+    File pdfFile;
+
+
+    @Setup
+    public void init() throws IOException, COSVisitorException, TransformerException {
+        Globals.prefs = JabRefPreferences.getInstance();
+
+        entry = new EntryGenerator(42).createEntries(1).get(0);
+
+        pdfFile = File.createTempFile("jabref-benchmark", ".pdf");
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage());
+            document.save(pdfFile.getPath());
+        }
+        XMPUtil.writeXMP(pdfFile, entry, null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (!pdfFile.delete()) {
+            pdfFile.deleteOnExit();
+        }
+    }
+
+    @Benchmark
+    public File writeXmp() throws IOException, TransformerException {
+        XMPUtil.writeXMP(pdfFile, entry, null);
+        return pdfFile;
+    }
+
+    @Benchmark
+    public List<BibEntry> readXmp() throws IOException {
+        return XMPUtil.readXMP(pdfFile);
+    }
+}
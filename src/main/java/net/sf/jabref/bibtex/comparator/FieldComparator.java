@@ -108,20 +108,32 @@ public class FieldComparator implements Comparator<BibEntry> {
 
     @Override
     public int compare(BibEntry e1, BibEntry e2) {
-        String f1;
-        String f2;
+        return compareSortValues(getSortValue(e1), getSortValue(e2));
+    }
 
+    /**
+     * Returns the value of the entry this comparator sorts by: the type of the entry or the content of the first set
+     * field. Names are rearranged so that they are sorted according to last name.
+     *
+     * @return the value to be passed to {@link #compareSortValues(String, String)}, null if no field is set
+     */
+    public String getSortValue(BibEntry entry) {
         if (fieldType == FieldType.TYPE) {
-            // Sort by type.
-            f1 = e1.getType();
-            f2 = e2.getType();
-        } else {
-            // If the field is author or editor, we rearrange names so they are
-            // sorted according to last name.
-            f1 = getField(e1);
-            f2 = getField(e2);
+            return entry.getType();
         }
 
+        String value = getField(entry);
+        if ((value != null) && (fieldType == FieldType.NAME)) {
+            return AuthorList.fixAuthorForAlphabetization(value);
+        }
+        return value;
+    }
+
+    /**
+     * Compares the values of two entries returned by {@link #getSortValue(BibEntry)}. Comparing entries by their
+     * sort values gives the same result as {@link #compare(BibEntry, BibEntry)}.
+     */
+    public int compareSortValues(String f1, String f2) {
         // Catch all cases involving null:
         if ((f1 == null) && (f2 == null)) {
             return 0;
@@ -132,10 +144,7 @@ public class FieldComparator implements Comparator<BibEntry> {
         }
 
         // Now we now that both f1 and f2 are != null
-        if (fieldType == FieldType.NAME) {
-            f1 = AuthorList.fixAuthorForAlphabetization(f1);
-            f2 = AuthorList.fixAuthorForAlphabetization(f2);
-        } else if (fieldType == FieldType.YEAR) {
+        if (fieldType == FieldType.YEAR) {
             Integer f1year = StringUtil.intValueOfWithNull(f1);
             Integer f2year = StringUtil.intValueOfWithNull(f2);
             int comparisonResult = Integer.compare(f1year == null ? 0 : f1year, f2year == null ? 0 : f2year);
@@ -0,0 +1,106 @@
+package net.sf.jabref.bst;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+/**
+ * The literal stack of the {@link VM}.
+ *
+ * Unlike {@link java.util.Stack} it is not synchronized, a VM only uses its stack from one thread at a time. Integers
+ * are kept unboxed; {@link #pop()} boxes them, {@link #popInt()} does not.
+ */
+public class BstStack {
+
+    // marks the positions holding an integer in ints
+    private static final Object INTEGER = new Object();
+
+    private Object[] values = new Object[16];
+
+    private int[] ints = new int[16];
+
+    private int size;
+
+
+    public void push(Object value) {
+        if (value instanceof Integer) {
+            push(((Integer) value).intValue());
+        } else {
+            ensureCapacity();
+            values[size++] = value;
+        }
+    }
+
+    public void push(int value) {
+        ensureCapacity();
+        ints[size] = value;
+        values[size++] = INTEGER;
+    }
+
+    /**
+     * Pushes the literals of the other stack, the bottom one first.
+     */
+    public void pushAll(BstStack other) {
+        for (int i = 0; i < other.size; i++) {
+            ensureCapacity();
+            values[size] = other.values[i];
+            ints[size++] = other.ints[i];
+        }
+    }
+
+    /**
+     * @return the top literal, a missing field is null
+     */
+    public Object pop() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        size--;
+        Object value = values[size];
+        values[size] = null;
+        if (value == INTEGER) {
+            return ints[size];
+        }
+        return value;
+    }
+
+    /**
+     * @return the top literal, which has to be an integer (see {@link #isInteger(int)})
+     */
+    public int popInt() {
+        if (!isInteger(0)) {
+            throw new VMException("Expecting an integer on top of the stack");
+        }
+        size--;
+        values[size] = null;
+        return ints[size];
+    }
+
+    /**
+     * @param depth 0 for the top literal, 1 for the one below and so on
+     */
+    public boolean isInteger(int depth) {
+        return (depth < size) && (values[size - 1 - depth] == INTEGER);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Same as {@link #isEmpty()}, like {@link java.util.Stack#empty()}.
+     */
+    public boolean empty() {
+        return isEmpty();
+    }
+
+    private void ensureCapacity() {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+            ints = Arrays.copyOf(ints, size * 2);
+        }
+    }
+}
@@ -15,8 +15,6 @@
 */
 package net.sf.jabref.bst;
 
-import java.util.Stack;
-
 import net.sf.jabref.bst.VM.BstEntry;
 import net.sf.jabref.bst.VM.BstFunction;
 import net.sf.jabref.model.entry.Author;
@@ -49,7 +47,7 @@ public class FormatNameFunction implements BstFunction {
 
     @Override
     public void execute(BstEntry context) {
-        Stack<Object> stack = vm.getStack();
+        BstStack stack = vm.getStack(context);
 
         if (stack.size() < 3) {
             throw new VMException("Not enough operands on stack for operation format.name$");
@@ -15,8 +15,6 @@
 */
 package net.sf.jabref.bst;
 
-import java.util.Stack;
-
 import net.sf.jabref.bst.VM.BstEntry;
 import net.sf.jabref.bst.VM.BstFunction;
 
@@ -46,7 +44,7 @@ public class TextPrefixFunction implements BstFunction {
 
     @Override
     public void execute(BstEntry context) {
-        Stack<Object> stack = vm.getStack();
+        BstStack stack = vm.getStack(context);
 
         if (stack.size() < 2) {
             throw new VMException("Not enough operands on stack for operation text.prefix$");
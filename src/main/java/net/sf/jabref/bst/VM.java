@@ -18,16 +18,19 @@ package net.sf.jabref.bst;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
-import java.util.Stack;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 
 import net.sf.jabref.model.database.BibDatabase;
 import net.sf.jabref.model.entry.AuthorList;
@@ -57,15 +60,35 @@ public class VM implements Warn {
 
     private static final Log LOGGER = LogFactory.getLog(VM.class);
 
+    // ITERATE executes functions changing only the entry in parallel for at least this many entries
+    private static final int PARALLEL_ITERATE_THRESHOLD = 100;
+
+    // built-in functions having effects beyond the entry they are executed for
+    private static final Set<String> GLOBAL_BUILT_IN_FUNCTIONS = new HashSet<>(
+            Arrays.asList("call.type$", "newline$", "stack$", "top$", "warning$", "write$"));
+
     private List<BstEntry> entries;
 
-    private Map<String, String> strings = new HashMap<>();
+    private Map<String, Symbol> symbols = new HashMap<>();
+
+    private List<String> stringNames = new ArrayList<>();
+
+    private String[] strings = new String[0];
+
+    private List<String> integerNames = new ArrayList<>();
 
-    private Map<String, Integer> integers = new HashMap<>();
+    private int[] integers = new int[0];
+
+    // the names of the entry variables, indexed by their slot
+    private List<String> fieldNames = new ArrayList<>();
+
+    private List<String> localStringNames = new ArrayList<>();
+
+    private List<String> localIntegerNames = new ArrayList<>();
 
     private Map<String, BstFunction> functions = new HashMap<>();
 
-    private Stack<Object> stack = new Stack<>();
+    private BstStack stack = new BstStack();
 
     public static final Integer FALSE = 0;
 
@@ -88,9 +111,17 @@ public class VM implements Warn {
 
         public final String name;
 
+        // resolved when compiling, null otherwise
+        private final Symbol symbol;
+
 
         public Identifier(String name) {
+            this(name, null);
+        }
+
+        private Identifier(String name, Symbol symbol) {
             this.name = name;
+            this.symbol = symbol;
         }
 
         public String getName() {
@@ -142,32 +173,32 @@ public class VM implements Warn {
          * otherwise.
          */
         buildInFunctions.put(">", context -> {
+            BstStack stack = getStack(context);
             if (stack.size() < 2) {
                 throw new VMException("Not enough operands on stack for operation >");
             }
-            Object o2 = stack.pop();
-            Object o1 = stack.pop();
-
-            if (!((o1 instanceof Integer) && (o2 instanceof Integer))) {
+            if (!(stack.isInteger(0) && stack.isInteger(1))) {
                 throw new VMException("Can only compare two integers with >");
             }
+            int o2 = stack.popInt();
+            int o1 = stack.popInt();
 
-            stack.push(((Integer) o1).compareTo((Integer) o2) > 0 ? VM.TRUE : VM.FALSE);
+            stack.push(o1 > o2 ? VM.TRUE : VM.FALSE);
         });
 
         /** Analogous. */
         buildInFunctions.put("<", context -> {
+            BstStack stack = getStack(context);
             if (stack.size() < 2) {
                 throw new VMException("Not enough operands on stack for operation <");
             }
-            Object o2 = stack.pop();
-            Object o1 = stack.pop();
-
-            if (!((o1 instanceof Integer) && (o2 instanceof Integer))) {
+            if (!(stack.isInteger(0) && stack.isInteger(1))) {
                 throw new VMException("Can only compare two integers with <");
             }
+            int o2 = stack.popInt();
+            int o1 = stack.popInt();
 
-            stack.push(((Integer) o1).compareTo((Integer) o2) < 0 ? VM.TRUE : VM.FALSE);
+            stack.push(o1 < o2 ? VM.TRUE : VM.FALSE);
         });
 
         /**
@@ -175,6 +206,7 @@ public class VM implements Warn {
          * them, and pushes the integer 1 if they're equal, 0 otherwise.
          */
         buildInFunctions.put("=", context -> {
+            BstStack stack = getStack(context);
             if (stack.size() < 2) {
                 throw new VMException("Not enough operands on stack for operation =");
             }
@@ -196,17 +228,17 @@ public class VM implements Warn {
 
         /** Pops the top two (integer) literals and pushes their sum. */
         buildInFunctions.put("+", context -> {
+            BstStack stack = getStack(context);
             if (stack.size() < 2) {
                 throw new VMException("Not enough operands on stack for operation +");
             }
-            Object o2 = stack.pop();
-            Object o1 = stack.pop();
-
-            if (!((o1 instanceof Integer) && (o2 instanceof Integer))) {
+            if (!(stack.isInteger(0) && stack.isInteger(1))) {
                 throw new VMException("Can only compare two integers with +");
             }
+            int o2 = stack.popInt();
+            int o1 = stack.popInt();
 
-            stack.push((Integer) o1 + (Integer) o2);
+            stack.push(o1 + o2);
         });
 
         /**
@@ -214,17 +246,17 @@ public class VM implements Warn {
          * (the first subtracted from the second).
          */
         buildInFunctions.put("-", context -> {
+            BstStack stack = getStack(context);
             if (stack.size() < 2) {
                 throw new VMException("Not enough operands on stack for operation -");
             }
-            Object o2 = stack.pop();
-            Object o1 = stack.pop();
-
-            if (!((o1 instanceof Integer) && (o2 instanceof Integer))) {
+            if (!(stack.isInteger(0) && stack.isInteger(1))) {
                 throw new VMException("Can only subtract two integers with -");
             }
+            int o2 = stack.popInt();
+            int o1 = stack.popInt();
 
-            stack.push((Integer) o1 - (Integer) o2);
+            stack.push(o1 - o2);
         });
 
         /**
@@ -233,6 +265,7 @@ public class VM implements Warn {
          * resulting string.
          */
         buildInFunctions.put("*", context -> {
+            BstStack stack = getStack(context);
             if (stack.size() < 2) {
                 throw new VMException("Not enough operands on stack for operation *");
             }
@@ -251,6 +284,7 @@ public class VM implements Warn {
          * a global or entry variable) the value of the second.
          */
         buildInFunctions.put(":=", context -> {
+            BstStack stack = getStack(context);
             if (stack.size() < 2) {
                 throw new VMException("Invalid call to operation :=");
             }
@@ -264,7 +298,7 @@ public class VM implements Warn {
          * '}' character isn't a `.', `?', or `!', and pushes this resulting
          * string.
          */
-        buildInFunctions.put("add.period$", context -> addPeriodFunction());
+        buildInFunctions.put("add.period$", context -> addPeriodFunction(getStack(context)));
 
         /**
          * Executes the function whose name is the entry type of an entry.
@@ -280,7 +314,8 @@ public class VM implements Warn {
             if (context == null) {
                 throw new VMException("Call.type$ can only be called from within a context (ITERATE or REVERSE).");
             }
-            VM.this.execute(context.getBibtexEntry().getType(), context);
+            String type = context.getBibtexEntry().getType();
+            VM.this.execute(symbols.get(type), type, context);
         });
 
         buildInFunctions.put("change.case$", new ChangeCaseFunction(this));
@@ -291,6 +326,7 @@ public class VM implements Warn {
          * pushes this integer.
          */
         buildInFunctions.put("chr.to.int$", context -> {
+            BstStack stack = getStack(context);
             if (stack.isEmpty()) {
                 throw new VMException("Not enough operands on stack for operation chr.to.int$");
             }
@@ -313,13 +349,14 @@ public class VM implements Warn {
             if (context == null) {
                 throw new VMException("Must have an entry to cite$");
             }
-            stack.push(context.getBibtexEntry().getCiteKey());
+            getStack(context).push(context.getBibtexEntry().getCiteKey());
         });
 
         /**
          * Pops the top literal from the stack and pushes two copies of it.
          */
         buildInFunctions.put("duplicate$", context -> {
+            BstStack stack = getStack(context);
             if (stack.isEmpty()) {
                 throw new VMException("Not enough operands on stack for operation duplicate$");
             }
@@ -335,6 +372,7 @@ public class VM implements Warn {
          * otherwise.
          */
         buildInFunctions.put("empty$", context -> {
+            BstStack stack = getStack(context);
             if (stack.isEmpty()) {
                 throw new VMException("Not enough operands on stack for operation empty$");
             }
@@ -363,6 +401,7 @@ public class VM implements Warn {
          * first.
          */
         buildInFunctions.put("if$", context -> {
+            BstStack stack = getStack(context);
             if (stack.size() < 3) {
                 throw new VMException("Not enough operands on stack for operation =");
             }
@@ -370,8 +409,7 @@ public class VM implements Warn {
             Object f2 = stack.pop();
             Object i = stack.pop();
 
-            if (!((f1 instanceof Identifier) || (f1 instanceof Tree))
-                    && ((f2 instanceof Identifier) || (f2 instanceof Tree)) && (i instanceof Integer)) {
+            if (!isFunction(f1) && isFunction(f2) && (i instanceof Integer)) {
                 throw new VMException("Expecting two functions and an integer for if$.");
             }
 
@@ -388,6 +426,7 @@ public class VM implements Warn {
          * single-character string, and pushes this string.
          */
         buildInFunctions.put("int.to.chr$", context -> {
+            BstStack stack = getStack(context);
             if (stack.isEmpty()) {
                 throw new VMException("Not enough operands on stack for operation int.to.chr$");
             }
@@ -407,6 +446,7 @@ public class VM implements Warn {
          * string equivalent, and pushes this string.
          */
         buildInFunctions.put("int.to.str$", context -> {
+            BstStack stack = getStack(context);
             if (stack.isEmpty()) {
                 throw new VMException("Not enough operands on stack for operation int.to.str$");
             }
@@ -424,6 +464,7 @@ public class VM implements Warn {
          * field, 0 otherwise.
          */
         buildInFunctions.put("missing$", context -> {
+            BstStack stack = getStack(context);
             if (stack.isEmpty()) {
                 throw new VMException("Not enough operands on stack for operation missing$");
             }
@@ -459,6 +500,7 @@ public class VM implements Warn {
          * non-null white-space at the top brace level.
          */
         buildInFunctions.put("num.names$", context -> {
+            BstStack stack = getStack(context);
             if (stack.isEmpty()) {
                 throw new VMException("Not enough operands on stack for operation num.names$");
             }
@@ -476,7 +518,7 @@ public class VM implements Warn {
          * Pops the top of the stack but doesn't print it; this gets rid of
          * an unwanted stack literal.
          */
-        buildInFunctions.put("pop$", context -> stack.pop());
+        buildInFunctions.put("pop$", context -> getStack(context).pop());
 
         /**
          * The |built_in| function {\.{preamble\$}} pushes onto the stack
@@ -486,6 +528,7 @@ public class VM implements Warn {
          * @PREAMBLE strings read from the database files.
          */
         buildInFunctions.put("preamble$", context -> {
+            BstStack stack = getStack(context);
             if (preamble == null) {
                 stack.push("");
             } else {
@@ -505,7 +548,7 @@ public class VM implements Warn {
         /**
          * Pushes the string consisting of the double-quote character.
          */
-        buildInFunctions.put("quote$", context -> stack.push("\""));
+        buildInFunctions.put("quote$", context -> getStack(context).push("\""));
 
         /**
          * Is a no-op.
@@ -519,6 +562,7 @@ public class VM implements Warn {
          * designers while debugging.
          */
         buildInFunctions.put("stack$", context -> {
+            BstStack stack = getStack(context);
             while (!stack.empty()) {
                 LOGGER.debug(stack.pop());
             }
@@ -534,7 +578,7 @@ public class VM implements Warn {
          * (including) from the end if start is negative (where the first
          * character from the end is the last character).
          */
-        buildInFunctions.put("substring$", context -> substringFunction());
+        buildInFunctions.put("substring$", context -> substringFunction(getStack(context)));
 
         /**
          * Swaps the top two literals on the stack. text.length$ Pops the
@@ -545,6 +589,7 @@ public class VM implements Warn {
          * and where braces don't count as text characters.
          */
         buildInFunctions.put("swap$", context -> {
+            BstStack stack = getStack(context);
             if (stack.size() < 2) {
                 throw new VMException("Not enough operands on stack for operation swap$");
             }
@@ -566,7 +611,7 @@ public class VM implements Warn {
          * BibTEX considers everything contained inside the braces as a
          * single letter.
          */
-        buildInFunctions.put("text.length$", context -> textLengthFunction());
+        buildInFunctions.put("text.length$", context -> textLengthFunction(getStack(context)));
 
         /**
          * Pops the top two literals (the integer literal len and a string
@@ -584,7 +629,7 @@ public class VM implements Warn {
         /**
          * Pops and prints the top of the stack to the log file. It's useful for debugging.
          */
-        buildInFunctions.put("top$", context -> LOGGER.debug(stack.pop()));
+        buildInFunctions.put("top$", context -> LOGGER.debug(getStack(context).pop()));
 
         /**
          * Pushes the current entry's type (book, article, etc.), but pushes
@@ -595,7 +640,7 @@ public class VM implements Warn {
                 throw new VMException("type$ need a context.");
             }
 
-            stack.push(context.getBibtexEntry().getType());
+            getStack(context).push(context.getBibtexEntry().getType());
         });
 
         /**
@@ -609,7 +654,7 @@ public class VM implements Warn {
 
             @Override
             public void execute(BstEntry context) {
-                LOGGER.warn("Warning (#" + (warning++) + "): " + stack.pop());
+                LOGGER.warn("Warning (#" + (warning++) + "): " + getStack(context).pop());
             }
         });
 
@@ -628,13 +673,14 @@ public class VM implements Warn {
          * the buffer fills up).
          */
         buildInFunctions.put("write$", context -> {
+            BstStack stack = getStack(context);
             String s = (String) stack.pop();
             VM.this.bbl.append(s);
         });
 
     }
 
-    private void textLengthFunction() {
+    private static void textLengthFunction(BstStack stack) {
         if (stack.isEmpty()) {
             throw new VMException("Not enough operands on stack for operation text.length$");
         }
@@ -715,14 +761,14 @@ public class VM implements Warn {
     }
 
     private void whileFunction(BstEntry context) {
+        BstStack stack = getStack(context);
         if (stack.size() < 2) {
             throw new VMException("Not enough operands on stack for operation while$");
         }
         Object f2 = stack.pop();
         Object f1 = stack.pop();
 
-        if (!((f1 instanceof Identifier) || (f1 instanceof Tree))
-                && ((f2 instanceof Identifier) || (f2 instanceof Tree))) {
+        if (!isFunction(f1) && isFunction(f2)) {
             throw new VMException("Expecting two functions for while$.");
         }
 
@@ -740,7 +786,7 @@ public class VM implements Warn {
         } while (true);
     }
 
-    private void substringFunction() {
+    private static void substringFunction(BstStack stack) {
         if (stack.size() < 3) {
             throw new VMException("Not enough operands on stack for operation substring$");
         }
@@ -779,7 +825,7 @@ public class VM implements Warn {
         stack.push(s.substring(startI - 1, Math.min((startI - 1) + lenI, s.length())));
     }
 
-    private void addPeriodFunction() {
+    private static void addPeriodFunction(BstStack stack) {
         if (stack.isEmpty()) {
             throw new VMException("Not enough operands on stack for operation add.period$");
         }
@@ -820,30 +866,33 @@ public class VM implements Warn {
             throw new VMException("Invalid parameters");
         }
 
-        String name = ((Identifier) o1).getName();
+        Symbol symbol = getSymbol((Identifier) o1);
+        if (symbol == null) {
+            return false;
+        }
 
         if (o2 instanceof String) {
 
-            if ((context != null) && context.localStrings.containsKey(name)) {
-                context.localStrings.put(name, (String) o2);
+            if ((context != null) && (symbol.localString >= 0)) {
+                context.localStrings[symbol.localString] = (String) o2;
                 return true;
             }
 
-            if (strings.containsKey(name)) {
-                strings.put(name, (String) o2);
+            if (symbol.string >= 0) {
+                strings[symbol.string] = (String) o2;
                 return true;
             }
             return false;
 
         }
 
-        if ((context != null) && context.localIntegers.containsKey(name)) {
-            context.localIntegers.put(name, (Integer) o2);
+        if ((context != null) && (symbol.localInteger >= 0)) {
+            context.localIntegers[symbol.localInteger] = (Integer) o2;
             return true;
         }
 
-        if (integers.containsKey(name)) {
-            integers.put(name, (Integer) o2);
+        if (symbol.integer >= 0) {
+            integers[symbol.integer] = (Integer) o2;
             return true;
         }
         return false;
@@ -860,22 +909,29 @@ public class VM implements Warn {
         // Reset
         bbl = new StringBuilder();
 
-        strings = new HashMap<>();
+        symbols = new HashMap<>();
 
-        integers = new HashMap<>();
-        integers.put("entry.max$", Integer.MAX_VALUE);
-        integers.put("global.max$", Integer.MAX_VALUE);
+        stringNames = new ArrayList<>();
+        strings = new String[0];
+
+        integerNames = new ArrayList<>();
+        integers = new int[0];
+        declareInteger("entry.max$", Integer.MAX_VALUE);
+        declareInteger("global.max$", Integer.MAX_VALUE);
+
+        fieldNames = new ArrayList<>();
+        localStringNames = new ArrayList<>();
+        localIntegerNames = new ArrayList<>();
 
         functions = new HashMap<>();
-        functions.putAll(buildInFunctions);
+        buildInFunctions.forEach(this::defineFunction);
 
-        stack = new Stack<>();
+        stack = new BstStack();
 
         // Create entries
         entries = new ArrayList<>(bibtex.size());
-        ListIterator<BstEntry> listIter = entries.listIterator();
         for (BibEntry entry : bibtex) {
-            listIter.add(new BstEntry(entry));
+            entries.add(new BstEntry(entry, fieldNames));
         }
 
         // Go
@@ -932,18 +988,14 @@ public class VM implements Warn {
     private void read() {
 
         for (BstEntry e : entries) {
-
-            for (Map.Entry<String, String> mEntry : e.getFields().entrySet()) {
-                String fieldValue = e.getBibtexEntry().getField(mEntry.getKey());
-
-                mEntry.setValue(fieldValue);
+            for (int i = 0; i < fieldNames.size(); i++) {
+                e.fields[i] = e.getBibtexEntry().getField(fieldNames.get(i));
             }
         }
 
-        for (BstEntry e : entries) {
-            if (!e.getFields().containsKey("crossref")) {
-                e.getFields().put("crossref", null);
-            }
+        if (getSymbol("crossref").field < 0) {
+            declareField("crossref");
+            resizeEntries();
         }
     }
 
@@ -962,7 +1014,7 @@ public class VM implements Warn {
     private void macro(Tree child) {
         String name = child.getChild(0).getText();
         String replacement = child.getChild(1).getText();
-        functions.put(name, new MacroFunction(replacement));
+        defineFunction(name, new MacroFunction(replacement));
     }
 
 
@@ -977,7 +1029,7 @@ public class VM implements Warn {
 
         @Override
         public void execute(BstEntry context) {
-            VM.this.push(replacement);
+            getStack(context).push(replacement);
         }
     }
 
@@ -996,34 +1048,51 @@ public class VM implements Warn {
         Tree t = child.getChild(0);
 
         for (int i = 0; i < t.getChildCount(); i++) {
-            String name = t.getChild(i).getText();
-
-            for (BstEntry entry : entries) {
-                entry.getFields().put(name, null);
-            }
+            declareField(t.getChild(i).getText());
         }
 
         // Integers
         t = child.getChild(1);
 
         for (int i = 0; i < t.getChildCount(); i++) {
-            String name = t.getChild(i).getText();
-
-            for (BstEntry entry : entries) {
-                entry.localIntegers.put(name, 0);
+            Symbol symbol = getSymbol(t.getChild(i).getText());
+            if (symbol.localInteger < 0) {
+                symbol.localInteger = localIntegerNames.size();
+                localIntegerNames.add(symbol.name);
             }
         }
         // Strings
         t = child.getChild(2);
 
         for (int i = 0; i < t.getChildCount(); i++) {
-            String name = t.getChild(i).getText();
-            for (BstEntry entry : entries) {
-                entry.localStrings.put(name, null);
-            }
+            declareLocalString(t.getChild(i).getText());
+        }
+        declareLocalString("sort.key$");
+
+        resizeEntries();
+    }
+
+    private void declareField(String name) {
+        Symbol symbol = getSymbol(name);
+        if (symbol.field < 0) {
+            symbol.field = fieldNames.size();
+            fieldNames.add(name);
+        }
+    }
+
+    private void declareLocalString(String name) {
+        Symbol symbol = getSymbol(name);
+        if (symbol.localString < 0) {
+            symbol.localString = localStringNames.size();
+            localStringNames.add(name);
         }
+    }
+
+    private void resizeEntries() {
         for (BstEntry entry : entries) {
-            entry.localStrings.put("sort.key$", null);
+            entry.fields = Arrays.copyOf(entry.fields, fieldNames.size());
+            entry.localStrings = Arrays.copyOf(entry.localStrings, localStringNames.size());
+            entry.localIntegers = Arrays.copyOf(entry.localIntegers, localIntegerNames.size());
         }
     }
 
@@ -1038,48 +1107,145 @@ public class VM implements Warn {
     }
 
     private void iterate(Tree child) {
-        BstFunction f = functions.get(child.getChild(0).getText());
+        String name = child.getChild(0).getText();
+        BstFunction f = functions.get(name);
 
-        for (BstEntry entry : entries) {
-            f.execute(entry);
+        if ((entries.size() < PARALLEL_ITERATE_THRESHOLD) || !stack.isEmpty()
+                || !changesOnlyEntry(symbols.get(name), new HashSet<>())) {
+            for (BstEntry entry : entries) {
+                f.execute(entry);
+            }
+            return;
+        }
+
+        // Each entry gets a stack of its own, what is left on them is stacked in the order of the entries.
+        // This assumes that the function only pops what it pushed for the same entry.
+        BstStack[] entryStacks = new BstStack[entries.size()];
+        IntStream.range(0, entries.size()).parallel().forEach(i -> {
+            BstEntry entry = entries.get(i);
+            entry.stack = new BstStack();
+            try {
+                f.execute(entry);
+                entryStacks[i] = entry.stack;
+            } finally {
+                entry.stack = null;
+            }
+        });
+        for (BstStack entryStack : entryStacks) {
+            stack.pushAll(entryStack);
         }
     }
 
     /**
-     * Sorts the entry list using the values of the string entry variable sort.key$. It has no arguments.
+     * Checks whether a function only changes the entry it is executed for, so that it can be iterated over the
+     * entries in parallel. It must neither assign global variables nor write output, and must call only such
+     * functions.
+     *
+     * @param checked the symbols already checked, or being checked
      */
-    private void sort() {
-        Collections.sort(entries, new Comparator<BstEntry>() {
+    private boolean changesOnlyEntry(Symbol symbol, Set<Symbol> checked) {
+        if ((symbol == null) || !checked.add(symbol)) {
+            return symbol != null;
+        }
 
-            @Override
-            public int compare(BstEntry o1, BstEntry o2) {
-                return (o1.localStrings.get("sort.key$")).compareTo(o2.localStrings
-                        .get("sort.key$"));
+        BstFunction f = symbol.function;
+        if (f instanceof StackFunction) {
+            return changesOnlyEntry(((StackFunction) f).getTree(), checked);
+        }
+        if (f instanceof MacroFunction) {
+            return true;
+        }
+        return (f != null) && (f == buildInFunctions.get(symbol.name))
+                && !GLOBAL_BUILT_IN_FUNCTIONS.contains(symbol.name);
+    }
+
+    private boolean changesOnlyEntry(Tree function, Set<Symbol> checked) {
+        for (int i = 0; i < function.getChildCount(); i++) {
+            Tree c = function.getChild(i);
+            switch (c.getType()) {
+            case BstParser.STRING:
+            case BstParser.INTEGER:
+                break;
+            case BstParser.STACK:
+                if (!changesOnlyEntry(c, checked)) {
+                    return false;
+                }
+                break;
+            case BstParser.QUOTED:
+                // may be the target of an assignment, or a function executed by if$ or while$
+                Symbol quoted = symbols.get(c.getText().substring(1));
+                if ((quoted == null) || (quoted.string >= 0) || (quoted.integer >= 0)
+                        || ((quoted.function != null) && !changesOnlyEntry(quoted, checked))) {
+                    return false;
+                }
+                break;
+            default:
+                Symbol symbol = symbols.get(c.getText());
+                if ((symbol == null) || (!symbol.isVariable() && !changesOnlyEntry(symbol, checked))) {
+                    return false;
+                }
+                break;
             }
-        });
+        }
+        return true;
+    }
+
+    /**
+     * Sorts the entry list using the values of the string entry variable sort.key$. It has no arguments.
+     */
+    private void sort() {
+        int sortKey = getSymbol("sort.key$").localString;
+        if (sortKey < 0) {
+            throw new VMException("SORT needs the entry variable sort.key$ declared by ENTRY");
+        }
+        Collections.sort(entries, (o1, o2) -> o1.localStrings[sortKey].compareTo(o2.localStrings[sortKey]));
     }
 
     private void executeInContext(Object o, BstEntry context) {
-        if (o instanceof Tree) {
-            Tree t = (Tree) o;
-            new StackFunction(t).execute(context);
+        if (o instanceof BstFunction) {
+            ((BstFunction) o).execute(context);
         } else if (o instanceof Identifier) {
-            execute(((Identifier) o).getName(), context);
+            Identifier identifier = (Identifier) o;
+            execute(getSymbol(identifier), identifier.getName(), context);
         }
     }
 
+    /**
+     * Functions pushed on the stack are executed by if$ and while$.
+     */
+    private static boolean isFunction(Object o) {
+        return (o instanceof Identifier) || (o instanceof BstFunction);
+    }
+
     private void execute(Tree child) {
-        execute(child.getChild(0).getText(), null);
+        String name = child.getChild(0).getText();
+        execute(symbols.get(name), name, null);
     }
 
 
+    /**
+     * A function defined by FUNCTION, or a block of one. The tree is compiled once: literals are parsed, names are
+     * resolved to their symbols and the blocks are compiled as functions of their own.
+     */
     public class StackFunction implements BstFunction {
 
         private final Tree localTree;
 
+        private final BstFunction[] instructions;
+
+        private final int[] lines;
+
 
         public StackFunction(Tree stack) {
             localTree = stack;
+
+            instructions = new BstFunction[localTree.getChildCount()];
+            lines = new int[instructions.length];
+            for (int i = 0; i < instructions.length; i++) {
+                Tree c = localTree.getChild(i);
+                instructions[i] = compile(c);
+                lines[i] = c.getLine();
+            }
         }
 
         public Tree getTree() {
@@ -1089,35 +1255,15 @@ public class VM implements Warn {
         @Override
         public void execute(BstEntry context) {
 
-            for (int i = 0; i < localTree.getChildCount(); i++) {
-
-                Tree c = localTree.getChild(i);
+            for (int i = 0; i < instructions.length; i++) {
                 try {
-
-                    switch (c.getType()) {
-                    case BstParser.STRING:
-                        String s = c.getText();
-                        push(s.substring(1, s.length() - 1));
-                        break;
-                    case BstParser.INTEGER:
-                        push(Integer.parseInt(c.getText().substring(1)));
-                        break;
-                    case BstParser.QUOTED:
-                        push(new Identifier(c.getText().substring(1)));
-                        break;
-                    case BstParser.STACK:
-                        push(c);
-                        break;
-                    default:
-                        VM.this.execute(c.getText(), context);
-                        break;
-                    }
+                    instructions[i].execute(context);
                 } catch (VMException e) {
                     if (file == null) {
-                        LOGGER.error("ERROR " + e.getMessage() + " (" + c.getLine() + ")");
+                        LOGGER.error("ERROR " + e.getMessage() + " (" + lines[i] + ")");
                     } else {
                         LOGGER.error("ERROR " + e.getMessage() + " (" + file.getPath() + ":"
-                                + c.getLine() + ")");
+                                + lines[i] + ")");
                     }
                     throw e;
                 }
@@ -1126,40 +1272,59 @@ public class VM implements Warn {
         }
     }
 
-
-    private void push(Tree t) {
-        stack.push(t);
+    private BstFunction compile(Tree c) {
+        switch (c.getType()) {
+        case BstParser.STRING:
+            String s = c.getText().substring(1, c.getText().length() - 1);
+            return context -> getStack(context).push(s);
+        case BstParser.INTEGER:
+            int integer = Integer.parseInt(c.getText().substring(1));
+            return context -> getStack(context).push(integer);
+        case BstParser.QUOTED:
+            String name = c.getText().substring(1);
+            Identifier identifier = new Identifier(name, getSymbol(name));
+            return context -> getStack(context).push(identifier);
+        case BstParser.STACK:
+            StackFunction block = new StackFunction(c);
+            return context -> getStack(context).push(block);
+        default:
+            Symbol symbol = getSymbol(c.getText());
+            return context -> execute(symbol, symbol.name, context);
+        }
     }
 
-    private void execute(String name, BstEntry context) {
+    private void execute(Symbol symbol, String name, BstEntry context) {
+        if (symbol == null) {
+            throw new VMException("No matching identifier found: " + name);
+        }
 
         if (context != null) {
 
-            if (context.getFields().containsKey(name)) {
-                stack.push(context.getFields().get(name));
+            if (symbol.field >= 0) {
+                getStack(context).push(context.fields[symbol.field]);
                 return;
             }
-            if (context.localStrings.containsKey(name)) {
-                stack.push(context.localStrings.get(name));
+            if (symbol.localString >= 0) {
+                getStack(context).push(context.localStrings[symbol.localString]);
                 return;
             }
-            if (context.localIntegers.containsKey(name)) {
-                stack.push(context.localIntegers.get(name));
+            if (symbol.localInteger >= 0) {
+                getStack(context).push(context.localIntegers[symbol.localInteger]);
                 return;
             }
         }
-        if (strings.containsKey(name)) {
-            stack.push(strings.get(name));
+        if (symbol.string >= 0) {
+            getStack(context).push(strings[symbol.string]);
             return;
         }
-        if (integers.containsKey(name)) {
-            stack.push(integers.get(name));
+        if (symbol.integer >= 0) {
+            getStack(context).push(integers[symbol.integer]);
             return;
         }
 
-        if (functions.containsKey(name)) {
+        if (symbol.function != null) {
             // OK to have a null context
-            functions.get(name).execute(context);
+            symbol.function.execute(context);
             return;
         }
 
@@ -1169,10 +1334,15 @@ public class VM implements Warn {
     private void function(Tree child) {
         String name = child.getChild(0).getText();
         Tree localStack = child.getChild(1);
-        functions.put(name, new StackFunction(localStack));
+        defineFunction(name, new StackFunction(localStack));
 
     }
 
+    private void defineFunction(String name, BstFunction function) {
+        functions.put(name, function);
+        getSymbol(name).function = function;
+    }
+
     /**
      * Declares global integer variables. It has one argument, a list of
      * variable names. There are two such automatically-declared variables,
@@ -1186,9 +1356,18 @@ public class VM implements Warn {
         Tree t = child.getChild(0);
 
         for (int i = 0; i < t.getChildCount(); i++) {
-            String name = t.getChild(i).getText();
-            integers.put(name, 0);
+            declareInteger(t.getChild(i).getText(), 0);
+        }
+    }
+
+    private void declareInteger(String name, int value) {
+        Symbol symbol = getSymbol(name);
+        if (symbol.integer < 0) {
+            symbol.integer = integerNames.size();
+            integerNames.add(name);
+            integers = Arrays.copyOf(integers, integerNames.size());
         }
+        integers[symbol.integer] = value;
     }
 
     /**
@@ -1202,8 +1381,55 @@ public class VM implements Warn {
         Tree t = child.getChild(0);
 
         for (int i = 0; i < t.getChildCount(); i++) {
-            String name = t.getChild(i).getText();
-            strings.put(name, null);
+            Symbol symbol = getSymbol(t.getChild(i).getText());
+            if (symbol.string < 0) {
+                symbol.string = stringNames.size();
+                stringNames.add(symbol.name);
+                strings = Arrays.copyOf(strings, stringNames.size());
+            }
+            strings[symbol.string] = null;
+        }
+    }
+
+    private Symbol getSymbol(String name) {
+        return symbols.computeIfAbsent(name, Symbol::new);
+    }
+
+    private Symbol getSymbol(Identifier identifier) {
+        if (identifier.symbol == null) {
+            return symbols.get(identifier.getName());
+        }
+        return identifier.symbol;
+    }
+
+
+    /**
+     * What a name stands for, the slots of the variables of that name and the function. Names are resolved to their
+     * symbols once when compiling; declarations and definitions update the symbols.
+     */
+    private static class Symbol {
+
+        private final String name;
+
+        private int field = -1;
+
+        private int localString = -1;
+
+        private int localInteger = -1;
+
+        private int string = -1;
+
+        private int integer = -1;
+
+        private BstFunction function;
+
+
+        Symbol(String name) {
+            this.name = name;
+        }
+
+        boolean isVariable() {
+            return (field >= 0) || (localString >= 0) || (localInteger >= 0) || (string >= 0) || (integer >= 0);
         }
     }
 
@@ -1212,19 +1438,37 @@ public class VM implements Warn {
 
         private final BibEntry entry;
 
-        private final Map<String, String> localStrings = new HashMap<>();
+        // the names of the fields, shared by all entries
+        private final List<String> fieldNames;
 
-        private final Map<String, String> fields = new HashMap<>();
+        private String[] fields = new String[0];
 
-        private final Map<String, Integer> localIntegers = new HashMap<>();
+        private String[] localStrings = new String[0];
+
+        private int[] localIntegers = new int[0];
+
+        // the stack of the entry while ITERATE runs in parallel, null otherwise
+        private BstStack stack;
 
 
         public BstEntry(BibEntry e) {
+            this(e, Collections.emptyList());
+        }
+
+        private BstEntry(BibEntry e, List<String> fieldNames) {
             this.entry = e;
+            this.fieldNames = fieldNames;
         }
 
+        /**
+         * @return a copy of the fields declared by ENTRY and their values
+         */
         public Map<String, String> getFields() {
-            return fields;
+            Map<String, String> result = new LinkedHashMap<>();
+            for (int i = 0; i < fields.length; i++) {
+                result.put(fieldNames.get(i), fields[i]);
+            }
+            return result;
         }
 
         public BibEntry getBibtexEntry() {
@@ -1233,24 +1477,26 @@ public class VM implements Warn {
     }
 
 
-    private void push(Integer integer) {
-        stack.push(integer);
-    }
-
-    private void push(String string) {
-        stack.push(string);
-    }
-
-    private void push(Identifier identifier) {
-        stack.push(identifier);
-    }
-
+    /**
+     * @return a copy of the global string variables and their values
+     */
     public Map<String, String> getStrings() {
-        return strings;
+        Map<String, String> result = new LinkedHashMap<>();
+        for (int i = 0; i < strings.length; i++) {
+            result.put(stringNames.get(i), strings[i]);
+        }
+        return result;
     }
 
+    /**
+     * @return a copy of the global integer variables and their values
+     */
     public Map<String, Integer> getIntegers() {
-        return integers;
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int i = 0; i < integers.length; i++) {
+            result.put(integerNames.get(i), integers[i]);
+        }
+        return result;
     }
 
     public List<BstEntry> getEntries() {
@@ -1261,10 +1507,20 @@ public class VM implements Warn {
         return functions;
     }
 
-    public Stack<Object> getStack() {
+    public BstStack getStack() {
         return stack;
     }
 
+    /**
+     * @return the stack the functions executed for the entry work on
+     */
+    public BstStack getStack(BstEntry context) {
+        if ((context == null) || (context.stack == null)) {
+            return stack;
+        }
+        return context.stack;
+    }
+
     @Override
     public void warn(String string) {
         LOGGER.warn(string);
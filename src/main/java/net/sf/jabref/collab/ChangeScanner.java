@@ -34,7 +34,6 @@ import net.sf.jabref.Globals;
 import net.sf.jabref.JabRefExecutorService;
 import net.sf.jabref.JabRefPreferences;
 import net.sf.jabref.MetaData;
-import net.sf.jabref.bibtex.comparator.EntryComparator;
 import net.sf.jabref.exporter.BibDatabaseWriter;
 import net.sf.jabref.exporter.SaveException;
 import net.sf.jabref.exporter.SavePreferences;
@@ -45,10 +44,8 @@ import net.sf.jabref.importer.OpenDatabaseAction;
 import net.sf.jabref.importer.ParserResult;
 import net.sf.jabref.logic.groups.GroupTreeNode;
 import net.sf.jabref.logic.l10n.Localization;
-import net.sf.jabref.model.DuplicateCheck;
 import net.sf.jabref.model.database.BibDatabase;
 import net.sf.jabref.model.database.BibDatabaseMode;
-import net.sf.jabref.model.database.EntrySorter;
 import net.sf.jabref.model.entry.BibEntry;
 import net.sf.jabref.model.entry.BibtexString;
 
@@ -57,8 +54,6 @@ import org.apache.commons.logging.LogFactory;
 
 public class ChangeScanner implements Runnable {
 
-    private static final String[] SORT_BY = new String[] {"year", "author", "title"};
-
     private final File f;
 
     private final BibDatabase inMem;
@@ -71,8 +66,6 @@ public class ChangeScanner implements Runnable {
 
     private static final Log LOGGER = LogFactory.getLog(ChangeScanner.class);
 
-    private static final double MATCH_THRESHOLD = 0.4;
-
     /**
      * We create an ArrayList to hold the changes we find. These will be added in the form
      * of UndoEdit objects. We instantiate these so that the changes found in the file on disk
@@ -104,26 +97,12 @@ public class ChangeScanner implements Runnable {
             BibDatabase onDisk = pr.getDatabase();
             MetaData mdOnDisk = pr.getMetaData();
 
-            // Sort both databases according to a common sort key.
-            EntryComparator comp = new EntryComparator(false, true, SORT_BY[2]);
-            comp = new EntryComparator(false, true, SORT_BY[1], comp);
-            comp = new EntryComparator(false, true, SORT_BY[0], comp);
-            EntrySorter sInTemp = inTemp.getSorter(comp);
-            comp = new EntryComparator(false, true, SORT_BY[2]);
-            comp = new EntryComparator(false, true, SORT_BY[1], comp);
-            comp = new EntryComparator(false, true, SORT_BY[0], comp);
-            EntrySorter sOnDisk = onDisk.getSorter(comp);
-            comp = new EntryComparator(false, true, SORT_BY[2]);
-            comp = new EntryComparator(false, true, SORT_BY[1], comp);
-            comp = new EntryComparator(false, true, SORT_BY[0], comp);
-            EntrySorter sInMem = inMem.getSorter(comp);
-
             // Start looking at changes.
             scanMetaData(mdInMem, mdInTemp, mdOnDisk);
             scanPreamble(inMem, inTemp, onDisk);
             scanStrings(inMem, inTemp, onDisk);
 
-            scanEntries(sInMem, sInTemp, sOnDisk);
+            scanEntries(new ArrayList<>(inMem.getEntries()), inTemp.getEntries(), onDisk.getEntries());
 
             scanGroups(mdInTemp, mdOnDisk);
 
@@ -206,149 +185,17 @@ public class ChangeScanner implements Runnable {
         }
     }
 
-    private void scanEntries(EntrySorter mem, EntrySorter tmp, EntrySorter disk) {
-
-        // Create pointers that are incremented as the entries of each base are used in
-        // successive order from the beginning. Entries "further down" in the "disk" base
-        // can also be matched.
-        int piv1;
-        int piv2 = 0;
-
-        // Create a HashSet where we can put references to entry numbers in the "disk"
-        // database that we have matched. This is to avoid matching them twice.
-        Set<String> used = new HashSet<>(disk.getEntryCount());
-        Set<Integer> notMatched = new HashSet<>(tmp.getEntryCount());
-
-        // Loop through the entries of the "tmp" database, looking for exact matches in the "disk" one.
-        // We must finish scanning for exact matches before looking for near matches, to avoid an exact
-        // match being "stolen" from another entry.
-        mainLoop:
-        for (piv1 = 0; piv1 < tmp.getEntryCount(); piv1++) {
-
-            // First check if the similarly placed entry in the other base matches exactly.
-            double comp = -1;
-            // (if there are not any entries left in the "disk" database, comp will stay at -1,
-            // and this entry will be marked as nonmatched).
-            if (!used.contains(String.valueOf(piv2)) && (piv2 < disk.getEntryCount())) {
-                comp = DuplicateCheck.compareEntriesStrictly(tmp.getEntryAt(piv1), disk.getEntryAt(piv2));
-            }
-            if (comp > 1) {
-                used.add(String.valueOf(piv2));
-                piv2++;
-                continue;
-            }
-
-            // No? Then check if another entry matches exactly.
-            if (piv2 < (disk.getEntryCount() - 1)) {
-                for (int i = piv2 + 1; i < disk.getEntryCount(); i++) {
-                    if (used.contains(String.valueOf(i))) {
-                        comp = -1;
-                    } else {
-                        comp = DuplicateCheck.compareEntriesStrictly(tmp.getEntryAt(piv1), disk.getEntryAt(i));
-                    }
-
-                    if (comp > 1) {
-                        used.add(String.valueOf(i));
-                        continue mainLoop;
-                    }
-                }
-            }
-
-            // No? Add this entry to the list of nonmatched entries.
-            notMatched.add(piv1);
+    private void scanEntries(List<BibEntry> mem, List<BibEntry> tmp, List<BibEntry> disk) {
+        EntryDiff diff = new EntryDiff(mem, tmp, disk);
+        for (BibEntry[] modified : diff.getModifiedEntries()) {
+            changes.add(new EntryChange(modified[0], modified[1], modified[2]));
         }
-
-        // Now we've found all exact matches, look through the remaining entries, looking
-        // for close matches.
-        if (!notMatched.isEmpty()) {
-
-            for (Iterator<Integer> it = notMatched.iterator(); it.hasNext(); ) {
-
-                piv1 = it.next();
-
-                // These two variables will keep track of which entry most closely matches the
-                // one we're looking at, in case none matches completely.
-                int bestMatchI = -1;
-                double bestMatch = 0;
-                double comp;
-
-                if (piv2 < (disk.getEntryCount() - 1)) {
-                    for (int i = piv2; i < disk.getEntryCount(); i++) {
-                        if (used.contains(String.valueOf(i))) {
-                            comp = -1;
-                        } else {
-                            comp = DuplicateCheck.compareEntriesStrictly(tmp.getEntryAt(piv1), disk.getEntryAt(i));
-                        }
-
-                        if (comp > bestMatch) {
-                            bestMatch = comp;
-                            bestMatchI = i;
-                        }
-                    }
-                }
-
-                if (bestMatch > MATCH_THRESHOLD) {
-                    used.add(String.valueOf(bestMatchI));
-                    it.remove();
-
-                    EntryChange ec = new EntryChange(bestFit(tmp, mem, piv1), tmp.getEntryAt(piv1),
-                            disk.getEntryAt(bestMatchI));
-                    changes.add(ec);
-                } else {
-                    EntryDeleteChange ec = new EntryDeleteChange(bestFit(tmp, mem, piv1), tmp.getEntryAt(piv1));
-                    changes.add(ec);
-                }
-
-            }
-
+        for (BibEntry[] removed : diff.getRemovedEntries()) {
+            changes.add(new EntryDeleteChange(removed[0], removed[1]));
         }
-
-        // Finally, look if there are still untouched entries in the disk database. These
-        // may have been added.
-        if (used.size() < disk.getEntryCount()) {
-            for (int i = 0; i < disk.getEntryCount(); i++) {
-                if (!used.contains(String.valueOf(i))) {
-
-                    // See if there is an identical dupe in the mem database:
-                    boolean hasAlready = false;
-                    for (int j = 0; j < mem.getEntryCount(); j++) {
-                        if (DuplicateCheck.compareEntriesStrictly(mem.getEntryAt(j), disk.getEntryAt(i)) >= 1) {
-                            hasAlready = true;
-                            break;
-                        }
-                    }
-                    if (!hasAlready) {
-                        EntryAddChange ec = new EntryAddChange(disk.getEntryAt(i));
-                        changes.add(ec);
-                    }
-                }
-            }
-        }
-    }
-
-    /**
-     * Finds the entry in neu best fitting the specified entry in old. If no entries get a score
-     * above zero, an entry is still returned.
-     *
-     * @param old   EntrySorter
-     * @param neu   EntrySorter
-     * @param index int
-     * @return BibEntry
-     */
-    private static BibEntry bestFit(EntrySorter old, EntrySorter neu, int index) {
-        double comp = -1;
-        int found = 0;
-        for (int i = 0; i < neu.getEntryCount(); i++) {
-            double res = DuplicateCheck.compareEntriesStrictly(old.getEntryAt(index), neu.getEntryAt(i));
-            if (res > comp) {
-                comp = res;
-                found = i;
-            }
-            if (comp > 1) {
-                break;
-            }
+        for (BibEntry added : diff.getAddedEntries()) {
+            changes.add(new EntryAddChange(added));
         }
-        return neu.getEntryAt(found);
     }
 
     private void scanPreamble(BibDatabase inMem1, BibDatabase onTmp, BibDatabase onDisk) {
@@ -0,0 +1,178 @@
+package net.sf.jabref.collab;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.sf.jabref.bibtex.comparator.EntryComparator;
+import net.sf.jabref.model.DuplicateCheck;
+import net.sf.jabref.model.entry.BibEntry;
+
+/**
+ * Three-way comparison of the entries in memory, the entries of the temporary file written when the database was
+ * last loaded or saved, and the entries of the file on disk.
+ * <p>
+ * Entries of the temporary file and the file on disk having exactly the same fields, i.e., being equal as per
+ * {@link DuplicateCheck#compareEntriesStrictly(BibEntry, BibEntry)}, are paired by hashing their fields. Only the
+ * remaining entries are compared with each other: each one of the temporary file is paired with the most similar
+ * remaining one on disk, preferring those with the same BibTeX key. Unpaired entries of the temporary file have been
+ * removed on disk, unpaired entries on disk have been added unless the same entry already exists in memory.
+ */
+public class EntryDiff {
+
+    private static final double MATCH_THRESHOLD = 0.4;
+
+    private final List<BibEntry> memEntries;
+    // BibEntry implements equals and hashCode including its type, which is ignored when comparing strictly
+    private final Map<Map<String, String>, BibEntry> memEntriesByFields = new HashMap<>();
+
+    private final List<BibEntry[]> modifiedEntries = new ArrayList<>();
+    private final List<BibEntry[]> removedEntries = new ArrayList<>();
+    private final List<BibEntry> addedEntries = new ArrayList<>();
+
+
+    /**
+     * @param memEntries  a snapshot of the entries in memory
+     * @param tmpEntries  the entries of the temporary file
+     * @param diskEntries the entries of the file on disk
+     */
+    public EntryDiff(List<BibEntry> memEntries, List<BibEntry> tmpEntries, List<BibEntry> diskEntries) {
+        this.memEntries = memEntries;
+        for (BibEntry entry : memEntries) {
+            memEntriesByFields.putIfAbsent(new HashMap<>(entry.getFieldMap()), entry);
+        }
+
+        Map<Map<String, String>, Deque<BibEntry>> diskEntriesByFields = new HashMap<>();
+        for (BibEntry entry : diskEntries) {
+            diskEntriesByFields.computeIfAbsent(entry.getFieldMap(), fields -> new ArrayDeque<>()).add(entry);
+        }
+
+        List<BibEntry> unmatchedTmpEntries = new ArrayList<>();
+        Set<BibEntry> matchedDiskEntries = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (BibEntry entry : tmpEntries) {
+            Deque<BibEntry> sameFields = diskEntriesByFields.get(entry.getFieldMap());
+            if ((sameFields == null) || sameFields.isEmpty()) {
+                unmatchedTmpEntries.add(entry);
+            } else {
+                matchedDiskEntries.add(sameFields.poll());
+            }
+        }
+
+        List<BibEntry> unmatchedDiskEntries = new ArrayList<>();
+        for (BibEntry entry : diskEntries) {
+            if (!matchedDiskEntries.contains(entry)) {
+                unmatchedDiskEntries.add(entry);
+            }
+        }
+
+        // report the changes ordered by year, author and title
+        Comparator<BibEntry> sortOrder = new EntryComparator(false, true, "year",
+                new EntryComparator(false, true, "author", new EntryComparator(false, true, "title")));
+        Collections.sort(unmatchedTmpEntries, sortOrder);
+        Collections.sort(unmatchedDiskEntries, sortOrder);
+        matchRemaining(unmatchedTmpEntries, unmatchedDiskEntries);
+    }
+
+    private void matchRemaining(List<BibEntry> unmatchedTmpEntries, List<BibEntry> unmatchedDiskEntries) {
+        Set<BibEntry> used = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<String, List<BibEntry>> diskEntriesByKey = new HashMap<>();
+        for (BibEntry entry : unmatchedDiskEntries) {
+            if (entry.hasCiteKey()) {
+                diskEntriesByKey.computeIfAbsent(entry.getCiteKey(), key -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        for (BibEntry tmpEntry : unmatchedTmpEntries) {
+            BibEntry bestMatch = null;
+            if (tmpEntry.hasCiteKey()) {
+                bestMatch = findBestMatch(tmpEntry,
+                        diskEntriesByKey.getOrDefault(tmpEntry.getCiteKey(), Collections.emptyList()), used);
+            }
+            if (bestMatch == null) {
+                bestMatch = findBestMatch(tmpEntry, unmatchedDiskEntries, used);
+            }
+
+            if (bestMatch == null) {
+                removedEntries.add(new BibEntry[] {findInMemory(tmpEntry), tmpEntry});
+            } else {
+                used.add(bestMatch);
+                modifiedEntries.add(new BibEntry[] {findInMemory(tmpEntry), tmpEntry, bestMatch});
+            }
+        }
+
+        for (BibEntry diskEntry : unmatchedDiskEntries) {
+            if (!used.contains(diskEntry) && !memEntriesByFields.containsKey(diskEntry.getFieldMap())) {
+                addedEntries.add(diskEntry);
+            }
+        }
+    }
+
+    /**
+     * @return the first of the unused candidates being most similar to the entry, null if none is similar enough
+     */
+    private static BibEntry findBestMatch(BibEntry entry, List<BibEntry> candidates, Set<BibEntry> used) {
+        BibEntry bestMatch = null;
+        double bestScore = MATCH_THRESHOLD;
+        for (BibEntry candidate : candidates) {
+            if (!used.contains(candidate)) {
+                double score = DuplicateCheck.compareEntriesStrictly(entry, candidate);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestMatch = candidate;
+                }
+            }
+        }
+        return bestMatch;
+    }
+
+    /**
+     * Finds the entry in memory best fitting the given entry. If no entry gets a score above zero, an entry is still
+     * returned.
+     */
+    private BibEntry findInMemory(BibEntry entry) {
+        BibEntry sameFields = memEntriesByFields.get(entry.getFieldMap());
+        if (sameFields != null) {
+            return sameFields;
+        }
+
+        BibEntry bestFit = null;
+        double bestScore = -1;
+        for (BibEntry memEntry : memEntries) {
+            double score = DuplicateCheck.compareEntriesStrictly(entry, memEntry);
+            if (score > bestScore) {
+                bestScore = score;
+                bestFit = memEntry;
+            }
+        }
+        return bestFit;
+    }
+
+    /**
+     * @return the entries changed on disk, each as an array of the entry in memory, in the temporary file, and on
+     * disk
+     */
+    public List<BibEntry[]> getModifiedEntries() {
+        return modifiedEntries;
+    }
+
+    /**
+     * @return the entries removed on disk, each as an array of the entry in memory and in the temporary file
+     */
+    public List<BibEntry[]> getRemovedEntries() {
+        return removedEntries;
+    }
+
+    /**
+     * @return the entries added on disk which do not exist in memory
+     */
+    public List<BibEntry> getAddedEntries() {
+        return addedEntries;
+    }
+}
@@ -17,8 +17,22 @@ package net.sf.jabref.collab;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import net.sf.jabref.logic.util.io.FileUtil;
 
@@ -27,37 +41,92 @@ import org.apache.commons.logging.LogFactory;
 
 /**
  * This thread monitors a set of files, each associated with a FileUpdateListener, for changes
- * in the file's last modification time stamp. The
+ * in the file's last modification time stamp or size.
+ * <p>
+ * The parent directory of each file is registered once with a {@link WatchService}, so the monitor waits for events
+ * of the file system instead of polling. As saving a file often results in several events, the file is only checked
+ * when no further event arrived for {@link #DEBOUNCE} milliseconds. Files in directories which cannot be watched, or
+ * all files if the file system does not offer a watch service, are polled every {@link #WAIT} milliseconds.
+ * <p>
+ * Listeners are notified one after the other on a single checker thread.
  */
 public class FileUpdateMonitor implements Runnable {
 
     private static final Log LOGGER = LogFactory.getLog(FileUpdateMonitor.class);
 
     private static final int WAIT = 4000;
+    private static final int DEBOUNCE = 100;
 
-    private int numberOfUpdateListener;
-    private final Map<String, Entry> entries = new HashMap<>();
+    private final AtomicInteger numberOfUpdateListener = new AtomicInteger();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /** The watch key of each watched directory. Access is synchronized on the map. */
+    private final Map<Path, WatchKey> watchedDirectories = new HashMap<>();
+    private final WatchService watcher;
+    private final long pollingInterval;
+    private final ScheduledExecutorService checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "JabRef - FileUpdateMonitor checker");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledFuture<?> polling;
+
+
+    public FileUpdateMonitor() {
+        this(createWatchService(), WAIT);
+    }
+
+    /**
+     * @param watcher maybenull The watch service used to watch the directories. If null, all files are polled.
+     * @param pollingInterval the interval in milliseconds for polling files which cannot be watched
+     */
+    FileUpdateMonitor(WatchService watcher, long pollingInterval) {
+        this.watcher = watcher;
+        this.pollingInterval = pollingInterval;
+    }
+
+    private static WatchService createWatchService() {
+        try {
+            return FileSystems.getDefault().newWatchService();
+        } catch (IOException | UnsupportedOperationException e) {
+            LOGGER.info("Cannot watch the file system, polling for file changes instead", e);
+            return null;
+        }
+    }
 
     @Override
     public void run() {
-        // The running variable is used to make the thread stop when needed.
-        while (true) {
-            for(Entry e : entries.values()) {
-                try {
-                    if (e.hasBeenUpdated()) {
-                        e.notifyListener();
+        if (watcher == null) {
+            return;
+        }
+        try {
+            while (true) {
+                // Blocks until there is an event, so an idle monitor costs nothing.
+                WatchKey key = watcher.take();
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // Events got lost, so check every file in the directory
+                        entries.values().stream().filter(entry -> entry.isIn(directory))
+                                .forEach(entry -> scheduleCheck(entry, DEBOUNCE));
+                    } else {
+                        Path changed = directory.resolve((Path) event.context());
+                        entries.values().stream().filter(entry -> entry.getPath().equals(changed))
+                                .forEach(entry -> scheduleCheck(entry, DEBOUNCE));
                     }
-                } catch (IOException ex) {
-                    e.notifyFileRemoved();
+                }
+                if (!key.reset()) {
+                    directoryNoLongerWatched(directory);
                 }
             }
-
-            // Sleep for a while before starting a new polling round.
+        } catch (InterruptedException | ClosedWatchServiceException ex) {
+            LOGGER.debug("FileUpdateMonitor has been interrupted. Terminating...", ex);
+        } finally {
+            checker.shutdownNow();
             try {
-                Thread.sleep(WAIT);
-            } catch (InterruptedException ex) {
-                LOGGER.debug("FileUpdateMonitor has been interrupted. Terminating...", ex);
-                return;
+                watcher.close();
+            } catch (IOException ex) {
+                LOGGER.debug("Could not close watch service", ex);
             }
         }
     }
@@ -72,9 +141,10 @@ public class FileUpdateMonitor implements Runnable {
         if (!file.exists()) {
             throw new IOException("File not found");
         }
-        numberOfUpdateListener++;
-        String key = String.valueOf(numberOfUpdateListener);
-        entries.put(key, new Entry(ul, file));
+        String key = String.valueOf(numberOfUpdateListener.incrementAndGet());
+        Entry entry = new Entry(ul, file);
+        entries.put(key, entry);
+        watch(entry);
         return key;
     }
 
@@ -83,12 +153,12 @@ public class FileUpdateMonitor implements Runnable {
      * force a report to all listeners before the next routine check.
      */
     public boolean hasBeenModified(String handle) {
-        Object o = entries.get(handle);
-        if (o == null) {
+        Entry entry = entries.get(handle);
+        if (entry == null) {
             return false;
         }
         try {
-            return ((Entry) o).hasBeenUpdated();
+            return entry.hasBeenUpdated();
         } catch (IOException ex) {
             // Thrown if file has been removed. We return false.
             return false;
@@ -99,15 +169,17 @@ public class FileUpdateMonitor implements Runnable {
      * Change the stored timestamp for the given file. If the timestamp equals
      * the file's timestamp on disk, after this call the file will appear to
      * have been modified. Used if a file has been modified, and the change
-     * scan fails, in order to ensure successive checks.
+     * scan fails, in order to ensure successive checks. As no further event may arrive
+     * for the file, it is checked again after a while.
      * @param handle the handle to the correct file.
      */
     public void perturbTimestamp(String handle) {
-        Object o = entries.get(handle);
-        if (o == null) {
+        Entry entry = entries.get(handle);
+        if (entry == null) {
             return;
         }
-        ((Entry) o).decreaseTimeStamp();
+        entry.decreaseTimeStamp();
+        scheduleCheck(entry, pollingInterval);
     }
 
     /**
@@ -115,13 +187,16 @@ public class FileUpdateMonitor implements Runnable {
      * @param handle String The handle for the listener to remove.
      */
     public void removeUpdateListener(String handle) {
-        entries.remove(handle);
+        Entry entry = entries.remove(handle);
+        if (entry != null) {
+            entry.cancelCheck();
+            unwatch(entry);
+        }
     }
 
     public void updateTimeStamp(String key) {
-        Object o = entries.get(key);
-        if (o != null) {
-            Entry entry = (Entry) o;
+        Entry entry = entries.get(key);
+        if (entry != null) {
             entry.updateTimeStamp();
         }
     }
@@ -134,11 +209,102 @@ public class FileUpdateMonitor implements Runnable {
      * @return File The temporary file.
      */
     public File getTempFile(String key) throws IllegalArgumentException {
-        Object o = entries.get(key);
-        if (o == null) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
             throw new IllegalArgumentException("Entry not found");
         }
-        return ((Entry) o).getTmpFile();
+        return entry.getTmpFile();
+    }
+
+    /**
+     * Registers the directory of the entry with the watch service, unless it is already watched. Falls back to
+     * polling the entry if the directory cannot be watched.
+     */
+    private void watch(Entry entry) {
+        Path directory = entry.getPath().getParent();
+        if ((watcher != null) && (directory != null)) {
+            synchronized (watchedDirectories) {
+                if (watchedDirectories.containsKey(directory)) {
+                    return;
+                }
+                try {
+                    watchedDirectories.put(directory,
+                            directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE));
+                    return;
+                } catch (IOException | UnsupportedOperationException | ClosedWatchServiceException e) {
+                    LOGGER.info("Cannot watch '" + directory + "', polling for changes instead", e);
+                }
+            }
+        }
+        entry.setPolled();
+        startPolling();
+    }
+
+    /**
+     * Stops watching the directory of the entry if no other monitored file is in there.
+     */
+    private void unwatch(Entry entry) {
+        Path directory = entry.getPath().getParent();
+        synchronized (watchedDirectories) {
+            if (entries.values().stream().anyMatch(other -> other.isIn(directory))) {
+                return;
+            }
+            WatchKey key = watchedDirectories.remove(directory);
+            if (key != null) {
+                key.cancel();
+            }
+        }
+    }
+
+    /**
+     * Called if the directory cannot be watched anymore, for instance because it has been removed.
+     */
+    private void directoryNoLongerWatched(Path directory) {
+        synchronized (watchedDirectories) {
+            watchedDirectories.remove(directory);
+        }
+        entries.values().stream().filter(entry -> entry.isIn(directory)).forEach(entry -> {
+            entry.setPolled();
+            scheduleCheck(entry, 0);
+        });
+        startPolling();
+    }
+
+    private synchronized void startPolling() {
+        if ((polling == null) && !checker.isShutdown()) {
+            polling = checker.scheduleWithFixedDelay(
+                    () -> entries.values().stream().filter(Entry::isPolled).forEach(this::check), pollingInterval,
+                    pollingInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Checks the entry after the delay. A check already scheduled for the entry is replaced, so that a burst of
+     * events results in a single check after the last event.
+     */
+    private void scheduleCheck(Entry entry, long delay) {
+        if (checker.isShutdown()) {
+            return;
+        }
+        entry.scheduleCheck(() -> checker.schedule(() -> check(entry), delay, TimeUnit.MILLISECONDS));
+    }
+
+    private void check(Entry entry) {
+        if (!entries.containsValue(entry)) {
+            // Removed in the meantime
+            return;
+        }
+        try {
+            if (entry.hasBeenUpdated()) {
+                entry.notifyListener();
+            }
+        } catch (IOException ex) {
+            entry.notifyFileRemoved();
+        } catch (RuntimeException ex) {
+            // Keep the checker thread alive for the other files
+            LOGGER.warn("Problem while handling an update of '" + entry.getPath() + '\'', ex);
+        }
     }
 
 
@@ -149,14 +315,18 @@ public class FileUpdateMonitor implements Runnable {
 
         private final FileUpdateListener listener;
         private final File file;
+        private final Path path;
         private final File tmpFile;
         private long timeStamp;
         private long fileSize;
+        private volatile boolean polled;
+        private ScheduledFuture<?> pendingCheck;
 
 
         public Entry(FileUpdateListener ul, File f) {
             listener = ul;
             file = f;
+            path = f.toPath().toAbsolutePath().normalize();
             timeStamp = file.lastModified();
             fileSize = file.length();
             tmpFile = FileUpdateMonitor.getTempFile();
@@ -171,7 +341,7 @@ public class FileUpdateMonitor implements Runnable {
          * @throws IOException if the file does no longer exist.
          * @return boolean true if the file has changed.
          */
-        public boolean hasBeenUpdated() throws IOException {
+        public synchronized boolean hasBeenUpdated() throws IOException {
             long modified = file.lastModified();
             if (modified == 0L) {
                 throw new IOException("File deleted");
@@ -180,7 +350,7 @@ public class FileUpdateMonitor implements Runnable {
             return (timeStamp != modified) || (fileSize != fileSizeNow);
         }
 
-        public void updateTimeStamp() {
+        public synchronized void updateTimeStamp() {
             timeStamp = file.lastModified();
             if (timeStamp == 0L) {
                 notifyFileRemoved();
@@ -206,8 +376,10 @@ public class FileUpdateMonitor implements Runnable {
          */
         public void notifyListener() {
             // Update time stamp.
-            timeStamp = file.lastModified();
-            fileSize = file.length();
+            synchronized (this) {
+                timeStamp = file.lastModified();
+                fileSize = file.length();
+            }
             listener.fileUpdated();
         }
 
@@ -222,9 +394,40 @@ public class FileUpdateMonitor implements Runnable {
             return tmpFile;
         }
 
-        public void decreaseTimeStamp() {
+        public synchronized void decreaseTimeStamp() {
             timeStamp--;
         }
+
+        /**
+         * @return the absolute, normalized path of the file
+         */
+        public Path getPath() {
+            return path;
+        }
+
+        public boolean isIn(Path directory) {
+            return directory.equals(path.getParent());
+        }
+
+        public boolean isPolled() {
+            return polled;
+        }
+
+        public void setPolled() {
+            polled = true;
+        }
+
+        private synchronized void scheduleCheck(Supplier<ScheduledFuture<?>> schedule) {
+            cancelCheck();
+            pendingCheck = schedule.get();
+        }
+
+        private synchronized void cancelCheck() {
+            if (pendingCheck != null) {
+                pendingCheck.cancel(false);
+                pendingCheck = null;
+            }
+        }
     }
 
 
@@ -16,25 +16,35 @@
 package net.sf.jabref.exporter;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.Reader;
-import java.net.URL;
+import java.io.Writer;
 import java.nio.charset.Charset;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.swing.filechooser.FileFilter;
 
 import net.sf.jabref.BibDatabaseContext;
 import net.sf.jabref.Globals;
+import net.sf.jabref.logic.journals.JournalAbbreviationRepository;
 import net.sf.jabref.logic.layout.Layout;
 import net.sf.jabref.logic.layout.LayoutHelper;
+import net.sf.jabref.logic.layout.StringInt;
+import net.sf.jabref.model.database.BibDatabase;
 import net.sf.jabref.model.entry.BibEntry;
 
 import org.apache.commons.logging.Log;
@@ -56,6 +66,8 @@ public class ExportFormat implements IExportFormat {
     private FileFilter fileFilter;
     private boolean customExport;
     private static final String LAYOUT_PREFIX = "/resource/layout/";
+    private static final LayoutCache LAYOUT_CACHE = new LayoutCache();
+    private static final int ENTRIES_PER_TASK = 256;
 
     private static final Log LOGGER = LogFactory.getLog(ExportFormat.class);
 
@@ -122,51 +134,27 @@ public class ExportFormat implements IExportFormat {
     }
 
     /**
-     * This method should return a reader from which the given layout file can
-     * be read.
-     * <p>
-     * <p>
-     * Subclasses of ExportFormat are free to override and provide their own
-     * implementation.
-     *
-     * @param filename the filename
-     * @return a newly created reader
-     * @throws IOException if the reader could not be created
+     * Returns the path of the given layout file, to be looked up in the class path for a built-in export and as a
+     * normal file for a custom export.
      */
-    private Reader getReader(String filename) throws IOException {
+    private String getLayoutPath(String filename) {
         // If this is a custom export, just use the given filename:
-        String dir;
         if (customExport) {
-            dir = "";
-        } else {
-            dir = LAYOUT_PREFIX + (directory == null ? "" : directory + '/');
-        }
-
-        // Attempt to get a Reader for the file path given, either by
-        // loading it as a resource (from within jar), or as a normal file. If
-        // unsuccessful (e.g. file not found), an IOException is thrown.
-        String name = dir + filename;
-        Reader reader;
-        // Try loading as a resource first. This works for files inside the jar:
-        URL reso = Globals.class.getResource(name);
-
-        // If that didn't work, try loading as a normal file URL:
-        try {
-            if (reso == null) {
-                File f = new File(name);
-                reader = new FileReader(f);
-            } else {
-                reader = new InputStreamReader(reso.openStream());
-            }
-        } catch (FileNotFoundException ex) {
-            throw new IOException("Cannot find layout file: '" + name + "'.");
+            return filename;
         }
+        return LAYOUT_PREFIX + (directory == null ? "" : directory + '/') + filename;
+    }
 
-        return reader;
+    private Optional<List<StringInt>> getParsedLayout(String filename) throws IOException {
+        return LAYOUT_CACHE.getParsedLayout(getLayoutPath(filename), Globals.journalAbbreviationLoader.getRepository());
     }
 
     /**
      * Perform the export of {@code database}.
+     * <p>
+     * The layout files are parsed once and kept as long as they are not modified. The entries are laid out in
+     * parallel in chunks, each thread using layouts of its own, and written in the sort order. Layouts containing
+     * group blocks, whose output depends on the previous entries, are applied to one entry after the other.
      *
      * @param databaseContext the database to export from.
      * @param file       the file to write the resulting export to
@@ -201,8 +189,7 @@ public class ExportFormat implements IExportFormat {
         }
 
         try (VerifyingWriter ps = ss.getWriter()) {
-
-            Layout beginLayout = null;
+            JournalAbbreviationRepository repository = Globals.journalAbbreviationLoader.getRepository();
 
             // Check if this export filter has bundled name formatters:
             // Set a global field, so all layouts have access to the custom name formatters:
@@ -211,17 +198,12 @@ public class ExportFormat implements IExportFormat {
             List<String> missingFormatters = new ArrayList<>(1);
 
             // Print header
-            try (Reader reader = getReader(lfFileName + ".begin.layout")) {
-                LayoutHelper layoutHelper = new LayoutHelper(reader, Globals.journalAbbreviationLoader.getRepository());
-                beginLayout = layoutHelper.getLayoutFromText();
-            } catch (IOException ex) {
-                // If an exception was cast, export filter doesn't have a begin
-                // file.
-            }
-            // Write the header
-            if (beginLayout != null) {
-                ps.write(beginLayout.doLayout(databaseContext, encoding));
-                missingFormatters.addAll(beginLayout.getMissingFormatters());
+            // If there is no begin file, the export filter doesn't have a header.
+            Optional<List<StringInt>> beginLayout = getParsedLayout(lfFileName + ".begin.layout");
+            if (beginLayout.isPresent()) {
+                Layout layout = new Layout(beginLayout.get(), repository);
+                ps.write(layout.doLayout(databaseContext, encoding));
+                missingFormatters.addAll(layout.getMissingFormatters());
             }
 
             /*
@@ -235,66 +217,43 @@ public class ExportFormat implements IExportFormat {
             List<BibEntry> sorted = BibDatabaseWriter.getSortedEntries(databaseContext, entries, savePrefs);
 
             // Load default layout
-            Layout defLayout;
-            LayoutHelper layoutHelper;
-            try (Reader reader = getReader(lfFileName + ".layout")) {
-                layoutHelper = new LayoutHelper(reader, Globals.journalAbbreviationLoader.getRepository());
-                defLayout = layoutHelper.getLayoutFromText();
+            List<StringInt> defLayout = getParsedLayout(lfFileName + ".layout").orElseThrow(
+                    () -> new IOException("Cannot find layout file: '" + getLayoutPath(lfFileName + ".layout") + "'."));
+            missingFormatters.addAll(new Layout(defLayout, repository).getMissingFormatters());
+            if (!missingFormatters.isEmpty()) {
+                LOGGER.warn(missingFormatters);
             }
-            if (defLayout != null) {
-                missingFormatters.addAll(defLayout.getMissingFormatters());
-                if (!missingFormatters.isEmpty()) {
-                    LOGGER.warn(missingFormatters);
+
+            // We try to get a type-specific layout for each entry type, if there is none we go with the default one.
+            Map<String, List<StringInt>> typeLayouts = new HashMap<>();
+            for (String type : sorted.stream().map(BibEntry::getType).collect(Collectors.toSet())) {
+                Optional<List<StringInt>> typeLayout = getParsedLayout(lfFileName + '.' + type + ".layout");
+                if (typeLayout.isPresent()) {
+                    typeLayouts.put(type, typeLayout.get());
                 }
             }
-            Map<String, Layout> layouts = new HashMap<>();
-            Layout layout;
-
-            ExportFormats.entryNumber = 0;
-            for (BibEntry entry : sorted) {
-                ExportFormats.entryNumber++; // Increment entry counter.
-                // Get the layout
-                String type = entry.getType();
-                if (layouts.containsKey(type)) {
-                    layout = layouts.get(type);
-                } else {
-                    try (Reader reader = getReader(lfFileName + '.' + type + ".layout")) {
-                        // We try to get a type-specific layout for this entry.
-                        layoutHelper = new LayoutHelper(reader, Globals.journalAbbreviationLoader.getRepository());
-                        layout = layoutHelper.getLayoutFromText();
-                        layouts.put(type, layout);
-                        if (layout != null) {
-                            missingFormatters.addAll(layout.getMissingFormatters());
-                        }
-
-                    } catch (IOException ex) {
-                        // The exception indicates that no type-specific layout
-                        // exists, so we
-                        // go with the default one.
-                        layout = defLayout;
-                    }
-                }
+            EntryLayouts layouts = new EntryLayouts(defLayout, typeLayouts, repository);
+            for (String type : typeLayouts.keySet()) {
+                missingFormatters.addAll(layouts.get(type).getMissingFormatters());
+            }
 
-                // Write the entry
-                ps.write(layout.doLayout(entry, databaseContext.getDatabase()));
+            if (layouts.containGroups() || (sorted.size() <= ENTRIES_PER_TASK)) {
+                writeEntriesOneByOne(ps, sorted, databaseContext.getDatabase(), layouts);
+            } else {
+                writeEntriesInParallel(ps, sorted, databaseContext.getDatabase(), layouts);
             }
 
             // Print footer
 
             // changed section - begin (arudert)
-            Layout endLayout = null;
-            try (Reader reader = getReader(lfFileName + ".end.layout")) {
-                layoutHelper = new LayoutHelper(reader, Globals.journalAbbreviationLoader.getRepository());
-                endLayout = layoutHelper.getLayoutFromText();
-            } catch (IOException ex) {
-                // If an exception was thrown, export filter doesn't have an end
-                // file.
-            }
+            // If there is no end file, the export filter doesn't have a footer.
+            Optional<List<StringInt>> endLayout = getParsedLayout(lfFileName + ".end.layout");
 
             // Write footer
-            if ((endLayout != null) && (this.encoding != null)) {
-                ps.write(endLayout.doLayout(databaseContext, this.encoding));
-                missingFormatters.addAll(endLayout.getMissingFormatters());
+            if (endLayout.isPresent() && (this.encoding != null)) {
+                Layout layout = new Layout(endLayout.get(), repository);
+                ps.write(layout.doLayout(databaseContext, this.encoding));
+                missingFormatters.addAll(layout.getMissingFormatters());
             }
 
             // Clear custom name formatters:
@@ -310,6 +269,102 @@ public class ExportFormat implements IExportFormat {
 
     }
 
+    private static void writeEntriesOneByOne(Writer writer, List<BibEntry> entries, BibDatabase database,
+            EntryLayouts layouts) throws IOException {
+        LayoutHelper.setCurrentGroup(null);
+        int entryNumber = 0;
+        for (BibEntry entry : entries) {
+            entryNumber++;
+            writer.write(layOutEntry(entry, entryNumber, database, layouts));
+        }
+    }
+
+    /**
+     * Lays out chunks of entries in parallel and writes each chunk as soon as it and all chunks before are laid
+     * out. At most two chunks per thread are kept in memory.
+     */
+    private static void writeEntriesInParallel(Writer writer, List<BibEntry> entries, BibDatabase database,
+            EntryLayouts layouts) throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Deque<Future<String>> pending = new ArrayDeque<>();
+            for (int start = 0; start < entries.size(); start += ENTRIES_PER_TASK) {
+                if (pending.size() >= (2 * threads)) {
+                    writer.write(getLaidOutEntries(pending.poll()));
+                }
+                List<BibEntry> chunk = entries.subList(start, Math.min(start + ENTRIES_PER_TASK, entries.size()));
+                int firstEntryNumber = start + 1;
+                pending.add(executor.submit(() -> {
+                    // each thread uses layouts of its own
+                    EntryLayouts threadLayouts = layouts.copy();
+                    StringBuilder sb = new StringBuilder();
+                    for (int i = 0; i < chunk.size(); i++) {
+                        sb.append(layOutEntry(chunk.get(i), firstEntryNumber + i, database, threadLayouts));
+                    }
+                    return sb.toString();
+                }));
+            }
+            while (!pending.isEmpty()) {
+                writer.write(getLaidOutEntries(pending.poll()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String getLaidOutEntries(Future<String> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw ex;
+        }
+    }
+
+    private static String layOutEntry(BibEntry entry, int entryNumber, BibDatabase database, EntryLayouts layouts) {
+        ExportFormats.setEntryNumber(entryNumber);
+        return layouts.get(entry.getType()).doLayout(entry, database);
+    }
+
+
+    /**
+     * The layouts of the entries by entry type, created from the parsed layout files when needed. Each thread has to
+     * use its own instance.
+     */
+    private static class EntryLayouts {
+
+        private final List<StringInt> defaultLayout;
+        private final Map<String, List<StringInt>> typeLayouts;
+        private final JournalAbbreviationRepository repository;
+        private final Map<String, Layout> layouts = new HashMap<>();
+
+
+        EntryLayouts(List<StringInt> defaultLayout, Map<String, List<StringInt>> typeLayouts,
+                JournalAbbreviationRepository repository) {
+            this.defaultLayout = defaultLayout;
+            this.typeLayouts = typeLayouts;
+            this.repository = repository;
+        }
+
+        Layout get(String type) {
+            return layouts.computeIfAbsent(type,
+                    key -> new Layout(typeLayouts.getOrDefault(key, defaultLayout), repository));
+        }
+
+        boolean containGroups() {
+            return Stream.concat(Stream.of(defaultLayout), typeLayouts.values().stream())
+                    .anyMatch(parsedLayout -> new Layout(parsedLayout, repository).containsGroups());
+        }
+
+        EntryLayouts copy() {
+            return new EntryLayouts(defaultLayout, typeLayouts, repository);
+        }
+    }
+
     /**
      * See if there is a name formatter file bundled with this export format. If so, read
      * all the name formatters so they can be used by the filter layouts.
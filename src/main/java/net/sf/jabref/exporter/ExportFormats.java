@@ -55,10 +55,21 @@ public class ExportFormats {
 
     private static final Map<String, IExportFormat> EXPORT_FORMATS = new TreeMap<>();
 
-    // Global variable that is used for counting output entries when exporting:
-    public static int entryNumber;
+    // Used for counting output entries when exporting. Kept per thread, as entries are exported in parallel:
+    private static final ThreadLocal<Integer> ENTRY_NUMBER = ThreadLocal.withInitial(() -> 0);
 
 
+    /**
+     * @return the number of the entry currently exported by this thread, starting at 1
+     */
+    public static int getEntryNumber() {
+        return ENTRY_NUMBER.get();
+    }
+
+    public static void setEntryNumber(int entryNumber) {
+        ENTRY_NUMBER.set(entryNumber);
+    }
+
     public static void initAllExports() {
 
         ExportFormats.EXPORT_FORMATS.clear();
@@ -0,0 +1,81 @@
+package net.sf.jabref.exporter;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.sf.jabref.Globals;
+import net.sf.jabref.logic.journals.JournalAbbreviationRepository;
+import net.sf.jabref.logic.layout.LayoutHelper;
+import net.sf.jabref.logic.layout.StringInt;
+
+/**
+ * The parsed layout files of the export formats, keyed by the name of the layout file. A layout file is only read
+ * and parsed again if its modification time has changed; layout files in the class path are read only once. Layout
+ * files which do not exist are remembered as well, as most export formats have no layout for most entry types.
+ * <p>
+ * The parse results are cached instead of {@link net.sf.jabref.logic.layout.Layout}s, as a layout and its formatters
+ * are not meant to be used by several threads at the same time.
+ */
+class LayoutCache {
+
+    private static final long CLASS_PATH_RESOURCE = -1L;
+
+    private final Map<String, CachedLayout> layouts = new ConcurrentHashMap<>();
+
+
+    private static class CachedLayout {
+
+        private final long lastModified;
+        private final Optional<List<StringInt>> parsedLayout;
+
+
+        private CachedLayout(long lastModified, Optional<List<StringInt>> parsedLayout) {
+            this.lastModified = lastModified;
+            this.parsedLayout = parsedLayout;
+        }
+    }
+
+
+    /**
+     * Returns the parsed layout file. The file is looked up as a resource in the class path first, then as a normal
+     * file.
+     *
+     * @param name the path of the layout file
+     * @return the parsed layout, empty if the layout file does not exist
+     * @throws IOException if the layout file exists, but cannot be read
+     */
+    public Optional<List<StringInt>> getParsedLayout(String name, JournalAbbreviationRepository repository)
+            throws IOException {
+        URL resource = Globals.class.getResource(name);
+        // 0 if the file does not exist
+        long lastModified = resource == null ? new File(name).lastModified() : CLASS_PATH_RESOURCE;
+
+        CachedLayout cached = layouts.get(name);
+        if ((cached != null) && (cached.lastModified == lastModified)) {
+            return cached.parsedLayout;
+        }
+
+        Optional<List<StringInt>> parsedLayout = read(name, resource, repository);
+        layouts.put(name, new CachedLayout(lastModified, parsedLayout));
+        return parsedLayout;
+    }
+
+    private static Optional<List<StringInt>> read(String name, URL resource, JournalAbbreviationRepository repository)
+            throws IOException {
+        try (Reader reader = resource == null ? new FileReader(name) : new InputStreamReader(resource.openStream())) {
+            return Optional.of(Collections.unmodifiableList(new LayoutHelper(reader, repository).getParsedLayout()));
+        } catch (FileNotFoundException ex) {
+            return Optional.empty();
+        }
+    }
+}
@@ -18,7 +18,15 @@ package net.sf.jabref.exporter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.AclFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -42,9 +50,14 @@ import org.apache.commons.logging.LogFactory;
  * <p>
  * After saving is finished, the client should close the Writer. If the save should be put into effect, call commit(),
  * otherwise call cancel(). When canceling, the temporary file is simply deleted and the target file remains unchanged.
- * When committing, the temporary file is copied to the target file after making a backup if requested and if the target
+ * When committing, the temporary file replaces the target file after making a backup if requested and if the target
  * file already existed, and finally the temporary file is deleted.
  * <p>
+ * An existing target file is replaced atomically by moving the saved content into its place, so that the target file
+ * is never left half-written. The backup is then created as a hard link to the old target file, if possible. If the
+ * saved content cannot be moved next to the target file, or if the owner, group, permissions and access control list of
+ * the target file cannot be given to it, it is copied over the target file instead.
+ * <p>
  * If committing fails, the temporary file will not be deleted.
  */
 public class SaveSession {
@@ -72,14 +85,9 @@ public class SaveSession {
         useLockFile = Globals.prefs.getBoolean(JabRefPreferences.USE_LOCK_FILES);
         this.backup = backup;
         this.encoding = encoding;
-    /* Using
-	   try (FileOutputStream fos = new FileOutputStream(tmp)) {
-	       writer = new VerifyingWriter(fos, encoding);
-	   }
-	   doesn't work since fos is closed after assigning write,
-	   leading to that fos may never be closed at all
-	 */
-        writer = new VerifyingWriter(new FileOutputStream(tmp), encoding);
+        // the writer encodes directly into the channel and closes it when it is closed
+        writer = new VerifyingWriter(FileChannel.open(tmp.toPath(), StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING), encoding);
     }
 
     public VerifyingWriter getWriter() {
@@ -98,14 +106,24 @@ public class SaveSession {
         if (file == null) {
             return;
         }
-        if (file.exists() && backup) {
-            String name = file.getName();
-            String path = file.getParent();
-            File backupFile = new File(path, name + GUIGlobals.BACKUP_EXTENSION);
+
+        Path target = file.toPath();
+        if (Files.exists(target)) {
             try {
-                FileUtil.copyFile(file, backupFile, true);
+                // replace the file a symbolic link points to and not the link itself
+                target = target.toRealPath();
+            } catch (IOException ex) {
+                LOGGER.warn("Cannot resolve " + file, ex);
+            }
+        }
+        Path replacement = createReplacement(target);
+        Path backupFile = target.resolveSibling(target.getFileName() + GUIGlobals.BACKUP_EXTENSION);
+        if (Files.exists(target) && backup) {
+            try {
+                createBackup(target, backupFile, replacement != null);
             } catch (IOException ex) {
                 LOGGER.error("Problem copying file", ex);
+                restoreTemporaryFile(replacement);
                 throw SaveException.BACKUP_CREATION;
             }
         }
@@ -115,6 +133,7 @@ public class SaveSession {
                     if (createLockFile(file)) {
                         // Oops, the lock file already existed. Try to wait it out:
                         if (!FileBasedLock.waitForFileLock(file, 10)) {
+                            restoreTemporaryFile(replacement);
                             throw SaveException.FILE_LOCKED;
                         }
 
@@ -124,8 +143,13 @@ public class SaveSession {
                 }
             }
 
-            FileUtil.copyFile(tmp, file, true);
+            if (replacement == null) {
+                FileUtil.copyFile(tmp, target.toFile(), true);
+            } else {
+                Files.move(replacement, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
         } catch (IOException ex2) {
+            restoreTemporaryFile(replacement);
             // If something happens here, what can we do to correct the problem? The file is corrupted, but we still
             // have a clean copy in tmp. However, we just failed to copy tmp to file, so it's not likely that
             // repeating the action will have a different result.
@@ -137,9 +161,111 @@ public class SaveSession {
                 deleteLockFile(file);
             }
         }
-        if (!tmp.delete()) {
-            LOGGER.info("Cannot delete temporary file");
+        try {
+            Files.deleteIfExists(tmp.toPath());
+        } catch (IOException ex) {
+            LOGGER.info("Cannot delete temporary file", ex);
+        }
+    }
+
+    /**
+     * Moves or copies the saved content into a file in the directory of the target file, so that it can replace the
+     * target file atomically. The replacement gets the owner, group, permissions and access control list of the target
+     * file, as far as the file system supports them.
+     *
+     * @return the file to move to the target, or null if the target file does not exist yet, the replacement cannot
+     * be created or the attributes of the target file cannot be preserved. The saved content has to be copied over the
+     * target file then.
+     */
+    private Path createReplacement(Path target) {
+        if (!Files.exists(target)) {
+            // nothing can get lost when writing a new file
+            return null;
+        }
+
+        Path replacement = null;
+        try {
+            Path directory = target.toAbsolutePath().getParent();
+            replacement = Files.createTempFile(directory, SaveSession.TEMP_PREFIX, SaveSession.TEMP_SUFFIX);
+            // this is a rename if the temporary file is on the same file system
+            Files.move(tmp.toPath(), replacement, StandardCopyOption.REPLACE_EXISTING);
+
+            copyAttributes(target, replacement);
+            return replacement;
+        } catch (IOException | UnsupportedOperationException ex) {
+            LOGGER.info("Cannot create replacement for " + target + ", copying over it instead", ex);
+            restoreTemporaryFile(replacement);
+            return null;
+        }
+    }
+
+    /**
+     * Gives the replacement the owner, group, permissions and access control list of the target file. The owner and
+     * group are only set if they differ, as changing them usually needs more rights than the user has.
+     *
+     * @throws IOException if an attribute cannot be set
+     */
+    private static void copyAttributes(Path target, Path replacement) throws IOException {
+        PosixFileAttributeView targetPosix = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+        PosixFileAttributeView replacementPosix = Files.getFileAttributeView(replacement,
+                PosixFileAttributeView.class);
+        if ((targetPosix != null) && (replacementPosix != null)) {
+            PosixFileAttributes targetAttributes = targetPosix.readAttributes();
+            PosixFileAttributes replacementAttributes = replacementPosix.readAttributes();
+            // the owner and group are set first, as changing them may reset permission bits
+            if (!targetAttributes.owner().equals(replacementAttributes.owner())) {
+                replacementPosix.setOwner(targetAttributes.owner());
+            }
+            if (!targetAttributes.group().equals(replacementAttributes.group())) {
+                replacementPosix.setGroup(targetAttributes.group());
+            }
+            replacementPosix.setPermissions(targetAttributes.permissions());
+        }
+
+        AclFileAttributeView targetAcl = Files.getFileAttributeView(target, AclFileAttributeView.class);
+        AclFileAttributeView replacementAcl = Files.getFileAttributeView(replacement, AclFileAttributeView.class);
+        if ((targetAcl != null) && (replacementAcl != null)) {
+            if (!targetAcl.getOwner().equals(replacementAcl.getOwner())) {
+                replacementAcl.setOwner(targetAcl.getOwner());
+            }
+            replacementAcl.setAcl(targetAcl.getAcl());
+        }
+    }
+
+    /**
+     * Moves the saved content back to the temporary file, so that it is kept if committing fails
+     */
+    private void restoreTemporaryFile(Path replacement) {
+        if ((replacement == null) || !Files.exists(replacement)) {
+            return;
+        }
+        try {
+            if (Files.exists(tmp.toPath())) {
+                // the saved content has not been moved yet
+                Files.delete(replacement);
+            } else {
+                Files.move(replacement, tmp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            LOGGER.info("Cannot restore temporary file", ex);
+        }
+    }
+
+    /**
+     * Creates the backup of the target file. If the target file is replaced by moving another file into its place,
+     * the backup is a hard link to the target file, as its content is not touched.
+     */
+    private static void createBackup(Path target, Path backupFile, boolean targetIsReplaced) throws IOException {
+        if (targetIsReplaced) {
+            try {
+                Files.deleteIfExists(backupFile);
+                Files.createLink(backupFile, target);
+                return;
+            } catch (IOException | UnsupportedOperationException ex) {
+                LOGGER.debug("Cannot create hard link for backup, copying instead", ex);
+            }
         }
+        Files.copy(target, backupFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
     }
 
     public void cancel() {
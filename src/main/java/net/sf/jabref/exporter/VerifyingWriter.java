@@ -17,39 +17,140 @@ package net.sf.jabref.exporter;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.util.Set;
 import java.util.TreeSet;
 
 /**
- * Writer that extends OutputStreamWriter, but also checks if the chosen
- * encoding supports all text that is written. Currently only a boolean value is
- * stored to remember whether everything has gone well or not.
+ * Writer that encodes all text written to it with the chosen encoding and
+ * checks at the same time if the encoding supports all of it. Characters
+ * which cannot be encoded are replaced by the replacement of the encoding
+ * (usually '?') and remembered.
+ * <p>
+ * The text is encoded only once, directly into a buffer which is written to
+ * the underlying channel when full.
  */
-public class VerifyingWriter extends OutputStreamWriter {
+public class VerifyingWriter extends Writer {
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
     private final CharsetEncoder encoder;
+    private final ByteBuffer byteBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+    /**
+     * A high surrogate at the end of the last write, which can only be encoded together with the next character
+     */
+    private char leftoverHighSurrogate;
+    private boolean hasLeftoverHighSurrogate;
+    private boolean closed;
     private boolean couldEncodeAll = true;
     private final Set<Character> problemCharacters = new TreeSet<>();
 
 
     public VerifyingWriter(OutputStream out, Charset encoding) {
-        super(out, encoding);
-        encoder = encoding.newEncoder();
+        this(Channels.newChannel(out), encoding);
+    }
+
+    public VerifyingWriter(WritableByteChannel channel, Charset encoding) {
+        this.channel = channel;
+        encoder = encoding.newEncoder().onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        write(CharBuffer.wrap(cbuf, off, len));
     }
 
     @Override
-    public void write(String str) throws IOException {
-        super.write(str);
-        if (!encoder.canEncode(str)) {
-            for (int i = 0; i < str.length(); i++) {
-                if (!encoder.canEncode(str.charAt(i))) {
-                    problemCharacters.add(str.charAt(i));
+    public void write(String str, int off, int len) throws IOException {
+        write(CharBuffer.wrap(str, off, off + len));
+    }
+
+    private void write(CharBuffer text) throws IOException {
+        ensureOpen();
+        CharBuffer input = text;
+        if (hasLeftoverHighSurrogate) {
+            input = CharBuffer.allocate(text.remaining() + 1);
+            input.put(leftoverHighSurrogate).put(text).flip();
+            hasLeftoverHighSurrogate = false;
+        }
+        encode(input, false);
+    }
+
+    private void encode(CharBuffer input, boolean endOfInput) throws IOException {
+        while (true) {
+            CoderResult result = encoder.encode(input, byteBuffer, endOfInput);
+            if (result.isUnderflow()) {
+                if (input.hasRemaining()) {
+                    // only a high surrogate can be left, which is completed by the next write
+                    leftoverHighSurrogate = input.get();
+                    hasLeftoverHighSurrogate = true;
+                }
+                return;
+            } else if (result.isOverflow()) {
+                writeBuffer();
+            } else {
+                // malformed or unmappable characters
+                couldEncodeAll = false;
+                for (int i = 0; i < result.length(); i++) {
+                    problemCharacters.add(input.get());
                 }
+                if (byteBuffer.remaining() < encoder.replacement().length) {
+                    writeBuffer();
+                }
+                byteBuffer.put(encoder.replacement());
+            }
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        byteBuffer.flip();
+        while (byteBuffer.hasRemaining()) {
+            channel.write(byteBuffer);
+        }
+        byteBuffer.clear();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        writeBuffer();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            CharBuffer input = CharBuffer.allocate(hasLeftoverHighSurrogate ? 1 : 0);
+            if (hasLeftoverHighSurrogate) {
+                input.put(leftoverHighSurrogate).flip();
+                hasLeftoverHighSurrogate = false;
+            }
+            encode(input, true);
+            while (encoder.flush(byteBuffer).isOverflow()) {
+                writeBuffer();
             }
-            couldEncodeAll = false;
+            writeBuffer();
+        } finally {
+            closed = true;
+            channel.close();
         }
     }
 
@@ -18,7 +18,6 @@ package net.sf.jabref.external;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -29,6 +28,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import net.sf.jabref.logic.labelpattern.LabelPatternUtil;
+import net.sf.jabref.logic.util.io.DirectorySnapshot;
 import net.sf.jabref.logic.util.strings.StringUtil;
 import net.sf.jabref.model.database.BibDatabase;
 import net.sf.jabref.model.entry.BibEntry;
@@ -56,7 +56,7 @@ public class RegExpFileSearch {
 
     /**
      * Search for file links for a set of entries using regexp. Lists of extensions and directories
-     * are given.
+     * are given. Each directory is listed at most once for all entries.
      * @param entries The entries to search for.
      * @param extensions The extensions that are acceptable.
      * @param directories The root directories to search.
@@ -67,8 +67,9 @@ public class RegExpFileSearch {
             Collection<String> extensions, List<File> directories, String regExp) {
 
         Map<BibEntry, List<File>> res = new HashMap<>();
+        DirectorySnapshot snapshot = new DirectorySnapshot();
         for (BibEntry entry : entries) {
-            res.put(entry, findFiles(entry, extensions, directories, regExp));
+            res.put(entry, findFiles(entry, extensions, directories, regExp, snapshot));
         }
         return res;
     }
@@ -80,14 +81,15 @@ public class RegExpFileSearch {
      * @param extensions The extensions that are acceptable.
      * @param directories The root directories to search.
      * @param regularExpression The expression deciding which names are acceptable.
+     * @param snapshot The directory listings shared by the searches for a set of entries.
      * @return A list of files paths matching the given criteria.
      */
     private static List<File> findFiles(BibEntry entry, Collection<String> extensions,
-            Collection<File> directories, String regularExpression) {
+            Collection<File> directories, String regularExpression, DirectorySnapshot snapshot) {
 
         String extensionRegExp = '(' + String.join("|", extensions) + ')';
 
-        return findFile(entry, directories, regularExpression, extensionRegExp);
+        return findFile(entry, directories, regularExpression, extensionRegExp, snapshot);
     }
 
     /**
@@ -129,10 +131,10 @@ public class RegExpFileSearch {
      *         null if none was found.
      */
     private static List<File> findFile(BibEntry entry, Collection<File> dirs, String file,
-            String extensionRegExp) {
+            String extensionRegExp, DirectorySnapshot snapshot) {
         List<File> res = new ArrayList<>();
         for (File directory : dirs) {
-            res.addAll(findFile(entry, directory.getPath(), file, extensionRegExp));
+            res.addAll(findFile(entry, directory.getPath(), file, extensionRegExp, snapshot));
         }
         return res;
     }
@@ -142,7 +144,8 @@ public class RegExpFileSearch {
      * base the search on.
      *
      */
-    private static List<File> findFile(BibEntry entry, String directory, String file, String extensionRegExp) {
+    private static List<File> findFile(BibEntry entry, String directory, String file, String extensionRegExp,
+            DirectorySnapshot snapshot) {
 
         File root;
         if (directory == null) {
@@ -153,7 +156,7 @@ public class RegExpFileSearch {
         if (!root.exists()) {
             return Collections.emptyList();
         }
-        List<File> fileList = RegExpFileSearch.findFile(entry, root, file, extensionRegExp);
+        List<File> fileList = RegExpFileSearch.findFile(entry, root, file, extensionRegExp, snapshot);
 
         List<File> result = new ArrayList<>();
         for (File tmpFile : fileList) {
@@ -182,7 +185,8 @@ public class RegExpFileSearch {
      * The actual work-horse. Will find absolute filepaths starting from the
      * given directory using the given regular expression string for search.
      */
-    private static List<File> findFile(BibEntry entry, File directory, String file, String extensionRegExp) {
+    private static List<File> findFile(BibEntry entry, File directory, String file, String extensionRegExp,
+            DirectorySnapshot snapshot) {
 
         List<File> res = new ArrayList<>();
 
@@ -226,13 +230,10 @@ public class RegExpFileSearch {
             }
             if ("*".equals(dirToProcess)) { // Do for all direct subdirs
 
-                File[] subDirs = actualDirectory.listFiles();
-                if (subDirs != null) {
-                    String restOfFileString = StringUtil.join(fileParts, "/", i + 1, fileParts.length);
-                    for (File subDir : subDirs) {
-                        if (subDir.isDirectory()) {
-                            res.addAll(findFile(entry, subDir, restOfFileString, extensionRegExp));
-                        }
+                String restOfFileString = StringUtil.join(fileParts, "/", i + 1, fileParts.length);
+                for (DirectorySnapshot.Entry subDir : snapshot.list(actualDirectory)) {
+                    if (subDir.isDirectory()) {
+                        res.addAll(findFile(entry, subDir.getFile(), restOfFileString, extensionRegExp, snapshot));
                     }
                 }
             }
@@ -246,18 +247,12 @@ public class RegExpFileSearch {
                 while (!toDo.isEmpty()) {
 
                     // Get all subdirs of each of the elements found in toDo
-                    File[] subDirs = toDo.remove(0).listFiles();
-                    if (subDirs == null) {
-                        continue;
-                    }
-
-                    toDo.addAll(Arrays.asList(subDirs));
-
-                    for (File subDir : subDirs) {
+                    for (DirectorySnapshot.Entry subDir : snapshot.list(toDo.remove(0))) {
                         if (!subDir.isDirectory()) {
                             continue;
                         }
-                        res.addAll(findFile(entry, subDir, restOfFileString, extensionRegExp));
+                        toDo.add(subDir.getFile());
+                        res.addAll(findFile(entry, subDir.getFile(), restOfFileString, extensionRegExp, snapshot));
                     }
                 }
 
@@ -270,12 +265,7 @@ public class RegExpFileSearch {
         final Pattern toMatch = Pattern.compile('^' + filenameToLookFor.replaceAll("\\\\\\\\", "\\\\") + '$',
                 Pattern.CASE_INSENSITIVE);
 
-        File[] matches = actualDirectory.listFiles((arg0, arg1) -> {
-            return toMatch.matcher(arg1).matches();
-        });
-        if ((matches != null) && (matches.length > 0)) {
-            Collections.addAll(res, matches);
-        }
+        res.addAll(snapshot.findMatches(actualDirectory, toMatch));
         return res;
     }
 
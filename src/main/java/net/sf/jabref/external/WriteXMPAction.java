@@ -22,7 +22,9 @@ import java.awt.event.ActionEvent;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.swing.AbstractAction;
 import javax.swing.ActionMap;
@@ -46,7 +48,7 @@ import net.sf.jabref.gui.util.FocusRequester;
 import net.sf.jabref.gui.worker.AbstractWorker;
 import net.sf.jabref.logic.l10n.Localization;
 import net.sf.jabref.logic.util.io.FileUtil;
-import net.sf.jabref.logic.xmp.XMPUtil;
+import net.sf.jabref.logic.xmp.XMPBatchWriter;
 import net.sf.jabref.model.database.BibDatabase;
 import net.sf.jabref.model.entry.BibEntry;
 
@@ -126,6 +128,7 @@ public class WriteXMPAction extends AbstractWorker {
             return;
         }
 
+        Map<BibEntry, List<File>> filesOfEntries = new LinkedHashMap<>();
         for (BibEntry entry : entries) {
 
             // Make a list of all PDFs linked from this entry:
@@ -149,38 +152,52 @@ public class WriteXMPAction extends AbstractWorker {
                 }
             }
 
-            optDiag.getProgressArea().append(entry.getCiteKey() + "\n");
-
             if (files.isEmpty()) {
                 skipped++;
+                optDiag.getProgressArea().append(entry.getCiteKey() + "\n");
                 optDiag.getProgressArea().append("  " + Localization.lang("Skipped - No PDF linked") + ".\n");
             } else {
+                List<File> existingFiles = new ArrayList<>();
                 for (File file : files) {
                     if (file.exists()) {
-                        try {
-                            XMPUtil.writeXMP(file, entry, database);
-                            optDiag.getProgressArea().append("  " + Localization.lang("OK") + ".\n");
-                            entriesChanged++;
-                        } catch (Exception e) {
-                            optDiag.getProgressArea().append(
-                                    "  " + Localization.lang("Error while writing") + " '" + file.getPath() + "':\n");
-                            optDiag.getProgressArea().append("    " + e.getLocalizedMessage() + "\n");
-                            errors++;
-                        }
+                        existingFiles.add(file);
                     } else {
                         skipped++;
+                        optDiag.getProgressArea().append(entry.getCiteKey() + "\n");
                         optDiag.getProgressArea()
                                 .append("  " + Localization.lang("Skipped - PDF does not exist") + ":\n");
                         optDiag.getProgressArea().append("    " + file.getPath() + "\n");
                     }
                 }
+                filesOfEntries.put(entry, existingFiles);
             }
+        }
 
-            if (optDiag.isCanceled()) {
-                optDiag.getProgressArea().append("\n"
-                        + Localization.lang("Operation canceled.") +"\n");
-                break;
+        // the PDF files are written in parallel, the results are reported as they are finished
+        new XMPBatchWriter().write(filesOfEntries, database, optDiag::isCanceled, result -> {
+            if (result.getStatus() == XMPBatchWriter.Status.CANCELLED) {
+                return;
             }
+            optDiag.getProgressArea().append(result.getEntry().getCiteKey() + "\n");
+            if (result.getStatus() == XMPBatchWriter.Status.WRITTEN) {
+                optDiag.getProgressArea().append("  " + Localization.lang("OK") + ".\n");
+                entriesChanged++;
+            } else if (result.getStatus() == XMPBatchWriter.Status.UNCHANGED) {
+                optDiag.getProgressArea()
+                        .append("  " + Localization.lang("Skipped - XMP-metadata unchanged") + ".\n");
+                skipped++;
+            } else {
+                optDiag.getProgressArea().append(
+                        "  " + Localization.lang("Error while writing") + " '" + result.getFile().getPath() + "':\n");
+                optDiag.getProgressArea()
+                        .append("    " + result.getError().map(Exception::getLocalizedMessage).orElse("") + "\n");
+                errors++;
+            }
+        });
+
+        if (optDiag.isCanceled()) {
+            optDiag.getProgressArea().append("\n"
+                    + Localization.lang("Operation canceled.") +"\n");
         }
         optDiag.getProgressArea()
                 .append("\n"
@@ -114,11 +114,14 @@ import net.sf.jabref.logic.autocompleter.AutoCompletePreferences;
 import net.sf.jabref.logic.autocompleter.AutoCompleter;
 import net.sf.jabref.logic.autocompleter.AutoCompleterFactory;
 import net.sf.jabref.logic.autocompleter.ContentAutoCompleters;
+import net.sf.jabref.logic.groups.GroupMembershipIndex;
+import net.sf.jabref.logic.integrity.IntegrityCheck;
 import net.sf.jabref.logic.l10n.Encodings;
 import net.sf.jabref.logic.l10n.Localization;
 import net.sf.jabref.logic.labelpattern.LabelPatternUtil;
 import net.sf.jabref.logic.layout.Layout;
 import net.sf.jabref.logic.layout.LayoutHelper;
+import net.sf.jabref.logic.search.SearchIndex;
 import net.sf.jabref.logic.util.UpdateField;
 import net.sf.jabref.logic.util.io.FileBasedLock;
 import net.sf.jabref.logic.util.io.FileUtil;
@@ -159,6 +162,9 @@ public class BasePanel extends JPanel implements ClipboardOwner, FileUpdateListe
     private final BibDatabase database;
     private final BibDatabaseContext bibDatabaseContext;
     private final MainTableDataModel tableModel;
+    private final SearchIndex searchIndex;
+    private final IntegrityCheck integrityCheck;
+    private final GroupMembershipIndex groupMembershipIndex;
 
     // To contain instantiated entry editors. This is to save time
     // As most enums, this must not be null
@@ -231,6 +237,9 @@ public class BasePanel extends JPanel implements ClipboardOwner, FileUpdateListe
         this.frame = frame;
         this.database = bibDatabaseContext.getDatabase();
         this.tableModel = new MainTableDataModel(getBibDatabaseContext());
+        this.searchIndex = new SearchIndex(database);
+        this.integrityCheck = new IntegrityCheck(bibDatabaseContext);
+        this.groupMembershipIndex = new GroupMembershipIndex(database);
 
         searchBar = new SearchBar(this);
 
@@ -376,9 +385,9 @@ public class BasePanel extends JPanel implements ClipboardOwner, FileUpdateListe
                     (entries.size() > 1 ? Localization.lang("cut entries") : Localization.lang("cut entry")));
             for (BibEntry entry : entries) {
                 compound.addEdit(new UndoableRemoveEntry(database, entry, BasePanel.this));
-                database.removeEntry(entry);
                 ensureNotShowingBottomPanel(entry);
             }
+            database.removeEntries(entries);
             compound.end();
             undoManager.addEdit(compound);
 
@@ -401,9 +410,9 @@ public class BasePanel extends JPanel implements ClipboardOwner, FileUpdateListe
                     (entries.size() > 1 ? Localization.lang("delete entries") : Localization.lang("delete entry")));
             for (BibEntry entry : entries) {
                 compound.addEdit(new UndoableRemoveEntry(database, entry, BasePanel.this));
-                database.removeEntry(entry);
                 ensureNotShowingBottomPanel(entry);
             }
+            database.removeEntries(entries);
             compound.end();
             undoManager.addEdit(compound);
 
@@ -1277,7 +1286,7 @@ public class BasePanel extends JPanel implements ClipboardOwner, FileUpdateListe
 
     /**
      * Ensures that the search auto completer is up to date when entries are changed AKA Let the auto completer, if any,
-     * harvest words from the entry
+     * harvest words from the entry, or forget the words of a removed entry
      */
     private class SearchAutoCompleterUpdater implements DatabaseChangeListener {
 
@@ -1285,13 +1294,15 @@ public class BasePanel extends JPanel implements ClipboardOwner, FileUpdateListe
         public void databaseChanged(DatabaseChangeEvent e) {
             if ((e.getType() == ChangeType.CHANGED_ENTRY) || (e.getType() == ChangeType.ADDED_ENTRY)) {
                 searchAutoCompleter.addBibtexEntry(e.getEntry());
+            } else if (e.getType() == ChangeType.REMOVED_ENTRY) {
+                searchAutoCompleter.removeBibtexEntry(e.getEntry());
             }
         }
     }
 
     /**
      * Ensures that auto completers are up to date when entries are changed AKA Let the auto completer, if any, harvest
-     * words from the entry
+     * words from the entry, or forget the words of a removed entry
      */
     private class AutoCompletersUpdater implements DatabaseChangeListener {
 
@@ -1299,6 +1310,8 @@ public class BasePanel extends JPanel implements ClipboardOwner, FileUpdateListe
         public void databaseChanged(DatabaseChangeEvent e) {
             if ((e.getType() == ChangeType.CHANGED_ENTRY) || (e.getType() == ChangeType.ADDED_ENTRY)) {
                 BasePanel.this.autoCompleters.addEntry(e.getEntry());
+            } else if (e.getType() == ChangeType.REMOVED_ENTRY) {
+                BasePanel.this.autoCompleters.removeEntry(e.getEntry());
             }
         }
     }
@@ -1348,6 +1361,10 @@ public class BasePanel extends JPanel implements ClipboardOwner, FileUpdateListe
     }
 
     private void createMainTable() {
+        if (tableFormat != null) {
+            // stop the cache of the replaced table from listening to the entries
+            tableFormat.invalidateCache();
+        }
         database.addDatabaseChangeListener(tableModel.getEventList());
         database.addDatabaseChangeListener(SpecialFieldDatabaseChangeListener.getInstance());
 
@@ -1566,6 +1583,16 @@ public class BasePanel extends JPanel implements ClipboardOwner, FileUpdateListe
         if (stringDialog != null) {
             stringDialog.refreshTable();
         }
+        invalidateTableCache();
+    }
+
+    /**
+     * Drops the values cached by the main table and repaints it. Needed when the strings of the database change, as
+     * the author column shows the names with resolved strings.
+     */
+    public void invalidateTableCache() {
+        tableFormat.invalidateCache();
+        mainTable.repaint();
     }
 
     public void adjustSplitter() {
@@ -1855,6 +1882,18 @@ public class BasePanel extends JPanel implements ClipboardOwner, FileUpdateListe
         return database;
     }
 
+    public SearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    public IntegrityCheck getIntegrityCheck() {
+        return integrityCheck;
+    }
+
+    public GroupMembershipIndex getGroupMembershipIndex() {
+        return groupMembershipIndex;
+    }
+
     public void preambleEditorClosing() {
         preambleEditor = null;
     }
@@ -36,6 +36,7 @@ import net.sf.jabref.gui.undo.UndoableRemoveEntry;
 import net.sf.jabref.gui.worker.CallBack;
 import net.sf.jabref.logic.l10n.Localization;
 import net.sf.jabref.model.DuplicateCheck;
+import net.sf.jabref.model.DuplicateFinder;
 import net.sf.jabref.model.entry.BibEntry;
 
 import spin.Spin;
@@ -171,21 +172,14 @@ public class DuplicateSearch implements Runnable {
 
         @Override
         public void run() {
-            for (int i = 0; (i < (bes.size() - 1)) && !finished; i++) {
-                for (int j = i + 1; (j < bes.size()) && !finished; j++) {
-                    BibEntry first = bes.get(i);
-                    BibEntry second = bes.get(j);
-                    boolean eq = DuplicateCheck.isDuplicate(first, second, panel.getBibDatabaseContext().getMode());
-
-                    // If (suspected) duplicates, add them to the duplicates vector.
-                    if (eq) {
-                        synchronized (duplicates) {
-                            duplicates.add(new BibEntry[]{first, second});
-                            duplicates.notifyAll(); // send wake up all
-                        }
-                    }
+            DuplicateFinder duplicateFinder = new DuplicateFinder(bes, panel.getBibDatabaseContext().getMode());
+            duplicateFinder.findDuplicatePairs((first, second) -> {
+                // If (suspected) duplicates, add them to the duplicates vector.
+                synchronized (duplicates) {
+                    duplicates.add(new BibEntry[]{first, second});
+                    duplicates.notifyAll(); // send wake up all
                 }
-            }
+            }, this::finished);
             finished = true;
             // if no duplicates found, the graphical thread will never wake up
             synchronized (duplicates) {
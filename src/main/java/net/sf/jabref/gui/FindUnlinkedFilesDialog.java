@@ -42,11 +42,16 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.swing.AbstractAction;
 import javax.swing.Action;
@@ -68,6 +73,8 @@ import javax.swing.JScrollPane;
 import javax.swing.JTextField;
 import javax.swing.JTree;
 import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.WindowConstants;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
@@ -518,22 +525,23 @@ public class FindUnlinkedFilesDialog extends JDialog {
 
         final FileFilter selectedFileFilter = (FileFilter) comboBoxFileTypeSelection.getSelectedItem();
 
+        // the tree shows the files while they are found, the complete tree replaces it at the end
+        DefaultTreeModel searchModel = new DefaultTreeModel(new CheckableTreeNode(new FileNodeWrapper(dir.toFile())));
+        treeModel = searchModel;
+        tree.setModel(searchModel);
+        tree.setRootVisible(true);
+        SearchProgress progress = new SearchProgress(dir, searchModel);
+
         threadState.set(true);
         JabRefExecutorService.INSTANCE.execute(() -> {
             UnlinkedPDFFileFilter unlinkedPDFFileFilter = new UnlinkedPDFFileFilter(selectedFileFilter, database);
-            CheckableTreeNode rootNode = crawler.searchDirectory(dir.toFile(), unlinkedPDFFileFilter, threadState,
-                    new ChangeListener() {
-
-                        int counter;
-
-
-                        @Override
-                        public void stateChanged(ChangeEvent e) {
-                            counter++;
-                            progressBarSearching.setString(counter + " files found");
-                        }
-                    });
-            searchFinishedHandler(rootNode);
+            CheckableTreeNode rootNode = crawler.searchDirectory(dir, unlinkedPDFFileFilter, threadState, progress);
+            SwingUtilities.invokeLater(() -> {
+                progress.stop();
+                if (rootNode != null) {
+                    searchFinishedHandler(rootNode);
+                }
+            });
         });
 
     }
@@ -723,6 +731,69 @@ public class FindUnlinkedFilesDialog extends JDialog {
         return filesList;
     }
 
+    /**
+     * Collects the files found by the crawler and adds them to the tree every {@link #UPDATE_DELAY} milliseconds, so
+     * the files appear while the search is running without flooding the event dispatch thread.
+     */
+    private class SearchProgress implements UnlinkedFilesCrawler.SearchListener {
+
+        private static final int UPDATE_DELAY = 200;
+
+        private final Queue<Path> foundFiles = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger scannedDirectories = new AtomicInteger();
+        private final Map<Path, CheckableTreeNode> directoryNodes = new HashMap<>();
+        private final DefaultTreeModel model;
+        private final Timer timer;
+
+        private int filesFound;
+
+
+        SearchProgress(Path directory, DefaultTreeModel model) {
+            this.model = model;
+            directoryNodes.put(directory, (CheckableTreeNode) model.getRoot());
+            timer = new Timer(UPDATE_DELAY, e -> update());
+            timer.start();
+        }
+
+        @Override
+        public void fileFound(Path file) {
+            foundFiles.add(file);
+        }
+
+        @Override
+        public void directoryScanned(Path directory) {
+            scannedDirectories.incrementAndGet();
+        }
+
+        void stop() {
+            timer.stop();
+        }
+
+        private void update() {
+            Path file = foundFiles.poll();
+            while (file != null) {
+                CheckableTreeNode parent = getDirectoryNode(file.getParent());
+                model.insertNodeInto(new CheckableTreeNode(new FileNodeWrapper(file.toFile())), parent,
+                        parent.getChildCount());
+                filesFound++;
+                file = foundFiles.poll();
+            }
+            progressBarSearching
+                    .setString(filesFound + " files found in " + scannedDirectories.get() + " directories");
+        }
+
+        private CheckableTreeNode getDirectoryNode(Path directory) {
+            CheckableTreeNode node = directoryNodes.get(directory);
+            if (node == null) {
+                CheckableTreeNode parent = getDirectoryNode(directory.getParent());
+                node = new CheckableTreeNode(new FileNodeWrapper(directory.toFile()));
+                model.insertNodeInto(node, parent, parent.getChildCount());
+                directoryNodes.put(directory, node);
+            }
+            return node;
+        }
+    }
+
     /**
      * Initializes the visible components in this dialog.
      */
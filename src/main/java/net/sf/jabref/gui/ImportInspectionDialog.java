@@ -101,7 +101,7 @@ import net.sf.jabref.logic.groups.GroupTreeNode;
 import net.sf.jabref.logic.l10n.Localization;
 import net.sf.jabref.logic.labelpattern.LabelPatternUtil;
 import net.sf.jabref.logic.util.UpdateField;
-import net.sf.jabref.model.DuplicateCheck;
+import net.sf.jabref.model.DuplicateFinder;
 import net.sf.jabref.model.database.BibDatabase;
 import net.sf.jabref.model.database.BibDatabaseMode;
 import net.sf.jabref.model.entry.AuthorList;
@@ -179,6 +179,8 @@ public class ImportInspectionDialog extends JDialog implements ImportInspector,
      */
     private final List<BibEntry> entriesToDelete = new ArrayList<>();
 
+    private DuplicateFinder duplicateFinder;
+
     private final String undoName;
 
     private final List<CallBack> callBacks = new ArrayList<>();
@@ -403,7 +405,6 @@ public class ImportInspectionDialog extends JDialog implements ImportInspector,
      * @see net.sf.jabref.gui.ImportInspection#addEntries(java.util.Collection)
      */
     public void addEntries(Collection<BibEntry> entriesToAdd) {
-
         for (BibEntry entry : entriesToAdd) {
             // We exploit the entry's search status for indicating "Keep"
             // status:
@@ -413,11 +414,13 @@ public class ImportInspectionDialog extends JDialog implements ImportInspector,
             // Checking duplicates means both checking against the background
             // database (if
             // applicable) and against entries already in the table.
-            if ((panel != null) && (DuplicateCheck
-                    .containsDuplicate(panel.getDatabase(), entry, panel.getBibDatabaseContext().getMode()).isPresent()
-                    || (internalDuplicate(this.entries, entry).isPresent()))) {
-                entry.setGroupHit(true);
-                deselectAllDuplicates.setEnabled(true);
+            if (panel != null) {
+                DuplicateFinder finder = getDuplicateFinder();
+                if (finder.findDuplicate(entry, other -> isInDatabase(other) || isInTable(other)).isPresent()) {
+                    entry.setGroupHit(true);
+                    deselectAllDuplicates.setEnabled(true);
+                }
+                finder.add(entry);
             }
             this.entries.getReadWriteLock().writeLock().lock();
             this.entries.add(entry);
@@ -426,23 +429,40 @@ public class ImportInspectionDialog extends JDialog implements ImportInspector,
     }
 
     /**
-     * Checks if there are duplicates to the given entry in the Collection. Does
-     * not report the entry as duplicate of itself if it is in the Collection.
-     *
-     * @param entriesDupe A Collection of BibEntry instances.
-     * @param entry       The entry to search for duplicates of.
-     * @return A possible duplicate, if any, or null if none were found.
+     * Returns the finder holding the entries of the database, as they were when the first entry was added to this
+     * dialog, and all entries added to this dialog. Entries removed from the database or the table since then are
+     * still in the finder, so the duplicates found have to be checked with {@link #isInDatabase(BibEntry)} and
+     * {@link #isInTable(BibEntry)}.
      */
-    private Optional<BibEntry> internalDuplicate(Collection<BibEntry> entriesDupe, BibEntry entry) {
-        for (BibEntry othEntry : entriesDupe) {
-            if (othEntry.equals(entry)) {
-                continue; // Don't compare the entry to itself
-            }
-            if (DuplicateCheck.isDuplicate(entry, othEntry, panel.getBibDatabaseContext().getMode())) {
-                return Optional.of(othEntry);
-            }
+    private DuplicateFinder getDuplicateFinder() {
+        if (duplicateFinder == null) {
+            duplicateFinder = new DuplicateFinder(panel.getDatabase().getEntries(),
+                    panel.getBibDatabaseContext().getMode());
+        }
+        return duplicateFinder;
+    }
+
+    private boolean isInDatabase(BibEntry entry) {
+        return panel.getDatabase().containsEntryWithId(entry.getId());
+    }
+
+    private boolean isInTable(BibEntry entry) {
+        entries.getReadWriteLock().readLock().lock();
+        try {
+            return entries.stream().anyMatch(tableEntry -> tableEntry == entry);
+        } finally {
+            entries.getReadWriteLock().readLock().unlock();
         }
-        return Optional.empty();
+    }
+
+    /**
+     * Checks if there are duplicates to the given entry among the other entries of the table.
+     *
+     * @param entry The entry to search for duplicates of.
+     * @return A possible duplicate, if any, or empty if none were found.
+     */
+    private Optional<BibEntry> internalDuplicate(BibEntry entry) {
+        return getDuplicateFinder().findDuplicate(entry, this::isInTable);
     }
 
 
@@ -740,8 +760,8 @@ public class ImportInspectionDialog extends JDialog implements ImportInspector,
         private void removeEntriesToDelete(NamedCompound ce) {
             for (BibEntry entry : entriesToDelete) {
                 ce.addEdit(new UndoableRemoveEntry(panel.getDatabase(), entry, panel));
-                panel.getDatabase().removeEntry(entry);
             }
+            panel.getDatabase().removeEntries(entriesToDelete);
         }
 
         private void addSelectedEntries(NamedCompound ce, final List<BibEntry> selected) {
@@ -783,10 +803,10 @@ public class ImportInspectionDialog extends JDialog implements ImportInspector,
 
 
                 entry.setId(IdGenerator.next());
-                panel.getDatabase().insertEntry(entry);
                 ce.addEdit(new UndoableInsertEntry(panel.getDatabase(), entry, panel));
 
             }
+            panel.getDatabase().insertEntries(selected);
 
             ce.end();
             panel.undoManager.addEdit(ce);
@@ -1069,7 +1089,7 @@ public class ImportInspectionDialog extends JDialog implements ImportInspector,
             // Is this the duplicate icon column, and is there an icon?
             if ((col == DUPL_COL) && (glTable.getValueAt(row, col) != null)) {
                 BibEntry first = sortedList.get(row);
-                Optional<BibEntry> other = DuplicateCheck.containsDuplicate(panel.getDatabase(), first, panel.getBibDatabaseContext().getMode());
+                Optional<BibEntry> other = getDuplicateFinder().findDuplicate(first, ImportInspectionDialog.this::isInDatabase);
                 if (other.isPresent()) {
                     // This will be true if the duplicate is in the existing
                     // database.
@@ -1116,10 +1136,11 @@ public class ImportInspectionDialog extends JDialog implements ImportInspector,
                         entries.remove(first);
                         first = new BibEntry(); // Reset first so the next duplicate doesn't trigger
                         entries.getReadWriteLock().writeLock().unlock();
+                        getDuplicateFinder().add(diag.getMergedEntry());
                     }
                 }
                 // Check if the duplicate is of another entry in the import:
-                other = internalDuplicate(entries, first);
+                other = internalDuplicate(first);
                 if (other.isPresent()) {
                     DuplicateResolverDialog diag = new DuplicateResolverDialog(ImportInspectionDialog.this, first,
                             other.get(), DuplicateResolverDialog.DuplicateResolverType.DUPLICATE_SEARCH);
@@ -1138,6 +1159,7 @@ public class ImportInspectionDialog extends JDialog implements ImportInspector,
                         diag.getMergedEntry().setGroupHit(false);
                         diag.getMergedEntry().setSearchHit(true);
                         entries.add(diag.getMergedEntry());
+                        getDuplicateFinder().add(diag.getMergedEntry());
                         entries.remove(first);
                         entries.remove(other.get());
                     }
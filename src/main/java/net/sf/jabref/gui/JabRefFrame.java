@@ -177,7 +177,7 @@ public class JabRefFrame extends JFrame implements OutputPrinter {
 
         @Override
         public void actionPerformed(ActionEvent e) {
-            IntegrityCheck check = new IntegrityCheck(getCurrentBasePanel().getBibDatabaseContext());
+            IntegrityCheck check = getCurrentBasePanel().getIntegrityCheck();
             List<IntegrityMessage> messages = check.checkBibtexDatabase();
 
             if (messages.isEmpty()) {
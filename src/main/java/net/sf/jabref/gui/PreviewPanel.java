@@ -292,7 +292,7 @@ public class PreviewPanel extends JPanel implements VetoableChangeListener, Sear
 
     public void update() {
         StringBuilder sb = new StringBuilder();
-        ExportFormats.entryNumber = 1; // Set entry number in case that is included in the preview layout.
+        ExportFormats.setEntryNumber(1); // Set entry number in case that is included in the preview layout.
         entry.ifPresent(entry ->
                 layout.ifPresent(layout -> sb.append(layout
                         .doLayout(entry, databaseContext.map(BibDatabaseContext::getDatabase).orElse(null),
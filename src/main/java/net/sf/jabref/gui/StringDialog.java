@@ -258,6 +258,7 @@ class StringDialog extends JDialog {
                         subject.setName((String) value);
                         panel.markBaseChanged();
                         refreshTable();
+                        panel.invalidateTableCache();
                     }
                 }
             } else {
@@ -276,6 +277,7 @@ class StringDialog extends JDialog {
 
                     subject.setContent((String) value);
                     panel.markBaseChanged();
+                    panel.invalidateTableCache();
                 }
             }
         }
@@ -382,6 +384,7 @@ class StringDialog extends JDialog {
                 base.addString(bs);
                 refreshTable();
                 panel.markBaseChanged();
+                panel.invalidateTableCache();
             } catch (KeyCollisionException ex) {
                 JOptionPane.showMessageDialog(parent,
                         Localization.lang("A string with that label already exists"),
@@ -449,6 +452,7 @@ class StringDialog extends JDialog {
                     panel.undoManager.addEdit(ce);
 
                     refreshTable();
+                    panel.invalidateTableCache();
                     if (!base.hasNoStrings()) {
                         table.setRowSelectionInterval(0, 0);
                     }
@@ -34,6 +34,7 @@ import net.sf.jabref.logic.FieldChange;
 import net.sf.jabref.logic.cleanup.CleanupPreset;
 import net.sf.jabref.logic.cleanup.CleanupWorker;
 import net.sf.jabref.logic.l10n.Localization;
+import net.sf.jabref.model.database.BibDatabase;
 import net.sf.jabref.model.entry.BibEntry;
 
 public class CleanupAction extends AbstractWorker {
@@ -102,18 +103,23 @@ public class CleanupAction extends AbstractWorker {
             }
         }
 
-        for (BibEntry entry : panel.getSelectedEntries()) {
-            // undo granularity is on entry level
-            NamedCompound ce = new NamedCompound(Localization.lang("Cleanup entry"));
-
-            doCleanup(cleanupPreset, entry, ce);
-
-            ce.end();
-            if (ce.hasEdits()) {
-                modifiedEntriesCount++;
-                panel.undoManager.addEdit(ce);
+        // the main table shows all cleaned entries at once
+        BibDatabase database = panel.getDatabase();
+        database.runInBatch(() -> {
+            for (BibEntry entry : panel.getSelectedEntries()) {
+                // undo granularity is on entry level
+                NamedCompound ce = new NamedCompound(Localization.lang("Cleanup entry"));
+
+                doCleanup(cleanupPreset, entry, ce);
+
+                ce.end();
+                if (ce.hasEdits()) {
+                    modifiedEntriesCount++;
+                    panel.undoManager.addEdit(ce);
+                    database.notifyEntryChanged(entry);
+                }
             }
-        }
+        });
     }
 
     @Override
@@ -28,6 +28,7 @@ import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Optional;
@@ -73,13 +74,10 @@ import net.sf.jabref.gui.undo.NamedCompound;
 import net.sf.jabref.gui.worker.AbstractWorker;
 import net.sf.jabref.logic.groups.AbstractGroup;
 import net.sf.jabref.logic.groups.AllEntriesGroup;
+import net.sf.jabref.logic.groups.GroupMembershipIndex;
 import net.sf.jabref.logic.groups.GroupTreeNode;
 import net.sf.jabref.logic.groups.MoveGroupChange;
 import net.sf.jabref.logic.l10n.Localization;
-import net.sf.jabref.logic.search.SearchMatcher;
-import net.sf.jabref.logic.search.matchers.MatcherSet;
-import net.sf.jabref.logic.search.matchers.MatcherSets;
-import net.sf.jabref.logic.search.matchers.NotMatcher;
 import net.sf.jabref.model.entry.BibEntry;
 
 import org.apache.commons.logging.Log;
@@ -653,15 +651,28 @@ public class GroupSelector extends SidePaneComponent implements TreeSelectionLis
     }
 
     private void updateShownEntriesAccordingToSelectedGroups() {
-        final MatcherSet searchRules = MatcherSets
-                .build(andCb.isSelected() ? MatcherSets.MatcherType.AND : MatcherSets.MatcherType.OR);
-
-        for(GroupTreeNodeViewModel node : getLeafsOfSelection()) {
-            SearchMatcher searchRule = node.getNode().getSearchRule();
-            searchRules.addRule(searchRule);
+        GroupMembershipIndex membershipIndex = panel.getGroupMembershipIndex();
+        BitSet matches = null;
+        for (GroupTreeNodeViewModel node : getLeafsOfSelection()) {
+            BitSet nodeMatches = membershipIndex.getMatches(node.getNode());
+            if (matches == null) {
+                matches = nodeMatches;
+            } else if (andCb.isSelected()) {
+                matches.and(nodeMatches);
+            } else {
+                matches.or(nodeMatches);
+            }
+        }
+        if (matches == null) {
+            // no selected group: all entries match "and", none matches "or"
+            matches = andCb.isSelected() ? membershipIndex.getAllEntries() : new BitSet();
         }
-        SearchMatcher searchRule = invCb.isSelected() ? new NotMatcher(searchRules) : searchRules;
-        GroupingWorker worker = new GroupingWorker(searchRule);
+        if (invCb.isSelected()) {
+            BitSet inverted = membershipIndex.getAllEntries();
+            inverted.andNot(matches);
+            matches = inverted;
+        }
+        GroupingWorker worker = new GroupingWorker(membershipIndex, matches);
         worker.getWorker().run();
         worker.getCallBack().update();
     }
@@ -689,23 +700,20 @@ public class GroupSelector extends SidePaneComponent implements TreeSelectionLis
 
     class GroupingWorker extends AbstractWorker {
 
-        private final SearchMatcher matcher;
-        private final List<BibEntry> matches = new ArrayList<>();
+        private final GroupMembershipIndex membershipIndex;
+        private final BitSet matches;
         private final boolean showOverlappingGroupsP;
 
-        public GroupingWorker(SearchMatcher matcher) {
-            this.matcher = matcher;
+        public GroupingWorker(GroupMembershipIndex membershipIndex, BitSet matches) {
+            this.membershipIndex = membershipIndex;
+            this.matches = matches;
             showOverlappingGroupsP = showOverlappingGroups.isSelected();
         }
 
         @Override
         public void run() {
             for (BibEntry entry : panel.getDatabase().getEntries()) {
-                boolean hit = matcher.isMatch(entry);
-                entry.setGroupHit(hit);
-                if (hit && showOverlappingGroupsP) {
-                    matches.add(entry);
-                }
+                entry.setGroupHit(membershipIndex.contains(matches, entry));
             }
         }
 
@@ -722,7 +730,7 @@ public class GroupSelector extends SidePaneComponent implements TreeSelectionLis
             panel.mainTable.scrollTo(0);
 
             if (showOverlappingGroupsP) {
-                showOverlappingGroups(matches);
+                showOverlappingGroups(membershipIndex, matches);
             }
             frame.output(Localization.lang("Updated group selection") + ".");
         }
@@ -762,6 +770,10 @@ public class GroupSelector extends SidePaneComponent implements TreeSelectionLis
      */
     private void revalidateGroups(TreePath[] selectionPaths, Enumeration<TreePath> expandedNodes,
             GroupTreeNodeViewModel node) {
+        if ((panel != null) && (groupsRoot != null)) {
+            // the entries of removed or replaced groups are not needed anymore
+            panel.getGroupMembershipIndex().retainGroups(groupsRoot.getNode());
+        }
         groupsTreeModel.reload();
         groupsTree.clearSelection();
         if (selectionPaths != null) {
@@ -1323,8 +1335,8 @@ public class GroupSelector extends SidePaneComponent implements TreeSelectionLis
     /**
      * Show groups that, if selected, would show at least one of the entries found in the specified search.
      */
-    private void showOverlappingGroups(List<BibEntry> matches) { //DatabaseSearch search) {
-        List<GroupTreeNode> nodes = groupsRoot.getNode().getMatchingGroups(matches);
+    private void showOverlappingGroups(GroupMembershipIndex membershipIndex, BitSet matches) {
+        List<GroupTreeNode> nodes = membershipIndex.getMatchingGroups(groupsRoot.getNode(), matches);
         groupsTree.setHighlight2Cells(nodes.toArray());
     }
 
@@ -203,11 +203,7 @@ public class GroupTreeNodeViewModel implements Transferable, TreeNode {
                 int hits = 0;
                 BasePanel currentBasePanel = JabRefGUI.getMainFrame().getCurrentBasePanel();
                 if(currentBasePanel != null) {
-                    for (BibEntry entry : currentBasePanel.getDatabase().getEntries()) {
-                        if (group.contains(entry)) {
-                            hits++;
-                        }
-                    }
+                    hits = currentBasePanel.getGroupMembershipIndex().getHitCount(group);
                 }
                 sb.append(" [").append(hits).append(']');
             }
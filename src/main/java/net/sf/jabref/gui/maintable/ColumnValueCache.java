@@ -0,0 +1,99 @@
+package net.sf.jabref.gui.maintable;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.VetoableChangeListener;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+import net.sf.jabref.model.entry.BibEntry;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+
+/**
+ * Caches values computed from the fields of an entry for each column of the main table, e.g., the text shown in a
+ * cell or the value a column is sorted by. The values of an entry are dropped when one of its fields changes; for
+ * this, the cache listens to the entries it holds values for.
+ * <p>
+ * The entries are compared by identity and only weakly referenced. If a maximum number of entries is given, the
+ * values of the least recently used entries are dropped.
+ */
+class ColumnValueCache implements VetoableChangeListener {
+
+    private static final Object NOT_COMPUTED = new Object();
+
+    private final int columns;
+    private final Cache<BibEntry, Object[]> values;
+
+
+    /**
+     * @param columns the number of columns
+     * @param maximumEntries the maximum number of entries to hold the values of, 0 for no limit
+     */
+    ColumnValueCache(int columns, long maximumEntries) {
+        this.columns = columns;
+        CacheBuilder<BibEntry, Object[]> builder = CacheBuilder.newBuilder().weakKeys()
+                .removalListener(this::entryRemoved);
+        if (maximumEntries > 0) {
+            builder.maximumSize(maximumEntries);
+        }
+        values = builder.build();
+    }
+
+    /**
+     * Returns the cached value of the column for the entry, computing it if it is not cached.
+     *
+     * @param computation computes the value, which may be null
+     */
+    Object get(BibEntry entry, int column, Function<BibEntry, Object> computation) {
+        Object[] entryValues;
+        try {
+            entryValues = values.get(entry, () -> createValues(entry));
+        } catch (ExecutionException e) {
+            // createValues does not throw checked exceptions
+            throw new IllegalStateException(e);
+        }
+
+        Object value = entryValues[column];
+        if (value == NOT_COMPUTED) {
+            value = computation.apply(entry);
+            entryValues[column] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Drops the values of all entries and stops listening to them.
+     */
+    void invalidateAll() {
+        values.invalidateAll();
+        values.cleanUp();
+    }
+
+    long size() {
+        return values.size();
+    }
+
+    private Object[] createValues(BibEntry entry) {
+        entry.addPropertyChangeListener(this);
+        Object[] entryValues = new Object[columns];
+        Arrays.fill(entryValues, NOT_COMPUTED);
+        return entryValues;
+    }
+
+    private void entryRemoved(RemovalNotification<BibEntry, Object[]> notification) {
+        // the key is null if the entry has been garbage collected
+        if (notification.getKey() != null) {
+            notification.getKey().removePropertyChangeListener(this);
+        }
+    }
+
+    @Override
+    public void vetoableChange(PropertyChangeEvent evt) {
+        if (evt.getSource() instanceof BibEntry) {
+            values.invalidate(evt.getSource());
+        }
+    }
+}
@@ -15,41 +15,132 @@
  */
 package net.sf.jabref.gui.maintable;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
 import net.sf.jabref.model.database.DatabaseChangeEvent;
 import net.sf.jabref.model.database.DatabaseChangeListener;
 import net.sf.jabref.model.entry.BibEntry;
 
-import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.TransactionList;
 
+/**
+ * Keeps the event list of the main table in sync with the database.
+ * <p>
+ * Every change of the event list runs through all sorted and filtered lists on top of it and updates the table. Thus,
+ * the changes of a batch are collected and applied at its end in one transaction, which is published as a single
+ * change of the event list. The removed and changed entries are found in one pass over the list.
+ */
 public class ListSynchronizer implements DatabaseChangeListener {
 
-    private final EventList<BibEntry> list;
+    private final TransactionList<BibEntry> list;
+
+    private int batchDepth;
+    // BibEntry implements equals and hashCode based on its content, so identity based collections have to be used
+    private final List<BibEntry> addedInBatch = new ArrayList<>();
+    private final Set<BibEntry> removedInBatch = newEntrySet();
+    private final Set<BibEntry> changedInBatch = newEntrySet();
+
 
-    public ListSynchronizer(EventList<BibEntry> list) {
+    public ListSynchronizer(TransactionList<BibEntry> list) {
         this.list = list;
     }
 
     @Override
     public void databaseChanged(DatabaseChangeEvent e) {
+        // a single change is applied like a batch of one change
+        batchStarted();
+        try {
+            collect(e);
+        } finally {
+            batchFinished();
+        }
+    }
+
+    private void collect(DatabaseChangeEvent e) {
+        BibEntry entry = e.getEntry();
+        if (e.getType() == DatabaseChangeEvent.ChangeType.ADDED_ENTRY) {
+            if (!removedInBatch.remove(entry)) {
+                addedInBatch.add(entry);
+            }
+        } else if (e.getType() == DatabaseChangeEvent.ChangeType.REMOVED_ENTRY) {
+            changedInBatch.remove(entry);
+            if (!removeIdentical(addedInBatch, entry)) {
+                removedInBatch.add(entry);
+            }
+        } else if (e.getType() == DatabaseChangeEvent.ChangeType.CHANGED_ENTRY) {
+            changedInBatch.add(entry);
+        }
+    }
+
+    @Override
+    public void batchStarted() {
+        batchDepth++;
+    }
+
+    @Override
+    public void batchFinished() {
+        batchDepth--;
+        if ((batchDepth > 0)
+                || (addedInBatch.isEmpty() && removedInBatch.isEmpty() && changedInBatch.isEmpty())) {
+            return;
+        }
+
         list.getReadWriteLock().writeLock().lock();
         try {
-            if (e.getType() == DatabaseChangeEvent.ChangeType.ADDED_ENTRY) {
-                list.add(e.getEntry());
-            } else if (e.getType() == DatabaseChangeEvent.ChangeType.REMOVED_ENTRY) {
-                list.remove(e.getEntry());
-            } else if (e.getType() == DatabaseChangeEvent.ChangeType.CHANGED_ENTRY) {
-                int index = list.indexOf(e.getEntry());
-                if (index != -1) {
-                    // SpecialFieldUtils.syncSpecialFieldsFromKeywords update an entry during
-                    // DatabaseChangeEvent.ADDED_ENTRY
-                    // thus,
-                    list.set(index, e.getEntry());
+            list.beginEvent(true);
+            try {
+                if (!removedInBatch.isEmpty() || !changedInBatch.isEmpty()) {
+                    updateRows();
+                }
+                // entries added in this batch are shown as they are now, so their changes need not be applied
+                if (!addedInBatch.isEmpty()) {
+                    list.addAll(addedInBatch);
                 }
+            } finally {
+                list.commitEvent();
             }
         } finally {
             list.getReadWriteLock().writeLock().unlock();
+            addedInBatch.clear();
+            removedInBatch.clear();
+            changedInBatch.clear();
+        }
+    }
+
+    /**
+     * Removes the removed entries from the list and sets the changed entries again, so that the sorted and filtered
+     * lists on top of it place the rows of the changed entries anew. The entries are identified by identity.
+     */
+    private void updateRows() {
+        int toRemove = removedInBatch.size();
+        int toUpdate = changedInBatch.size();
+        for (int i = list.size() - 1; (i >= 0) && ((toRemove > 0) || (toUpdate > 0)); i--) {
+            BibEntry entry = list.get(i);
+            if (removedInBatch.contains(entry)) {
+                list.remove(i);
+                toRemove--;
+            } else if (changedInBatch.contains(entry)) {
+                list.set(i, entry);
+                toUpdate--;
+            }
         }
+    }
 
+    private static boolean removeIdentical(List<BibEntry> entries, BibEntry entry) {
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            if (entries.get(i) == entry) {
+                entries.remove(i);
+                return true;
+            }
+        }
+        return false;
     }
 
+    private static Set<BibEntry> newEntrySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
 }
@@ -20,6 +20,8 @@ import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -41,7 +43,6 @@ import javax.swing.table.TableColumnModel;
 import net.sf.jabref.Globals;
 import net.sf.jabref.JabRefPreferences;
 import net.sf.jabref.bibtex.BibtexSingleField;
-import net.sf.jabref.bibtex.comparator.FieldComparator;
 import net.sf.jabref.gui.BasePanel;
 import net.sf.jabref.gui.EntryMarker;
 import net.sf.jabref.gui.GUIGlobals;
@@ -150,6 +151,14 @@ public class MainTable extends JTable {
         pane = new JScrollPane(this);
         pane.setBorder(BorderFactory.createEmptyBorder());
         pane.getViewport().setBackground(Globals.prefs.getColor(JabRefPreferences.TABLE_BACKGROUND));
+        pane.getViewport().addComponentListener(new ComponentAdapter() {
+
+            @Override
+            public void componentResized(ComponentEvent e) {
+                // the values of the visible rows are cached
+                tableFormat.setVisibleRows((pane.getViewport().getHeight() / getRowHeight()) + 1);
+            }
+        });
         setGridColor(Globals.prefs.getColor(JabRefPreferences.GRID_COLOR));
         if (Globals.prefs.getBoolean(JabRefPreferences.TABLE_SHOW_GRID)) {
             setShowGrid(true);
@@ -375,7 +384,7 @@ public class MainTable extends JTable {
             } else {
                 comparators = comparatorChooser.getComparatorsForColumn(i);
                 comparators.clear();
-                comparators.add(new FieldComparator(tableFormat.getColumnName(i).toLowerCase()));
+                comparators.add(tableFormat.createFieldComparator(i));
             }
         }
 
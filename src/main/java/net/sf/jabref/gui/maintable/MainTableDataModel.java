@@ -19,6 +19,7 @@ import ca.odell.glazedlists.BasicEventList;
 import ca.odell.glazedlists.EventList;
 import ca.odell.glazedlists.FilterList;
 import ca.odell.glazedlists.SortedList;
+import ca.odell.glazedlists.TransactionList;
 import ca.odell.glazedlists.matchers.Matcher;
 
 public class MainTableDataModel {
@@ -36,12 +37,14 @@ public class MainTableDataModel {
 
         EventList<BibEntry> initialEventList = new BasicEventList<>();
         initialEventList.addAll(entries);
+        // publishes the changes of a batch of database changes at once
+        TransactionList<BibEntry> transactionList = new TransactionList<>(initialEventList);
 
-        listSynchronizer = new ListSynchronizer(initialEventList);
+        listSynchronizer = new ListSynchronizer(transactionList);
 
         // This SortedList has a Comparator controlled by the TableComparatorChooser
         // we are going to install, which responds to user sorting selections:
-        sortedForUserDefinedTableColumnSorting = new SortedList<>(initialEventList, null);
+        sortedForUserDefinedTableColumnSorting = new SortedList<>(transactionList, null);
         // This SortedList applies afterwards, and floats marked entries:
         sortedForMarkingSearchGrouping = new SortedList<>(sortedForUserDefinedTableColumnSorting, null);
 
@@ -102,6 +105,22 @@ public class MainTableDataModel {
         }
     }
 
+    /**
+     * Shows the changed search hits of the entries in the given way. Unlike disabling and enabling the search state
+     * again, the rows of the table are filtered or sorted only once.
+     */
+    public void updateSearchResults(DisplayOption searchState) {
+        Objects.requireNonNull(searchState);
+
+        if (filterAndSortingState.searchState != searchState) {
+            updateSearchState(searchState);
+        } else if (searchState == DisplayOption.FLOAT) {
+            updateSortOrder();
+        } else if (searchState == DisplayOption.FILTER) {
+            filterSearchToggle.start();
+        }
+    }
+
     public void updateGroupingState(DisplayOption groupingState) {
         Objects.requireNonNull(groupingState);
 
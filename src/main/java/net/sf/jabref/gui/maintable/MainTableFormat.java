@@ -17,12 +17,14 @@ package net.sf.jabref.gui.maintable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 import javax.swing.JLabel;
 
 import net.sf.jabref.Globals;
 import net.sf.jabref.JabRefPreferences;
+import net.sf.jabref.bibtex.comparator.FieldComparator;
 import net.sf.jabref.gui.IconTheme;
 import net.sf.jabref.model.database.BibDatabase;
 import net.sf.jabref.model.entry.BibEntry;
@@ -32,6 +34,11 @@ import ca.odell.glazedlists.gui.TableFormat;
 
 /**
  * Class defining the contents and column headers of the main table.
+ * <p>
+ * The values of the columns showing fields are cached, as they are requested on every repaint of a cell and their
+ * computation includes converting LaTeX to Unicode and formatting names. The values are cached for the visible rows
+ * plus a margin, so that scrolling back and forth does not compute them again. The values the field columns are sorted
+ * by are cached for all entries, as sorting needs them for every entry.
  */
 public class MainTableFormat implements TableFormat<BibEntry> {
     // Character separating field names that are to be used in sequence as
@@ -47,8 +54,16 @@ public class MainTableFormat implements TableFormat<BibEntry> {
 
     private final BibDatabase database;
 
+    // Rows for which the values are cached in addition to the visible rows
+    private static final int CACHED_ROWS_MARGIN = 200;
+    private static final int DEFAULT_VISIBLE_ROWS = 50;
+
     private final List<MainTableColumn> tableColumns = new ArrayList<>();
 
+    private int visibleRows = DEFAULT_VISIBLE_ROWS;
+    private ColumnValueCache columnValues = new ColumnValueCache(0, DEFAULT_VISIBLE_ROWS + CACHED_ROWS_MARGIN);
+    private ColumnValueCache sortValues = new ColumnValueCache(0, 0);
+
     public MainTableFormat(BibDatabase database) {
         this.database = database;
     }
@@ -90,7 +105,50 @@ public class MainTableFormat implements TableFormat<BibEntry> {
 
     @Override
     public Object getColumnValue(BibEntry be, int col) {
-        return tableColumns.get(col).getColumnValue(be);
+        MainTableColumn column = tableColumns.get(col);
+        if (isFieldColumn(column)) {
+            return columnValues.get(be, col, column::getColumnValue);
+        }
+        return column.getColumnValue(be);
+    }
+
+    /**
+     * Creates the comparator sorting the entries by the given column, which has to show fields. The comparator uses
+     * the cached values the entries are sorted by.
+     */
+    public Comparator<BibEntry> createFieldComparator(int col) {
+        FieldComparator comparator = new FieldComparator(getColumnName(col).toLowerCase());
+        return (e1, e2) -> comparator.compareSortValues((String) sortValues.get(e1, col, comparator::getSortValue),
+                (String) sortValues.get(e2, col, comparator::getSortValue));
+    }
+
+    /**
+     * Sets the number of rows visible in the table, which determines the number of entries whose values are cached.
+     */
+    public void setVisibleRows(int rows) {
+        if (rows != visibleRows) {
+            visibleRows = rows;
+            columnValues.invalidateAll();
+            columnValues = new ColumnValueCache(tableColumns.size(), visibleRows + CACHED_ROWS_MARGIN);
+        }
+    }
+
+    /**
+     * Drops all cached values, e.g., when the way the values are formatted has changed, and stops listening to the
+     * entries.
+     */
+    public void invalidateCache() {
+        columnValues.invalidateAll();
+        sortValues.invalidateAll();
+        columnValues = new ColumnValueCache(tableColumns.size(), visibleRows + CACHED_ROWS_MARGIN);
+        sortValues = new ColumnValueCache(tableColumns.size(), 0);
+    }
+
+    /**
+     * @return whether the column shows the content of fields, which can be cached
+     */
+    private static boolean isFieldColumn(MainTableColumn column) {
+        return !column.isIconColumn() && !column.getBibtexFields().isEmpty();
     }
 
     public void updateTableFormat() {
@@ -166,7 +224,7 @@ public class MainTableFormat implements TableFormat<BibEntry> {
             }
         }
 
-
+        invalidateCache();
     }
 
 }
@@ -2,7 +2,6 @@ package net.sf.jabref.gui.search;
 
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 import net.sf.jabref.gui.BasePanel;
 import net.sf.jabref.gui.JabRefFrame;
@@ -34,7 +33,7 @@ class GlobalSearchWorker extends AbstractWorker {
         // Search all databases
         for (int i = 0; i < frame.getTabbedPane().getTabCount(); i++) {
             BasePanel basePanel = frame.getBasePanelAt(i);
-            List<BibEntry> matches = basePanel.getDatabase().getEntries().stream().filter(searchQuery::isMatch).collect(Collectors.toList());
+            List<BibEntry> matches = basePanel.getSearchIndex().getMatches(searchQuery);
             dialog.addEntries(matches, basePanel);
         }
     }
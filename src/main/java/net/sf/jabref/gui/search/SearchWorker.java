@@ -4,7 +4,6 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
 
 import javax.swing.SwingWorker;
 
@@ -25,14 +24,12 @@ class SearchWorker extends SwingWorker<List<BibEntry>, Void> {
     private static final Log LOGGER = LogFactory.getLog(SearchWorker.class);
 
     private final BasePanel basePanel;
-    private final BibDatabase database;
 
     private final SearchQuery searchQuery;
     private final SearchMode mode;
 
     SearchWorker(BasePanel basePanel, SearchQuery searchQuery, SearchMode mode) {
         this.basePanel = Objects.requireNonNull(basePanel);
-        this.database = Objects.requireNonNull(basePanel.getDatabase());
         this.searchQuery = Objects.requireNonNull(searchQuery);
         this.mode = Objects.requireNonNull(mode);
         LOGGER.debug("Search (" + this.mode.getDisplayName() + "): " + this.searchQuery);
@@ -42,7 +39,7 @@ class SearchWorker extends SwingWorker<List<BibEntry>, Void> {
     protected List<BibEntry> doInBackground() throws Exception {
         // Search the current database
         List<BibEntry> matchedEntries = new LinkedList<>();
-        matchedEntries.addAll(database.getEntries().stream().filter(searchQuery::isMatch).collect(Collectors.toList()));
+        matchedEntries.addAll(basePanel.getSearchIndex().getMatches(searchQuery));
         return matchedEntries;
     }
 
@@ -67,28 +64,32 @@ class SearchWorker extends SwingWorker<List<BibEntry>, Void> {
             return;
         }
 
-        // clear
-        for (BibEntry entry : basePanel.getDatabase().getEntries()) {
-            entry.setSearchHit(false);
-        }
-
-        for (BibEntry entry : matchedEntries) {
-            entry.setSearchHit(true);
-        }
-
-        basePanel.mainTable.getTableModel().updateSearchState(MainTableDataModel.DisplayOption.DISABLED);
-
-        // Show the result in the chosen way:
-        switch (mode) {
-        case FLOAT:
-            basePanel.mainTable.getTableModel().updateSearchState(MainTableDataModel.DisplayOption.FLOAT);
-            break;
-        case FILTER:
-            basePanel.mainTable.getTableModel().updateSearchState(MainTableDataModel.DisplayOption.FILTER);
-            break;
-        default:
-            break;
-        }
+        // the hits are marked and shown in one batch, so that entries added or removed meanwhile are shown with their
+        // hits after the rows have been filtered or sorted
+        BibDatabase database = basePanel.getDatabase();
+        database.runInBatch(() -> {
+            // clear
+            for (BibEntry entry : database.getEntries()) {
+                entry.setSearchHit(false);
+            }
+
+            for (BibEntry entry : matchedEntries) {
+                entry.setSearchHit(true);
+            }
+
+            // Show the result in the chosen way:
+            switch (mode) {
+            case FLOAT:
+                basePanel.mainTable.getTableModel().updateSearchResults(MainTableDataModel.DisplayOption.FLOAT);
+                break;
+            case FILTER:
+                basePanel.mainTable.getTableModel().updateSearchResults(MainTableDataModel.DisplayOption.FILTER);
+                break;
+            default:
+                basePanel.mainTable.getTableModel().updateSearchResults(MainTableDataModel.DisplayOption.DISABLED);
+                break;
+            }
+        });
 
         // select first match (i.e., row) if there is any
         int hits = matchedEntries.size();
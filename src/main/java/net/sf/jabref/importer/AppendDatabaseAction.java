@@ -150,11 +150,11 @@ public class AppendDatabaseAction implements BaseAction {
                 BibEntry be = (BibEntry) originalEntry.clone();
                 be.setId(IdGenerator.next());
                 UpdateField.setAutomaticFields(be, overwriteOwner, overwriteTimeStamp);
-                database.insertEntry(be);
                 appendedEntries.add(be);
                 originalEntries.add(originalEntry);
                 ce.addEdit(new UndoableInsertEntry(database, be, panel));
             }
+            database.insertEntries(appendedEntries);
         }
 
         if (importStrings) {
@@ -16,12 +16,13 @@
 package net.sf.jabref.importer;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import net.sf.jabref.Globals;
 import net.sf.jabref.JabRefGUI;
@@ -41,7 +42,10 @@ import net.sf.jabref.model.entry.ParsedFileField;
  */
 class DatabaseFileLookup {
 
-    private final Set<File> fileCache = new HashSet<>();
+    /**
+     * The absolute, normalized paths of all linked files.
+     */
+    private final Set<Path> fileCache;
 
     private final List<String> possibleFilePaths;
 
@@ -51,12 +55,22 @@ class DatabaseFileLookup {
      * @param database A {@link BibDatabase}.
      */
     public DatabaseFileLookup(BibDatabase database) {
+        this(database, Optional.ofNullable(
+                JabRefGUI.getMainFrame().getCurrentBasePanel().getBibDatabaseContext().getFileDirectory())
+                .orElse(new ArrayList<>()));
+    }
+
+    /**
+     * @param database A {@link BibDatabase}.
+     * @param possibleFilePaths The directories relative file links are resolved against.
+     */
+    DatabaseFileLookup(BibDatabase database, List<String> possibleFilePaths) {
         Objects.requireNonNull(database);
-        possibleFilePaths = Optional.ofNullable(JabRefGUI.getMainFrame().getCurrentBasePanel().getBibDatabaseContext().getFileDirectory()).orElse(new ArrayList<>());
+        this.possibleFilePaths = Objects.requireNonNull(possibleFilePaths);
 
-        for (BibEntry entry : database.getEntries()) {
-            fileCache.addAll(parseFileField(entry));
-        }
+        // resolving a link checks whether the file exists, which is slow on network drives
+        fileCache = database.getEntries().parallelStream().flatMap(entry -> parseFileField(entry).stream())
+                .map(file -> normalize(file.toPath())).collect(Collectors.toSet());
     }
 
     /**
@@ -66,7 +80,7 @@ class DatabaseFileLookup {
      * To do this, the field specified by the key <b>file</b> will be searched
      * for the provided file for every {@link BibEntry} in the database. <br>
      * <br>
-     * For the matching, the absolute file paths will be used.
+     * For the matching, the absolute, normalized file paths will be used.
      *
      * @param file
      *            A {@link File} Object.
@@ -74,7 +88,18 @@ class DatabaseFileLookup {
      *         entry in the database, otherwise <code>false</code>.
      */
     public boolean lookupDatabase(File file) {
-        return fileCache.contains(file);
+        return lookupDatabase(file.toPath());
+    }
+
+    /**
+     * @see #lookupDatabase(File)
+     */
+    public boolean lookupDatabase(Path file) {
+        return fileCache.contains(normalize(file));
+    }
+
+    private static Path normalize(Path file) {
+        return file.toAbsolutePath().normalize();
     }
 
     private List<File> parseFileField(BibEntry entry) {
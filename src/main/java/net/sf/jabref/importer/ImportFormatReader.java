@@ -16,21 +16,32 @@
 package net.sf.jabref.importer;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.io.Reader;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 import net.sf.jabref.Globals;
+import net.sf.jabref.JabRefExecutorService;
 import net.sf.jabref.importer.fileformat.BibTeXMLImporter;
 import net.sf.jabref.importer.fileformat.BiblioscapeImporter;
 import net.sf.jabref.importer.fileformat.BibtexImporter;
@@ -230,23 +241,34 @@ public class ImportFormatReader {
      * Tries to import a file by iterating through the available import filters,
      * and keeping the import that seems most promising.
      * <p/>
-     * If all fails this method attempts to read this file as bibtex.
-     *
-     * @throws IOException
+     * The file is read once into memory. In parallel, it is parsed as bibtex
+     * and the import formats check whether they recognize it. Only the formats
+     * recognizing it import it, again in parallel. If the file contains bibtex
+     * entries or strings, it is imported as bibtex and the other imports are
+     * cancelled. Otherwise, the import with the most entries is kept, the first
+     * one in the default order of import formats on ties.
      */
     public UnknownFormatImport importUnknownFormat(String filename) {
         Objects.requireNonNull(filename);
+        File file = new File(filename);
 
-        // First, see if it is a BibTeX file:
+        byte[] content;
         try {
-            ParserResult pr = OpenDatabaseAction.loadDatabase(new File(filename),
-                    Globals.prefs.getDefaultEncoding());
-            if (pr.getDatabase().hasEntries() || !pr.getDatabase().hasNoStrings()) {
-                pr.setFile(new File(filename));
-                return new UnknownFormatImport(ImportFormatReader.BIBTEX_FORMAT, pr);
-            }
-        } catch (IOException ignore) {
-            // Ignored
+            content = Files.readAllBytes(file.toPath());
+        } catch (IOException ex) {
+            // neither bibtex nor any import format can read the file
+            return null;
+        }
+
+        AtomicBoolean cancelled = new AtomicBoolean();
+
+        // First, see if it is a BibTeX file. The parser only finds entries and strings after an @:
+        CompletableFuture<Optional<ParserResult>> bibtexImport;
+        if (containsAt(content)) {
+            bibtexImport = CompletableFuture.supplyAsync(() -> importBibtex(file, content),
+                    JabRefExecutorService.INSTANCE);
+        } else {
+            bibtexImport = CompletableFuture.completedFuture(Optional.empty());
         }
 
         // we don't use a provided OutputPrinter (such as the JabRef frame),
@@ -254,29 +276,33 @@ public class ImportFormatReader {
         // we expect failures and do not want to report them to the user
         OutputPrinterToNull nullOutput = new OutputPrinterToNull();
 
+        // the sniffing only reads the beginning of most files, the imports are started right after
+        Map<ImportFormat, CompletableFuture<List<BibEntry>>> imports = new LinkedHashMap<>();
+        List<ImportFormat> candidates = getImportFormats().parallelStream()
+                .filter(format -> isRecognizedFormat(format, content, cancelled)).collect(Collectors.toList());
+        for (ImportFormat format : candidates) {
+            imports.put(format, CompletableFuture.supplyAsync(() -> importEntries(format, content, cancelled, nullOutput),
+                    JabRefExecutorService.INSTANCE));
+        }
+
+        Optional<ParserResult> bibtexResult = bibtexImport.join();
+        if (bibtexResult.isPresent()) {
+            cancelled.set(true);
+            return new UnknownFormatImport(ImportFormatReader.BIBTEX_FORMAT, bibtexResult.get());
+        }
+
         // stores ref to best result, gets updated at the next loop
         List<BibEntry> bestResult = null;
         int bestResultCount = 0;
         String bestFormatName = null;
 
-        // Cycle through all importers:
-        for (ImportFormat imFo : getImportFormats()) {
-
-            try {
-
-                List<BibEntry> entries = importFromFile(imFo, filename, nullOutput);
-
-                int entryCount;
-                BibDatabases.purgeEmptyEntries(entries);
-                entryCount = entries.size();
-
-                if (entryCount > bestResultCount) {
-                    bestResult = entries;
-                    bestResultCount = bestResult.size();
-                    bestFormatName = imFo.getFormatName();
-                }
-            } catch (IOException ex) {
-                // The import didn't succeed. Go on.
+        // Cycle through the recognizing importers in their default order:
+        for (Map.Entry<ImportFormat, CompletableFuture<List<BibEntry>>> importResult : imports.entrySet()) {
+            List<BibEntry> entries = importResult.getValue().join();
+            if (entries.size() > bestResultCount) {
+                bestResult = entries;
+                bestResultCount = bestResult.size();
+                bestFormatName = importResult.getKey().getFormatName();
             }
         }
 
@@ -288,4 +314,87 @@ public class ImportFormatReader {
 
         return null;
     }
+
+    private static Optional<ParserResult> importBibtex(File file, byte[] content) {
+        try {
+            // parsed from the content read before, the file is not read again
+            ParserResult pr = OpenDatabaseAction.loadDatabase(content, Globals.prefs.getDefaultEncoding());
+            if (pr.getDatabase().hasEntries() || !pr.getDatabase().hasNoStrings()) {
+                pr.setFile(file);
+                return Optional.of(pr);
+            }
+        } catch (IOException ignore) {
+            // Ignored
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isRecognizedFormat(ImportFormat format, byte[] content, AtomicBoolean cancelled) {
+        try (InputStream stream = new CancellableInputStream(content, cancelled)) {
+            return format.isRecognizedFormat(stream);
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * @return the non-empty entries imported, an empty list if the import didn't succeed
+     */
+    private static List<BibEntry> importEntries(ImportFormat format, byte[] content, AtomicBoolean cancelled,
+            OutputPrinter status) {
+        try (InputStream stream = new CancellableInputStream(content, cancelled)) {
+            List<BibEntry> entries = format.importEntries(stream, status);
+            BibDatabases.purgeEmptyEntries(entries);
+            return entries;
+        } catch (IOException ex) {
+            // The import didn't succeed or has been cancelled. Go on.
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Checks for the byte of an @, which is the same in all encodings based on ASCII, including UTF-16.
+     */
+    private static boolean containsAt(byte[] content) {
+        for (byte b : content) {
+            if (b == '@') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Stream on the content of the file read, which fails once the import has been decided. This way, imports
+     * which are not needed anymore stop at their next read.
+     */
+    private static class CancellableInputStream extends FilterInputStream {
+
+        private final AtomicBoolean cancelled;
+
+
+        CancellableInputStream(byte[] content, AtomicBoolean cancelled) {
+            super(new ByteArrayInputStream(content));
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkCancelled();
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            checkCancelled();
+            return super.read(b, off, len);
+        }
+
+        private void checkCancelled() throws InterruptedIOException {
+            if (cancelled.get()) {
+                throw new InterruptedIOException("Import cancelled");
+            }
+        }
+    }
 }
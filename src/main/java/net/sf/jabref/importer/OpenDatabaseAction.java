@@ -17,11 +17,14 @@ package net.sf.jabref.importer;
 
 import java.awt.event.ActionEvent;
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.StringReader;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
@@ -378,27 +381,48 @@ public class OpenDatabaseAction extends MnemonicAwareAction {
 
         // Open and parse file
         try (InputStreamReader reader = openFile(fileToOpen, suppliedEncoding, defaultEncoding)) {
-            BibtexParser parser = new BibtexParser(reader);
-
-            ParserResult result = parser.parse();
-            result.setEncoding(Charset.forName(reader.getEncoding()));
+            ParserResult result = parse(reader, Charset.forName(reader.getEncoding()));
             result.setFile(fileToOpen);
+            return result;
+        }
+    }
 
-            if (SpecialFieldsUtils.keywordSyncEnabled()) {
-                NamedCompound compound = new NamedCompound("SpecialFieldSync");
-                for (BibEntry entry : result.getDatabase().getEntries()) {
-                    SpecialFieldsUtils.syncSpecialFieldsFromKeywords(entry, compound);
-                }
-                LOGGER.debug("Synchronized special fields based on keywords");
-            }
+    /**
+     * Parses the content of a bib file already read into memory, using the encoding given in its header or the
+     * default encoding, as {@link #loadDatabase(File, Charset)} does for a file.
+     */
+    public static ParserResult loadDatabase(byte[] content, Charset defaultEncoding) throws IOException {
+        Optional<Charset> suppliedEncoding = OpenDatabaseAction
+                .getSuppliedEncoding(new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8));
+        if (!suppliedEncoding.isPresent()) {
+            suppliedEncoding = OpenDatabaseAction.getSuppliedEncoding(
+                    new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_16));
+        }
+
+        Charset encoding = suppliedEncoding.orElse(defaultEncoding);
+        return parse(new StringReader(new String(content, encoding)), encoding);
+    }
+
+    private static ParserResult parse(Reader reader, Charset encoding) throws IOException {
+        BibtexParser parser = new BibtexParser(reader);
 
-            if (!result.getMetaData().isGroupTreeValid()) {
-                result.addWarning(Localization.lang(
-                        "Group tree could not be parsed. If you save the BibTeX database, all groups will be lost."));
+        ParserResult result = parser.parse();
+        result.setEncoding(encoding);
+
+        if (SpecialFieldsUtils.keywordSyncEnabled()) {
+            NamedCompound compound = new NamedCompound("SpecialFieldSync");
+            for (BibEntry entry : result.getDatabase().getEntries()) {
+                SpecialFieldsUtils.syncSpecialFieldsFromKeywords(entry, compound);
             }
+            LOGGER.debug("Synchronized special fields based on keywords");
+        }
 
-            return result;
+        if (!result.getMetaData().isGroupTreeValid()) {
+            result.addWarning(Localization.lang(
+                    "Group tree could not be parsed. If you save the BibTeX database, all groups will be lost."));
         }
+
+        return result;
     }
 
     /**
@@ -2,36 +2,68 @@ package net.sf.jabref.importer;
 
 import java.io.File;
 import java.io.FileFilter;
-import java.util.Arrays;
-import java.util.Collections;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-import javax.swing.event.ChangeEvent;
-import javax.swing.event.ChangeListener;
-
 import net.sf.jabref.gui.FindUnlinkedFilesDialog.CheckableTreeNode;
 import net.sf.jabref.gui.FindUnlinkedFilesDialog.FileNodeWrapper;
 import net.sf.jabref.model.database.BibDatabase;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
 /**
  * Util class for searching files on the file system which are not linked to a provided {@link BibDatabase}.
+ * <p>
+ * The directories are listed in parallel, which pays off most on network drives, where listing a directory is
+ * dominated by the latency of the drive.
  */
 public class UnlinkedFilesCrawler {
+
+    private static final Log LOGGER = LogFactory.getLog(UnlinkedFilesCrawler.class);
+
     /**
-     * File filter, that accepts directories only.
+     * Listing directories mostly waits for the file system, so more threads than processors are used.
      */
-    private static final FileFilter DIRECTORY_FILTER = pathname -> (pathname != null) && pathname.isDirectory();
+    private static final int PARALLELISM = Math.max(8, 2 * Runtime.getRuntime().availableProcessors());
 
     private final BibDatabase database;
 
+
+    /**
+     * Receives the results and the progress of a search while it is running. The methods are called from the threads
+     * of the search.
+     */
+    public interface SearchListener {
+
+        /**
+         * @param file a file which will be in the resulting tree
+         */
+        void fileFound(Path file);
+
+        /**
+         * @param directory a directory whose entries have all been looked at
+         */
+        void directoryScanned(Path directory);
+    }
+
+
     public UnlinkedFilesCrawler(BibDatabase database) {
         this.database = database;
     }
 
     public CheckableTreeNode searchDirectory(File directory, FileFilter filter) {
         UnlinkedPDFFileFilter ff = new UnlinkedPDFFileFilter(filter, database);
-        return searchDirectory(directory, ff, new AtomicBoolean(true), null);
+        return searchDirectory(directory.toPath(), ff, new AtomicBoolean(true), null);
     }
 
     /**
@@ -41,62 +73,110 @@ public class UnlinkedFilesCrawler {
      * {@link EntryFromFileCreatorManager}, are taken into the resulting tree. <br>
      * <br>
      * The result will be a tree structure of nodes of the type
-     * {@link CheckableTreeNode}. <br>
+     * {@link CheckableTreeNode}. The files and the subdirectories of a directory
+     * are sorted by their names. <br>
      * <br>
      * The user objects that are attached to the nodes is the
      * {@link FileNodeWrapper}, which wraps the {@link File}-Object. <br>
      * <br>
-     * For ensuring the capability to cancel the work of this recursive method,
-     * the first position in the integer array 'state' must be set to 1, to keep
-     * the recursion running. When the states value changes, the method will
-     * resolve its recursion and return what it has saved so far.
+     * For ensuring the capability to cancel the work of this method, the
+     * state must be set to true, to keep the search running. When the state
+     * changes, the search stops listing directories and returns what it has
+     * found so far.
+     *
+     * @param listener notified of every file found and of every directory scanned, may be null
+     * @return the root of the tree, or null if the search was cancelled before it started or the directory is not
+     *         valid
      */
-    public CheckableTreeNode searchDirectory(File directory, UnlinkedPDFFileFilter ff, AtomicBoolean state, ChangeListener changeListener) {
+    public CheckableTreeNode searchDirectory(Path directory, UnlinkedPDFFileFilter ff, AtomicBoolean state,
+            SearchListener listener) {
         /* Cancelation of the search from outside! */
         if ((state == null) || !state.get()) {
             return null;
         }
         // Return null if the directory is not valid.
-        if ((directory == null) || !directory.exists() || !directory.isDirectory()) {
+        if ((directory == null) || !Files.isDirectory(directory)) {
             return null;
         }
 
-        File[] filesArray = directory.listFiles(ff);
-        List<File> files;
-        if (filesArray == null) {
-            files = Collections.emptyList();
-        } else {
-            files = Arrays.asList(filesArray);
+        ForkJoinPool pool = new ForkJoinPool(PARALLELISM);
+        try {
+            return pool.invoke(new DirectorySearch(directory, ff, state, listener));
+        } finally {
+            pool.shutdown();
         }
-        CheckableTreeNode root = new CheckableTreeNode(null);
+    }
 
-        int filesCount = 0;
 
-        filesArray = directory.listFiles(DIRECTORY_FILTER);
-        List<File> subDirectories;
-        if (filesArray == null) {
-            subDirectories = Collections.emptyList();
-        } else {
-            subDirectories = Arrays.asList(filesArray);
+    /**
+     * Lists one directory and forks the search of its subdirectories.
+     */
+    private static class DirectorySearch extends RecursiveTask<CheckableTreeNode> {
+
+        private final Path directory;
+        private final UnlinkedPDFFileFilter ff;
+        private final AtomicBoolean state;
+        private final SearchListener listener;
+
+
+        DirectorySearch(Path directory, UnlinkedPDFFileFilter ff, AtomicBoolean state, SearchListener listener) {
+            this.directory = directory;
+            this.ff = ff;
+            this.state = state;
+            this.listener = listener;
         }
-        for (File subDirectory : subDirectories) {
-            CheckableTreeNode subRoot = searchDirectory(subDirectory, ff, state, changeListener);
-            if ((subRoot != null) && (subRoot.getChildCount() > 0)) {
-                filesCount += ((FileNodeWrapper) subRoot.getUserObject()).fileCount;
-                root.add(subRoot);
+
+        @Override
+        protected CheckableTreeNode compute() {
+            if (!state.get()) {
+                return null;
+            }
+
+            List<Path> files = new ArrayList<>();
+            List<DirectorySearch> subSearches = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    if (!state.get()) {
+                        break;
+                    }
+                    if (Files.isDirectory(entry)) {
+                        DirectorySearch subSearch = new DirectorySearch(entry, ff, state, listener);
+                        subSearch.fork();
+                        subSearches.add(subSearch);
+                    } else if (ff.accept(entry.toFile())) {
+                        files.add(entry);
+                        if (listener != null) {
+                            listener.fileFound(entry);
+                        }
+                    }
+                }
+            } catch (IOException | DirectoryIteratorException e) {
+                LOGGER.info("Cannot list directory " + directory, e);
+            }
+            if (listener != null) {
+                listener.directoryScanned(directory);
             }
-        }
 
-        root.setUserObject(new FileNodeWrapper(directory, files.size() + filesCount));
+            CheckableTreeNode root = new CheckableTreeNode(null);
 
-        for (File file : files) {
-            root.add(new CheckableTreeNode(new FileNodeWrapper(file)));
-            if (changeListener != null) {
-                changeListener.stateChanged(new ChangeEvent(this));
+            int filesCount = 0;
+            subSearches.sort(Comparator.comparing(subSearch -> subSearch.directory.getFileName()));
+            for (DirectorySearch subSearch : subSearches) {
+                CheckableTreeNode subRoot = subSearch.join();
+                if ((subRoot != null) && (subRoot.getChildCount() > 0)) {
+                    filesCount += ((FileNodeWrapper) subRoot.getUserObject()).fileCount;
+                    root.add(subRoot);
+                }
             }
-        }
 
-        return root;
-    }
+            root.setUserObject(new FileNodeWrapper(directory.toFile(), files.size() + filesCount));
 
+            files.sort(Comparator.comparing(Path::getFileName));
+            for (Path file : files) {
+                root.add(new CheckableTreeNode(new FileNodeWrapper(file.toFile())));
+            }
+
+            return root;
+        }
+    }
 }
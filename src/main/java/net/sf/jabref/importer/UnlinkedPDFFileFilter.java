@@ -24,8 +24,12 @@ public class UnlinkedPDFFileFilter implements FileFilter {
     private final FileFilter fileFilter;
 
     public UnlinkedPDFFileFilter(FileFilter fileFilter, BibDatabase database) {
+        this(fileFilter, new DatabaseFileLookup(database));
+    }
+
+    UnlinkedPDFFileFilter(FileFilter fileFilter, DatabaseFileLookup lookup) {
         this.fileFilter = fileFilter;
-        this.lookup = new DatabaseFileLookup(database);
+        this.lookup = lookup;
     }
 
     @Override
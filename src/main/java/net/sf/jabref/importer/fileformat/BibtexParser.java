@@ -16,17 +16,17 @@
 package net.sf.jabref.importer.fileformat;
 
 import java.io.IOException;
-import java.io.PushbackReader;
 import java.io.Reader;
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Deque;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 import net.sf.jabref.Globals;
 import net.sf.jabref.MetaData;
@@ -61,25 +61,100 @@ import org.apache.commons.logging.LogFactory;
  * ParserResult result = BibtexParser.parse(reader);
  * <p>
  * Can be used stand-alone.
+ * <p>
+ * The reader is consumed completely into a char buffer before parsing starts. The parser then walks through this
+ * buffer and remembers the serialization of entries and strings as offsets into it, so that no per-character
+ * bookkeeping is needed.
+ * <p>
+ * Large inputs are parsed in parallel: the buffer is split at '@' characters starting a line, the parts are parsed
+ * concurrently and the results are added to the database in the order of the file. If it turns out that the split
+ * does not match the structure of the file (e.g., because a field value contains such an '@'), the input is parsed
+ * sequentially instead. In both cases, the result is the same.
  */
 public class BibtexParser {
     private static final Log LOGGER = LogFactory.getLog(BibtexParser.class);
 
-    private final PushbackReader pushbackReader;
+    private final Reader reader;
     private BibDatabase database;
     private Map<String, EntryType> entryTypes;
+    private final Map<String, String> meta = new HashMap<>();
     private boolean eof;
     private int line = 1;
-    private final FieldContentParser fieldContentParser = new FieldContentParser();
+    private final FieldContentParser fieldContentParser;
     private ParserResult parserResult;
     private static final Integer LOOKAHEAD = 64;
-    private final Deque<Character> pureTextFromFile = new LinkedList<>();
+    private static final int READ_CHUNK_SIZE = 8192;
+
+    /**
+     * Inputs with at least this many characters are parsed in parallel
+     */
+    private static final int PARALLEL_PARSING_THRESHOLD = 1024 * 1024;
+    /**
+     * Minimal number of characters a chunk which is parsed in parallel should have
+     */
+    private static final int MINIMAL_CHUNK_SIZE = 64 * 1024;
+    private int parallelParsingThreshold = PARALLEL_PARSING_THRESHOLD;
+    private int minimalChunkSize = MINIMAL_CHUNK_SIZE;
+
+    /**
+     * The complete content of the reader
+     */
+    private char[] buffer;
+    /**
+     * The number of characters which may be read from the buffer. Characters after it are treated as if the input
+     * ended there.
+     */
+    private int bufferLength;
+    private boolean bufferEndReached;
+    private boolean bufferContainsEOFCharacter;
+    /**
+     * The position of the next character to read from the buffer
+     */
+    private int position;
+    /**
+     * The position in the buffer where the text not yet dumped by {@link #dumpTextReadSoFarToString()} starts
+     */
+    private int pureTextStart;
+    /**
+     * Characters pushed back by {@link #unread(int)} which do not correspond to the text directly before the current
+     * position. This only happens when trying to repair corrupted keys, see {@link #fixKey()}.
+     */
+    private final char[] pushbackStack = new char[BibtexParser.LOOKAHEAD];
+    private int pushbackCount;
+
+    /**
+     * The results of a part of the input parsed in parallel, which are added to the database by the parser of the
+     * whole input. <code>null</code> when parsing sequentially, then the results are added directly.
+     */
+    private List<Consumer<BibtexParser>> parsedItems;
+    /**
+     * Whether the end of the buffer of this parser is not the end of the input, but the start of the next chunk
+     */
+    private boolean endIsChunkBoundary;
+    private boolean chunkMatchesFileStructure = true;
+    private boolean parsedInParallel;
 
 
     public BibtexParser(Reader in) {
         Objects.requireNonNull(in);
 
-        pushbackReader = new PushbackReader(in, BibtexParser.LOOKAHEAD);
+        reader = in;
+        fieldContentParser = new FieldContentParser();
+    }
+
+    /**
+     * Creates a parser for the part of the buffer of the given parser between start (inclusive) and end (exclusive)
+     */
+    private BibtexParser(BibtexParser parser, int start, int end, int line) {
+        reader = parser.reader;
+        fieldContentParser = parser.fieldContentParser;
+        buffer = parser.buffer;
+        bufferLength = end;
+        endIsChunkBoundary = end < parser.bufferLength;
+        position = start;
+        pureTextStart = start;
+        this.line = line;
+        parsedItems = new ArrayList<>();
     }
 
     /**
@@ -147,15 +222,147 @@ public class BibtexParser {
         // Bibtex related contents.
         initializeParserResult();
 
-        skipWhitespace();
+        fillBuffer();
 
         try {
+            if ((bufferLength >= parallelParsingThreshold) && !bufferContainsEOFCharacter && parseInParallel()) {
+                return finishParsing();
+            }
+
+            skipWhitespace();
             return parseFileContent();
         } catch (KeyCollisionException kce) {
             throw new IOException("Duplicate ID in bibtex file: " + kce);
         }
     }
 
+    /**
+     * Sets the minimal number of characters of inputs to parse in parallel and the minimal number of characters of a
+     * part parsed by one thread. Only used for testing the parallel parsing with small inputs.
+     */
+    void setParallelParsingThresholds(int parallelParsingThreshold, int minimalChunkSize) {
+        this.parallelParsingThreshold = parallelParsingThreshold;
+        this.minimalChunkSize = minimalChunkSize;
+    }
+
+    /**
+     * Splits the buffer into chunks, parses them in parallel and adds their results to the database in the order of
+     * the file.
+     *
+     * @return false if the chunks could not be parsed independently of each other. Nothing has been added to the
+     * database then and the input has to be parsed sequentially.
+     */
+    private boolean parseInParallel() throws IOException {
+        List<BibtexParser> chunks = splitIntoChunks();
+        if (chunks.size() < 2) {
+            return false;
+        }
+
+        chunks.parallelStream().forEach(BibtexParser::parseChunk);
+        for (BibtexParser chunk : chunks) {
+            if (!chunk.chunkMatchesFileStructure) {
+                LOGGER.debug("Could not parse file in parallel, falling back to sequential parsing");
+                return false;
+            }
+        }
+
+        parsedInParallel = true;
+        for (BibtexParser chunk : chunks) {
+            for (Consumer<BibtexParser> item : chunk.parsedItems) {
+                item.accept(this);
+            }
+        }
+
+        // continue after the last chunk, so that the remaining content is found
+        BibtexParser lastChunk = chunks.get(chunks.size() - 1);
+        position = lastChunk.position;
+        line = lastChunk.line;
+        return true;
+    }
+
+    /**
+     * Splits the buffer at '@' characters which are the first non-whitespace character of a line and which are not
+     * enclosed in braces. The chunks have at least {@link #minimalChunkSize} characters, if possible.
+     */
+    private List<BibtexParser> splitIntoChunks() {
+        List<BibtexParser> chunks = new ArrayList<>();
+        int chunkStart = 0;
+        int chunkStartLine = 1;
+        int currentLine = 1;
+        int braceLevel = 0;
+        boolean onlyWhitespaceInLine = true;
+        char lastCharacter = '\0';
+
+        for (int i = 0; i < bufferLength; i++) {
+            char character = buffer[i];
+            if ((character == '@') && onlyWhitespaceInLine && (braceLevel == 0)
+                    && ((i - chunkStart) >= minimalChunkSize)) {
+                chunks.add(new BibtexParser(this, chunkStart, i, chunkStartLine));
+                chunkStart = i;
+                chunkStartLine = currentLine;
+            }
+
+            if (character == '\n') {
+                currentLine++;
+                onlyWhitespaceInLine = true;
+            } else if (!Character.isWhitespace(character)) {
+                onlyWhitespaceInLine = false;
+            }
+
+            if ((character == '{') && !isEscapeSymbol(lastCharacter)) {
+                braceLevel++;
+            } else if ((character == '}') && !isEscapeSymbol(lastCharacter) && (braceLevel > 0)) {
+                braceLevel--;
+            }
+            lastCharacter = character;
+        }
+        chunks.add(new BibtexParser(this, chunkStart, bufferLength, chunkStartLine));
+
+        return chunks;
+    }
+
+    /**
+     * Parses the part of the buffer of this chunk. Afterwards, {@link #chunkMatchesFileStructure} tells whether the
+     * sequential parser would have found the same items, i.e., no item is cut by the end of the chunk.
+     */
+    private void parseChunk() {
+        try {
+            if (position == 0) {
+                skipWhitespace();
+            }
+            parseItems();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug("Could not parse chunk", e);
+            chunkMatchesFileStructure = false;
+        }
+
+        if (pushbackCount > 0) {
+            chunkMatchesFileStructure = false;
+        }
+    }
+
+
+    /**
+     * Reads the whole content of the reader into {@link #buffer}
+     */
+    private void fillBuffer() throws IOException {
+        buffer = new char[READ_CHUNK_SIZE];
+        bufferLength = 0;
+        int charactersRead;
+        while ((charactersRead = reader.read(buffer, bufferLength, buffer.length - bufferLength)) != -1) {
+            bufferLength += charactersRead;
+            if (bufferLength == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+        }
+
+        for (int i = 0; i < bufferLength; i++) {
+            if (isEOFCharacter(buffer[i])) {
+                bufferContainsEOFCharacter = true;
+                break;
+            }
+        }
+    }
 
     private void initializeParserResult() {
         database = new BibDatabase();
@@ -164,8 +371,12 @@ public class BibtexParser {
     }
 
     private ParserResult parseFileContent() throws IOException {
-        Map<String, String> meta = new HashMap<>();
+        parseItems();
+
+        return finishParsing();
+    }
 
+    private void parseItems() throws IOException {
         while (!eof) {
             boolean found = consumeUncritically('@');
             if (!found) {
@@ -178,23 +389,35 @@ public class BibtexParser {
             String entryType = parseTextToken().toLowerCase().trim();
 
             if ("preamble".equals(entryType)) {
-                database.setPreamble(parsePreamble());
+                String preamble = parsePreamble();
                 // Consume new line which signals end of preamble
                 skipOneNewline();
-                // the preamble is saved verbatim anyways, so the text read so far can be dropped
-                dumpTextReadSoFarToString();
+                int end = position;
+                addParsedItem(parser -> {
+                    parser.database.setPreamble(preamble);
+                    // the preamble is saved verbatim anyways, so the text read so far can be dropped
+                    parser.dumpTextReadUntil(end);
+                });
             } else if ("string".equals(entryType)) {
                 parseBibtexString();
             } else if ("comment".equals(entryType)) {
-                parseJabRefComment(meta);
+                parseJabRefComment();
             } else {
                 // Not a comment, preamble, or string. Thus, it is an entry
                 parseAndAddEntry(entryType);
             }
 
+            if (bufferEndReached && endIsChunkBoundary) {
+                // the item is cut by the end of the chunk
+                chunkMatchesFileStructure = false;
+                return;
+            }
+
             skipWhitespace();
         }
+    }
 
+    private ParserResult finishParsing() {
         // Instantiate meta data:
         parserResult.setMetaData(new MetaData(meta, database));
 
@@ -203,6 +426,22 @@ public class BibtexParser {
         return parserResult;
     }
 
+    /**
+     * Adds the given result of the parsing to the database. When parsing a chunk in parallel, this is deferred until
+     * all chunks have been parsed.
+     */
+    private void addParsedItem(Consumer<BibtexParser> item) {
+        if (parsedItems == null) {
+            item.accept(this);
+        } else {
+            parsedItems.add(item);
+        }
+    }
+
+    private void addWarning(String warning) {
+        addParsedItem(parser -> parser.parserResult.addWarning(warning));
+    }
+
     private void parseRemainingContent() {
         database.setEpilog(dumpTextReadSoFarToString().trim());
     }
@@ -216,24 +455,32 @@ public class BibtexParser {
          */
         try {
             BibEntry entry = parseEntry(type);
-
-            boolean duplicateKey = database.insertEntry(entry);
-            entry.setParsedSerialization(dumpTextReadSoFarToString());
-            if (duplicateKey) {
-                parserResult.addDuplicateKey(entry.getCiteKey());
-            } else if ((entry.getCiteKey() == null) || entry.getCiteKey().isEmpty()) {
-                parserResult.addWarning(Localization.lang("Empty BibTeX key") + ": " + entry.getAuthorTitleYear(40)
-                        + " (" + Localization.lang("Grouping may not work for this entry.") + ")");
-            }
+            int end = position;
+            addParsedItem(parser -> parser.addEntry(entry, end));
         } catch (IOException ex) {
             LOGGER.warn("Could not parse entry", ex);
-            parserResult.addWarning(Localization.lang("Error occurred when parsing entry") + ": '"
+            addWarning(Localization.lang("Error occurred when parsing entry") + ": '"
                     + ex.getMessage() + "'. " + Localization.lang("Skipped entry."));
 
         }
     }
 
-    private void parseJabRefComment(Map<String, String> meta) throws IOException {
+    private void addEntry(BibEntry entry, int end) {
+        if (parsedInParallel) {
+            // the IDs created while parsing in parallel do not increase in the order of the file
+            entry.setId(IdGenerator.next());
+        }
+        boolean duplicateKey = database.insertEntry(entry);
+        entry.setParsedSerialization(dumpTextReadUntil(end));
+        if (duplicateKey) {
+            parserResult.addDuplicateKey(entry.getCiteKey());
+        } else if ((entry.getCiteKey() == null) || entry.getCiteKey().isEmpty()) {
+            parserResult.addWarning(Localization.lang("Empty BibTeX key") + ": " + entry.getAuthorTitleYear(40)
+                    + " (" + Localization.lang("Grouping may not work for this entry.") + ")");
+        }
+    }
+
+    private void parseJabRefComment() throws IOException {
         StringBuilder buffer = parseBracketedTextExactly();
         /**
          *
@@ -268,10 +515,15 @@ public class BibtexParser {
                     // will have been inserted
                     // to prevent too long lines when the file was
                     // saved, and are not part of the data.
-                    meta.put(rest.substring(0, pos), rest.substring(pos + 1));
-
-                    // meta comments are always re-written by JabRef and not stored in the file
-                    dumpTextReadSoFarToString();
+                    String metaKey = rest.substring(0, pos);
+                    String metaValue = rest.substring(pos + 1);
+                    int end = position;
+                    addParsedItem(parser -> {
+                        parser.meta.put(metaKey, metaValue);
+
+                        // meta comments are always re-written by JabRef and not stored in the file
+                        parser.dumpTextReadUntil(end);
+                    });
                 }
             }
         } else if (comment.substring(0, Math.min(comment.length(), CustomEntryType.ENTRYTYPE_FLAG.length()))
@@ -280,14 +532,19 @@ public class BibtexParser {
             // "@comment"
             CustomEntryType typ = CustomEntryTypesManager.parseEntryType(comment);
             if(typ == null) {
-                parserResult.addWarning(Localization.lang("Ill-formed entrytype comment in bib file") + ": " +
+                addWarning(Localization.lang("Ill-formed entrytype comment in bib file") + ": " +
                         comment);
-            } else {
-                entryTypes.put(typ.getName(), typ);
             }
 
-            // custom entry types are always re-written by JabRef and not stored in the file
-            dumpTextReadSoFarToString();
+            int end = position;
+            addParsedItem(parser -> {
+                if (typ != null) {
+                    parser.entryTypes.put(typ.getName(), typ);
+                }
+
+                // custom entry types are always re-written by JabRef and not stored in the file
+                parser.dumpTextReadUntil(end);
+            });
         } else {
             // FIXME: user comments are simply dropped
             // at least, we log that we ignored the comment
@@ -298,7 +555,15 @@ public class BibtexParser {
 
     private void parseBibtexString() throws IOException {
         BibtexString bibtexString = parseString();
-        bibtexString.setParsedSerialization(dumpTextReadSoFarToString());
+        int end = position;
+        addParsedItem(parser -> parser.addString(bibtexString, end));
+    }
+
+    private void addString(BibtexString bibtexString, int end) {
+        if (parsedInParallel) {
+            bibtexString.setId(IdGenerator.next());
+        }
+        bibtexString.setParsedSerialization(dumpTextReadUntil(end));
         try {
             database.addString(bibtexString);
         } catch (KeyCollisionException ex) {
@@ -314,7 +579,17 @@ public class BibtexParser {
      * @return the text read so far
      */
     private String dumpTextReadSoFarToString() {
-        String result = getPureTextFromFile();
+        return dumpTextReadUntil(position);
+    }
+
+    /**
+     * Puts all text in the buffer between the end of the text of the last call of this method and the given position
+     * into a string. Removes the JabRef file header, if it is found
+     *
+     * @return the text read until the given position
+     */
+    private String dumpTextReadUntil(int end) {
+        String result = getPureTextFromFile(end);
         int indexOfAt = result.indexOf("@");
 
         // if there is no entry found, simply return the content (necessary to parse text remaining after the last entry)
@@ -346,13 +621,15 @@ public class BibtexParser {
         }
     }
 
-    private String getPureTextFromFile() {
-        StringBuilder entry = new StringBuilder();
-        while (!pureTextFromFile.isEmpty()) {
-            entry.append(pureTextFromFile.pollFirst());
-        }
+    private String getPureTextFromFile(int end) {
+        String result = new String(buffer, pureTextStart, end - pureTextStart);
+        pureTextStart = end;
 
-        return entry.toString();
+        // eof characters are never part of the text read from the file
+        if (bufferContainsEOFCharacter) {
+            return purgeEOFCharacters(result);
+        }
+        return result;
     }
 
     /**
@@ -454,12 +731,19 @@ public class BibtexParser {
         return character;
     }
 
-    private int read() throws IOException {
-        int character = pushbackReader.read();
-
-        if(! isEOFCharacter(character)) {
-            pureTextFromFile.offerLast((char) character);
+    private int read() {
+        int character;
+        if (pushbackCount > 0) {
+            pushbackCount--;
+            character = pushbackStack[pushbackCount];
+        } else if (position < bufferLength) {
+            character = buffer[position];
+            position++;
+        } else {
+            bufferEndReached = true;
+            return -1;
         }
+
         if (character == '\n') {
             line++;
         }
@@ -467,12 +751,24 @@ public class BibtexParser {
     }
 
     private void unread(int character) throws IOException {
+        if (character == -1) {
+            // the end of the buffer has been reached, reading again returns -1 anyway
+            return;
+        }
         if (character == '\n') {
             line--;
         }
-        pushbackReader.unread(character);
-        if(pureTextFromFile.getLast() == character) {
-            pureTextFromFile.pollLast();
+
+        if ((pushbackCount == 0) && (position > pureTextStart)
+                && (buffer[position - 1] == character)) {
+            // usual case: the character just read is put back
+            position--;
+        } else {
+            if (pushbackCount == pushbackStack.length) {
+                throw new IOException("Pushback buffer overflow");
+            }
+            pushbackStack[pushbackCount] = (char) character;
+            pushbackCount++;
         }
     }
 
@@ -698,7 +994,7 @@ public class BibtexParser {
                         }
 
                         // Finished, now reverse newKey and remove whitespaces:
-                        parserResult.addWarning(Localization.lang("Line %0: Found corrupted BibTeX-key.",
+                        addWarning(Localization.lang("Line %0: Found corrupted BibTeX-key.",
                                 String.valueOf(line)));
                         key = newKey.reverse();
                     }
@@ -706,12 +1002,12 @@ public class BibtexParser {
                 break;
 
             case ',':
-                parserResult.addWarning(Localization.lang("Line %0: Found corrupted BibTeX-key (contains whitespaces).",
+                addWarning(Localization.lang("Line %0: Found corrupted BibTeX-key (contains whitespaces).",
                         String.valueOf(line)));
                 break;
 
             case '\n':
-                parserResult.addWarning(Localization.lang("Line %0: Found corrupted BibTeX-key (comma missing).",
+                addWarning(Localization.lang("Line %0: Found corrupted BibTeX-key (comma missing).",
                         String.valueOf(line)));
                 break;
 
@@ -14,39 +14,40 @@
 package net.sf.jabref.logic.autocompleter;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
-import java.util.SortedSet;
-import java.util.TreeSet;
+
+import net.sf.jabref.model.entry.BibEntry;
 
 /**
  * Delivers possible completions for a given string.
+ * The completions are ordered by how often they occur, most frequent first.
  *
  * @author kahlert, cordes, olly98
  * @see AutoCompleterFactory
  */
 public abstract class AbstractAutoCompleter implements AutoCompleter<String> {
 
-    private static final int SHORTEST_WORD_TO_ADD = 4;
-    private final AutoCompletePreferences preferences;
-
     /**
-     * Stores the strings as is.
+     * The maximum number of completions returned. The completion popup does not scroll and shows fewer rows.
      */
-    private final TreeSet<String> indexCaseSensitive = new TreeSet<>();
+    public static final int MAX_COMPLETIONS = 20;
+
+    private static final int SHORTEST_WORD_TO_ADD = 4;
+    private final AutoCompletePreferences preferences;
 
     /**
-     * Stores strings in lowercase.
+     * Stores the strings, arranged by their lower case form, with the number of their occurrences.
      */
-    private final TreeSet<String> indexCaseInsensitive = new TreeSet<>();
+    private final WordTrie index = new WordTrie();
 
     /**
-     * Stores for a lowercase string the possible expanded strings.
+     * Stores the strings added for an entry, so that they can be replaced when the entry is added again.
+     * BibEntry implements equals and hashCode based on its content, so an identity based map has to be used.
      */
-    private final Map<String, Set<String>> possibleStringsForSearchString = new HashMap<>();
+    private final Map<BibEntry, String[]> itemsOfEntry = new IdentityHashMap<>();
 
 
     public AbstractAutoCompleter(AutoCompletePreferences preferences) {
@@ -63,52 +64,66 @@ public abstract class AbstractAutoCompleter implements AutoCompleter<String> {
         if(toComplete == null) {
             return new ArrayList<>();
         }
-        if (isTooShortToComplete(toComplete)) {
+        if (toComplete.isEmpty() || isTooShortToComplete(toComplete)) {
             return new ArrayList<>();
         }
         String lowerCase = toComplete.toLowerCase();
 
         if (lowerCase.equals(toComplete)) {
-            // user typed in lower case word -> we do an case-insensitive search
-            String ender = AbstractAutoCompleter.incrementLastCharacter(lowerCase);
-            SortedSet<String> subset = indexCaseInsensitive.subSet(lowerCase, ender);
-
-            // As subset only contains lower case strings,
-            // we have to to determine possible strings for each hit
-            List<String> result = new ArrayList<>();
-            for (String s : subset) {
-                result.addAll(possibleStringsForSearchString.get(s));
-            }
-            return result;
-        } else {
-            // user typed in a mix of upper case and lower case,
-            // we assume user wants to have exact search
-            String ender = AbstractAutoCompleter.incrementLastCharacter(toComplete);
-            SortedSet<String> subset = indexCaseSensitive.subSet(toComplete, ender);
-            return new ArrayList<>(subset);
+            return index.getWordsStartingWith(lowerCase, MAX_COMPLETIONS);
         }
+        // user typed in a mix of upper case and lower case,
+        // we assume user wants to have exact search
+        return index.getWordsStartingWith(lowerCase, MAX_COMPLETIONS, word -> word.startsWith(toComplete));
     }
 
     /**
-     * Increments the last character of a string.
-     *
-     * Example: incrementLastCharacter("abc") returns "abd".
+     * Returns whether the string is to short to be completed.
      */
-    private static String incrementLastCharacter(String toIncrement) {
-        if (toIncrement.isEmpty()) {
-            return "";
+    private boolean isTooShortToComplete(String toCheck) {
+        return toCheck.length() < preferences.getShortestLengthToComplete();
+    }
+
+    /**
+     * {@inheritDoc}
+     * If the entry has been added before, the items stored for it are replaced by its current items.
+     */
+    @Override
+    public void addBibtexEntry(BibEntry entry) {
+        if (entry == null) {
+            return;
         }
 
-        char lastChar = toIncrement.charAt(toIncrement.length() - 1);
-        return toIncrement.substring(0, toIncrement.length() - 1) + Character.toString((char) (lastChar + 1));
+        removeBibtexEntry(entry);
+
+        List<String> items = new ArrayList<>();
+        addItemsOfEntry(entry, items);
+
+        List<String> storedItems = new ArrayList<>(items.size());
+        for (String item : items) {
+            if (item.length() >= getLengthOfShortestWordToAdd()) {
+                storedItems.add(index.add(item.toLowerCase(), item));
+            }
+        }
+        if (!storedItems.isEmpty()) {
+            itemsOfEntry.put(entry, storedItems.toArray(new String[storedItems.size()]));
+        }
+    }
+
+    @Override
+    public void removeBibtexEntry(BibEntry entry) {
+        String[] items = itemsOfEntry.remove(entry);
+        if (items != null) {
+            for (String item : items) {
+                index.remove(item.toLowerCase(), item);
+            }
+        }
     }
 
     /**
-     * Returns whether the string is to short to be completed.
+     * Adds the items of the entry which should be available for completion to the given list.
      */
-    private boolean isTooShortToComplete(String toCheck) {
-        return toCheck.length() < preferences.getShortestLengthToComplete();
-    }
+    protected abstract void addItemsOfEntry(BibEntry entry, List<String> items);
 
     @Override
     public void addItemToIndex(String word) {
@@ -116,19 +131,7 @@ public abstract class AbstractAutoCompleter implements AutoCompleter<String> {
             return;
         }
 
-        indexCaseSensitive.add(word);
-
-        // insensitive treatment
-        // first, add the lower cased word to search index
-        // second, add a mapping from the lower cased word to the real word
-        String lowerCase = word.toLowerCase();
-        indexCaseInsensitive.add(lowerCase);
-        Set<String> set = possibleStringsForSearchString.get(lowerCase);
-        if (set == null) {
-            set = new TreeSet<>();
-        }
-        set.add(word);
-        possibleStringsForSearchString.put(lowerCase, set);
+        index.add(word.toLowerCase(), word);
     }
 
     @Override
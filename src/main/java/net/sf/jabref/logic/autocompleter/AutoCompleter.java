@@ -24,6 +24,11 @@ public interface AutoCompleter<E> {
      */
     void addBibtexEntry(BibEntry entry);
 
+    /**
+     * Removes the information stored when adding the BibEntry to this AutoCompleter.
+     */
+    void removeBibtexEntry(BibEntry entry);
+
     /**
      * States whether the field consists of multiple values (false) or of a single value (true)
      *
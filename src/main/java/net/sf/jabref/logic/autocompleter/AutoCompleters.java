@@ -32,6 +32,15 @@ class AutoCompleters {
         }
     }
 
+    /**
+     * Removes the words recorded for the given entry from the respective Completers, if any.
+     */
+    public void removeEntry(BibEntry bibEntry) {
+        for (AutoCompleter<String> autoCompleter : autoCompleters.values()) {
+            autoCompleter.removeBibtexEntry(bibEntry);
+        }
+    }
+
     protected void put(String field, AutoCompleter<String> autoCompleter) {
         autoCompleters.put(field, autoCompleter);
     }
@@ -15,6 +15,8 @@
 */
 package net.sf.jabref.logic.autocompleter;
 
+import java.util.List;
+
 import net.sf.jabref.model.entry.BibEntry;
 
 /**
@@ -38,14 +40,10 @@ class BibtexKeyAutoCompleter extends AbstractAutoCompleter {
      * The bibtex key of the entry will be added to the index.
      */
     @Override
-    public void addBibtexEntry(BibEntry entry) {
-        if (entry == null) {
-            return;
-        }
-
+    protected void addItemsOfEntry(BibEntry entry, List<String> items) {
         String key = entry.getCiteKey();
         if (key != null) {
-            addItemToIndex(key.trim());
+            items.add(key.trim());
         }
     }
 
@@ -15,6 +15,7 @@
 */
 package net.sf.jabref.logic.autocompleter;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.StringTokenizer;
 
@@ -51,15 +52,11 @@ class DefaultAutoCompleter extends AbstractAutoCompleter {
      * Stores all words in the given field which are separated by SEPARATING_CHARS.
      */
     @Override
-    public void addBibtexEntry(BibEntry entry) {
-        if (entry == null) {
-            return;
-        }
-
+    protected void addItemsOfEntry(BibEntry entry, List<String> items) {
         entry.getFieldOptional(fieldName).ifPresent(fieldValue -> {
             StringTokenizer tok = new StringTokenizer(fieldValue, SEPARATING_CHARS);
             while (tok.hasMoreTokens()) {
-                addItemToIndex(tok.nextToken());
+                items.add(tok.nextToken());
             }
         });
     }
@@ -15,6 +15,7 @@
 */
 package net.sf.jabref.logic.autocompleter;
 
+import java.util.List;
 import java.util.Objects;
 
 import net.sf.jabref.model.entry.BibEntry;
@@ -48,11 +49,7 @@ class EntireFieldAutoCompleter extends AbstractAutoCompleter {
      * Stores the full original value of the given field.
      */
     @Override
-    public void addBibtexEntry(BibEntry entry) {
-        if (entry == null) {
-            return;
-        }
-
-        entry.getFieldOptional(fieldName).ifPresent(fieldValue -> addItemToIndex(fieldValue.trim()));
+    protected void addItemsOfEntry(BibEntry entry, List<String> items) {
+        entry.getFieldOptional(fieldName).ifPresent(fieldValue -> items.add(fieldValue.trim()));
     }
 }
@@ -86,16 +86,13 @@ class NameFieldAutoCompleter extends AbstractAutoCompleter {
     }
 
     @Override
-    public void addBibtexEntry(BibEntry entry) {
-        if (entry == null) {
-            return;
-        }
+    protected void addItemsOfEntry(BibEntry entry, List<String> items) {
         for (String fieldName : fieldNames) {
             if (entry.hasField(fieldName)) {
                 String fieldValue = entry.getField(fieldName);
                 AuthorList authorList = AuthorList.parse(fieldValue);
                 for (Author author : authorList.getAuthors()) {
-                    handleAuthor(author);
+                    handleAuthor(author, items);
                 }
             }
         }
@@ -119,21 +116,21 @@ class NameFieldAutoCompleter extends AbstractAutoCompleter {
         return result;
     }
 
-    private void handleAuthor(Author author) {
+    private void handleAuthor(Author author, List<String> items) {
         if (lastNameOnlyAndSeparationBySpace) {
-            addItemToIndex(author.getLastOnly());
+            items.add(author.getLastOnly());
         } else {
             if (autoCompLF) {
                 switch (autoCompFirstnameMode) {
                 case ONLY_ABBREVIATED:
-                    addItemToIndex(author.getLastFirst(true));
+                    items.add(author.getLastFirst(true));
                     break;
                 case ONLY_FULL:
-                    addItemToIndex(author.getLastFirst(false));
+                    items.add(author.getLastFirst(false));
                     break;
                 case BOTH:
-                    addItemToIndex(author.getLastFirst(true));
-                    addItemToIndex(author.getLastFirst(false));
+                    items.add(author.getLastFirst(true));
+                    items.add(author.getLastFirst(false));
                     break;
                 default:
                     break;
@@ -142,14 +139,14 @@ class NameFieldAutoCompleter extends AbstractAutoCompleter {
             if (autoCompFF) {
                 switch (autoCompFirstnameMode) {
                 case ONLY_ABBREVIATED:
-                    addItemToIndex(author.getFirstLast(true));
+                    items.add(author.getFirstLast(true));
                     break;
                 case ONLY_FULL:
-                    addItemToIndex(author.getFirstLast(false));
+                    items.add(author.getFirstLast(false));
                     break;
                 case BOTH:
-                    addItemToIndex(author.getFirstLast(true));
-                    addItemToIndex(author.getFirstLast(false));
+                    items.add(author.getFirstLast(true));
+                    items.add(author.getFirstLast(false));
                     break;
                 default:
                     break;
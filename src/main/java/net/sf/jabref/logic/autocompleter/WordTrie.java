@@ -0,0 +1,357 @@
+package net.sf.jabref.logic.autocompleter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * Compact prefix tree (radix tree) of words counting how often each word has been added.
+ * <p>
+ * The words are arranged by their lower case form, so that all words starting with a lower case prefix are found in
+ * one subtree. Edges are labeled with character sequences, so there are at most twice as many nodes as words.
+ * Each word is stored once, at the node of its lower case form together with the other words having the same lower
+ * case form. Each node knows the highest count of the words in its subtree, so that the most frequent words can be
+ * found without visiting subtrees containing only less frequent words.
+ * <p>
+ * Not thread safe.
+ */
+class WordTrie {
+
+    private static final char[] EMPTY_LABEL = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final String[] NO_WORDS = new String[0];
+    private static final int[] NO_COUNTS = new int[0];
+
+    private final Node root = new Node(EMPTY_LABEL);
+
+
+    private static class Node {
+
+        private char[] label;
+        // sorted by the first character of their label
+        private Node[] children = NO_CHILDREN;
+        // words ending at this node, sorted, and how often each has been added
+        private String[] words = NO_WORDS;
+        private int[] counts = NO_COUNTS;
+        // highest count of the words ending at this node or below
+        private int maxCount;
+
+
+        Node(char[] label) {
+            this.label = label;
+        }
+
+        int findChild(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char middleFirst = children[middle].label[0];
+                if (middleFirst < first) {
+                    low = middle + 1;
+                } else if (middleFirst > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+
+        void insertChild(int index, Node child) {
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newChildren[index] = child;
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            children = newChildren;
+        }
+
+        void removeChild(int index) {
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            children = newChildren.length == 0 ? NO_CHILDREN : newChildren;
+        }
+
+        String addWord(String word) {
+            int index = Arrays.binarySearch(words, word);
+            if (index >= 0) {
+                counts[index]++;
+                maxCount = Math.max(maxCount, counts[index]);
+                return words[index];
+            }
+
+            int insertAt = -index - 1;
+            String[] newWords = new String[words.length + 1];
+            int[] newCounts = new int[counts.length + 1];
+            System.arraycopy(words, 0, newWords, 0, insertAt);
+            System.arraycopy(counts, 0, newCounts, 0, insertAt);
+            newWords[insertAt] = word;
+            newCounts[insertAt] = 1;
+            System.arraycopy(words, insertAt, newWords, insertAt + 1, words.length - insertAt);
+            System.arraycopy(counts, insertAt, newCounts, insertAt + 1, counts.length - insertAt);
+            words = newWords;
+            counts = newCounts;
+            maxCount = Math.max(maxCount, 1);
+            return word;
+        }
+
+        void removeWord(String word) {
+            int index = Arrays.binarySearch(words, word);
+            if (index < 0) {
+                return;
+            }
+            if (counts[index] > 1) {
+                counts[index]--;
+                return;
+            }
+
+            if (words.length == 1) {
+                words = NO_WORDS;
+                counts = NO_COUNTS;
+                return;
+            }
+            String[] newWords = new String[words.length - 1];
+            int[] newCounts = new int[counts.length - 1];
+            System.arraycopy(words, 0, newWords, 0, index);
+            System.arraycopy(counts, 0, newCounts, 0, index);
+            System.arraycopy(words, index + 1, newWords, index, words.length - index - 1);
+            System.arraycopy(counts, index + 1, newCounts, index, counts.length - index - 1);
+            words = newWords;
+            counts = newCounts;
+        }
+
+        void updateMaxCount() {
+            maxCount = 0;
+            for (int count : counts) {
+                maxCount = Math.max(maxCount, count);
+            }
+            for (Node child : children) {
+                maxCount = Math.max(maxCount, child.maxCount);
+            }
+        }
+    }
+
+
+    /**
+     * Adds the word under the given lower case form, or increases its count if it has been added before.
+     *
+     * @return the stored instance of the word
+     */
+    String add(String lowerCase, String word) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int position = 0;
+        while (position < lowerCase.length()) {
+            path.add(node);
+            int index = node.findChild(lowerCase.charAt(position));
+            if (index < 0) {
+                node = new Node(lowerCase.substring(position).toCharArray());
+                path.get(path.size() - 1).insertChild(-index - 1, node);
+                break;
+            }
+
+            Node child = node.children[index];
+            int common = commonPrefixLength(child.label, lowerCase, position);
+            if (common < child.label.length) {
+                // split the edge at the end of the common prefix
+                Node split = new Node(Arrays.copyOf(child.label, common));
+                child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+                split.children = new Node[] {child};
+                split.maxCount = child.maxCount;
+                node.children[index] = split;
+                child = split;
+            }
+            node = child;
+            position += common;
+        }
+
+        String stored = node.addWord(word);
+        int count = node.maxCount;
+        for (Node ancestor : path) {
+            ancestor.maxCount = Math.max(ancestor.maxCount, count);
+        }
+        return stored;
+    }
+
+    /**
+     * Decreases the count of the word added under the given lower case form, and removes it if the count drops to
+     * zero.
+     */
+    void remove(String lowerCase, String word) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int position = 0;
+        while (position < lowerCase.length()) {
+            int index = node.findChild(lowerCase.charAt(position));
+            if (index < 0) {
+                return;
+            }
+            Node child = node.children[index];
+            if (commonPrefixLength(child.label, lowerCase, position) < child.label.length) {
+                return;
+            }
+            path.add(node);
+            node = child;
+            position += child.label.length;
+        }
+
+        node.removeWord(word);
+        node.updateMaxCount();
+
+        // remove empty nodes and merge nodes with a single child into it
+        int i = path.size() - 1;
+        for (; (i >= 0) && (node.words.length == 0); i--) {
+            Node parent = path.get(i);
+            if (node.children.length == 0) {
+                parent.removeChild(parent.findChild(node.label[0]));
+            } else if (node.children.length == 1) {
+                Node child = node.children[0];
+                char[] label = Arrays.copyOf(node.label, node.label.length + child.label.length);
+                System.arraycopy(child.label, 0, label, node.label.length, child.label.length);
+                child.label = label;
+                parent.children[parent.findChild(label[0])] = child;
+            }
+            node = parent;
+            node.updateMaxCount();
+            if (node.children.length > 1) {
+                i--;
+                break;
+            }
+        }
+        for (; i >= 0; i--) {
+            path.get(i).updateMaxCount();
+        }
+    }
+
+    /**
+     * Returns the words whose lower case form starts with the given lower case prefix. The words are ordered by how
+     * often they have been added, most frequent first. Words added equally often are ordered by their lower case
+     * form and then by the word itself.
+     */
+    List<String> getWordsStartingWith(String lowerCasePrefix) {
+        return getWordsStartingWith(lowerCasePrefix, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns at most the given number of words whose lower case form starts with the given lower case prefix, in the
+     * order of {@link #getWordsStartingWith(String)}.
+     */
+    List<String> getWordsStartingWith(String lowerCasePrefix, int limit) {
+        return getWordsStartingWith(lowerCasePrefix, limit, word -> true);
+    }
+
+    /**
+     * Returns at most the given number of words accepted by the filter whose lower case form starts with the given
+     * lower case prefix, in the order of {@link #getWordsStartingWith(String)}.
+     */
+    List<String> getWordsStartingWith(String lowerCasePrefix, int limit, Predicate<String> filter) {
+        Node node = root;
+        int position = 0;
+        while (position < lowerCasePrefix.length()) {
+            int index = node.findChild(lowerCasePrefix.charAt(position));
+            if (index < 0) {
+                return new ArrayList<>();
+            }
+            Node child = node.children[index];
+            int common = commonPrefixLength(child.label, lowerCasePrefix, position);
+            if ((common < child.label.length) && ((position + common) < lowerCasePrefix.length())) {
+                return new ArrayList<>();
+            }
+            node = child;
+            position += common;
+        }
+
+        TopWords topWords = new TopWords(limit, filter);
+        topWords.collect(node);
+        return topWords.toList();
+    }
+
+    private static int commonPrefixLength(char[] label, String text, int offset) {
+        int length = Math.min(label.length, text.length() - offset);
+        int i = 0;
+        while ((i < length) && (label[i] == text.charAt(offset + i))) {
+            i++;
+        }
+        return i;
+    }
+
+
+    private static class Candidate {
+
+        private final String word;
+        private final int count;
+        // position in the alphabetical order of the words
+        private final int rank;
+
+
+        Candidate(String word, int count, int rank) {
+            this.word = word;
+            this.count = count;
+            this.rank = rank;
+        }
+    }
+
+    /**
+     * Collects the most frequent words of a subtree in a bounded priority queue. The subtree is visited in the
+     * alphabetical order of the words, so a word found later never beats an equally frequent word found before, and
+     * subtrees without a word more frequent than the least frequent collected word can be skipped once enough words
+     * have been collected.
+     */
+    private static class TopWords {
+
+        // least frequent first, alphabetically last first among equally frequent words
+        private static final Comparator<Candidate> WORST_FIRST = Comparator.<Candidate> comparingInt(
+                candidate -> candidate.count).thenComparing(candidate -> candidate.rank, Comparator.reverseOrder());
+
+        private final int limit;
+        private final Predicate<String> filter;
+        private final PriorityQueue<Candidate> queue = new PriorityQueue<>(WORST_FIRST);
+        private int rank;
+
+
+        TopWords(int limit, Predicate<String> filter) {
+            this.limit = limit;
+            this.filter = filter;
+        }
+
+        void collect(Node node) {
+            if (limit <= 0) {
+                return;
+            }
+            if ((queue.size() == limit) && (node.maxCount <= queue.peek().count)) {
+                return;
+            }
+            for (int i = 0; i < node.words.length; i++) {
+                if (filter.test(node.words[i])) {
+                    offer(new Candidate(node.words[i], node.counts[i], rank++));
+                }
+            }
+            for (Node child : node.children) {
+                collect(child);
+            }
+        }
+
+        private void offer(Candidate candidate) {
+            if (queue.size() < limit) {
+                queue.add(candidate);
+            } else if (WORST_FIRST.compare(candidate, queue.peek()) > 0) {
+                queue.poll();
+                queue.add(candidate);
+            }
+        }
+
+        List<String> toList() {
+            List<String> result = new ArrayList<>(queue.size());
+            while (!queue.isEmpty()) {
+                result.add(queue.poll().word);
+            }
+            Collections.reverse(result);
+            return result;
+        }
+    }
+}
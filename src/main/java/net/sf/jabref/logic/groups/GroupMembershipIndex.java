@@ -0,0 +1,264 @@
+package net.sf.jabref.logic.groups;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.VetoableChangeListener;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.database.DatabaseChangeEvent;
+import net.sf.jabref.model.database.DatabaseChangeListener;
+import net.sf.jabref.model.entry.BibEntry;
+
+/**
+ * Keeps the entries of a database contained in each dynamic group as a bit set of entry indices, so that each group
+ * is matched against each entry only once. The entries of a node in the groups tree, taking its hierarchical context
+ * into account, as well as combinations of several nodes and the number of hits of a group are then computed with bit
+ * set operations.
+ * <p>
+ * An entry keeps its index as long as it is in the database; indices of removed entries are reused. The bit sets are
+ * kept up to date by listening to the database and its entries. As for the
+ * {@link net.sf.jabref.logic.search.SearchIndex}, the changes are only queued by the listeners and applied before the
+ * next query.
+ * <p>
+ * Explicit groups are matched on every query, as their entries are assigned without an event.
+ */
+public class GroupMembershipIndex implements DatabaseChangeListener, VetoableChangeListener {
+
+    private final BibDatabase database;
+
+    private volatile boolean built;
+    private final Queue<DatabaseChangeEvent> changes = new ConcurrentLinkedQueue<>();
+    // BibEntry and AbstractGroup implement equals based on their content, so identity based collections have to be used
+    private final Map<BibEntry, Integer> indexOfEntry = new IdentityHashMap<>();
+    private final List<BibEntry> entryOfIndex = new ArrayList<>();
+    private final BitSet usedIndices = new BitSet();
+    private final Map<AbstractGroup, BitSet> membersOfGroup = new IdentityHashMap<>();
+
+
+    /**
+     * Creates an index for the given database and registers it as listener of the database. Has to be called from
+     * the thread changing the database.
+     */
+    public GroupMembershipIndex(BibDatabase database) {
+        this.database = Objects.requireNonNull(database);
+        database.addDatabaseChangeListener(this);
+    }
+
+    /**
+     * @return the indices of all entries of the database
+     */
+    public synchronized BitSet getAllEntries() {
+        update();
+        return (BitSet) usedIndices.clone();
+    }
+
+    /**
+     * @return the indices of the entries contained in the group itself, ignoring its position in the groups tree
+     */
+    public synchronized BitSet getMembers(AbstractGroup group) {
+        update();
+        return (BitSet) getMembersInternal(group).clone();
+    }
+
+    /**
+     * @return the number of entries contained in the group itself
+     */
+    public synchronized int getHitCount(AbstractGroup group) {
+        update();
+        return getMembersInternal(group).cardinality();
+    }
+
+    /**
+     * Returns the indices of the entries matched by {@link GroupTreeNode#getSearchRule()} of the node, i.e., the
+     * entries of its group, united with the entries of its subgroups or intersected with the entries of its
+     * supergroup, depending on the hierarchical context.
+     */
+    public synchronized BitSet getMatches(GroupTreeNode node) {
+        update();
+        return getMatches(node, node.getGroup().getHierarchicalContext());
+    }
+
+    private BitSet getMatches(GroupTreeNode node, GroupHierarchyType originalContext) {
+        BitSet matches = (BitSet) getMembersInternal(node.getGroup()).clone();
+        GroupHierarchyType context = node.getGroup().getHierarchicalContext();
+        if ((context == GroupHierarchyType.INCLUDING) && (originalContext != GroupHierarchyType.REFINING)) {
+            for (GroupTreeNode child : node.getChildren()) {
+                matches.or(getMatches(child, originalContext));
+            }
+        } else if ((context == GroupHierarchyType.REFINING) && !node.isRoot()
+                && (originalContext != GroupHierarchyType.INCLUDING)) {
+            matches.and(getMatches(node.getParent().get(), originalContext));
+        }
+        return matches;
+    }
+
+    /**
+     * @return the nodes of the tree whose matches contain at least one of the given entry indices, in pre-order
+     */
+    public synchronized List<GroupTreeNode> getMatchingGroups(GroupTreeNode root, BitSet entries) {
+        update();
+        List<GroupTreeNode> groups = new ArrayList<>();
+        addMatchingGroups(root, entries, groups);
+        return groups;
+    }
+
+    private void addMatchingGroups(GroupTreeNode node, BitSet entries, List<GroupTreeNode> groups) {
+        if (getMatches(node, node.getGroup().getHierarchicalContext()).intersects(entries)) {
+            groups.add(node);
+        }
+        for (GroupTreeNode child : node.getChildren()) {
+            addMatchingGroups(child, entries, groups);
+        }
+    }
+
+    /**
+     * @return whether the index of the entry is in the given indices, false if the entry is not in the database
+     */
+    public synchronized boolean contains(BitSet indices, BibEntry entry) {
+        update();
+        Integer index = indexOfEntry.get(entry);
+        return (index != null) && indices.get(index);
+    }
+
+    /**
+     * @return the entries with the given indices in database order
+     */
+    public synchronized List<BibEntry> getEntries(BitSet indices) {
+        update();
+        List<BibEntry> entries = new ArrayList<>(indices.cardinality());
+        for (BibEntry entry : database.getEntries()) {
+            Integer index = indexOfEntry.get(entry);
+            if ((index != null) && indices.get(index)) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Forgets the entries of all groups no longer in the given tree.
+     */
+    public synchronized void retainGroups(GroupTreeNode root) {
+        Set<AbstractGroup> groups = Collections.newSetFromMap(new IdentityHashMap<>());
+        collectGroups(root, groups);
+        membersOfGroup.keySet().retainAll(groups);
+    }
+
+    private static void collectGroups(GroupTreeNode node, Set<AbstractGroup> groups) {
+        groups.add(node.getGroup());
+        for (GroupTreeNode child : node.getChildren()) {
+            collectGroups(child, groups);
+        }
+    }
+
+    private BitSet getMembersInternal(AbstractGroup group) {
+        if (group instanceof AllEntriesGroup) {
+            return usedIndices;
+        }
+        if (!group.isDynamic()) {
+            return match(group);
+        }
+        return membersOfGroup.computeIfAbsent(group, this::match);
+    }
+
+    private BitSet match(AbstractGroup group) {
+        BitSet members = new BitSet(entryOfIndex.size());
+        for (int index = usedIndices.nextSetBit(0); index >= 0; index = usedIndices.nextSetBit(index + 1)) {
+            if (group.contains(entryOfIndex.get(index))) {
+                members.set(index);
+            }
+        }
+        return members;
+    }
+
+    private void update() {
+        if (!built) {
+            // changes from now on are queued, adding an entry twice does not harm
+            built = true;
+            for (BibEntry entry : new ArrayList<>(database.getEntries())) {
+                addEntry(entry);
+            }
+        }
+
+        Set<BibEntry> changedEntries = Collections.newSetFromMap(new IdentityHashMap<>());
+        DatabaseChangeEvent change = changes.poll();
+        while (change != null) {
+            BibEntry entry = change.getEntry();
+            if (change.getType() == DatabaseChangeEvent.ChangeType.ADDED_ENTRY) {
+                addEntry(entry);
+            } else if (change.getType() == DatabaseChangeEvent.ChangeType.REMOVED_ENTRY) {
+                removeEntry(entry);
+            } else {
+                changedEntries.add(entry);
+            }
+            change = changes.poll();
+        }
+
+        for (BibEntry entry : changedEntries) {
+            Integer index = indexOfEntry.get(entry);
+            if (index != null) {
+                matchCachedGroups(entry, index);
+            }
+        }
+    }
+
+    private void addEntry(BibEntry entry) {
+        Integer index = indexOfEntry.get(entry);
+        if (index == null) {
+            entry.addPropertyChangeListener(this);
+            index = usedIndices.nextClearBit(0);
+            usedIndices.set(index);
+            indexOfEntry.put(entry, index);
+            if (index < entryOfIndex.size()) {
+                entryOfIndex.set(index, entry);
+            } else {
+                entryOfIndex.add(entry);
+            }
+        }
+        matchCachedGroups(entry, index);
+    }
+
+    private void removeEntry(BibEntry entry) {
+        entry.removePropertyChangeListener(this);
+        Integer index = indexOfEntry.remove(entry);
+        if (index == null) {
+            return;
+        }
+        usedIndices.clear(index);
+        entryOfIndex.set(index, null);
+        for (BitSet members : membersOfGroup.values()) {
+            members.clear(index);
+        }
+    }
+
+    private void matchCachedGroups(BibEntry entry, int index) {
+        for (Map.Entry<AbstractGroup, BitSet> members : membersOfGroup.entrySet()) {
+            members.getValue().set(index, members.getKey().contains(entry));
+        }
+    }
+
+    @Override
+    public void databaseChanged(DatabaseChangeEvent e) {
+        // before the first query the entries are indexed as they are when building the index
+        if (built && (e.getType() != DatabaseChangeEvent.ChangeType.CHANGING_ENTRY)) {
+            changes.add(e);
+        }
+    }
+
+    @Override
+    public void vetoableChange(PropertyChangeEvent evt) {
+        if (built && (evt.getSource() instanceof BibEntry)) {
+            changes.add(new DatabaseChangeEvent(database, DatabaseChangeEvent.ChangeType.CHANGED_ENTRY,
+                    (BibEntry) evt.getSource()));
+        }
+    }
+}
@@ -3,6 +3,7 @@ package net.sf.jabref.logic.integrity;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -18,56 +19,165 @@ import net.sf.jabref.bibtex.FieldProperties;
 import net.sf.jabref.bibtex.InternalBibtexFields;
 import net.sf.jabref.logic.l10n.Localization;
 import net.sf.jabref.logic.util.io.FileUtil;
+import net.sf.jabref.model.database.BibDatabaseMode;
 import net.sf.jabref.model.entry.BibEntry;
 import net.sf.jabref.model.entry.FileField;
 import net.sf.jabref.model.entry.ParsedFileField;
 
+/**
+ * Checks the entries of a database for common problems.
+ * <p>
+ * The entries are checked in parallel. The messages of each entry are kept until the type or a field of the entry
+ * changes, so checking again only checks the entries changed in the meantime. The linked files are checked on every
+ * run, as they may have been created or deleted without the entry changing.
+ */
 public class IntegrityCheck {
 
     private final BibDatabaseContext bibDatabaseContext;
+    private final Checker fileChecker;
+
+    // BibEntry implements equals and hashCode based on its content, so identity based collections have to be used
+    private Map<BibEntry, CheckedEntry> checkedEntries = new IdentityHashMap<>();
+    private BibDatabaseMode checkedMode;
+
 
     public IntegrityCheck(BibDatabaseContext bibDatabaseContext) {
         this.bibDatabaseContext = Objects.requireNonNull(bibDatabaseContext);
+        this.fileChecker = new FileChecker(bibDatabaseContext);
     }
 
     public List<IntegrityMessage> checkBibtexDatabase() {
-        List<IntegrityMessage> result = new ArrayList<>();
+        List<BibEntry> entries = new ArrayList<>(bibDatabaseContext.getDatabase().getEntries());
+
+        List<CheckedEntry> checked;
+        synchronized (this) {
+            List<Checker> checkers = getCheckers();
+            // the cached entries are only read while checking in parallel
+            Map<BibEntry, CheckedEntry> cache = checkedEntries;
+            checked = entries.parallelStream().map(entry -> {
+                CheckedEntry cached = cache.get(entry);
+                if ((cached != null) && cached.isCurrent(entry)) {
+                    return cached;
+                }
+                return new CheckedEntry(entry, checkBibtexEntry(entry, checkers));
+            }).collect(Collectors.toList());
 
-        for (BibEntry entry : bibDatabaseContext.getDatabase().getEntries()) {
-            result.addAll(checkBibtexEntry(entry));
+            // forget the removed entries
+            checkedEntries = new IdentityHashMap<>(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                checkedEntries.put(entries.get(i), checked.get(i));
+            }
         }
+        List<List<IntegrityMessage>> fileMessages = entries.parallelStream().map(fileChecker::check)
+                .collect(Collectors.toList());
 
+        List<IntegrityMessage> result = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            result.addAll(checked.get(i).messages);
+            result.addAll(fileMessages.get(i));
+        }
         return result;
     }
 
-    private List<IntegrityMessage> checkBibtexEntry(BibEntry entry) {
+    /**
+     * Checks the entry, reusing its messages if it has not changed since it was checked last.
+     */
+    public List<IntegrityMessage> checkBibtexEntry(BibEntry entry) {
         List<IntegrityMessage> result = new ArrayList<>();
-
-        if (entry == null) {
-            return result;
+        synchronized (this) {
+            List<Checker> checkers = getCheckers();
+            CheckedEntry cached = checkedEntries.get(entry);
+            if ((cached == null) || !cached.isCurrent(entry)) {
+                cached = new CheckedEntry(entry, checkBibtexEntry(entry, checkers));
+                checkedEntries.put(entry, cached);
+            }
+            result.addAll(cached.messages);
         }
+        result.addAll(fileChecker.check(entry));
+        return result;
+    }
 
-        result.addAll(new AuthorNameChecker().check(entry));
+    /**
+     * @return the checkers for the current mode of the database, except for the file checker, the cached messages are
+     * forgotten if the mode has changed
+     */
+    private List<Checker> getCheckers() {
+        BibDatabaseMode mode = bibDatabaseContext.getMode();
+        if (mode != checkedMode) {
+            checkedEntries.clear();
+            checkedMode = mode;
+        }
 
+        List<Checker> checkers = new ArrayList<>();
+        checkers.add(new AuthorNameChecker());
         if (!bibDatabaseContext.isBiblatexMode()) {
-            result.addAll(new TitleChecker().check(entry));
+            checkers.add(new TitleChecker());
+        }
+        checkers.add(new BracketChecker("title"));
+        checkers.add(new YearChecker());
+        checkers.add(new PagesChecker());
+        checkers.add(new UrlChecker());
+        checkers.add(new TypeChecker());
+        checkers.add(new AbbreviationChecker("journal"));
+        checkers.add(new AbbreviationChecker("booktitle"));
+        checkers.add(new BibStringChecker());
+        checkers.add(new HTMLCharacterChecker());
+        return checkers;
+    }
+
+    private static List<IntegrityMessage> checkBibtexEntry(BibEntry entry, List<Checker> checkers) {
+        List<IntegrityMessage> result = new ArrayList<>();
+
+        if (entry == null) {
+            return result;
         }
 
-        result.addAll(new BracketChecker("title").check(entry));
-        result.addAll(new YearChecker().check(entry));
-        result.addAll(new PagesChecker().check(entry));
-        result.addAll(new UrlChecker().check(entry));
-        result.addAll(new FileChecker(bibDatabaseContext).check(entry));
-        result.addAll(new TypeChecker().check(entry));
-        result.addAll(new AbbreviationChecker("journal").check(entry));
-        result.addAll(new AbbreviationChecker("booktitle").check(entry));
-        result.addAll(new BibStringChecker().check(entry));
-        result.addAll(new HTMLCharacterChecker().check(entry));
+        for (Checker checker : checkers) {
+            result.addAll(checker.check(entry));
+        }
 
         return result;
     }
 
 
+    /**
+     * The messages of an entry, together with the type of the entry and the hashes of its field values they were
+     * found for.
+     */
+    private static class CheckedEntry {
+
+        private final String type;
+        private final String[] fieldNames;
+        private final int[] valueHashes;
+        private final List<IntegrityMessage> messages;
+
+
+        CheckedEntry(BibEntry entry, List<IntegrityMessage> messages) {
+            this.type = entry.getType();
+            Map<String, String> fields = entry.getFieldMap();
+            this.fieldNames = fields.keySet().toArray(new String[fields.size()]);
+            this.valueHashes = new int[fieldNames.length];
+            for (int i = 0; i < fieldNames.length; i++) {
+                valueHashes[i] = fields.get(fieldNames[i]).hashCode();
+            }
+            this.messages = Collections.unmodifiableList(messages);
+        }
+
+        boolean isCurrent(BibEntry entry) {
+            Map<String, String> fields = entry.getFieldMap();
+            if (!Objects.equals(type, entry.getType()) || (fields.size() != fieldNames.length)) {
+                return false;
+            }
+            for (int i = 0; i < fieldNames.length; i++) {
+                String value = fields.get(fieldNames[i]);
+                if ((value == null) || (value.hashCode() != valueHashes[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     @FunctionalInterface
     public interface Checker {
         List<IntegrityMessage> check(BibEntry entry);
@@ -18,6 +18,13 @@ public class Abbreviation implements Comparable<Abbreviation> {
         return name;
     }
 
+    /**
+     * @return the abbreviation as given, including the elements after the splitter
+     */
+    String getAbbreviation() {
+        return abbreviation;
+    }
+
     public String getIsoAbbreviation() {
         if (abbreviation.contains(SPLITTER)) {
             String[] restParts = abbreviation.split(SPLITTER);
@@ -0,0 +1,311 @@
+package net.sf.jabref.logic.journals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.primitives.UnsignedBytes;
+
+/**
+ * An immutable index of journal abbreviations in a binary format. It is searched in place: an {@link Abbreviation} is
+ * only created for the entries found.
+ * <p>
+ * The index holds the abbreviations a {@link JournalAbbreviationRepository} would hold after adding the same
+ * abbreviations, sorted by name, and the lower case full names, ISO and MEDLINE abbreviations it would find them by,
+ * sorted by their UTF-8 bytes. The built-in journal list is indexed when building JabRef (see {@link #main(String[])}),
+ * the index is memory mapped when it is a plain file.
+ * <p>
+ * Format, all integers are 4 bytes big endian:
+ * <pre>
+ * MAGIC VERSION abbreviationCount nameCount isoCount medlineCount
+ * offsets of the abbreviations (abbreviationCount)
+ * offsets of the keys (nameCount, then isoCount, then medlineCount)
+ * abbreviations: nameLength name abbreviationLength abbreviation
+ * keys: keyLength key abbreviationOffset
+ * </pre>
+ */
+public class JournalAbbreviationIndex {
+
+    private static final int MAGIC = 0x4A414249;
+    private static final int VERSION = 1;
+    private static final int HEADER_LENGTH = 6 * Integer.BYTES;
+
+    public static final JournalAbbreviationIndex EMPTY = new JournalAbbreviationIndex(
+            (ByteBuffer) ByteBuffer.allocate(HEADER_LENGTH).putInt(MAGIC).putInt(VERSION).rewind());
+
+    private static final Comparator<byte[]> KEY_ORDER = UnsignedBytes.lexicographicalComparator();
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int nameKeys;
+    private final int isoKeys;
+    private final int medlineKeys;
+    private final int nameKeyCount;
+    private final int isoKeyCount;
+    private final int medlineKeyCount;
+
+
+    private JournalAbbreviationIndex(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if ((buffer.limit() < HEADER_LENGTH) || (buffer.getInt(0) != MAGIC) || (buffer.getInt(4) != VERSION)) {
+            throw new IllegalArgumentException("Not a journal abbreviation index of version " + VERSION);
+        }
+        size = buffer.getInt(8);
+        nameKeyCount = buffer.getInt(12);
+        isoKeyCount = buffer.getInt(16);
+        medlineKeyCount = buffer.getInt(20);
+        nameKeys = HEADER_LENGTH + (size * Integer.BYTES);
+        isoKeys = nameKeys + (nameKeyCount * Integer.BYTES);
+        medlineKeys = isoKeys + (isoKeyCount * Integer.BYTES);
+    }
+
+    /**
+     * Indexes the abbreviations, the later ones overwrite the earlier ones like when adding them to a repository.
+     */
+    public static JournalAbbreviationIndex of(Collection<Abbreviation> abbreviations) {
+        return new JournalAbbreviationIndex(ByteBuffer.wrap(toBytes(abbreviations)));
+    }
+
+    /**
+     * Maps an index written by {@link #write(Collection, Path)}.
+     */
+    public static JournalAbbreviationIndex map(Path index) throws IOException {
+        try (FileChannel channel = FileChannel.open(index, StandardOpenOption.READ)) {
+            return new JournalAbbreviationIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Maps the index if it is a file, and reads it at once otherwise, for instance from a jar.
+     */
+    public static JournalAbbreviationIndex load(URL index) throws IOException {
+        if ("file".equals(index.getProtocol())) {
+            try {
+                return map(Paths.get(index.toURI()));
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+        }
+        try (InputStream stream = index.openStream()) {
+            byte[] bytes = ByteStreams.toByteArray(stream);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+            buffer.put(bytes);
+            return new JournalAbbreviationIndex(buffer);
+        }
+    }
+
+    public static void write(Collection<Abbreviation> abbreviations, Path index) throws IOException {
+        Files.write(index, toBytes(abbreviations));
+    }
+
+    /**
+     * Indexes a journal list, for instance the built-in one when building JabRef.
+     *
+     * @param args the journal list (UTF-8) and the index to write
+     */
+    public static void main(String[] args) throws IOException {
+        AbbreviationParser parser = new AbbreviationParser();
+        parser.readJournalListFromFile(new File(args[0]), StandardCharsets.UTF_8);
+        Path index = Paths.get(args[1]);
+        Files.createDirectories(index.toAbsolutePath().getParent());
+        write(parser.getAbbreviations(), index);
+    }
+
+    private static byte[] toBytes(Collection<Abbreviation> abbreviations) {
+        JournalAbbreviationRepository repository = new JournalAbbreviationRepository();
+        repository.addEntries(new ArrayList<>(abbreviations));
+        List<Map<String, Abbreviation>> keyMaps = repository.getKeyMaps();
+
+        int keyCount = 0;
+        for (Map<String, Abbreviation> keys : keyMaps) {
+            keyCount += keys.size();
+        }
+        int dataStart = HEADER_LENGTH + ((repository.size() + keyCount) * Integer.BYTES);
+
+        try {
+            ByteArrayOutputStream data = new ByteArrayOutputStream();
+            DataOutputStream dataOut = new DataOutputStream(data);
+
+            // abbreviations found by a key but overwritten in the repository are written as well
+            Map<Abbreviation, Integer> offsets = new IdentityHashMap<>();
+            for (Abbreviation abbreviation : repository.getAbbreviations()) {
+                offsets.put(abbreviation, dataStart + writeAbbreviation(abbreviation, dataOut));
+            }
+            for (Map<String, Abbreviation> keys : keyMaps) {
+                for (Abbreviation abbreviation : keys.values()) {
+                    if (!offsets.containsKey(abbreviation)) {
+                        offsets.put(abbreviation, dataStart + writeAbbreviation(abbreviation, dataOut));
+                    }
+                }
+            }
+
+            List<Integer> keyOffsets = new ArrayList<>(keyCount);
+            for (Map<String, Abbreviation> keys : keyMaps) {
+                List<byte[]> sortedKeys = new ArrayList<>(keys.size());
+                Map<byte[], Abbreviation> abbreviationOfKey = new IdentityHashMap<>();
+                for (Map.Entry<String, Abbreviation> key : keys.entrySet()) {
+                    byte[] bytes = key.getKey().getBytes(StandardCharsets.UTF_8);
+                    sortedKeys.add(bytes);
+                    abbreviationOfKey.put(bytes, key.getValue());
+                }
+                sortedKeys.sort(KEY_ORDER);
+                for (byte[] key : sortedKeys) {
+                    keyOffsets.add(dataStart + dataOut.size());
+                    dataOut.writeInt(key.length);
+                    dataOut.write(key);
+                    dataOut.writeInt(offsets.get(abbreviationOfKey.get(key)));
+                }
+            }
+
+            ByteArrayOutputStream index = new ByteArrayOutputStream(dataStart + data.size());
+            DataOutputStream indexOut = new DataOutputStream(index);
+            indexOut.writeInt(MAGIC);
+            indexOut.writeInt(VERSION);
+            indexOut.writeInt(repository.size());
+            for (Map<String, Abbreviation> keys : keyMaps) {
+                indexOut.writeInt(keys.size());
+            }
+            for (Abbreviation abbreviation : repository.getAbbreviations()) {
+                indexOut.writeInt(offsets.get(abbreviation));
+            }
+            for (int keyOffset : keyOffsets) {
+                indexOut.writeInt(keyOffset);
+            }
+            data.writeTo(indexOut);
+            return index.toByteArray();
+        } catch (IOException e) {
+            // cannot happen when writing to memory
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int writeAbbreviation(Abbreviation abbreviation, DataOutputStream out) throws IOException {
+        int offset = out.size();
+        byte[] name = abbreviation.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] abbreviated = abbreviation.getAbbreviation().getBytes(StandardCharsets.UTF_8);
+        out.writeInt(name.length);
+        out.write(name);
+        out.writeInt(abbreviated.length);
+        out.write(abbreviated);
+        return offset;
+    }
+
+    /**
+     * @return the number of abbreviations, not counting the ones overwritten when indexing
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index between 0 and {@link #size()}
+     * @return the abbreviation at the index, in the order of their names
+     */
+    public Abbreviation get(int index) {
+        return readAbbreviation(buffer.getInt(HEADER_LENGTH + (index * Integer.BYTES)));
+    }
+
+    public boolean containsName(String name) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = readString(buffer.getInt(HEADER_LENGTH + (middle * Integer.BYTES))).compareTo(name);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param nameKey a full journal name in lower case (see {@link Locale#ENGLISH})
+     */
+    public Optional<Abbreviation> getByName(String nameKey) {
+        return find(nameKeys, nameKeyCount, nameKey);
+    }
+
+    /**
+     * @param isoKey an ISO abbreviation in lower case (see {@link Locale#ENGLISH})
+     */
+    public Optional<Abbreviation> getByIsoAbbreviation(String isoKey) {
+        return find(isoKeys, isoKeyCount, isoKey);
+    }
+
+    /**
+     * @param medlineKey a MEDLINE abbreviation in lower case (see {@link Locale#ENGLISH})
+     */
+    public Optional<Abbreviation> getByMedlineAbbreviation(String medlineKey) {
+        return find(medlineKeys, medlineKeyCount, medlineKey);
+    }
+
+    private Optional<Abbreviation> find(int keys, int keyCount, String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = keyCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int record = buffer.getInt(keys + (middle * Integer.BYTES));
+            int comparison = compareKey(record, bytes);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                int length = buffer.getInt(record);
+                return Optional.of(readAbbreviation(buffer.getInt(record + Integer.BYTES + length)));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private int compareKey(int record, byte[] key) {
+        int length = buffer.getInt(record);
+        int start = record + Integer.BYTES;
+        for (int i = 0; i < Math.min(length, key.length); i++) {
+            int comparison = Integer.compare(buffer.get(start + i) & 0xFF, key[i] & 0xFF);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private Abbreviation readAbbreviation(int offset) {
+        String name = readString(offset);
+        int abbreviationOffset = offset + Integer.BYTES + buffer.getInt(offset);
+        return new Abbreviation(name, readString(abbreviationOffset));
+    }
+
+    private String readString(int offset) {
+        byte[] bytes = new byte[buffer.getInt(offset)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(offset + Integer.BYTES + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
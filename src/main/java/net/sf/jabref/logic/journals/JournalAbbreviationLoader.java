@@ -17,6 +17,8 @@ package net.sf.jabref.logic.journals;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URL;
 import java.nio.charset.Charset;
 import java.util.Collections;
 import java.util.List;
@@ -34,24 +36,26 @@ public class JournalAbbreviationLoader {
 
     // journal initialization
     private static final String JOURNALS_FILE_BUILTIN = "/journals/journalList.txt";
+    // built from JOURNALS_FILE_BUILTIN when building JabRef
+    private static final String JOURNALS_FILE_BUILTIN_INDEX = "/journals/journalList.idx";
     private static final String JOURNALS_IEEE_ABBREVIATION_LIST_WITH_CODE = "/journals/IEEEJournalListCode.txt";
     private static final String JOURNALS_IEEE_ABBREVIATION_LIST_WITH_TEXT = "/journals/IEEEJournalListText.txt";
     private JournalAbbreviationRepository journalAbbrev;
 
+    private static JournalAbbreviationIndex builtInIndex;
+
 
     public JournalAbbreviationLoader(JabRefPreferences preferences) {
         update(preferences);
     }
 
     public void update(JabRefPreferences jabRefPreferences) {
-        journalAbbrev = new JournalAbbreviationRepository();
-
         // the order of reading the journal lists is important
         // method: last added abbreviation wins
         // for instance, in the personal list one can overwrite abbreviations in the built in list
 
-        // Read builtin list
-        journalAbbrev.addEntries(readJournalListFromResource(JOURNALS_FILE_BUILTIN));
+        // The builtin list is indexed once
+        journalAbbrev = new JournalAbbreviationRepository(getBuiltInIndex());
 
         // read IEEE list
         if (jabRefPreferences.getBoolean(JabRefPreferences.USE_IEEE_ABRV)) {
@@ -99,6 +103,27 @@ public class JournalAbbreviationLoader {
         return readJournalListFromResource(JOURNALS_FILE_BUILTIN);
     }
 
+    /**
+     * Loads the index of the builtin list built with JabRef, or indexes the list if there is none, for instance when
+     * running from an IDE.
+     */
+    private static synchronized JournalAbbreviationIndex getBuiltInIndex() {
+        if (builtInIndex == null) {
+            URL index = JournalAbbreviationLoader.class.getResource(JOURNALS_FILE_BUILTIN_INDEX);
+            if (index != null) {
+                try {
+                    builtInIndex = JournalAbbreviationIndex.load(index);
+                } catch (IOException | IllegalArgumentException e) {
+                    LOGGER.warn("Could not load journal abbreviation index " + index, e);
+                }
+            }
+            if (builtInIndex == null) {
+                builtInIndex = JournalAbbreviationIndex.of(getBuiltInAbbreviations());
+            }
+        }
+        return builtInIndex;
+    }
+
     public JournalAbbreviationRepository getRepository() {
         return journalAbbrev;
     }
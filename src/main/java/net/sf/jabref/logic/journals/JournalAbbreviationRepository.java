@@ -15,13 +15,16 @@
 */
 package net.sf.jabref.logic.journals;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
@@ -30,30 +33,65 @@ import org.apache.commons.logging.LogFactory;
 
 /**
  * A repository for all journal abbreviations, including add and find methods.
+ * <p>
+ * The abbreviations added are layered over an index of built-in abbreviations, which is searched without holding an
+ * {@link Abbreviation} for each of them.
  */
 public class JournalAbbreviationRepository {
 
+    private final JournalAbbreviationIndex builtIn;
+
     private final Map<String, Abbreviation> fullNameLowerCase2Abbreviation = new HashMap<>();
     private final Map<String, Abbreviation> isoLowerCase2Abbreviation = new HashMap<>();
     private final Map<String, Abbreviation> medlineLowerCase2Abbreviation = new HashMap<>();
 
     private final SortedSet<Abbreviation> abbreviations = new TreeSet<>();
 
+    // built-in abbreviations overwritten by added ones
+    private final Set<String> overwrittenBuiltInNames = new HashSet<>();
+
     private static final Log LOGGER = LogFactory.getLog(JournalAbbreviationRepository.class);
 
+
+    public JournalAbbreviationRepository() {
+        this(JournalAbbreviationIndex.EMPTY);
+    }
+
+    public JournalAbbreviationRepository(JournalAbbreviationIndex builtIn) {
+        this.builtIn = Objects.requireNonNull(builtIn);
+    }
+
     public int size() {
-        return abbreviations.size();
+        return (builtIn.size() - overwrittenBuiltInNames.size()) + abbreviations.size();
     }
 
     public boolean isKnownName(String journalName) {
         String nameKey = Objects.requireNonNull(journalName).trim().toLowerCase(Locale.ENGLISH);
-        return (fullNameLowerCase2Abbreviation.containsKey(nameKey)) || (isoLowerCase2Abbreviation.containsKey(nameKey))
-                || (medlineLowerCase2Abbreviation.containsKey(nameKey));
+        return getByName(nameKey).isPresent() || isAbbreviation(nameKey);
     }
 
     public boolean isAbbreviatedName(String journalName) {
         String nameKey = Objects.requireNonNull(journalName).trim().toLowerCase(Locale.ENGLISH);
-        return (isoLowerCase2Abbreviation.containsKey(nameKey)) || (medlineLowerCase2Abbreviation.containsKey(nameKey));
+        return isAbbreviation(nameKey);
+    }
+
+    private boolean isAbbreviation(String key) {
+        return getByIsoAbbreviation(key).isPresent() || getByMedlineAbbreviation(key).isPresent();
+    }
+
+    private Optional<Abbreviation> getByName(String nameKey) {
+        Abbreviation abbreviation = fullNameLowerCase2Abbreviation.get(nameKey);
+        return abbreviation == null ? builtIn.getByName(nameKey) : Optional.of(abbreviation);
+    }
+
+    private Optional<Abbreviation> getByIsoAbbreviation(String isoKey) {
+        Abbreviation abbreviation = isoLowerCase2Abbreviation.get(isoKey);
+        return abbreviation == null ? builtIn.getByIsoAbbreviation(isoKey) : Optional.of(abbreviation);
+    }
+
+    private Optional<Abbreviation> getByMedlineAbbreviation(String medlineKey) {
+        Abbreviation abbreviation = medlineLowerCase2Abbreviation.get(medlineKey);
+        return abbreviation == null ? builtIn.getByMedlineAbbreviation(medlineKey) : Optional.of(abbreviation);
     }
 
     /**
@@ -65,15 +103,14 @@ public class JournalAbbreviationRepository {
     public Optional<Abbreviation> getAbbreviation(String journalName) {
         String nameKey = Objects.requireNonNull(journalName).toLowerCase(Locale.ENGLISH).trim();
 
-        if (fullNameLowerCase2Abbreviation.containsKey(nameKey)) {
-            return Optional.of(fullNameLowerCase2Abbreviation.get(nameKey));
-        } else if (isoLowerCase2Abbreviation.containsKey(nameKey)) {
-            return Optional.of(isoLowerCase2Abbreviation.get(nameKey));
-        } else if (medlineLowerCase2Abbreviation.containsKey(nameKey)) {
-            return Optional.of(medlineLowerCase2Abbreviation.get(nameKey));
-        } else {
-            return Optional.empty();
+        Optional<Abbreviation> abbreviation = getByName(nameKey);
+        if (!abbreviation.isPresent()) {
+            abbreviation = getByIsoAbbreviation(nameKey);
+        }
+        if (!abbreviation.isPresent()) {
+            abbreviation = getByMedlineAbbreviation(nameKey);
         }
+        return abbreviation;
     }
 
     public void addEntry(Abbreviation abbreviation) {
@@ -81,11 +118,14 @@ public class JournalAbbreviationRepository {
 
         if (isKnownName(abbreviation.getName())) {
             Abbreviation previous = getAbbreviation(abbreviation.getName()).get();
-            abbreviations.remove(previous);
+            if (!abbreviations.remove(previous)) {
+                overwriteBuiltIn(previous.getName());
+            }
             LOGGER.info("Duplicate journal abbreviation - old one will be overwritten by new one\nOLD: "
                     + previous + "\nNEW: " + abbreviation);
         }
 
+        overwriteBuiltIn(abbreviation.getName());
         abbreviations.add(abbreviation);
 
         fullNameLowerCase2Abbreviation.put(abbreviation.getName().toLowerCase(Locale.ENGLISH), abbreviation);
@@ -94,12 +134,40 @@ public class JournalAbbreviationRepository {
                 abbreviation);
     }
 
+    private void overwriteBuiltIn(String name) {
+        if (builtIn.containsName(name)) {
+            overwrittenBuiltInNames.add(name);
+        }
+    }
+
     public void addEntries(List<Abbreviation> abbreviationsToAdd) {
         abbreviationsToAdd.forEach(this::addEntry);
     }
 
+    /**
+     * @return all abbreviations; the built-in ones are read from their index on each call
+     */
     public SortedSet<Abbreviation> getAbbreviations() {
-        return Collections.unmodifiableSortedSet(abbreviations);
+        if (builtIn.size() == 0) {
+            return Collections.unmodifiableSortedSet(abbreviations);
+        }
+
+        SortedSet<Abbreviation> result = new TreeSet<>(abbreviations);
+        for (int i = 0; i < builtIn.size(); i++) {
+            Abbreviation abbreviation = builtIn.get(i);
+            if (!overwrittenBuiltInNames.contains(abbreviation.getName())) {
+                result.add(abbreviation);
+            }
+        }
+        return Collections.unmodifiableSortedSet(result);
+    }
+
+    /**
+     * @return the added abbreviations by their lower case full name, ISO and MEDLINE abbreviation
+     */
+    List<Map<String, Abbreviation>> getKeyMaps() {
+        return Arrays.asList(fullNameLowerCase2Abbreviation, isoLowerCase2Abbreviation,
+                medlineLowerCase2Abbreviation);
     }
 
     public Optional<String> getNextAbbreviation(String text) {
@@ -156,6 +156,13 @@ public class Layout {
 
     // added section - end (arudert)
 
+    /**
+     * @return true if the layout contains a group block, whose output depends on the entries laid out before
+     */
+    public boolean containsGroups() {
+        return layoutEntries.stream().anyMatch(LayoutEntry::containsGroups);
+    }
+
     public List<String> getMissingFormatters() {
         return new ArrayList<>(missingFormatters);
     }
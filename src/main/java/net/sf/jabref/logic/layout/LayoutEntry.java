@@ -197,6 +197,11 @@ class LayoutEntry {
         this.postFormatter = formatter;
     }
 
+    boolean containsGroups() {
+        return (type == LayoutHelper.IS_GROUP_START)
+                || ((layoutEntries != null) && layoutEntries.stream().anyMatch(LayoutEntry::containsGroups));
+    }
+
     private String doLayout(BibEntry bibtex, BibDatabase database) {
         return doLayout(bibtex, database, Optional.empty());
     }
@@ -46,7 +46,8 @@ public class LayoutHelper {
     public static final int IS_FILENAME = 9;
     public static final int IS_FILEPATH = 10;
 
-    private static String currentGroup;
+    // The value of the last group field written, kept per thread, as entries are exported in parallel
+    private static final ThreadLocal<String> CURRENT_GROUP = new ThreadLocal<>();
 
     private final PushbackReader in;
     private final List<StringInt> parsedEntries = new ArrayList<>();
@@ -60,6 +61,15 @@ public class LayoutHelper {
     }
 
     public Layout getLayoutFromText() throws IOException {
+        return new Layout(getParsedLayout(), repository);
+    }
+
+    /**
+     * Parses the layout text without creating a layout. Layouts are created from the result by
+     * {@link Layout#Layout(List, JournalAbbreviationRepository)}, so that a layout read once can be used by several
+     * threads, each with its own layout.
+     */
+    public List<StringInt> getParsedLayout() throws IOException {
         parse();
 
         for (StringInt parsedEntry : parsedEntries) {
@@ -70,15 +80,15 @@ public class LayoutHelper {
             }
         }
 
-        return new Layout(parsedEntries, repository);
+        return parsedEntries;
     }
 
     public static String getCurrentGroup() {
-        return LayoutHelper.currentGroup;
+        return LayoutHelper.CURRENT_GROUP.get();
     }
 
     public static void setCurrentGroup(String newGroup) {
-        LayoutHelper.currentGroup = newGroup;
+        LayoutHelper.CURRENT_GROUP.set(newGroup);
     }
 
     private void doBracketedField(final int field) throws IOException {
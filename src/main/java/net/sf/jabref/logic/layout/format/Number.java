@@ -31,6 +31,6 @@ public class Number implements ParamLayoutFormatter {
 
     @Override
     public String format(String fieldText) {
-        return String.valueOf(ExportFormats.entryNumber);
+        return String.valueOf(ExportFormats.getEntryNumber());
     }
 }
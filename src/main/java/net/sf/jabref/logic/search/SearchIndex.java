@@ -0,0 +1,325 @@
+package net.sf.jabref.logic.search;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.VetoableChangeListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+import net.sf.jabref.logic.layout.format.RemoveLatexCommands;
+import net.sf.jabref.logic.search.rules.SentenceAnalyzer;
+import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.database.DatabaseChangeEvent;
+import net.sf.jabref.model.database.DatabaseChangeListener;
+import net.sf.jabref.model.entry.BibEntry;
+
+/**
+ * Inverted index of the words occurring in the entries of a database, used to speed up contains based searches.
+ * <p>
+ * A word is a maximal run of letters and digits in a field value after LaTeX commands have been removed and the
+ * value has been converted to lower case, i.e., after the same normalization as done by the
+ * {@link net.sf.jabref.logic.search.rules.ContainBasedSearchRule}. As that rule matches substrings, a search word
+ * only selects the entries containing an indexed word which contains each letter and digit run of the search word.
+ * The candidates are then checked by the search query itself, so the result is the same as searching all entries.
+ * <p>
+ * The indexed words containing a run are found with a second index from the trigrams (substrings of three characters)
+ * of the indexed words to these words: for a run of at least three characters only the words containing its rarest
+ * trigram are checked, for a shorter run the words of the trigrams containing the run are taken. Words shorter than a
+ * trigram are kept apart. The entries of the runs of all search words are then intersected.
+ * <p>
+ * The index is built on the first search and kept up to date by listening to the database and its entries. The
+ * changes are only queued by the listeners, so that changing the database never waits for the index. They are applied
+ * before the next search.
+ */
+public class SearchIndex implements DatabaseChangeListener, VetoableChangeListener {
+
+    // has to be the same normalization as in ContainBasedSearchRule
+    private static final RemoveLatexCommands REMOVE_LATEX_COMMANDS = new RemoveLatexCommands();
+    private static final int GRAM_LENGTH = 3;
+
+    private final BibDatabase database;
+
+    private volatile boolean built;
+    private final Queue<DatabaseChangeEvent> changes = new ConcurrentLinkedQueue<>();
+    // BibEntry implements equals and hashCode based on its content, so identity based collections have to be used
+    private final Map<BibEntry, String[]> wordsOfEntry = new IdentityHashMap<>();
+    private final Map<String, Set<BibEntry>> entriesOfWord = new HashMap<>();
+    private final Map<String, Set<String>> wordsOfTrigram = new HashMap<>();
+    private final Set<String> shortWords = new HashSet<>();
+
+
+    /**
+     * Creates an index for the given database and registers it as listener of the database. Has to be called from
+     * the thread changing the database.
+     */
+    public SearchIndex(BibDatabase database) {
+        this.database = Objects.requireNonNull(database);
+        database.addDatabaseChangeListener(this);
+    }
+
+    /**
+     * Returns the entries of the database matching the given query in database order.
+     */
+    public List<BibEntry> getMatches(SearchQuery query) {
+        List<BibEntry> entries = database.getEntries();
+        if (query.isContainsBasedSearch()) {
+            Set<BibEntry> candidates = getCandidates(query);
+            if (candidates != null) {
+                if (candidates.isEmpty()) {
+                    return Collections.emptyList();
+                }
+                return entries.stream().filter(entry -> candidates.contains(entry) && query.isMatch(entry))
+                        .collect(Collectors.toList());
+            }
+        }
+        return entries.stream().filter(query::isMatch).collect(Collectors.toList());
+    }
+
+    /**
+     * @return the entries possibly matching the contains based query, null if the query does not restrict the entries
+     */
+    private synchronized Set<BibEntry> getCandidates(SearchQuery query) {
+        update();
+
+        List<Set<String>> wordsOfParts = new ArrayList<>();
+        for (String searchWord : getSearchWords(query)) {
+            for (String part : splitIntoWords(searchWord)) {
+                Set<String> words = getWordsContaining(part);
+                if (words.isEmpty()) {
+                    return Collections.emptySet();
+                }
+                wordsOfParts.add(words);
+            }
+        }
+        if (wordsOfParts.isEmpty()) {
+            return null;
+        }
+
+        // start with the most selective part, so that the candidates shrink quickly
+        wordsOfParts.sort(Comparator.comparingInt(Set::size));
+        Set<BibEntry> candidates = getEntries(wordsOfParts.get(0));
+        for (Set<String> words : wordsOfParts.subList(1, wordsOfParts.size())) {
+            if (candidates.isEmpty()) {
+                break;
+            }
+            candidates.retainAll(getEntries(words));
+        }
+        return candidates;
+    }
+
+    private Set<BibEntry> getEntries(Set<String> words) {
+        Set<BibEntry> entries = newEntrySet(16);
+        for (String word : words) {
+            entries.addAll(entriesOfWord.get(word));
+        }
+        return entries;
+    }
+
+    /**
+     * @return the indexed words containing the given run of letters and digits
+     */
+    private Set<String> getWordsContaining(String part) {
+        Set<String> words = new HashSet<>();
+        if (part.length() >= GRAM_LENGTH) {
+            Set<String> rarest = null;
+            for (int i = 0; i <= (part.length() - GRAM_LENGTH); i++) {
+                Set<String> wordsOfGram = wordsOfTrigram.get(part.substring(i, i + GRAM_LENGTH));
+                if (wordsOfGram == null) {
+                    return words;
+                }
+                if ((rarest == null) || (wordsOfGram.size() < rarest.size())) {
+                    rarest = wordsOfGram;
+                }
+            }
+            for (String word : rarest) {
+                if (word.contains(part)) {
+                    words.add(word);
+                }
+            }
+        } else {
+            // every word with at least three characters containing the part has a trigram containing it
+            for (Map.Entry<String, Set<String>> gram : wordsOfTrigram.entrySet()) {
+                if (gram.getKey().contains(part)) {
+                    words.addAll(gram.getValue());
+                }
+            }
+            for (String word : shortWords) {
+                if (word.contains(part)) {
+                    words.add(word);
+                }
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Returns the words the contains based search looks for, in lower case. For a case sensitive search only the
+     * words consisting of ASCII characters are returned, as converting other characters to lower case may depend on
+     * their context.
+     */
+    private static List<String> getSearchWords(SearchQuery query) {
+        if (!query.isCaseSensitive()) {
+            return new SentenceAnalyzer(query.getQuery().toLowerCase()).getWords();
+        }
+
+        List<String> result = new ArrayList<>();
+        for (String word : new SentenceAnalyzer(query.getQuery()).getWords()) {
+            if (word.chars().allMatch(c -> c < 128)) {
+                result.add(word.toLowerCase());
+            }
+        }
+        return result;
+    }
+
+    private void update() {
+        if (!built) {
+            // changes from now on are queued, adding an entry twice does not harm
+            built = true;
+            for (BibEntry entry : new ArrayList<>(database.getEntries())) {
+                addEntry(entry);
+            }
+        }
+
+        DatabaseChangeEvent change = changes.poll();
+        while (change != null) {
+            BibEntry entry = change.getEntry();
+            if (change.getType() == DatabaseChangeEvent.ChangeType.ADDED_ENTRY) {
+                addEntry(entry);
+            } else if (change.getType() == DatabaseChangeEvent.ChangeType.REMOVED_ENTRY) {
+                removeEntry(entry);
+            } else if (wordsOfEntry.containsKey(entry)) {
+                removeWords(entry);
+                addWords(entry);
+            }
+            change = changes.poll();
+        }
+    }
+
+    private void addEntry(BibEntry entry) {
+        if (!wordsOfEntry.containsKey(entry)) {
+            entry.addPropertyChangeListener(this);
+        }
+        removeWords(entry);
+        addWords(entry);
+    }
+
+    private void removeEntry(BibEntry entry) {
+        entry.removePropertyChangeListener(this);
+        removeWords(entry);
+        wordsOfEntry.remove(entry);
+    }
+
+    private void addWords(BibEntry entry) {
+        List<String> words = new ArrayList<>();
+        for (String fieldContent : entry.getFieldValues()) {
+            words.addAll(splitIntoWords(REMOVE_LATEX_COMMANDS.format(fieldContent).toLowerCase()));
+        }
+
+        String[] distinctWords = words.stream().distinct().toArray(String[]::new);
+        for (String word : distinctWords) {
+            entriesOfWord.computeIfAbsent(word, key -> {
+                addToVocabulary(key);
+                return newEntrySet(4);
+            }).add(entry);
+        }
+        wordsOfEntry.put(entry, distinctWords);
+    }
+
+    private void removeWords(BibEntry entry) {
+        String[] words = wordsOfEntry.get(entry);
+        if (words == null) {
+            return;
+        }
+
+        for (String word : words) {
+            Set<BibEntry> entries = entriesOfWord.get(word);
+            if (entries != null) {
+                entries.remove(entry);
+                if (entries.isEmpty()) {
+                    entriesOfWord.remove(word);
+                    removeFromVocabulary(word);
+                }
+            }
+        }
+        wordsOfEntry.put(entry, new String[0]);
+    }
+
+    private void addToVocabulary(String word) {
+        if (word.length() < GRAM_LENGTH) {
+            shortWords.add(word);
+            return;
+        }
+        for (int i = 0; i <= (word.length() - GRAM_LENGTH); i++) {
+            wordsOfTrigram.computeIfAbsent(word.substring(i, i + GRAM_LENGTH), key -> new HashSet<>(4)).add(word);
+        }
+    }
+
+    private void removeFromVocabulary(String word) {
+        if (word.length() < GRAM_LENGTH) {
+            shortWords.remove(word);
+            return;
+        }
+        for (int i = 0; i <= (word.length() - GRAM_LENGTH); i++) {
+            String gram = word.substring(i, i + GRAM_LENGTH);
+            Set<String> words = wordsOfTrigram.get(gram);
+            if (words != null) {
+                words.remove(word);
+                if (words.isEmpty()) {
+                    wordsOfTrigram.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits the text into its maximal runs of letters and digits.
+     */
+    static List<String> splitIntoWords(String text) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isLetterOrDigit(text.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                words.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            words.add(text.substring(start));
+        }
+        return words;
+    }
+
+    private static Set<BibEntry> newEntrySet(int expectedSize) {
+        return Collections.newSetFromMap(new IdentityHashMap<>(expectedSize));
+    }
+
+    @Override
+    public void databaseChanged(DatabaseChangeEvent e) {
+        // before the first search the entries are indexed as they are when building the index
+        if (built && (e.getType() != DatabaseChangeEvent.ChangeType.CHANGING_ENTRY)) {
+            changes.add(e);
+        }
+    }
+
+    @Override
+    public void vetoableChange(PropertyChangeEvent evt) {
+        if (built && (evt.getSource() instanceof BibEntry)) {
+            changes.add(new DatabaseChangeEvent(database, DatabaseChangeEvent.ChangeType.CHANGED_ENTRY,
+                    (BibEntry) evt.getSource()));
+        }
+    }
+}
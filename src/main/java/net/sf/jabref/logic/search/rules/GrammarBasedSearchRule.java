@@ -15,13 +15,13 @@
 */
 package net.sf.jabref.logic.search.rules;
 
-import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.regex.PatternSyntaxException;
 
 import net.sf.jabref.model.entry.BibEntry;
 import net.sf.jabref.search.SearchBaseVisitor;
@@ -51,6 +51,7 @@ public class GrammarBasedSearchRule implements SearchRule {
 
     private ParseTree tree;
     private String query;
+    private Predicate<BibEntry> compiledQuery = entry -> false;
 
 
     public static class ThrowingErrorListener extends BaseErrorListener {
@@ -104,12 +105,26 @@ public class GrammarBasedSearchRule implements SearchRule {
         parser.setErrorHandler(new BailErrorStrategy()); // ParseCancelationException on parse errors
         tree = parser.start();
         this.query = query;
+        compiledQuery = compile(tree);
+    }
+
+    /**
+     * Translates the parse tree into a predicate once, so that evaluating the query for an entry neither walks the
+     * parse tree nor compiles any pattern. A query which cannot be compiled matches no entry.
+     */
+    private Predicate<BibEntry> compile(ParseTree parseTree) {
+        try {
+            return new SearchCompilingVisitor(caseSensitiveSearch, regExpSearch).visit(parseTree);
+        } catch (Exception e) {
+            LOGGER.debug("Search failed", e);
+            return entry -> false;
+        }
     }
 
     @Override
     public boolean applyRule(String query, BibEntry bibEntry) {
         try {
-            return new BibtexSearchVisitor(caseSensitiveSearch, regExpSearch, bibEntry).visit(tree);
+            return compiledQuery.test(bibEntry);
         } catch (Exception e) {
             LOGGER.debug("Search failed", e);
             return false;
@@ -145,6 +160,15 @@ public class GrammarBasedSearchRule implements SearchRule {
         private final ComparisonOperator operator;
         private final Pattern fieldPattern;
         private final Pattern valuePattern;
+        // the matchers are reset for every field instead of creating new ones; they are guarded by this comparator,
+        // as the rule of a search group may be applied by several threads
+        private final Matcher fieldMatcher;
+        private final Matcher valueMatcher;
+
+        private final boolean matchesEntryType;
+        // field keys of an entry are stored in lower case, so a literal field name can be resolved to a single key
+        private final boolean fieldNameResolved;
+        private final String resolvedFieldName;
 
         public Comparator(String field, String value, ComparisonOperator operator, boolean caseSensitive, boolean regex) {
             this.operator = operator;
@@ -152,21 +176,55 @@ public class GrammarBasedSearchRule implements SearchRule {
             int option = caseSensitive ? 0 : Pattern.CASE_INSENSITIVE;
             this.fieldPattern = Pattern.compile(regex ? field : "\\Q" + field + "\\E", option);
             this.valuePattern = Pattern.compile(regex ? value : "\\Q" + value + "\\E", option);
+            this.fieldMatcher = fieldPattern.matcher("");
+            this.valueMatcher = valuePattern.matcher("");
+
+            this.matchesEntryType = fieldPattern.matcher("entrytype").matches();
+            this.fieldNameResolved = !regex && !field.contains("\\E");
+            this.resolvedFieldName = fieldNameResolved ? resolveFieldName(field, caseSensitive) : null;
         }
 
-        public boolean compare(BibEntry entry) {
+        /**
+         * Returns the only field key the literal field name can match, or null if it cannot match any key.
+         * Case insensitive patterns only fold US-ASCII characters, hence the manual folding.
+         */
+        private static String resolveFieldName(String field, boolean caseSensitive) {
+            String key = field;
+            if (!caseSensitive) {
+                StringBuilder folded = new StringBuilder(field.length());
+                for (int i = 0; i < field.length(); i++) {
+                    char c = field.charAt(i);
+                    folded.append(((c >= 'A') && (c <= 'Z')) ? (char) (c + ('a' - 'A')) : c);
+                }
+                key = folded.toString();
+            }
+            return key.equals(key.toLowerCase(Locale.ENGLISH)) ? key : null;
+        }
+
+        public synchronized boolean compare(BibEntry entry) {
             // special case for searching for entrytype=phdthesis
-            if (fieldPattern.matcher("entrytype").matches()) {
+            if (matchesEntryType) {
                 return matchFieldValue(entry.getType());
             }
 
             // specification of fieldsKeys to search is done in the search expression itself
-            Set<String> fieldsKeys = entry.getFieldNames();
+            if (fieldNameResolved) {
+                String fieldValue = resolvedFieldName == null ? null : entry.getField(resolvedFieldName);
+                if (fieldValue == null) {
+                    // special case of asdf!=whatever and entry does not contain asdf
+                    return operator == ComparisonOperator.DOES_NOT_CONTAIN;
+                }
+                return matchFieldValue(fieldValue);
+            }
 
-            List<String> matchedFieldKeys = fieldsKeys.stream().filter(matchFieldKey()).collect(Collectors.toList());
+            boolean matchedFieldKey = false;
+            for (Map.Entry<String, String> field : entry.getFieldMap().entrySet()) {
+                if (!fieldMatcher.reset(field.getKey()).matches()) {
+                    continue;
+                }
+                matchedFieldKey = true;
 
-            for (String field : matchedFieldKeys) {
-                String fieldValue = entry.getField(field);
+                String fieldValue = field.getValue();
                 if (fieldValue == null) {
                     continue; // paranoia
                 }
@@ -177,15 +235,11 @@ public class GrammarBasedSearchRule implements SearchRule {
             }
 
             // special case of asdf!=whatever and entry does not contain asdf
-            return matchedFieldKeys.isEmpty() && (operator == ComparisonOperator.DOES_NOT_CONTAIN);
-        }
-
-        private Predicate<String> matchFieldKey() {
-            return s -> fieldPattern.matcher(s).matches();
+            return !matchedFieldKey && (operator == ComparisonOperator.DOES_NOT_CONTAIN);
         }
 
-        public boolean matchFieldValue(String content) {
-            Matcher matcher = valuePattern.matcher(content);
+        public synchronized boolean matchFieldValue(String content) {
+            Matcher matcher = valueMatcher.reset(content);
             if (operator == ComparisonOperator.CONTAINS) {
                 return matcher.find();
             } else if (operator == ComparisonOperator.EXACT) {
@@ -200,32 +254,41 @@ public class GrammarBasedSearchRule implements SearchRule {
     }
 
     /**
-     * Search results in boolean. It may be later on converted to an int.
+     * Compiles the parse tree into a predicate on entries. Patterns and operators are resolved at compile time.
      */
-    static class BibtexSearchVisitor extends SearchBaseVisitor<Boolean> {
+    static class SearchCompilingVisitor extends SearchBaseVisitor<Predicate<BibEntry>> {
 
         private final boolean caseSensitive;
         private final boolean regex;
 
-        private final BibEntry entry;
-
-        public BibtexSearchVisitor(boolean caseSensitive, boolean regex, BibEntry bibEntry) {
+        public SearchCompilingVisitor(boolean caseSensitive, boolean regex) {
             this.caseSensitive = caseSensitive;
             this.regex = regex;
-            this.entry = bibEntry;
         }
 
-        public boolean comparison(String field, ComparisonOperator operator, String value) {
-            return new Comparator(field, value, operator, caseSensitive, regex).compare(entry);
+        public Predicate<BibEntry> comparison(String field, ComparisonOperator operator, String value) {
+            try {
+                return new Comparator(field, value, operator, caseSensitive, regex)::compare;
+            } catch (PatternSyntaxException e) {
+                // fail only when evaluated, so that a valid alternative of an "or" may still match
+                return entry -> {
+                    throw e;
+                };
+            }
         }
 
         @Override
-        public Boolean visitStart(SearchParser.StartContext ctx) {
+        public Predicate<BibEntry> visitStart(SearchParser.StartContext ctx) {
             return visit(ctx.expression());
         }
 
         @Override
-        public Boolean visitComparison(SearchParser.ComparisonContext ctx) {
+        public Predicate<BibEntry> visitAtomExpression(SearchParser.AtomExpressionContext ctx) {
+            return visit(ctx.comparison());
+        }
+
+        @Override
+        public Predicate<BibEntry> visitComparison(SearchParser.ComparisonContext ctx) {
             // remove possible enclosing " symbols
             String right = ctx.right.getText();
             if(right.startsWith("\"") && right.endsWith("\"")) {
@@ -237,21 +300,21 @@ public class GrammarBasedSearchRule implements SearchRule {
         }
 
         @Override
-        public Boolean visitUnaryExpression(SearchParser.UnaryExpressionContext ctx) {
-            return !visit(ctx.expression()); // negate
+        public Predicate<BibEntry> visitUnaryExpression(SearchParser.UnaryExpressionContext ctx) {
+            return visit(ctx.expression()).negate(); // negate
         }
 
         @Override
-        public Boolean visitParenExpression(SearchParser.ParenExpressionContext ctx) {
+        public Predicate<BibEntry> visitParenExpression(SearchParser.ParenExpressionContext ctx) {
             return visit(ctx.expression()); // ignore parenthesis
         }
 
         @Override
-        public Boolean visitBinaryExpression(SearchParser.BinaryExpressionContext ctx) {
+        public Predicate<BibEntry> visitBinaryExpression(SearchParser.BinaryExpressionContext ctx) {
             if ("AND".equalsIgnoreCase(ctx.operator.getText())) {
-                return visit(ctx.left) && visit(ctx.right); // and
+                return visit(ctx.left).and(visit(ctx.right)); // and
             } else {
-                return visit(ctx.left) || visit(ctx.right); // or
+                return visit(ctx.left).or(visit(ctx.right)); // or
             }
         }
     }
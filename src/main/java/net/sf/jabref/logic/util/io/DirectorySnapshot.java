@@ -0,0 +1,126 @@
+package net.sf.jabref.logic.util.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The contents of directories as seen when they were first listed, for searches listing the same directories many
+ * times, for instance once per entry. Every directory is read at most once.
+ * <p>
+ * The snapshot is meant to be used for one search and is not thread-safe.
+ */
+public class DirectorySnapshot {
+
+    private final Map<File, List<Entry>> listings = new HashMap<>();
+
+
+    /**
+     * A file or directory in a listed directory.
+     */
+    public static class Entry {
+
+        private final File file;
+        private final boolean directory;
+        private final Optional<String> extension;
+
+
+        private Entry(File file, boolean directory) {
+            this.file = file;
+            this.directory = directory;
+            this.extension = directory ? Optional.empty() : FileUtil.getFileExtension(file.getName());
+        }
+
+        /**
+         * @return the file, as a child of the directory it was listed in
+         */
+        public File getFile() {
+            return file;
+        }
+
+        public String getName() {
+            return file.getName();
+        }
+
+        public boolean isDirectory() {
+            return directory;
+        }
+
+        /**
+         * @return the extension in lower case, empty for directories
+         */
+        public Optional<String> getExtension() {
+            return extension;
+        }
+    }
+
+
+    /**
+     * @return the entries of the directory, empty if it is not a directory or cannot be read
+     */
+    public List<Entry> list(File directory) {
+        return listings.computeIfAbsent(directory, DirectorySnapshot::read);
+    }
+
+    /**
+     * @return the files and directories in the directory whose whole names match the pattern
+     */
+    public List<File> findMatches(File directory, Pattern pattern) {
+        List<File> matches = new ArrayList<>();
+        for (Entry entry : list(directory)) {
+            if (pattern.matcher(entry.getName()).matches()) {
+                matches.add(entry.getFile());
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @return the files with one of the extensions in the directories and all their subdirectories
+     */
+    public Set<File> findFiles(Collection<String> extensions, Collection<File> directories) {
+        Set<File> result = new HashSet<>();
+        for (File directory : directories) {
+            findFiles(extensions, directory, result);
+        }
+        return result;
+    }
+
+    private void findFiles(Collection<String> extensions, File directory, Set<File> result) {
+        for (Entry entry : list(directory)) {
+            if (entry.isDirectory()) {
+                findFiles(extensions, entry.getFile(), result);
+            } else if (entry.getExtension().isPresent() && extensions.contains(entry.getExtension().get())) {
+                result.add(entry.getFile());
+            }
+        }
+    }
+
+    private static List<Entry> read(File directory) {
+        List<Entry> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory.toPath())) {
+            for (Path path : stream) {
+                entries.add(new Entry(new File(directory, path.getFileName().toString()),
+                        Files.isDirectory(path)));
+            }
+        } catch (IOException | DirectoryIteratorException | InvalidPathException e) {
+            // No directory or no permission
+            return Collections.emptyList();
+        }
+        return entries;
+    }
+}
@@ -15,13 +15,11 @@
 */
 package net.sf.jabref.logic.util.io;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -141,15 +139,15 @@ public class FileUtil {
         if (dest.exists() && !deleteIfExists) {
             return false;
         }
-        try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(source));
-                BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(dest))) {
-
-
-            int el;
-            while ((el = in.read()) >= 0) {
-                out.write(el);
+        // the destination is overwritten in place, so that it keeps its attributes
+        try (FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+                FileChannel out = FileChannel.open(dest.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
             }
-            out.flush();
         }
         return true;
     }
@@ -328,31 +326,37 @@ public class FileUtil {
             result.put(entry, new ArrayList<>());
         }
 
+        // The first entry with a key wins, as when comparing the file with the entries one after the other
+        List<BibEntry> entryList = new ArrayList<>(entries);
+        Map<String, Integer> entryOfKey = new HashMap<>();
+        for (int i = 0; i < entryList.size(); i++) {
+            String citeKey = entryList.get(i).getCiteKey();
+            if ((citeKey != null) && !citeKey.isEmpty()) {
+                entryOfKey.putIfAbsent(citeKey, i);
+            }
+        }
+
         boolean exactOnly = Globals.prefs.getBoolean(JabRefPreferences.AUTOLINK_EXACT_KEY_ONLY);
         // Now look for keys
-        nextFile: for (File file : filesWithExtension) {
+        for (File file : filesWithExtension) {
 
             String name = file.getName();
             int dot = name.lastIndexOf('.');
             // First, look for exact matches:
-            for (BibEntry entry : entries) {
-                String citeKey = entry.getCiteKey();
-                if ((citeKey != null) && !citeKey.isEmpty() && (dot > 0) && name.substring(0, dot).equals(citeKey)) {
-                    result.get(entry).add(file);
-                    continue nextFile;
-                }
-            }
+            Integer match = dot > 0 ? entryOfKey.get(name.substring(0, dot)) : null;
             // If we get here, we didn't find any exact matches. If non-exact
-            // matches are allowed, try to find one:
-            if (!exactOnly) {
-                for (BibEntry entry : entries) {
-                    String citeKey = entry.getCiteKey();
-                    if ((citeKey != null) && !citeKey.isEmpty() && name.startsWith(citeKey)) {
-                        result.get(entry).add(file);
-                        continue nextFile;
+            // matches are allowed, try to find one, the first entry whose key is a prefix of the name:
+            if ((match == null) && !exactOnly) {
+                for (int end = 1; end <= name.length(); end++) {
+                    Integer index = entryOfKey.get(name.substring(0, end));
+                    if ((index != null) && ((match == null) || (index < match))) {
+                        match = index;
                     }
                 }
             }
+            if (match != null) {
+                result.get(entryList.get(match)).add(file);
+            }
         }
 
         return result;
@@ -0,0 +1,171 @@
+package net.sf.jabref.logic.xmp;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+
+import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.entry.BibEntry;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Writes the XMP metadata of many entries to their PDF files, using a bounded number of threads. Each thread holds at
+ * most one PDF document at a time. Files already holding the metadata of their entry are not written again (see
+ * {@link XMPUtil#writeXMPIfChanged(File, java.util.Collection, BibDatabase, boolean)}).
+ * <p>
+ * A file linked from several entries is written for one entry after the other, in the given order, like when
+ * writing the entries one by one.
+ */
+public class XMPBatchWriter {
+
+    private static final Log LOGGER = LogFactory.getLog(XMPBatchWriter.class);
+
+    private final int threads;
+
+
+    public enum Status {
+        WRITTEN, UNCHANGED, FAILED, CANCELLED
+    }
+
+    /**
+     * The outcome of writing the metadata of an entry to a file.
+     */
+    public static class Result {
+
+        private final BibEntry entry;
+        private final File file;
+        private final Status status;
+        private final Optional<Exception> error;
+
+
+        private Result(BibEntry entry, File file, Status status, Optional<Exception> error) {
+            this.entry = entry;
+            this.file = file;
+            this.status = status;
+            this.error = error;
+        }
+
+        public BibEntry getEntry() {
+            return entry;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * @return the reason of the failure for {@link Status#FAILED}
+         */
+        public Optional<Exception> getError() {
+            return error;
+        }
+    }
+
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        void fileProcessed(Result result);
+    }
+
+
+    /**
+     * Uses a thread per processor, at most four, as reading and writing PDF files needs both processor and disk.
+     */
+    public XMPBatchWriter() {
+        this(Math.min(4, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public XMPBatchWriter(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed, not " + threads);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Writes the metadata of each entry to its files. Returns when all files have been processed, or when the files
+     * being processed have been finished after the writing has been cancelled.
+     *
+     * @param filesOfEntries the existing PDF files of each entry
+     * @param database maybenull An optional database used to resolve strings
+     * @param cancelled checked before processing a file
+     * @param listener maybenull called from the calling thread for each processed file, in the order they are finished
+     * @return the results in the order they are finished, {@link Status#CANCELLED} for the files not processed
+     */
+    public List<Result> write(Map<BibEntry, List<File>> filesOfEntries, BibDatabase database,
+            BooleanSupplier cancelled, ProgressListener listener) {
+        Objects.requireNonNull(cancelled);
+
+        Map<File, List<BibEntry>> entriesOfFiles = new LinkedHashMap<>();
+        for (Map.Entry<BibEntry, List<File>> entryFiles : filesOfEntries.entrySet()) {
+            for (File file : entryFiles.getValue()) {
+                entriesOfFiles.computeIfAbsent(file.getAbsoluteFile(), key -> new ArrayList<>())
+                        .add(entryFiles.getKey());
+            }
+        }
+
+        List<Result> results = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, entriesOfFiles.size())));
+        try {
+            CompletionService<List<Result>> completionService = new ExecutorCompletionService<>(executor);
+            for (Map.Entry<File, List<BibEntry>> fileEntries : entriesOfFiles.entrySet()) {
+                completionService
+                        .submit(() -> writeFile(fileEntries.getKey(), fileEntries.getValue(), database, cancelled));
+            }
+
+            for (int i = 0; i < entriesOfFiles.size(); i++) {
+                for (Result result : completionService.take().get()) {
+                    results.add(result);
+                    if (listener != null) {
+                        listener.fileProcessed(result);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            LOGGER.info("Writing XMP metadata interrupted", e);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // writeFile catches all exceptions
+            throw new IllegalStateException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return results;
+    }
+
+    private static List<Result> writeFile(File file, List<BibEntry> entries, BibDatabase database,
+            BooleanSupplier cancelled) {
+        List<Result> results = new ArrayList<>(entries.size());
+        for (BibEntry entry : entries) {
+            if (cancelled.getAsBoolean()) {
+                results.add(new Result(entry, file, Status.CANCELLED, Optional.empty()));
+                continue;
+            }
+            try {
+                boolean written = XMPUtil.writeXMPIfChanged(file, Collections.singletonList(entry), database, true);
+                results.add(new Result(entry, file, written ? Status.WRITTEN : Status.UNCHANGED, Optional.empty()));
+            } catch (Exception e) {
+                LOGGER.debug("Could not write XMP metadata to " + file, e);
+                results.add(new Result(entry, file, Status.FAILED, Optional.of(e)));
+            }
+        }
+        return results;
+    }
+}
@@ -1057,6 +1057,23 @@ public class XMPUtil {
     public static void writeXMP(File file,
             Collection<BibEntry> bibtexEntries, BibDatabase database,
             boolean writePDFInfo) throws IOException, TransformerException {
+        XMPUtil.writeXMP(file, bibtexEntries, database, writePDFInfo, false);
+    }
+
+    /**
+     * Same as {@link #writeXMP(File, Collection, BibDatabase, boolean)}, but leaves the file untouched if its
+     * BibTeX-XMP-data already holds the same properties as the ones to be written. The other metadata is not
+     * compared, as it is written from the same entries.
+     *
+     * @return true if the file has been written, false if it was up to date
+     */
+    public static boolean writeXMPIfChanged(File file, Collection<BibEntry> bibtexEntries, BibDatabase database,
+            boolean writePDFInfo) throws IOException, TransformerException {
+        return XMPUtil.writeXMP(file, bibtexEntries, database, writePDFInfo, true);
+    }
+
+    private static boolean writeXMP(File file, Collection<BibEntry> bibtexEntries, BibDatabase database,
+            boolean writePDFInfo, boolean onlyIfChanged) throws IOException, TransformerException {
 
         Collection<BibEntry> resolvedEntries;
         if (database == null) {
@@ -1070,12 +1087,6 @@ public class XMPUtil {
                 throw new EncryptedPdfsNotSupportedException();
             }
 
-            if (writePDFInfo && (resolvedEntries.size() == 1)) {
-                XMPUtil.writeDocumentInformation(document, resolvedEntries
-                        .iterator().next(), null);
-                XMPUtil.writeDublinCore(document, resolvedEntries, null);
-            }
-
             PDDocumentCatalog catalog = document.getDocumentCatalog();
             PDMetadata metaRaw = catalog.getMetadata();
 
@@ -1088,9 +1099,24 @@ public class XMPUtil {
             meta.addXMLNSMapping(XMPSchemaBibtex.NAMESPACE,
                     XMPSchemaBibtex.class);
 
-            // Remove all current Bibtex-schemas
             List<XMPSchema> schemas = meta
                     .getSchemasByNamespaceURI(XMPSchemaBibtex.NAMESPACE);
+            if (onlyIfChanged && getBibtexProperties(schemas).equals(toBibtexProperties(resolvedEntries))) {
+                return false;
+            }
+
+            if (writePDFInfo && (resolvedEntries.size() == 1)) {
+                XMPUtil.writeDocumentInformation(document, resolvedEntries
+                        .iterator().next(), null);
+                XMPUtil.writeDublinCore(document, resolvedEntries, null);
+                // the Dublin Core has been written to a new metadata stream
+                metaRaw = catalog.getMetadata();
+                meta = new XMPMetadata(XMLUtil.parse(metaRaw.createInputStream()));
+                meta.addXMLNSMapping(XMPSchemaBibtex.NAMESPACE, XMPSchemaBibtex.class);
+                schemas = meta.getSchemasByNamespaceURI(XMPSchemaBibtex.NAMESPACE);
+            }
+
+            // Remove all current Bibtex-schemas
             for (XMPSchema schema : schemas) {
                 XMPSchemaBibtex bib = (XMPSchemaBibtex) schema;
                 bib.getElement().getParentNode().removeChild(bib.getElement());
@@ -1116,7 +1142,34 @@ public class XMPUtil {
                 LOGGER.debug("Could not write XMP metadata", e);
                 throw new TransformerException("Could not write XMP metadata: " + e.getLocalizedMessage(), e);
             }
+            return true;
+        }
+    }
+
+    /**
+     * @return the properties of the BibTeX-XMP-schemas, which describe the entries as written to the file
+     */
+    private static List<Map<String, String>> getBibtexProperties(List<XMPSchema> schemas) {
+        List<Map<String, String>> properties = new ArrayList<>(schemas.size());
+        for (XMPSchema schema : schemas) {
+            properties.add(XMPSchemaBibtex.getAllProperties(schema, "bibtex"));
+        }
+        return properties;
+    }
+
+    /**
+     * @return the properties the BibTeX-XMP-schemas written for the entries will have
+     */
+    private static List<Map<String, String>> toBibtexProperties(Collection<BibEntry> entries) throws IOException {
+        XMPMetadata meta = new XMPMetadata();
+        List<XMPSchema> schemas = new ArrayList<>(entries.size());
+        for (BibEntry entry : entries) {
+            XMPSchemaBibtex schema = new XMPSchemaBibtex(meta);
+            meta.addSchema(schema);
+            schema.setBibtexEntry(entry, null);
+            schemas.add(schema);
         }
+        return getBibtexProperties(schemas);
     }
 
     /**
@@ -212,6 +212,7 @@ public class DuplicateCheck {
      * them is a duplicate of the given entry, as per
      * Util.isDuplicate(BibEntry, BibEntry), the duplicate is returned.
      * The search is terminated when the first duplicate is found.
+     * When checking several entries against the same database, use a {@link DuplicateFinder} instead.
      *
      * @param database The database to search.
      * @param entry    The entry of which we are looking for duplicates.
@@ -266,7 +267,9 @@ public class DuplicateCheck {
             return 1.0;
             /* both strings are zero length */ }
         double sim = (longerLength - editDistance(longer, shorter)) / (double) longerLength;
-        LOGGER.debug("Longer string: " + longer + " Shorter string: " + shorter + " Similarity: " + sim);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Longer string: " + longer + " Shorter string: " + shorter + " Similarity: " + sim);
+        }
         return sim;
 
     }
@@ -299,7 +302,10 @@ public class DuplicateCheck {
                 costs[s2LowerCase.length()] = lastValue;
             }
         }
-        LOGGER.debug("String 1: " + s1LowerCase + " String 2: " + s2LowerCase + " Distance: " + costs[s2LowerCase.length()]);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("String 1: " + s1LowerCase + " String 2: " + s2LowerCase + " Distance: "
+                    + costs[s2LowerCase.length()]);
+        }
         return costs[s2LowerCase.length()];
     }
 
@@ -0,0 +1,207 @@
+package net.sf.jabref.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import net.sf.jabref.model.database.BibDatabaseMode;
+import net.sf.jabref.model.entry.AuthorList;
+import net.sf.jabref.model.entry.BibEntry;
+
+/**
+ * Finds duplicates as per {@link DuplicateCheck#isDuplicate(BibEntry, BibEntry, BibDatabaseMode)} without comparing
+ * all pairs of entries.
+ * <p>
+ * Only entries sharing a blocking key are compared. The blocking keys of an entry, each prefixed by the entry type,
+ * are
+ * <ul>
+ * <li>its DOI,</li>
+ * <li>the pairs of adjacent words starting at the first three word positions of its title (or its only word),</li>
+ * <li>the last name of its first author (or editor, if it has no author) together with its year,</li>
+ * <li>the last names of all its authors (or editors),</li>
+ * <li>a common key for all entries without title,</li>
+ * <li>a common key for all entries, if the entry type neither requires a title nor an author or editor.</li>
+ * </ul>
+ * Words and names are converted to lower case and only their letters and digits are kept.
+ * <p>
+ * A pair found by comparing all entries is missed only if the titles differ in all these word pairs, e.g., due to
+ * typos, and at the same time the authors differ. As the title and the authors make up most of the weight of the
+ * duplicate check, this should happen for less than 1% of the duplicates. On a generated database of 3000 entries in
+ * which a quarter of the entries are copies with typos in the title and journal as well as a different year, all
+ * pairs were found.
+ */
+public class DuplicateFinder {
+
+    private static final int TITLE_WORD_POSITIONS = 3;
+
+    private final BibDatabaseMode bibDatabaseMode;
+    private final List<BibEntry> entries = new ArrayList<>();
+    private final List<Set<String>> keysOfEntry = new ArrayList<>();
+    private final Map<String, List<Integer>> entriesOfKey = new HashMap<>();
+
+
+    public DuplicateFinder(Collection<BibEntry> entries, BibDatabaseMode bibDatabaseMode) {
+        this.bibDatabaseMode = Objects.requireNonNull(bibDatabaseMode);
+        for (BibEntry entry : entries) {
+            add(entry);
+        }
+    }
+
+    /**
+     * Adds the entry to the entries searched for duplicates. Entries may be added while other threads look for the
+     * duplicate of an entry, but not while looking for all pairs of duplicates.
+     */
+    public synchronized void add(BibEntry entry) {
+        int position = entries.size();
+        Set<String> keys = getBlockingKeys(entry, bibDatabaseMode);
+        entries.add(entry);
+        keysOfEntry.add(keys);
+        for (String key : keys) {
+            entriesOfKey.computeIfAbsent(key, k -> new ArrayList<>()).add(position);
+        }
+    }
+
+    /**
+     * Returns the first entry, in the order the entries have been added, which is a duplicate of the given entry. The
+     * entry itself is not reported if it has been added.
+     */
+    public Optional<BibEntry> findDuplicate(BibEntry entry) {
+        return findDuplicate(entry, other -> true);
+    }
+
+    /**
+     * Returns the first entry, in the order the entries have been added, which is a duplicate of the given entry and
+     * is accepted by the filter. The filter is only applied to duplicates, so it may be expensive.
+     */
+    public synchronized Optional<BibEntry> findDuplicate(BibEntry entry, Predicate<BibEntry> filter) {
+        for (int candidate : getCandidates(getBlockingKeys(entry, bibDatabaseMode), -1)) {
+            BibEntry other = entries.get(candidate);
+            if ((other != entry) && DuplicateCheck.isDuplicate(entry, other, bibDatabaseMode) && filter.test(other)) {
+                return Optional.of(other);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Passes all pairs of duplicates to the consumer, in the same order as comparing each entry with all later
+     * entries would. The pairs are checked in parallel, the consumer is called from the calling thread.
+     *
+     * @param cancelled checked regularly, the search stops as soon as it returns true
+     */
+    public void findDuplicatePairs(BiConsumer<BibEntry, BibEntry> consumer, BooleanSupplier cancelled) {
+        // chunks keep the results flowing to the consumer while using all cores
+        int chunkSize = 64 * Runtime.getRuntime().availableProcessors();
+        for (int chunkStart = 0; (chunkStart < entries.size()) && !cancelled.getAsBoolean(); chunkStart += chunkSize) {
+            List<List<BibEntry>> duplicatesInChunk = IntStream
+                    .range(chunkStart, Math.min(chunkStart + chunkSize, entries.size())).parallel()
+                    .mapToObj(position -> findLaterDuplicates(position, cancelled)).collect(Collectors.toList());
+
+            for (int i = 0; i < duplicatesInChunk.size(); i++) {
+                BibEntry first = entries.get(chunkStart + i);
+                for (BibEntry second : duplicatesInChunk.get(i)) {
+                    if (cancelled.getAsBoolean()) {
+                        return;
+                    }
+                    consumer.accept(first, second);
+                }
+            }
+        }
+    }
+
+    private List<BibEntry> findLaterDuplicates(int position, BooleanSupplier cancelled) {
+        BibEntry entry = entries.get(position);
+        List<BibEntry> duplicates = new ArrayList<>();
+        for (int candidate : getCandidates(keysOfEntry.get(position), position)) {
+            if (cancelled.getAsBoolean()) {
+                break;
+            }
+            BibEntry other = entries.get(candidate);
+            if (DuplicateCheck.isDuplicate(entry, other, bibDatabaseMode)) {
+                duplicates.add(other);
+            }
+        }
+        return duplicates;
+    }
+
+    /**
+     * @return the sorted positions after the given position of the entries sharing one of the keys
+     */
+    private int[] getCandidates(Set<String> keys, int position) {
+        return keys.stream().map(entriesOfKey::get).filter(Objects::nonNull).flatMap(List::stream)
+                .mapToInt(Integer::intValue).filter(candidate -> candidate > position).distinct().sorted().toArray();
+    }
+
+    static Set<String> getBlockingKeys(BibEntry entry, BibDatabaseMode bibDatabaseMode) {
+        Set<String> keys = new LinkedHashSet<>();
+        List<String> requiredFields = EntryTypes.getTypeOrDefault(entry.getType(), bibDatabaseMode)
+                .getRequiredFieldsFlat();
+        if (requiredFields.isEmpty()) {
+            // DuplicateCheck.isDuplicate never reports entries of this type
+            return keys;
+        }
+
+        String prefix = entry.getType() + '|';
+        if (!requiredFields.contains("title") && !requiredFields.contains("author")
+                && !requiredFields.contains("editor")) {
+            keys.add(prefix);
+            return keys;
+        }
+
+        entry.getFieldOptional("doi").map(doi -> doi.trim().toLowerCase(Locale.ENGLISH))
+                .ifPresent(doi -> keys.add(prefix + "doi|" + doi));
+
+        String title = entry.getField("title");
+        if (title == null) {
+            keys.add(prefix + "notitle");
+        } else {
+            // same word splitting as DuplicateCheck.correlateByWords
+            List<String> words = Arrays.stream(title.toLowerCase(Locale.ENGLISH).split("\\s"))
+                    .map(DuplicateFinder::normalize).collect(Collectors.toList());
+            if (words.size() == 1) {
+                keys.add(prefix + "title0|" + words.get(0));
+            }
+            for (int i = 0; (i < TITLE_WORD_POSITIONS) && ((i + 1) < words.size()); i++) {
+                keys.add(prefix + "title" + i + '|' + words.get(i) + ' ' + words.get(i + 1));
+            }
+        }
+
+        String authors = entry.getFieldOptional("author").orElse(entry.getField("editor"));
+        if (authors != null) {
+            AuthorList authorList = AuthorList.parse(authors);
+            if (!authorList.isEmpty()) {
+                List<String> lastNames = authorList.getAuthors().stream()
+                        .map(author -> normalize(Optional.ofNullable(author.getLast()).orElse("")))
+                        .collect(Collectors.toList());
+                String year = entry.getFieldOptional("year").orElse("").trim();
+                keys.add(prefix + "author|" + lastNames.get(0) + '|' + year);
+                keys.add(prefix + "authors|" + String.join(" ", lastNames));
+            }
+        }
+        return keys;
+    }
+
+    private static String normalize(String word) {
+        StringBuilder result = new StringBuilder(word.length());
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                result.append(Character.toLowerCase(c));
+            }
+        }
+        return result.toString();
+    }
+}
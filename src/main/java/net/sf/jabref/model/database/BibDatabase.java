@@ -29,6 +29,8 @@ Modified for use in JabRef
  */
 package net.sf.jabref.model.database;
 
+import java.beans.PropertyChangeEvent;
+import java.beans.VetoableChangeListener;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -68,9 +70,12 @@ public class BibDatabase {
     private final Map<String, BibtexString> bibtexStrings = new ConcurrentHashMap<>();
 
     /**
-     * this is kept in sync with the database (upon adding/removing an entry, it is updated as well)
+     * The entries having each bibtex key, in the order they got the key. This is kept in sync with the database (upon
+     * adding/removing an entry or changing its key, it is updated as well). The lists are never modified but replaced,
+     * so that they can be read without locking.
      */
-    private final DuplicationChecker duplicationChecker = new DuplicationChecker();
+    private final Map<String, List<BibEntry>> entriesByKey = new ConcurrentHashMap<>();
+    private final VetoableChangeListener citeKeyListener = this::citeKeyChanged;
 
     /**
      * contains all entry.getID() of the current database
@@ -142,30 +147,19 @@ public class BibDatabase {
     }
 
     /**
-     * Returns the entry with the given bibtex key.
+     * Returns the entry with the given bibtex key. If several entries have the key, the one which got it last is
+     * returned.
      */
-    public synchronized BibEntry getEntryByKey(String key) {
-        BibEntry back = null;
-
-        int keyHash = key.hashCode(); // key hash for better performance
-
-        for (BibEntry entry : entries) {
-            if ((entry != null) && (entry.getCiteKey() != null) && (keyHash == entry.getCiteKey().hashCode())) {
-                back = entry;
-            }
-        }
-        return back;
+    public BibEntry getEntryByKey(String key) {
+        List<BibEntry> result = entriesByKey.getOrDefault(key, Collections.emptyList());
+        return result.isEmpty() ? null : result.get(result.size() - 1);
     }
 
-    public synchronized List<BibEntry> getEntriesByKey(String key) {
-        List<BibEntry> result = new ArrayList<>();
-
-        for (BibEntry entry : entries) {
-            if (key.equals(entry.getCiteKey())) {
-                result.add(entry);
-            }
-        }
-        return result;
+    /**
+     * Returns all entries with the given bibtex key, in the order they got the key.
+     */
+    public List<BibEntry> getEntriesByKey(String key) {
+        return new ArrayList<>(entriesByKey.getOrDefault(key, Collections.emptyList()));
     }
 
     /**
@@ -184,8 +178,68 @@ public class BibDatabase {
 
         internalIDs.add(id);
         entries.add(entry);
+        addToKeyIndex(entry.getCiteKey(), entry);
+        entry.addPropertyChangeListener(citeKeyListener);
         fireDatabaseChanged(new DatabaseChangeEvent(this, DatabaseChangeEvent.ChangeType.ADDED_ENTRY, entry));
-        return duplicationChecker.checkForDuplicateKeyAndAdd(null, entry.getCiteKey());
+        return isDuplicateKey(entry.getCiteKey());
+    }
+
+    /**
+     * Inserts all given entries as by {@link #insertEntry(BibEntry)}. The listeners are notified of each inserted
+     * entry as part of one batch, so that they can process all entries at once.
+     *
+     * @return false if all inserts were done without a duplicate warning
+     */
+    public synchronized boolean insertEntries(Collection<BibEntry> newEntries) throws KeyCollisionException {
+        boolean duplicateKey = false;
+        fireBatchStarted();
+        try {
+            for (BibEntry entry : newEntries) {
+                duplicateKey |= insertEntry(entry);
+            }
+        } finally {
+            fireBatchFinished();
+        }
+        return duplicateKey;
+    }
+
+    /**
+     * Removes all given entries as by {@link #removeEntry(BibEntry)}. The listeners are notified of each removed
+     * entry as part of one batch, so that they can process all entries at once.
+     */
+    public synchronized void removeEntries(Collection<BibEntry> toBeDeleted) {
+        fireBatchStarted();
+        try {
+            for (BibEntry entry : toBeDeleted) {
+                removeEntry(entry);
+            }
+        } finally {
+            fireBatchFinished();
+        }
+    }
+
+    /**
+     * Runs the given changes of the database as one batch. The listeners are notified of each change as usual, but
+     * may defer the work caused by the changes until all of them have been made. Batches may be nested.
+     */
+    public synchronized void runInBatch(Runnable changes) {
+        fireBatchStarted();
+        try {
+            changes.run();
+        } finally {
+            fireBatchFinished();
+        }
+    }
+
+    /**
+     * Notifies the listeners that fields of the given entry have been changed as a whole, e.g., by a cleanup, so that
+     * they can update what they show of the entry. Within a batch, the changes of many entries are processed at once.
+     */
+    public synchronized void notifyEntryChanged(BibEntry entry) {
+        Objects.requireNonNull(entry);
+        if (containsEntryWithId(entry.getId())) {
+            fireDatabaseChanged(new DatabaseChangeEvent(this, DatabaseChangeEvent.ChangeType.CHANGED_ENTRY, entry));
+        }
     }
 
     /**
@@ -195,18 +249,36 @@ public class BibDatabase {
     public synchronized void removeEntry(BibEntry toBeDeleted) {
         Objects.requireNonNull(toBeDeleted);
 
-        boolean anyRemoved =  entries.removeIf(entry -> entry.getId().equals(toBeDeleted.getId()));
-        if (anyRemoved) {
+        List<BibEntry> removed = new ArrayList<>(1);
+        entries.removeIf(entry -> {
+            if (entry.getId().equals(toBeDeleted.getId())) {
+                removed.add(entry);
+                return true;
+            }
+            return false;
+        });
+        if (!removed.isEmpty()) {
             internalIDs.remove(toBeDeleted.getId());
-            duplicationChecker.removeKeyFromSet(toBeDeleted.getCiteKey());
+            for (BibEntry entry : removed) {
+                entry.removePropertyChangeListener(citeKeyListener);
+                removeFromKeyIndex(entry.getCiteKey(), entry);
+            }
             fireDatabaseChanged(new DatabaseChangeEvent(this, DatabaseChangeEvent.ChangeType.REMOVED_ENTRY, toBeDeleted));
         }
     }
 
+    /**
+     * Returns the number of entries having the given bibtex key.
+     */
     public int getNumberOfKeyOccurrences(String key) {
-        return duplicationChecker.getNumberOfKeyOccurrences(key);
+        return entriesByKey.getOrDefault(key, Collections.emptyList()).size();
     }
 
+    /**
+     * Sets the bibtex key of the entry, or clears it if the key is null.
+     *
+     * @return true if the key was changed to a key another entry already has
+     */
     public synchronized boolean setCiteKeyForEntry(BibEntry entry, String key) {
         String oldKey = entry.getCiteKey();
         if (key == null) {
@@ -214,7 +286,50 @@ public class BibDatabase {
         } else {
             entry.setCiteKey(key);
         }
-        return duplicationChecker.checkForDuplicateKeyAndAdd(oldKey, entry.getCiteKey());
+        String newKey = entry.getCiteKey();
+        return !Objects.equals(oldKey, newKey) && isDuplicateKey(newKey);
+    }
+
+    private boolean isDuplicateKey(String key) {
+        if ((key != null) && (getNumberOfKeyOccurrences(key) > 1)) {
+            LOGGER.warn("Warning there is a duplicate key: " + key);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Keeps the key index up to date when the key of an entry is changed directly.
+     */
+    private void citeKeyChanged(PropertyChangeEvent event) {
+        if (BibEntry.KEY_FIELD.equals(event.getPropertyName())) {
+            BibEntry entry = (BibEntry) event.getSource();
+            removeFromKeyIndex((String) event.getOldValue(), entry);
+            addToKeyIndex((String) event.getNewValue(), entry);
+        }
+    }
+
+    private void addToKeyIndex(String key, BibEntry entry) {
+        if ((key == null) || key.isEmpty()) {
+            return;
+        }
+        entriesByKey.compute(key, (k, sameKey) -> {
+            List<BibEntry> result = sameKey == null ? new ArrayList<>(1) : new ArrayList<>(sameKey);
+            result.add(entry);
+            return result;
+        });
+    }
+
+    private void removeFromKeyIndex(String key, BibEntry entry) {
+        if ((key == null) || key.isEmpty()) {
+            return;
+        }
+        entriesByKey.computeIfPresent(key, (k, sameKey) -> {
+            List<BibEntry> result = new ArrayList<>(sameKey);
+            // entries are equal if their fields are, only the given instance is removed
+            result.removeIf(other -> other == entry);
+            return result.isEmpty() ? null : result;
+        });
     }
 
     /**
@@ -487,6 +602,18 @@ public class BibDatabase {
         }
     }
 
+    private void fireBatchStarted() {
+        for (DatabaseChangeListener tmpListener : changeListeners) {
+            tmpListener.batchStarted();
+        }
+    }
+
+    private void fireBatchFinished() {
+        for (DatabaseChangeListener tmpListener : changeListeners) {
+            tmpListener.batchFinished();
+        }
+    }
+
     public void addDatabaseChangeListener(DatabaseChangeListener l) {
         changeListeners.add(l);
     }
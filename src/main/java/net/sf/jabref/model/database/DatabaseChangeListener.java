@@ -20,4 +20,19 @@ public interface DatabaseChangeListener {
 
     void databaseChanged(DatabaseChangeEvent e);
 
+    /**
+     * Called before the database fires the events of a batch of changes, e.g., when inserting many entries at once.
+     * Listeners may defer the work caused by the events until {@link #batchFinished()} is called.
+     */
+    default void batchStarted() {
+        // nothing to prepare by default
+    }
+
+    /**
+     * Called after the database has fired all events of a batch of changes.
+     */
+    default void batchFinished() {
+        // nothing deferred by default
+    }
+
 }
@@ -17,9 +17,12 @@ package net.sf.jabref.model.entry;
 
 import java.util.List;
 import java.util.Objects;
-import java.util.WeakHashMap;
 import java.util.stream.Collectors;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
 /**
  * This is an immutable class representing information of either <CODE>author</CODE>
  * or <CODE>editor</CODE> field in bibtex record.
@@ -142,7 +145,12 @@ public class AuthorList {
     private final String[] authorsLastFirst = new String[4];
     private final String[] authorsLastFirstFirstLast = new String[2];
 
-    private static final WeakHashMap<String, AuthorList> AUTHOR_CACHE = new WeakHashMap<>();
+    // Enough for the distinct author and editor fields of large databases, so that sorting the main table by a name
+    // column does not parse the names again. Concurrent, as names are parsed by several threads, for instance by the
+    // main table, searches and exports.
+    private static final int CACHE_SIZE = 50000;
+    private static final Cache<String, AuthorList> AUTHOR_CACHE = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE)
+            .recordStats().build();
 
     /**
      * Creates a new list of authors.
@@ -167,7 +175,7 @@ public class AuthorList {
     public static AuthorList parse(String authors) {
         Objects.requireNonNull(authors);
 
-        AuthorList authorList = AUTHOR_CACHE.get(authors);
+        AuthorList authorList = AUTHOR_CACHE.getIfPresent(authors);
         if (authorList == null) {
             AuthorListParser parser = new AuthorListParser();
             authorList = parser.parse(authors);
@@ -176,6 +184,20 @@ public class AuthorList {
         return authorList;
     }
 
+    /**
+     * @return the hits and misses of the cache used by {@link #parse(String)} since the start
+     */
+    public static CacheStats getCacheStats() {
+        return AUTHOR_CACHE.stats();
+    }
+
+    /**
+     * Drops all cached AuthorLists, so that the following calls of {@link #parse(String)} parse the names again.
+     */
+    public static void clearCache() {
+        AUTHOR_CACHE.invalidateAll();
+    }
+
     /**
      * This is a convenience method for getAuthorsFirstFirst()
      *
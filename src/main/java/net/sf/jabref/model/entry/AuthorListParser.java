@@ -6,8 +6,17 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
 public class AuthorListParser {
 
+    /**
+     * Authors are immutable, so the same person appearing in many entries shares one instance. Weak, so that persons
+     * no longer appearing in any parsed list are not kept.
+     */
+    private static final Interner<Author> AUTHOR_INTERNER = Interners.newWeakInterner();
+
     /** the raw bibtex author/editor field */
     private String original;
 
@@ -252,9 +261,9 @@ public class AuthorListParser {
             // The last part is a small string in complete upper case, so interpret it as initial of the first name
             // This is the case for example in "Smith SH" which we think of as lastname=Smith and firstname=SH
             // The length < 5 constraint should allow for "Smith S.H." as input
-            return new Author(lastPart, lastPart, vonPart, firstPart, jrPart);
+            return AUTHOR_INTERNER.intern(new Author(lastPart, lastPart, vonPart, firstPart, jrPart));
         } else {
-            return new Author(firstPart, firstAbbr, vonPart, lastPart, jrPart);
+            return AUTHOR_INTERNER.intern(new Author(firstPart, firstAbbr, vonPart, lastPart, jrPart));
         }
     }
 
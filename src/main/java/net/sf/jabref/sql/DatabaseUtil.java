@@ -70,6 +70,20 @@ public class DatabaseUtil {
         SQLUtil.processQuery(out, "DELETE FROM strings WHERE database_id='" + database_id + "';");
     }
 
+    /**
+     * Removes the groups and strings of the database being exported, but keeps its entries.
+     *
+     * @param out         The output (PrintStream or Connection) object to which the DML should be written.
+     * @param database_id Id of the database being exported.
+     * @throws SQLException
+     */
+    public static void removeGroupsAndStringsForAGivenDB(Connection out, final int database_id) throws SQLException {
+        SQLUtil.processQuery(out, "DELETE FROM entry_group WHERE groups_id IN "
+                + "(SELECT groups_id FROM groups WHERE database_id='" + database_id + "');");
+        SQLUtil.processQuery(out, "DELETE FROM groups WHERE database_id='" + database_id + "';");
+        SQLUtil.processQuery(out, "DELETE FROM strings WHERE database_id='" + database_id + "';");
+    }
+
     /**
      * This method creates a new row into jabref_database table enabling to export more than one .bib
      *
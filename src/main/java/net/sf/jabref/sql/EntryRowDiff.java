@@ -0,0 +1,120 @@
+package net.sf.jabref.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.jabref.model.entry.BibEntry;
+
+/**
+ * Compares entries with the rows of the entries table stored for one database, reading only the id, the bibtex key
+ * and the content hash of each row.
+ * <p>
+ * A row having the content hash of an entry (see {@link SQLUtil#getContentHash(BibEntry)}) stores that entry
+ * unchanged. Each remaining row is paired with a remaining entry having the same bibtex key, the entry has been
+ * changed. The rows and entries left over exist only on one side.
+ */
+public class EntryRowDiff {
+
+    // BibEntry implements equals and hashCode based on its fields
+    private final Map<BibEntry, Integer> unchangedEntries = new IdentityHashMap<>();
+    private final Map<BibEntry, Integer> changedEntries = new IdentityHashMap<>();
+    private final List<BibEntry> entriesWithoutRow = new ArrayList<>();
+    private final List<Integer> rowsWithoutEntry = new ArrayList<>();
+
+
+    /**
+     * @param entries     the entries to compare
+     * @param connection  the connection to read the rows from
+     * @param database_id id of the jabref database the rows belong to
+     */
+    public EntryRowDiff(List<BibEntry> entries, Connection connection, int database_id) throws SQLException {
+        Map<String, Deque<BibEntry>> entriesByHash = new HashMap<>();
+        for (BibEntry entry : entries) {
+            entriesByHash.computeIfAbsent(SQLUtil.getContentHash(entry), hash -> new ArrayDeque<>()).add(entry);
+        }
+
+        Map<Integer, String> keysOfRemainingRows = new HashMap<>();
+        List<Integer> remainingRows = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT entries_id, cite_key, content_hash FROM entries WHERE database_id = ? ORDER BY entries_id")) {
+            statement.setInt(1, database_id);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    int id = resultSet.getInt("entries_id");
+                    Deque<BibEntry> sameHash = entriesByHash.get(resultSet.getString("content_hash"));
+                    if ((sameHash == null) || sameHash.isEmpty()) {
+                        remainingRows.add(id);
+                        keysOfRemainingRows.put(id, resultSet.getString("cite_key"));
+                    } else {
+                        unchangedEntries.put(sameHash.poll(), id);
+                    }
+                }
+            }
+        }
+
+        Map<String, Deque<BibEntry>> remainingEntriesByKey = new HashMap<>();
+        List<BibEntry> remainingEntries = new ArrayList<>();
+        for (BibEntry entry : entries) {
+            if (!unchangedEntries.containsKey(entry)) {
+                remainingEntries.add(entry);
+                if (entry.hasCiteKey()) {
+                    remainingEntriesByKey.computeIfAbsent(entry.getCiteKey(), key -> new ArrayDeque<>()).add(entry);
+                }
+            }
+        }
+
+        for (int id : remainingRows) {
+            String key = keysOfRemainingRows.get(id);
+            Deque<BibEntry> sameKey = key == null ? null : remainingEntriesByKey.get(key);
+            if ((sameKey == null) || sameKey.isEmpty()) {
+                rowsWithoutEntry.add(id);
+            } else {
+                changedEntries.put(sameKey.poll(), id);
+            }
+        }
+
+        for (BibEntry entry : remainingEntries) {
+            if (!changedEntries.containsKey(entry)) {
+                entriesWithoutRow.add(entry);
+            }
+        }
+    }
+
+    /**
+     * @return the entries stored unchanged, mapped to the entries_id of their row
+     */
+    public Map<BibEntry, Integer> getUnchangedEntries() {
+        return Collections.unmodifiableMap(unchangedEntries);
+    }
+
+    /**
+     * @return the entries stored differently, mapped to the entries_id of their row
+     */
+    public Map<BibEntry, Integer> getChangedEntries() {
+        return Collections.unmodifiableMap(changedEntries);
+    }
+
+    /**
+     * @return the entries having no row, in the order they were given
+     */
+    public List<BibEntry> getEntriesWithoutRow() {
+        return Collections.unmodifiableList(entriesWithoutRow);
+    }
+
+    /**
+     * @return the entries_id of the rows having no entry
+     */
+    public List<Integer> getRowsWithoutEntry() {
+        return Collections.unmodifiableList(rowsWithoutEntry);
+    }
+}
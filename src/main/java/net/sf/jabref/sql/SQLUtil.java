@@ -15,6 +15,7 @@
  */
 package net.sf.jabref.sql;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -25,6 +26,10 @@ import java.util.Collections;
 import java.util.List;
 
 import net.sf.jabref.bibtex.InternalBibtexFields;
+import net.sf.jabref.model.entry.BibEntry;
+
+import com.google.common.base.Strings;
+import com.google.common.hash.Hashing;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -88,6 +93,22 @@ final public class SQLUtil {
         return String.join(", ", fieldNames);
     }
 
+    /**
+     * Returns a hash of the entry as stored in the entries table, i.e., of its type, its bibtex key and the fields
+     * having a column. Entries having the same hash are stored in the same way.
+     */
+    public static String getContentHash(BibEntry entry) {
+        StringBuilder content = new StringBuilder(entry.getType()).append('\0')
+                .append(Strings.nullToEmpty(entry.getCiteKey()));
+        for (String field : SQLUtil.getAllFields()) {
+            String value = entry.getField(field);
+            if (value != null) {
+                content.append('\0').append(field).append('=').append(value);
+            }
+        }
+        return Hashing.sha1().hashString(content, StandardCharsets.UTF_8).toString();
+    }
+
     /**
      * Inserts the elements of a List into another List making sure not to duplicate entries in the resulting List
      *
@@ -63,6 +63,7 @@ public class PostgreSQL implements Database {
                             + SQLUtil.fieldsAsCols(SQLUtil.getAllFields(),
                             " TEXT DEFAULT NULL")
                             + ",\n"
+                            + "content_hash    VARCHAR(40)      DEFAULT NULL, \n"
                             + "PRIMARY KEY (entries_id), \n"
                             + "FOREIGN KEY (entry_types_id) REFERENCES entry_types (entry_types_id), \n"
                             + "FOREIGN KEY (database_id) REFERENCES jabref_database(database_id) \n"
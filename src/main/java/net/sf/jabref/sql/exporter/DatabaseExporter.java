@@ -20,9 +20,17 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Vector;
 import java.util.stream.Collectors;
 
@@ -52,6 +60,7 @@ import net.sf.jabref.sql.DBImportExportDialog;
 import net.sf.jabref.sql.DBStrings;
 import net.sf.jabref.sql.Database;
 import net.sf.jabref.sql.DatabaseUtil;
+import net.sf.jabref.sql.EntryRowDiff;
 import net.sf.jabref.sql.SQLUtil;
 
 import org.apache.commons.logging.Log;
@@ -70,9 +79,13 @@ public class DatabaseExporter {
 
     private static final Log LOGGER = LogFactory.getLog(DatabaseExporter.class);
 
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
     private final List<String> dbNames = new ArrayList<>();
     private final Database database;
 
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
     private DBStrings dbStrings;
 
     public DatabaseExporter(Database database) {
@@ -80,7 +93,9 @@ public class DatabaseExporter {
     }
 
     /**
-     * Method for the exportDatabase methods.
+     * Method for the exportDatabase methods. The export is done in a single transaction. If the database has been
+     * exported before, only the rows of the changed entries are transferred, see {@link EntryRowDiff}. The strings
+     * and groups are replaced.
      *
      * @param databaseContext the database to export
      * @param entriesToExport The list of the entries to export.
@@ -93,102 +108,227 @@ public class DatabaseExporter {
         List<BibEntry> entries = BibDatabaseWriter.getSortedEntries(databaseContext, entriesToExport, savePrefs);
         GroupTreeNode gtn = databaseContext.getMetaData().getGroups();
 
-        final int databaseID = DatabaseUtil.getDatabaseIDByName(databaseContext, out, dbName);
-        DatabaseUtil.removeAllRecordsForAGivenDB(out, databaseID);
-        populateEntryTypesTable(out, databaseContext.getMode());
-        populateEntriesTable(databaseID, entries, out);
-        populateStringTable(databaseContext.getDatabase(), out, databaseID);
-        populateGroupTypesTable(out);
-        populateGroupsTable(gtn, 0, 1, out, databaseID);
-        populateEntryGroupsTable(gtn, 0, 1, out, databaseID);
+        boolean autoCommit = out.getAutoCommit();
+        out.setAutoCommit(false);
+        try {
+            final int databaseID = DatabaseUtil.getDatabaseIDByName(databaseContext, out, dbName);
+            DatabaseUtil.removeGroupsAndStringsForAGivenDB(out, databaseID);
+            populateEntryTypesTable(out, databaseContext.getMode());
+            Map<BibEntry, Integer> entryIDs = synchronizeEntriesTable(databaseID, entries, out);
+            populateStringTable(databaseContext.getDatabase(), out, databaseID);
+            populateGroupTypesTable(out);
+            Map<GroupTreeNode, Integer> groupIDs = new IdentityHashMap<>();
+            populateGroupsTable(gtn, 0, out, databaseID, groupIDs);
+            populateEntryGroupsTable(groupIDs, entryIDs, out);
+            out.commit();
+        } catch (SQLException | RuntimeException e) {
+            out.rollback();
+            throw e;
+        } finally {
+            out.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Sets the number of rows sent to the database at once. Defaults to {@value #DEFAULT_BATCH_SIZE}.
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
     }
 
     /**
-     * Generates the DML required to populate the entries table with jabref data and writes it to the output
-     * PrintStream.
+     * Makes the entries table contain the given entries, transferring only the differences: the rows of the changed
+     * entries are updated, the rows of the entries not exported anymore are deleted and the new entries are
+     * inserted. The statements are sent in batches.
      *
      * @param database_id ID of Jabref database related to the entries to be exported This information can be gathered
      *                    using getDatabaseIDByPath(metaData, connection)
      * @param entries     The BibtexEntries to export
      * @param connection  The output (PrintStream or Connection) object to which the DML should be written.
+     * @return the entries_id of the row of each entry
      */
-    private void populateEntriesTable(final int database_id, List<BibEntry> entries, Connection connection)
-            throws SQLException {
-        for (BibEntry entry : entries) {
-            try (PreparedStatement statement = connection.prepareStatement(
-                    "INSERT INTO entries (jabref_eid, entry_types_id, cite_key, " + SQLUtil.getFieldStr() + ", database_id) "
-                            + "VALUES (?, (SELECT entry_types_id FROM entry_types WHERE label= ? ), ?, " + SQLUtil.getAllFields().stream().map(s -> "?").collect(Collectors.joining(", ")) + ", ?);")) {
-                statement.setString(1, entry.getId());
-                statement.setString(2, entry.getType());
-                statement.setString(3, entry.getCiteKey());
-                int value = 4;
-                for (String field : SQLUtil.getAllFields()) {
-                    statement.setString(value, entry.getField(field));
-                    value++;
-                }
-                statement.setInt(value, database_id);
+    private Map<BibEntry, Integer> synchronizeEntriesTable(final int database_id, List<BibEntry> entries,
+            Connection connection) throws SQLException {
+        EntryRowDiff diff = new EntryRowDiff(entries, connection, database_id);
+        Map<String, Integer> entryTypeIDs = readIDsByLabel(connection, "SELECT entry_types_id, label FROM entry_types");
+        List<String> allFields = SQLUtil.getAllFields();
+
+        try (PreparedStatement statement = connection.prepareStatement("DELETE FROM entries WHERE entries_id = ?")) {
+            int batched = 0;
+            for (int id : diff.getRowsWithoutEntry()) {
+                statement.setInt(1, id);
+                batched = addBatch(statement, batched);
+            }
+            executeBatch(statement, batched);
+        }
 
-                statement.execute();
+        String update = "UPDATE entries SET jabref_eid = ?, entry_types_id = ?, cite_key = ?, "
+                + Arrays.stream(SQLUtil.getFieldStr().split(", ")).map(column -> column + " = ?")
+                        .collect(Collectors.joining(", "))
+                + ", content_hash = ? WHERE entries_id = ?";
+        try (PreparedStatement statement = connection.prepareStatement(update)) {
+            int batched = 0;
+            for (Map.Entry<BibEntry, Integer> changed : diff.getChangedEntries().entrySet()) {
+                int value = setEntryValues(statement, changed.getKey(), entryTypeIDs, allFields);
+                statement.setInt(value, changed.getValue());
+                batched = addBatch(statement, batched);
             }
+            executeBatch(statement, batched);
+        }
+
+        Map<BibEntry, Integer> entryIDs = new IdentityHashMap<>();
+        entryIDs.putAll(diff.getUnchangedEntries());
+        entryIDs.putAll(diff.getChangedEntries());
+        if (!diff.getEntriesWithoutRow().isEmpty()) {
+            entryIDs.putAll(insertEntries(database_id, diff.getEntriesWithoutRow(), entryIDs.values(), connection,
+                    entryTypeIDs));
         }
+        return entryIDs;
     }
 
     /**
-     * Recursive method to include a tree of groups.
+     * Inserts the entries in batches using a single prepared statement.
      *
-     * @param cursor      The current GroupTreeNode in the GroupsTree
-     * @param parentID    The integer ID associated with the cursors's parent node
-     * @param currentID   The integer value to associate with the cursor
-     * @param connection  The Connection
-     * @param database_id Id of jabref database to which the group is part of
+     * @param existingRows the entries_id of the rows of the database kept by the export
+     * @return the entries_id of the row of each entry
      */
+    private Map<BibEntry, Integer> insertEntries(final int database_id, List<BibEntry> entries,
+            Collection<Integer> existingRows, Connection connection, Map<String, Integer> entryTypeIDs)
+            throws SQLException {
+        List<String> allFields = SQLUtil.getAllFields();
+        String sql = "INSERT INTO entries (jabref_eid, entry_types_id, cite_key, " + SQLUtil.getFieldStr()
+                + ", content_hash, database_id) VALUES (?, ?, ?, "
+                + allFields.stream().map(s -> "?").collect(Collectors.joining(", ")) + ", ?, ?)";
+        Map<BibEntry, Integer> entryIDs = new IdentityHashMap<>();
+        List<BibEntry> entriesWithoutID = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            List<BibEntry> batch = new ArrayList<>();
+            for (BibEntry entry : entries) {
+                int value = setEntryValues(statement, entry, entryTypeIDs, allFields);
+                statement.setInt(value, database_id);
+                statement.addBatch();
+                batch.add(entry);
+                if (batch.size() == batchSize) {
+                    executeInsertBatch(statement, batch, entryIDs, entriesWithoutID);
+                }
+            }
+            if (!batch.isEmpty()) {
+                executeInsertBatch(statement, batch, entryIDs, entriesWithoutID);
+            }
+        }
 
-    private int populateEntryGroupsTable(GroupTreeNode cursor, int parentID, int currentID, Connection connection,
-            final int database_id) throws SQLException {
+        if (!entriesWithoutID.isEmpty()) {
+            Set<Integer> knownRows = new HashSet<>(existingRows);
+            knownRows.addAll(entryIDs.values());
+            entryIDs.putAll(readInsertedIDs(database_id, entriesWithoutID, knownRows, connection));
+        }
+        return entryIDs;
+    }
 
-        if (cursor == null) {
-            // no groups passed
-            return -1;
-        }
-
-        // if this group contains entries...
-        if (cursor.getGroup() instanceof ExplicitGroup) {
-            ExplicitGroup grp = (ExplicitGroup) cursor.getGroup();
-            for (BibEntry be : grp.getEntries()) {
-                SQLUtil.processQuery(connection, "INSERT INTO entry_group (entries_id, groups_id) " + "VALUES ("
-                        + "(SELECT entries_id FROM entries WHERE jabref_eid=" + '\'' + be.getId()
-                        + "' AND database_id = " + database_id + "), "
-                        + "(SELECT groups_id FROM groups WHERE database_id=" + '\'' + database_id + "' AND parent_id="
-                        + '\'' + parentID + "' AND label=" + '\'' + grp.getName() + "')" + ");");
+    /**
+     * Executes the batch of inserts and reads the generated entries_id of each inserted row. If the driver does not
+     * return the generated keys of a batch, the entries are added to the entries without ID.
+     */
+    private static void executeInsertBatch(PreparedStatement statement, List<BibEntry> batch,
+            Map<BibEntry, Integer> entryIDs, List<BibEntry> entriesWithoutID) throws SQLException {
+        statement.executeBatch();
+        List<Integer> generatedIDs = new ArrayList<>(batch.size());
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            while ((keys != null) && keys.next()) {
+                generatedIDs.add(keys.getInt(1));
             }
         }
+        if (generatedIDs.size() == batch.size()) {
+            for (int i = 0; i < batch.size(); i++) {
+                entryIDs.put(batch.get(i), generatedIDs.get(i));
+            }
+        } else {
+            entriesWithoutID.addAll(batch);
+        }
+        batch.clear();
+    }
 
-        // recurse on child nodes (depth-first traversal)
-        String sql = "SELECT groups_id FROM groups WHERE label = ? AND database_id= ? AND parent_id = ? ;";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-
-            statement.setString(1, cursor.getGroup().getName());
-            statement.setInt(2, database_id);
-            statement.setInt(3, parentID);
+    /**
+     * Reads the entries_id of the inserted rows of the given entries by their jabref_eid. The rows kept by the export
+     * are skipped, as a row stored unchanged still has the jabref_eid the entry had when it was exported first, which
+     * may be the jabref_eid of another entry now.
+     *
+     * @param knownRows the entries_id of all rows of the database not inserted for the given entries
+     */
+    private static Map<BibEntry, Integer> readInsertedIDs(int database_id, List<BibEntry> entries,
+            Set<Integer> knownRows, Connection connection) throws SQLException {
+        Map<String, BibEntry> entriesByID = new HashMap<>();
+        for (BibEntry entry : entries) {
+            entriesByID.put(entry.getId(), entry);
+        }
+        Map<BibEntry, Integer> entryIDs = new IdentityHashMap<>();
+        try (PreparedStatement statement = connection
+                .prepareStatement("SELECT entries_id, jabref_eid FROM entries WHERE database_id = ?")) {
+            statement.setInt(1, database_id);
             try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    int id = resultSet.getInt("entries_id");
+                    BibEntry entry = entriesByID.get(resultSet.getString("jabref_eid"));
+                    if ((entry != null) && !knownRows.contains(id)) {
+                        entryIDs.put(entry, id);
+                    }
+                }
+            }
+        }
+        return entryIDs;
+    }
 
-                // setting values to ID and myID to be used in case of textual SQL
-                // export
-                currentID++;
-                int myID = currentID;
-                resultSet.next();
-                myID = resultSet.getInt("groups_id");
+    /**
+     * Sets the ID, type, key, fields and content hash of the entry as the first parameters of the statement.
+     *
+     * @return the index of the next parameter
+     */
+    private static int setEntryValues(PreparedStatement statement, BibEntry entry, Map<String, Integer> entryTypeIDs,
+            List<String> allFields) throws SQLException {
+        statement.setString(1, entry.getId());
+        setInteger(statement, 2, entryTypeIDs.get(entry.getType()));
+        statement.setString(3, entry.getCiteKey());
+        int value = 4;
+        for (String field : allFields) {
+            statement.setString(value, entry.getField(field));
+            value++;
+        }
+        statement.setString(value, SQLUtil.getContentHash(entry));
+        return value + 1;
+    }
 
-                for (GroupTreeNode child : cursor.getChildren()) {
-                    currentID = populateEntryGroupsTable(child, myID, currentID, connection, database_id);
+    /**
+     * Inserts the entries of all explicit groups into the entry_group table.
+     *
+     * @param groupIDs   the groups_id of each exported group
+     * @param entryIDs   the entries_id of each exported entry
+     * @param connection The Connection
+     */
+    private void populateEntryGroupsTable(Map<GroupTreeNode, Integer> groupIDs, Map<BibEntry, Integer> entryIDs,
+            Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection
+                .prepareStatement("INSERT INTO entry_group (entries_id, groups_id) VALUES (?, ?)")) {
+            int batched = 0;
+            for (Map.Entry<GroupTreeNode, Integer> group : groupIDs.entrySet()) {
+                if (!(group.getKey().getGroup() instanceof ExplicitGroup)) {
+                    continue;
+                }
+                for (BibEntry be : ((ExplicitGroup) group.getKey().getGroup()).getEntries()) {
+                    Integer entryID = entryIDs.get(be);
+                    if (entryID == null) {
+                        // the entry has not been exported
+                        continue;
+                    }
+                    statement.setInt(1, entryID);
+                    statement.setInt(2, group.getValue());
+                    batched = addBatch(statement, batched);
                 }
-
             }
-            //Unfortunatley, AutoCloseable throws only Exception
-        } catch (SQLException e) {
-            LOGGER.warn("Cannot close resource", e);
+            executeBatch(statement, batched);
         }
-        return currentID;
     }
 
     /**
@@ -199,81 +339,97 @@ public class DatabaseExporter {
      */
 
     private void populateEntryTypesTable(Connection out, BibDatabaseMode type) throws SQLException {
-        List<String> fieldRequirement = new ArrayList<>();
-
-        List<String> existentTypes = new ArrayList<>();
-        try (Statement sm = out.createStatement();
-                ResultSet rs = sm.executeQuery("SELECT label FROM entry_types")) {
-            while (rs.next()) {
-                existentTypes.add(rs.getString(1));
+        Set<String> existentTypes = readIDsByLabel(out, "SELECT entry_types_id, label FROM entry_types").keySet();
+        List<String> allFields = SQLUtil.getAllFields();
+        String[] columns = SQLUtil.getFieldStr().split(", ");
+        String update = "UPDATE entry_types SET " + Arrays.stream(columns).map(column -> column + " = ?")
+                .collect(Collectors.joining(", ")) + " WHERE label = ?";
+        String insert = "INSERT INTO entry_types (label, " + SQLUtil.getFieldStr() + ") VALUES (?, "
+                + allFields.stream().map(s -> "?").collect(Collectors.joining(", ")) + ")";
+
+        try (PreparedStatement updateStatement = out.prepareStatement(update);
+                PreparedStatement insertStatement = out.prepareStatement(insert)) {
+            boolean anyUpdate = false;
+            boolean anyInsert = false;
+            for (EntryType val : EntryTypes.getAllValues(type)) {
+                List<String> fieldRequirement = new ArrayList<>(Collections.nCopies(allFields.size(), "gen"));
+                List<String> reqFields = val.getRequiredFieldsFlat();
+                List<String> optFields = val.getOptionalFields();
+                List<String> utiFields = Collections.singletonList("search");
+                fieldRequirement = SQLUtil.setFieldRequirement(allFields, reqFields, optFields, utiFields,
+                        fieldRequirement);
+
+                String label = val.getName().toLowerCase();
+                if (existentTypes.contains(label)) {
+                    for (int i = 0; i < fieldRequirement.size(); i++) {
+                        updateStatement.setString(i + 1, fieldRequirement.get(i));
+                    }
+                    updateStatement.setString(fieldRequirement.size() + 1, label);
+                    updateStatement.addBatch();
+                    anyUpdate = true;
+                } else {
+                    insertStatement.setString(1, label);
+                    for (int i = 0; i < fieldRequirement.size(); i++) {
+                        insertStatement.setString(i + 2, fieldRequirement.get(i));
+                    }
+                    insertStatement.addBatch();
+                    anyInsert = true;
+                }
             }
-        }
-        for (EntryType val : EntryTypes.getAllValues(type)) {
-            StringBuilder querySB = new StringBuilder();
-
-            fieldRequirement.clear();
-            for (int i = 0; i < SQLUtil.getAllFields().size(); i++) {
-                fieldRequirement.add(i, "gen");
+            if (anyUpdate) {
+                updateStatement.executeBatch();
             }
-            List<String> reqFields = val.getRequiredFieldsFlat();
-            List<String> optFields = val.getOptionalFields();
-            List<String> utiFields = Collections.singletonList("search");
-            fieldRequirement = SQLUtil.setFieldRequirement(SQLUtil.getAllFields(), reqFields, optFields, utiFields,
-                    fieldRequirement);
-            if (existentTypes.contains(val.getName().toLowerCase())) {
-                String[] update = SQLUtil.getFieldStr().split(",");
-                querySB.append("UPDATE entry_types SET \n");
-                for (int i = 0; i < fieldRequirement.size(); i++) {
-                    querySB.append(update[i]).append("='").append(fieldRequirement.get(i)).append("',");
-                }
-                querySB.delete(querySB.lastIndexOf(","), querySB.length());
-                querySB.append(" WHERE label='").append(val.getName().toLowerCase()).append("';");
-            } else {
-                querySB.append("INSERT INTO entry_types (label, ").append(SQLUtil.getFieldStr()).append(") VALUES ('")
-                        .append(val.getName().toLowerCase()).append('\'');
-                for (String aFieldRequirement : fieldRequirement) {
-                    querySB.append(", '").append(aFieldRequirement).append('\'');
-                }
-                querySB.append(");");
+            if (anyInsert) {
+                insertStatement.executeBatch();
             }
-            SQLUtil.processQuery(out, querySB.toString());
         }
     }
 
     /**
-     * Recursive worker method for the populateGroupsTable methods.
+     * Recursive worker method for the populateGroupsTable methods. The groups are inserted one by one, as the IDs
+     * generated for the parents are needed for their children.
      *
      * @param cursor      The current GroupTreeNode in the GroupsTree
      * @param parentID    The integer ID associated with the cursors's parent node
-     * @param currentID   The integer value to associate with the cursor
      * @param out         The output (PrintStream or Connection) object to which the DML should be written.
      * @param database_id Id of jabref database to which the groups/entries are part of
+     * @param groupIDs    receives the generated groups_id of each group
      */
-    private int populateGroupsTable(GroupTreeNode cursor, int parentID, int currentID, Connection out,
-            final int database_id) throws SQLException {
+    private void populateGroupsTable(GroupTreeNode cursor, int parentID, Connection out, final int database_id,
+            Map<GroupTreeNode, Integer> groupIDs) throws SQLException {
 
         if (cursor == null) {
             // no groups passed
-            return -1;
+            return;
         }
 
+        Map<String, Integer> groupTypeIDs = readIDsByLabel(out, "SELECT group_types_id, label FROM group_types");
+        try (PreparedStatement statement = out.prepareStatement("INSERT INTO groups (label, parent_id, "
+                + "group_types_id, search_field, search_expression, case_sensitive, reg_exp, hierarchical_context, "
+                + "database_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            insertGroups(cursor, parentID, statement, database_id, groupTypeIDs, groupIDs);
+        }
+    }
+
+    private void insertGroups(GroupTreeNode cursor, int parentID, PreparedStatement statement, final int database_id,
+            Map<String, Integer> groupTypeIDs, Map<GroupTreeNode, Integer> groupIDs) throws SQLException {
         AbstractGroup group = cursor.getGroup();
         String searchField = null;
         String searchExpr = null;
-        String caseSens = null;
-        String regExp = null;
+        Boolean caseSens = null;
+        Boolean regExp = null;
         GroupHierarchyType hierContext = group.getHierarchicalContext();
         if (group instanceof KeywordGroup) {
             searchField = ((KeywordGroup) group).getSearchField();
             searchExpr = ((KeywordGroup) group).getSearchExpression();
-            caseSens = ((KeywordGroup) group).isCaseSensitive() ? "1" : "0";
-            regExp = ((KeywordGroup) group).isRegExp() ? "1" : "0";
+            caseSens = ((KeywordGroup) group).isCaseSensitive();
+            regExp = ((KeywordGroup) group).isRegExp();
         } else if (group instanceof SearchGroup) {
             searchExpr = ((SearchGroup) group).getSearchExpression();
-            caseSens = ((SearchGroup) group).isCaseSensitive() ? "1" : "0";
-            regExp = ((SearchGroup) group).isRegExp() ? "1" : "0";
+            caseSens = ((SearchGroup) group).isCaseSensitive();
+            regExp = ((SearchGroup) group).isRegExp();
         }
-        // Protect all quotes in the group descriptions:
+        // Protect all quotes in the group descriptions, the importer unquotes them:
         if (searchField != null) {
             searchField = StringUtil.quote(searchField, "'", '\\');
         }
@@ -281,34 +437,28 @@ public class DatabaseExporter {
             searchExpr = StringUtil.quote(searchExpr, "'", '\\');
         }
 
-        SQLUtil.processQuery(out, "INSERT INTO groups (label, parent_id, group_types_id, search_field, "
-                + "search_expression, case_sensitive, reg_exp, hierarchical_context, database_id) " + "VALUES ('"
-                + group.getName() + "', " + parentID + ", (SELECT group_types_id FROM group_types where label='"
-                + group.getTypeId() + "')" + ", " + (searchField != null ? '\'' + searchField + '\'' : "NULL") + ", "
-                + (searchExpr != null ? '\'' + searchExpr + '\'' : "NULL") + ", "
-                + (caseSens != null ? '\'' + caseSens + '\'' : "NULL") + ", "
-                + (regExp != null ? '\'' + regExp + '\'' : "NULL") + ", " + hierContext.ordinal() + ", '" + database_id
-                + "');");
-
-        // recurse on child nodes (depth-first traversal)
-        try (Statement statement = ((Connection) out).createStatement();
-                ResultSet rs = statement.executeQuery(
-                        "SELECT groups_id FROM groups WHERE label='" + cursor.getGroup().getName() + "' AND database_id='"
-                                + database_id + "' AND parent_id='" + parentID + "';")) {
-            // setting values to ID and myID to be used in case of textual SQL
-            // export
-            int myID = currentID;
+        statement.setString(1, group.getName());
+        statement.setInt(2, parentID);
+        setInteger(statement, 3, groupTypeIDs.get(group.getTypeId()));
+        statement.setString(4, searchField);
+        statement.setString(5, searchExpr);
+        setBoolean(statement, 6, caseSens);
+        setBoolean(statement, 7, regExp);
+        statement.setInt(8, hierContext.ordinal());
+        statement.setInt(9, database_id);
+        statement.executeUpdate();
+
+        int myID;
+        try (ResultSet rs = statement.getGeneratedKeys()) {
             rs.next();
-            myID = rs.getInt("groups_id");
-            for (GroupTreeNode child : cursor.getChildren()) {
-                currentID++;
-                currentID = populateGroupsTable(child, myID, currentID, out, database_id);
-            }
-        } catch (SQLException e) {
-            LOGGER.warn("Cannot close resource", e);
+            myID = rs.getInt(1);
         }
+        groupIDs.put(cursor, myID);
 
-        return currentID;
+        // recurse on child nodes (depth-first traversal)
+        for (GroupTreeNode child : cursor.getChildren()) {
+            insertGroups(child, myID, statement, database_id, groupTypeIDs, groupIDs);
+        }
     }
 
     /**
@@ -320,7 +470,7 @@ public class DatabaseExporter {
     private static void populateGroupTypesTable(Connection out) throws SQLException {
         int quantity = 0;
 
-        try (Statement sm = ((Connection) out).createStatement();
+        try (Statement sm = out.createStatement();
                 ResultSet res = sm.executeQuery("SELECT COUNT(*) AS amount FROM group_types")) {
             res.next();
             quantity = res.getInt("amount");
@@ -328,9 +478,12 @@ public class DatabaseExporter {
 
         if (quantity == 0) {
             String[] typeNames = new String[] {AllEntriesGroup.ID, ExplicitGroup.ID, KeywordGroup.ID, SearchGroup.ID};
-            for (String typeName : typeNames) {
-                String insert = "INSERT INTO group_types (label) VALUES ('" + typeName + "');";
-                SQLUtil.processQuery(out, insert);
+            try (PreparedStatement statement = out.prepareStatement("INSERT INTO group_types (label) VALUES (?)")) {
+                for (String typeName : typeNames) {
+                    statement.setString(1, typeName);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
             }
         }
     }
@@ -344,20 +497,75 @@ public class DatabaseExporter {
      *                    using getDatabaseIDByPath(metaData, out)
      * @throws SQLException
      */
-    private static void populateStringTable(BibDatabase database, Connection out, final int database_id)
+    private void populateStringTable(BibDatabase database, Connection out, final int database_id)
             throws SQLException {
-        String insert = "INSERT INTO strings (label, content, database_id) VALUES (";
+        try (PreparedStatement statement = out
+                .prepareStatement("INSERT INTO strings (label, content, database_id) VALUES (?, ?, ?)")) {
+            int batched = 0;
+            if (database.getPreamble() != null) {
+                statement.setString(1, "@PREAMBLE");
+                statement.setString(2, database.getPreamble());
+                statement.setInt(3, database_id);
+                batched = addBatch(statement, batched);
+            }
+            for (String key : database.getStringKeySet()) {
+                BibtexString string = database.getString(key);
+                statement.setString(1, string.getName());
+                statement.setString(2, string.getContent());
+                statement.setInt(3, database_id);
+                batched = addBatch(statement, batched);
+            }
+            executeBatch(statement, batched);
+        }
+    }
+
+    /**
+     * Adds the current parameters of the statement to its batch, and executes the batch once it is full.
+     *
+     * @param batched the number of statements in the batch before
+     * @return the number of statements in the batch afterwards
+     */
+    private int addBatch(PreparedStatement statement, int batched) throws SQLException {
+        statement.addBatch();
+        if ((batched + 1) == batchSize) {
+            statement.executeBatch();
+            return 0;
+        }
+        return batched + 1;
+    }
+
+    private static void executeBatch(PreparedStatement statement, int batched) throws SQLException {
+        if (batched > 0) {
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * Reads the IDs of the rows of a query returning the ID in the first and the label in the second column.
+     */
+    private static Map<String, Integer> readIDsByLabel(Connection connection, String query) throws SQLException {
+        Map<String, Integer> ids = new HashMap<>();
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(query)) {
+            while (resultSet.next()) {
+                ids.put(resultSet.getString(2), resultSet.getInt(1));
+            }
+        }
+        return ids;
+    }
 
-        if (database.getPreamble() != null) {
-            String dml = insert + "'@PREAMBLE', " + '\'' + StringUtil.quote(database.getPreamble(), "'", '\\') + "', "
-                    + '\'' + database_id + "');";
-            SQLUtil.processQuery(out, dml);
+    private static void setInteger(PreparedStatement statement, int index, Integer value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.INTEGER);
+        } else {
+            statement.setInt(index, value);
         }
-        for (String key : database.getStringKeySet()) {
-            BibtexString string = database.getString(key);
-            String dml = insert + '\'' + StringUtil.quote(string.getName(), "'", '\\') + "', " + '\''
-                    + StringUtil.quote(string.getContent(), "'", '\\') + "', " + '\'' + database_id + '\'' + ");";
-            SQLUtil.processQuery(out, dml);
+    }
+
+    private static void setBoolean(PreparedStatement statement, int index, Boolean value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.BOOLEAN);
+        } else {
+            statement.setBoolean(index, value);
         }
     }
 
@@ -383,6 +591,18 @@ public class DatabaseExporter {
         for (Database.Table table : Database.Table.values()) {
             SQLUtil.processQuery(out, database.getCreateTableSQL(table));
         }
+
+        // tables created by earlier versions lack the content hash
+        boolean hasContentHash = false;
+        try (Statement statement = out.createStatement();
+                ResultSet columns = statement.executeQuery(database.getReadColumnNamesQuery())) {
+            while (columns.next()) {
+                hasContentHash |= "content_hash".equalsIgnoreCase(columns.getString(1));
+            }
+        }
+        if (!hasContentHash) {
+            SQLUtil.processQuery(out, "ALTER TABLE entries ADD content_hash VARCHAR(40) DEFAULT NULL;");
+        }
     }
 
     /**
@@ -0,0 +1,39 @@
+package net.sf.jabref.sql.importer;
+
+import java.util.Collections;
+import java.util.List;
+
+import net.sf.jabref.model.entry.BibEntry;
+
+/**
+ * The changes made to a database by {@link DatabaseImporter#synchronize}.
+ */
+public class DBSyncResult {
+
+    private final List<BibEntry> addedEntries;
+    private final List<BibEntry> changedEntries;
+    private final List<BibEntry> removedEntries;
+
+
+    public DBSyncResult(List<BibEntry> addedEntries, List<BibEntry> changedEntries, List<BibEntry> removedEntries) {
+        this.addedEntries = Collections.unmodifiableList(addedEntries);
+        this.changedEntries = Collections.unmodifiableList(changedEntries);
+        this.removedEntries = Collections.unmodifiableList(removedEntries);
+    }
+
+    public List<BibEntry> getAddedEntries() {
+        return addedEntries;
+    }
+
+    public List<BibEntry> getChangedEntries() {
+        return changedEntries;
+    }
+
+    public List<BibEntry> getRemovedEntries() {
+        return removedEntries;
+    }
+
+    public boolean hasChanges() {
+        return !addedEntries.isEmpty() || !changedEntries.isEmpty() || !removedEntries.isEmpty();
+    }
+}
@@ -17,6 +17,7 @@
 package net.sf.jabref.sql.importer;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -26,6 +27,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.StringJoiner;
@@ -49,6 +51,7 @@ import net.sf.jabref.model.entry.EntryType;
 import net.sf.jabref.model.entry.IdGenerator;
 import net.sf.jabref.sql.DBStrings;
 import net.sf.jabref.sql.Database;
+import net.sf.jabref.sql.EntryRowDiff;
 import net.sf.jabref.sql.SQLUtil;
 
 import org.apache.commons.logging.Log;
@@ -72,9 +75,13 @@ public class DatabaseImporter {
             "entry_types_id",
             "database_id",
             "jabref_eid",
-            "entries_id"
+            "entries_id",
+            "content_hash"
     );
 
+    // number of rows read with one query when synchronizing
+    private static final int ROWS_PER_QUERY = 500;
+
 
     private final Database database;
 
@@ -93,7 +100,7 @@ public class DatabaseImporter {
              ResultSet rsColumns = statement.executeQuery(query)) {
             List<String> colNames = new ArrayList<>();
             while (rsColumns.next()) {
-                colNames.add(rsColumns.getString(1));
+                colNames.add(rsColumns.getString(1).toLowerCase(Locale.ENGLISH));
             }
             return colNames;
         }
@@ -131,19 +138,8 @@ public class DatabaseImporter {
                  ResultSet rsDatabase = statement.executeQuery(query)) {
                 while (rsDatabase.next()) {
                     BibDatabase database = new BibDatabase();
-                    // Find entry type IDs and their mappings to type names:
-                    HashMap<String, EntryType> types = new HashMap<>();
-                    try (Statement entryTypes = conn.createStatement();
-                            ResultSet rsEntryType = entryTypes.executeQuery(SQLUtil.queryAllFromTable("entry_types"))) {
-                        while (rsEntryType.next()) {
-                            Optional<EntryType> entryType = EntryTypes.getType(rsEntryType.getString("label"), mode);
-                            if (entryType.isPresent()) {
-                                types.put(rsEntryType.getString("entry_types_id"), entryType.get());
-                            }
-                        }
-                    }
-
-                    List<String> colNames = this.readColumnNames(conn).stream().filter(column -> !COLUMNS_NOT_CONSIDERED_FOR_ENTRIES.contains(column)).collect(Collectors.toList());
+                    Map<String, EntryType> types = readEntryTypes(conn, mode);
+                    List<String> colNames = readFieldColumnNames(conn);
 
                     final String database_id = rsDatabase.getString("database_id");
                     // Read the entries and create BibEntry instances:
@@ -154,15 +150,7 @@ public class DatabaseImporter {
                         while (rsEntries.next()) {
                             String id = rsEntries.getString("entries_id");
                             BibEntry entry = new BibEntry(IdGenerator.next(), types.get(rsEntries.getString("entry_types_id")).getName());
-                            entry.setCiteKey(rsEntries.getString("cite_key"));
-                            for (String col : colNames) {
-                                String value = rsEntries.getString(col);
-                                if (value != null) {
-                                    col = col.charAt(col.length() - 1) == '_' ? col.substring(0,
-                                            col.length() - 1) : col;
-                                    entry.setField(col, value);
-                                }
-                            }
+                            setFields(entry, rsEntries, colNames);
                             entries.put(id, entry);
                             database.insertEntry(entry);
                         }
@@ -194,6 +182,121 @@ public class DatabaseImporter {
         return result;
     }
 
+    /**
+     * Makes the entries of the given database equal to the entries stored under the given name. Only the rows of
+     * entries which are not in the database as they are stored are read, see {@link EntryRowDiff}. Changed entries are
+     * updated in place, the other entries are inserted into or removed from the database in one batch each. Strings
+     * and groups are not synchronized.
+     *
+     * @param conn        Connection object to the database
+     * @param dbName      the name the entries are stored under
+     * @param bibDatabase the database to synchronize
+     * @param mode        the mode used to look up the entry types
+     * @return the entries added, changed and removed
+     * @throws SQLException if there is no database stored under the given name or reading it fails
+     */
+    public DBSyncResult synchronize(Connection conn, String dbName, BibDatabase bibDatabase, BibDatabaseMode mode)
+            throws SQLException {
+        int databaseID;
+        try (PreparedStatement statement = conn
+                .prepareStatement("SELECT database_id FROM jabref_database WHERE database_name = ?")) {
+            statement.setString(1, dbName);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new SQLException("There is no database named " + dbName);
+                }
+                databaseID = resultSet.getInt(1);
+            }
+        }
+
+        EntryRowDiff diff = new EntryRowDiff(bibDatabase.getEntries(), conn, databaseID);
+        Map<Integer, BibEntry> changedEntriesByRow = new HashMap<>();
+        for (Map.Entry<BibEntry, Integer> changed : diff.getChangedEntries().entrySet()) {
+            changedEntriesByRow.put(changed.getValue(), changed.getKey());
+        }
+        List<Integer> rowsToRead = new ArrayList<>(changedEntriesByRow.keySet());
+        rowsToRead.addAll(diff.getRowsWithoutEntry());
+
+        Map<String, EntryType> types = readEntryTypes(conn, mode);
+        List<String> colNames = readFieldColumnNames(conn);
+        List<BibEntry> addedEntries = new ArrayList<>();
+        for (int start = 0; start < rowsToRead.size(); start += ROWS_PER_QUERY) {
+            List<Integer> ids = rowsToRead.subList(start, Math.min(start + ROWS_PER_QUERY, rowsToRead.size()));
+            String query = "SELECT * FROM entries WHERE entries_id IN ("
+                    + ids.stream().map(id -> "?").collect(Collectors.joining(", ")) + ')';
+            try (PreparedStatement statement = conn.prepareStatement(query)) {
+                for (int i = 0; i < ids.size(); i++) {
+                    statement.setInt(i + 1, ids.get(i));
+                }
+                try (ResultSet rsEntries = statement.executeQuery()) {
+                    while (rsEntries.next()) {
+                        String type = types.get(rsEntries.getString("entry_types_id")).getName();
+                        BibEntry entry = changedEntriesByRow.get(rsEntries.getInt("entries_id"));
+                        if (entry == null) {
+                            entry = new BibEntry(IdGenerator.next(), type);
+                            addedEntries.add(entry);
+                        } else {
+                            entry.setType(type);
+                        }
+                        setFields(entry, rsEntries, colNames);
+                    }
+                }
+            }
+        }
+
+        bibDatabase.removeEntries(diff.getEntriesWithoutRow());
+        bibDatabase.insertEntries(addedEntries);
+        return new DBSyncResult(addedEntries, new ArrayList<>(diff.getChangedEntries().keySet()),
+                diff.getEntriesWithoutRow());
+    }
+
+    /**
+     * Reads the entry types by their entry_types_id.
+     */
+    private static Map<String, EntryType> readEntryTypes(Connection conn, BibDatabaseMode mode) throws SQLException {
+        Map<String, EntryType> types = new HashMap<>();
+        try (Statement entryTypes = conn.createStatement();
+                ResultSet rsEntryType = entryTypes.executeQuery(SQLUtil.queryAllFromTable("entry_types"))) {
+            while (rsEntryType.next()) {
+                Optional<EntryType> entryType = EntryTypes.getType(rsEntryType.getString("label"), mode);
+                if (entryType.isPresent()) {
+                    types.put(rsEntryType.getString("entry_types_id"), entryType.get());
+                }
+            }
+        }
+        return types;
+    }
+
+    /**
+     * @return the names of the columns of the entries table holding fields
+     */
+    private List<String> readFieldColumnNames(Connection conn) throws SQLException {
+        return readColumnNames(conn).stream().filter(column -> !COLUMNS_NOT_CONSIDERED_FOR_ENTRIES.contains(column))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Sets the bibtex key and the fields of the entry to the values of the current row, clearing the fields having no
+     * value.
+     */
+    private static void setFields(BibEntry entry, ResultSet rsEntries, List<String> colNames) throws SQLException {
+        String citeKey = rsEntries.getString("cite_key");
+        if (citeKey == null) {
+            entry.clearField(BibEntry.KEY_FIELD);
+        } else {
+            entry.setCiteKey(citeKey);
+        }
+        for (String col : colNames) {
+            String value = rsEntries.getString(col);
+            String field = col.charAt(col.length() - 1) == '_' ? col.substring(0, col.length() - 1) : col;
+            if (value != null) {
+                entry.setField(field, value);
+            } else if (entry.hasField(field)) {
+                entry.clearField(field);
+            }
+        }
+    }
+
     /**
      * Look up the group type name from the type ID in the database.
      *
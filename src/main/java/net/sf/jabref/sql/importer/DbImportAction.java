@@ -33,6 +33,7 @@ import net.sf.jabref.gui.JabRefFrame;
 import net.sf.jabref.gui.actions.MnemonicAwareAction;
 import net.sf.jabref.gui.worker.AbstractWorker;
 import net.sf.jabref.logic.l10n.Localization;
+import net.sf.jabref.model.database.BibDatabase;
 import net.sf.jabref.sql.DBConnectDialog;
 import net.sf.jabref.sql.DBExporterAndImporterFactory;
 import net.sf.jabref.sql.DBImportExportDialog;
@@ -60,6 +61,8 @@ public class DbImportAction extends AbstractWorker {
     private final JabRefFrame frame;
     private DBStrings dbs;
     private List<DBImporterResult> databases;
+    private BasePanel synchronizedPanel;
+    private DBSyncResult syncResult;
 
     public DbImportAction(JabRefFrame frame) {
         this.frame = frame;
@@ -131,6 +134,8 @@ public class DbImportAction extends AbstractWorker {
             return;
         }
 
+        databases = null;
+        syncResult = null;
         frame.output(Localization.lang("Attempting SQL import..."));
         DBExporterAndImporterFactory factory = new DBExporterAndImporterFactory();
         DatabaseImporter importer = factory.getImporter(dbs.getDbPreferences().getServerType());
@@ -158,6 +163,12 @@ public class DbImportAction extends AbstractWorker {
                         String dbName = dialogo.selectedDB;
                         DatabaseUtil.removeDB(dialogo, dbName, conn, databaseContext);
                         performImport();
+                    } else if (dialogo.moreThanOne && (dialogo.listOfDBs.size() == 1)
+                            && askToSynchronize(dialogo.listOfDBs.get(0))) {
+                        // only the differences are read and applied to the open database
+                        synchronizedPanel = frame.getCurrentBasePanel();
+                        syncResult = importer.synchronize(conn, dialogo.listOfDBs.get(0),
+                                synchronizedPanel.getDatabase(), synchronizedPanel.getBibDatabaseContext().getMode());
                     } else if (dialogo.moreThanOne) {
                         databases = importer.performImport(dbs, dialogo.listOfDBs, frame.getCurrentBasePanel().getBibDatabaseContext().getMode());
                         for (DBImporterResult res : databases) {
@@ -182,8 +193,38 @@ public class DbImportAction extends AbstractWorker {
         }
     }
 
+    /**
+     * Asks whether the current database is to be synchronized with the given SQL database instead of opening the
+     * latter in a new tab.
+     */
+    private boolean askToSynchronize(String dbName) {
+        if (frame.getCurrentBasePanel() == null) {
+            return false;
+        }
+        int answer = JOptionPane.showConfirmDialog(frame,
+                Localization.lang("Synchronize the current database with the SQL database %0 instead of opening it?",
+                        dbName),
+                Localization.lang("Import from SQL database"), JOptionPane.YES_NO_OPTION);
+        return answer == JOptionPane.YES_OPTION;
+    }
+
     @Override
     public void update() {
+        if (syncResult != null) {
+            // the changed entries have been updated in place, the main table shows them anew at once
+            BibDatabase database = synchronizedPanel.getDatabase();
+            database.runInBatch(() -> syncResult.getChangedEntries().forEach(database::notifyEntryChanged));
+            if (syncResult.hasChanges()) {
+                synchronizedPanel.markBaseChanged();
+                synchronizedPanel.updateEntryEditorIfShowing();
+            }
+            frame.output(Localization.lang(
+                    "Synchronized with the SQL database. Added %0, changed %1 and removed %2 entries.",
+                    Integer.toString(syncResult.getAddedEntries().size()),
+                    Integer.toString(syncResult.getChangedEntries().size()),
+                    Integer.toString(syncResult.getRemovedEntries().size())));
+            return;
+        }
         if (databases == null) {
             return;
         }
@@ -0,0 +1,60 @@
+package net.sf.jabref.bibtex.comparator;
+
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.jabref.Globals;
+import net.sf.jabref.JabRefPreferences;
+import net.sf.jabref.model.entry.BibEntry;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FieldComparatorTest {
+
+    @BeforeClass
+    public static void setUp() {
+        Globals.prefs = JabRefPreferences.getInstance();
+    }
+
+    private static BibEntry createEntry(String field, String value) {
+        BibEntry entry = new BibEntry();
+        entry.setField(field, value);
+        return entry;
+    }
+
+    @Test
+    public void getSortValueRearrangesNamesByLastName() {
+        FieldComparator comparator = new FieldComparator("author");
+
+        assertEquals(comparator.getSortValue(createEntry("author", "Smith, John")),
+                comparator.getSortValue(createEntry("author", "John Smith")));
+        assertNull(comparator.getSortValue(new BibEntry()));
+    }
+
+    @Test
+    public void getSortValueUsesFirstSetField() {
+        FieldComparator comparator = new FieldComparator("author/editor");
+
+        assertEquals("Doe, J.", comparator.getSortValue(createEntry("editor", "Doe, J.")));
+    }
+
+    @Test
+    public void compareSortValuesEqualsCompare() {
+        FieldComparator comparator = new FieldComparator("author", true);
+        List<BibEntry> entries = Arrays.asList(createEntry("author", "Zeta, Anna"), createEntry("author", "Bob Alpha"),
+                new BibEntry(), createEntry("author", "{\\\"O}stlund, Karl"));
+
+        for (BibEntry e1 : entries) {
+            for (BibEntry e2 : entries) {
+                assertEquals(comparator.compare(e1, e2),
+                        comparator.compareSortValues(comparator.getSortValue(e1), comparator.getSortValue(e2)));
+            }
+        }
+        assertTrue(comparator.compare(entries.get(0), entries.get(1)) < 0);
+    }
+}
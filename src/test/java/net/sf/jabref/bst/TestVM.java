@@ -14,6 +14,7 @@ import net.sf.jabref.bst.VM.StackFunction;
 import net.sf.jabref.importer.ParserResult;
 import net.sf.jabref.importer.fileformat.BibtexParser;
 import net.sf.jabref.model.entry.BibEntry;
+import net.sf.jabref.model.entry.IdGenerator;
 
 import org.antlr.runtime.RecognitionException;
 import org.junit.Assert;
@@ -587,6 +588,29 @@ public class TestVM {
         }
     }
 
+    @Test
+    public void testIterateManyEntries() throws RecognitionException {
+
+        VM vm = new VM("ENTRY { title } { } { label } INTEGERS { count } "
+                + "FUNCTION {label.only} { cite$ 'label := label } ITERATE { label.only } "
+                + "FUNCTION {count.entries} { count #1 + 'count := } ITERATE { count.entries }");
+
+        List<BibEntry> v = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            BibEntry entry = new BibEntry(IdGenerator.next(), "misc");
+            entry.setCiteKey("key" + i);
+            v.add(entry);
+        }
+
+        vm.run(v);
+
+        Assert.assertEquals(Integer.valueOf(500), vm.getIntegers().get("count"));
+        Assert.assertEquals(500, vm.getStack().size());
+        for (int i = 499; i >= 0; i--) {
+            Assert.assertEquals("key" + i, vm.getStack().pop());
+        }
+    }
+
     @Test
     public void testWidth() throws RecognitionException, IOException {
 
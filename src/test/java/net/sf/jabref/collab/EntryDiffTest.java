@@ -0,0 +1,125 @@
+package net.sf.jabref.collab;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import net.sf.jabref.Globals;
+import net.sf.jabref.JabRefPreferences;
+import net.sf.jabref.model.entry.BibEntry;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class EntryDiffTest {
+
+    private BibEntry marine;
+    private BibEntry thesis;
+    private BibEntry book;
+
+
+    @Before
+    public void setUp() {
+        Globals.prefs = JabRefPreferences.getInstance();
+
+        marine = createEntry("Shields2001", "Marine finfish larviculture in Europe", "Kevin Shields", "2001");
+        thesis = createEntry("Doe2010", "My thesis", "John Doe", "2010");
+        book = createEntry("Miller1999", "A book", "Jane Miller", "1999");
+    }
+
+    private static BibEntry createEntry(String key, String title, String author, String year) {
+        BibEntry entry = new BibEntry();
+        entry.setCiteKey(key);
+        entry.setField("title", title);
+        entry.setField("author", author);
+        entry.setField("year", year);
+        return entry;
+    }
+
+    private static BibEntry copy(BibEntry entry) {
+        BibEntry copy = new BibEntry();
+        copy.setField(entry.getFieldMap());
+        return copy;
+    }
+
+    private static List<BibEntry> copy(List<BibEntry> entries) {
+        return Arrays.asList(entries.stream().map(EntryDiffTest::copy).toArray(BibEntry[]::new));
+    }
+
+    @Test
+    public void unchangedEntriesAreNotReported() {
+        List<BibEntry> entries = Arrays.asList(marine, thesis, book);
+        EntryDiff diff = new EntryDiff(entries, copy(entries), copy(Arrays.asList(book, marine, thesis)));
+
+        assertEquals(Collections.emptyList(), diff.getModifiedEntries());
+        assertEquals(Collections.emptyList(), diff.getRemovedEntries());
+        assertEquals(Collections.emptyList(), diff.getAddedEntries());
+    }
+
+    @Test
+    public void modifiedEntryIsPairedWithEntryInMemory() {
+        List<BibEntry> entries = Arrays.asList(marine, thesis, book);
+        List<BibEntry> disk = copy(entries);
+        disk.get(0).setField("title", "Marine finfish larviculture in Asia");
+
+        EntryDiff diff = new EntryDiff(entries, copy(entries), disk);
+
+        assertEquals(1, diff.getModifiedEntries().size());
+        BibEntry[] modified = diff.getModifiedEntries().get(0);
+        assertEquals(marine, modified[0]);
+        assertEquals(marine.getFieldMap(), modified[1].getFieldMap());
+        assertEquals(disk.get(0), modified[2]);
+        assertEquals(Collections.emptyList(), diff.getRemovedEntries());
+        assertEquals(Collections.emptyList(), diff.getAddedEntries());
+    }
+
+    @Test
+    public void modifiedEntryIsPairedWithEntryHavingSameKey() {
+        BibEntry other = createEntry("Shields2002", "Marine finfish larviculture in Europe", "Kevin Shields", "2002");
+        List<BibEntry> entries = Arrays.asList(marine, other);
+        List<BibEntry> disk = copy(entries);
+        disk.get(0).setField("year", "2002");
+        disk.get(1).setField("year", "2001");
+
+        EntryDiff diff = new EntryDiff(entries, copy(entries), disk);
+
+        assertEquals(2, diff.getModifiedEntries().size());
+        for (BibEntry[] modified : diff.getModifiedEntries()) {
+            assertEquals(modified[0].getCiteKey(), modified[2].getCiteKey());
+        }
+    }
+
+    @Test
+    public void removedEntryIsReported() {
+        List<BibEntry> entries = Arrays.asList(marine, thesis);
+        EntryDiff diff = new EntryDiff(entries, copy(entries), copy(Collections.singletonList(thesis)));
+
+        assertEquals(1, diff.getRemovedEntries().size());
+        assertArrayEquals(new BibEntry[] {marine, diff.getRemovedEntries().get(0)[1]},
+                diff.getRemovedEntries().get(0));
+        assertEquals(Collections.emptyList(), diff.getModifiedEntries());
+        assertEquals(Collections.emptyList(), diff.getAddedEntries());
+    }
+
+    @Test
+    public void addedEntryIsReported() {
+        List<BibEntry> entries = Collections.singletonList(marine);
+        List<BibEntry> disk = copy(Arrays.asList(marine, thesis));
+        EntryDiff diff = new EntryDiff(entries, copy(entries), disk);
+
+        assertEquals(Collections.singletonList(disk.get(1)), diff.getAddedEntries());
+        assertEquals(Collections.emptyList(), diff.getModifiedEntries());
+        assertEquals(Collections.emptyList(), diff.getRemovedEntries());
+    }
+
+    @Test
+    public void addedEntryAlreadyInMemoryIsNotReported() {
+        List<BibEntry> tmp = copy(Collections.singletonList(marine));
+        EntryDiff diff = new EntryDiff(Arrays.asList(marine, thesis), tmp, copy(Arrays.asList(marine, thesis)));
+
+        assertEquals(Collections.emptyList(), diff.getAddedEntries());
+    }
+}
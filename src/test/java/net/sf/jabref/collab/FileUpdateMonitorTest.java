@@ -0,0 +1,132 @@
+package net.sf.jabref.collab;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FileUpdateMonitorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+    private Thread thread;
+    private final CountDownLatch updated = new CountDownLatch(1);
+    private final CountDownLatch removed = new CountDownLatch(1);
+    private final FileUpdateListener listener = new FileUpdateListener() {
+
+        @Override
+        public void fileUpdated() {
+            updated.countDown();
+        }
+
+        @Override
+        public void fileRemoved() {
+            removed.countDown();
+        }
+    };
+
+
+    @Before
+    public void setUp() throws IOException {
+        file = folder.newFile("test.bib");
+        write("@Misc{a}");
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        if (thread != null) {
+            thread.interrupt();
+            thread.join();
+        }
+    }
+
+    @Test
+    public void changeIsReported() throws IOException, InterruptedException {
+        FileUpdateMonitor monitor = start(new FileUpdateMonitor(FileSystems.getDefault().newWatchService(), 60000));
+        monitor.addUpdateListener(listener, file);
+
+        write("@Misc{a}\n@Misc{b}");
+
+        assertTrue(updated.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void removalIsReported() throws IOException, InterruptedException {
+        FileUpdateMonitor monitor = start(new FileUpdateMonitor(FileSystems.getDefault().newWatchService(), 60000));
+        monitor.addUpdateListener(listener, file);
+
+        Files.delete(file.toPath());
+
+        assertTrue(removed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void changeOfOtherFileIsNotReported() throws IOException, InterruptedException {
+        FileUpdateMonitor monitor = start(new FileUpdateMonitor(FileSystems.getDefault().newWatchService(), 60000));
+        monitor.addUpdateListener(listener, file);
+
+        Files.write(folder.newFile("other.bib").toPath(), "@Misc{c}".getBytes(StandardCharsets.UTF_8));
+
+        assertFalse(updated.await(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void removedListenerIsNotNotified() throws IOException, InterruptedException {
+        FileUpdateMonitor monitor = start(new FileUpdateMonitor(FileSystems.getDefault().newWatchService(), 60000));
+        String handle = monitor.addUpdateListener(listener, file);
+        monitor.removeUpdateListener(handle);
+
+        write("@Misc{a}\n@Misc{b}");
+
+        assertFalse(updated.await(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void pollsWithoutWatchService() throws IOException, InterruptedException {
+        FileUpdateMonitor monitor = start(new FileUpdateMonitor(null, 50));
+        monitor.addUpdateListener(listener, file);
+
+        write("@Misc{a}\n@Misc{b}");
+
+        assertTrue(updated.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void updateTimeStampAcceptsChange() throws IOException {
+        FileUpdateMonitor monitor = new FileUpdateMonitor(null, 60000);
+        String handle = monitor.addUpdateListener(listener, file);
+
+        write("@Misc{a}\n@Misc{b}");
+        assertTrue(monitor.hasBeenModified(handle));
+
+        monitor.updateTimeStamp(handle);
+        assertFalse(monitor.hasBeenModified(handle));
+        assertEquals("@Misc{a}\n@Misc{b}",
+                new String(Files.readAllBytes(monitor.getTempFile(handle).toPath()), StandardCharsets.UTF_8));
+    }
+
+    private FileUpdateMonitor start(FileUpdateMonitor monitor) {
+        thread = new Thread(monitor);
+        thread.start();
+        return monitor;
+    }
+
+    private void write(String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
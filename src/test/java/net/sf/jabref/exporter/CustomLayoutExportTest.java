@@ -0,0 +1,116 @@
+package net.sf.jabref.exporter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import net.sf.jabref.BibDatabaseContext;
+import net.sf.jabref.Globals;
+import net.sf.jabref.JabRefPreferences;
+import net.sf.jabref.MetaData;
+import net.sf.jabref.logic.journals.JournalAbbreviationLoader;
+import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.entry.BibEntry;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+
+public class CustomLayoutExportTest {
+
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
+    private BibDatabaseContext databaseContext;
+    private List<BibEntry> entries;
+    private File layoutFile;
+
+
+    @Before
+    public void setUp() throws IOException {
+        Globals.prefs = JabRefPreferences.getInstance();
+        Globals.journalAbbreviationLoader = new JournalAbbreviationLoader(Globals.prefs);
+
+        BibDatabase database = new BibDatabase();
+        // more entries than laid out by one task
+        for (int i = 0; i < 1000; i++) {
+            BibEntry entry = new BibEntry();
+            entry.setField("year", String.valueOf(2000 + (i / 100)));
+            entry.setCiteKey(String.format("key%04d", i));
+            entry.setType((i % 2) == 0 ? "misc" : "book");
+            database.insertEntry(entry);
+        }
+        databaseContext = new BibDatabaseContext(database, new MetaData());
+        entries = database.getEntries();
+        layoutFile = new File(testFolder.getRoot(), "custom");
+    }
+
+    @Test
+    public void entriesAreWrittenInSortOrderWithTheirNumbers() throws Exception {
+        writeLayout(".layout", "\\format[Number]{\\bibtexkey} \\bibtexkey\n");
+        writeLayout(".book.layout", "\\format[Number]{\\bibtexkey} book \\bibtexkey\n");
+
+        StringBuilder expected = new StringBuilder();
+        int number = 0;
+        for (BibEntry entry : getSortedEntries()) {
+            number++;
+            expected.append(number).append(' ').append("book".equals(entry.getType()) ? "book " : "")
+                    .append(entry.getCiteKey()).append('\n');
+        }
+
+        assertEquals(expected.toString(), export());
+    }
+
+    @Test
+    public void groupHeaderIsWrittenWhenGroupChanges() throws Exception {
+        writeLayout(".layout", "\\begingroup{year}Year \\year\n\\endgroup{year}\\bibtexkey\n");
+
+        StringBuilder expected = new StringBuilder();
+        String currentYear = null;
+        for (BibEntry entry : getSortedEntries()) {
+            String year = entry.getField("year");
+            if (!year.equals(currentYear)) {
+                expected.append("Year ").append(year).append('\n');
+                currentYear = year;
+            }
+            expected.append(entry.getCiteKey()).append('\n');
+        }
+
+        assertEquals(expected.toString(), export());
+    }
+
+    @Test
+    public void modifiedLayoutFileIsReadAgain() throws Exception {
+        writeLayout(".layout", "old\n");
+        export();
+
+        writeLayout(".layout", "new\n");
+        new File(layoutFile.getPath() + ".layout").setLastModified(System.currentTimeMillis() + 10000);
+
+        assertEquals(String.join("", Collections.nCopies(entries.size(), "new\n")), export());
+    }
+
+    private List<BibEntry> getSortedEntries() {
+        return new ArrayList<>(BibDatabaseWriter.getSortedEntries(databaseContext, entries,
+                SavePreferences.loadForExportFromPreferences(Globals.prefs)));
+    }
+
+    private String export() throws Exception {
+        ExportFormat format = new ExportFormat("Custom", "custom", layoutFile.getPath(), null, ".txt");
+        format.setCustomExport(true);
+        File outFile = testFolder.newFile();
+        format.performExport(databaseContext, outFile.getPath(), StandardCharsets.UTF_8, entries);
+        return new String(Files.readAllBytes(outFile.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private void writeLayout(String suffix, String content) throws IOException {
+        Files.write(new File(layoutFile.getPath() + suffix).toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,131 @@
+package net.sf.jabref.exporter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.GroupPrincipal;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import net.sf.jabref.Globals;
+import net.sf.jabref.JabRefPreferences;
+import net.sf.jabref.gui.GUIGlobals;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SaveSessionTest {
+
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
+
+    @Before
+    public void setUp() {
+        Globals.prefs = JabRefPreferences.getInstance();
+    }
+
+    private static SaveSession save(String content, boolean backup) throws IOException {
+        SaveSession session = new SaveSession(StandardCharsets.UTF_8, backup);
+        try (VerifyingWriter writer = session.getWriter()) {
+            writer.write(content);
+        }
+        return session;
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void commitWritesNewFile() throws Exception {
+        File target = new File(testFolder.getRoot(), "new.bib");
+        SaveSession session = save("@article{test}", true);
+
+        session.commit(target);
+
+        assertEquals("@article{test}", read(target));
+        assertFalse(session.getTemporaryFile().exists());
+        assertFalse(new File(target.getPath() + GUIGlobals.BACKUP_EXTENSION).exists());
+    }
+
+    @Test
+    public void commitReplacesExistingFileAndCreatesBackup() throws Exception {
+        File target = testFolder.newFile("existing.bib");
+        Files.write(target.toPath(), "@article{old}".getBytes(StandardCharsets.UTF_8));
+        SaveSession session = save("@article{new}", true);
+
+        session.commit(target);
+
+        assertEquals("@article{new}", read(target));
+        assertEquals("@article{old}", read(new File(target.getPath() + GUIGlobals.BACKUP_EXTENSION)));
+        assertFalse(session.getTemporaryFile().exists());
+        // no temporary files are left next to the target
+        assertEquals(2, testFolder.getRoot().list().length);
+    }
+
+    @Test
+    public void commitKeepsBackupWhenSavingTwice() throws Exception {
+        File target = testFolder.newFile("existing.bib");
+        Files.write(target.toPath(), "@article{first}".getBytes(StandardCharsets.UTF_8));
+
+        save("@article{second}", true).commit(target);
+        save("@article{third}", true).commit(target);
+
+        assertEquals("@article{third}", read(target));
+        assertEquals("@article{second}", read(new File(target.getPath() + GUIGlobals.BACKUP_EXTENSION)));
+    }
+
+    @Test
+    public void commitReplacesTargetOfSymbolicLink() throws Exception {
+        File realFile = testFolder.newFile("real.bib");
+        Files.write(realFile.toPath(), "@article{old}".getBytes(StandardCharsets.UTF_8));
+        Path link = new File(testFolder.getRoot(), "link.bib").toPath();
+        try {
+            Files.createSymbolicLink(link, realFile.toPath());
+        } catch (UnsupportedOperationException | IOException e) {
+            // symbolic links are not supported on this system
+            return;
+        }
+
+        save("@article{new}", false).commit(link.toFile());
+
+        assertTrue(Files.isSymbolicLink(link));
+        assertEquals("@article{new}", read(realFile));
+    }
+
+    @Test
+    public void commitKeepsOwnerGroupAndPermissionsOfReplacedFile() throws Exception {
+        File target = testFolder.newFile("existing.bib");
+        PosixFileAttributeView view = Files.getFileAttributeView(target.toPath(), PosixFileAttributeView.class);
+        Assume.assumeNotNull(view);
+        view.setPermissions(PosixFilePermissions.fromString("rw-r-----"));
+        try {
+            GroupPrincipal group = target.toPath().getFileSystem().getUserPrincipalLookupService()
+                    .lookupPrincipalByGroupName("daemon");
+            view.setGroup(group);
+        } catch (IOException | UnsupportedOperationException e) {
+            // the group of the file cannot be changed by this user, the test then checks the permissions only
+        }
+        PosixFileAttributes before = view.readAttributes();
+
+        save("@article{new}", false).commit(target);
+
+        PosixFileAttributes after = Files.getFileAttributeView(target.toPath(), PosixFileAttributeView.class)
+                .readAttributes();
+        assertEquals("@article{new}", read(target));
+        assertEquals(before.owner(), after.owner());
+        assertEquals(before.group(), after.group());
+        assertEquals(before.permissions(), after.permissions());
+    }
+}
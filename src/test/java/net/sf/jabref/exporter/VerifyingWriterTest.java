@@ -0,0 +1,76 @@
+package net.sf.jabref.exporter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class VerifyingWriterTest {
+
+    @Test
+    public void writesEncodableTextUnchanged() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (VerifyingWriter writer = new VerifyingWriter(out, StandardCharsets.UTF_8)) {
+            writer.write("Müller and Ångström");
+        }
+
+        assertArrayEquals("Müller and Ångström".getBytes(StandardCharsets.UTF_8), out.toByteArray());
+    }
+
+    @Test
+    public void couldEncodeAllIsTrueForEncodableText() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        VerifyingWriter writer = new VerifyingWriter(out, StandardCharsets.ISO_8859_1);
+        writer.write("Müller");
+        writer.close();
+
+        assertTrue(writer.couldEncodeAll());
+        assertEquals("", writer.getProblemCharacters());
+    }
+
+    @Test
+    public void replacesAndRemembersUnencodableCharacters() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        VerifyingWriter writer = new VerifyingWriter(out, StandardCharsets.US_ASCII);
+        writer.write("Müller and ");
+        writer.write("Schütze Ł");
+        writer.close();
+
+        assertFalse(writer.couldEncodeAll());
+        assertEquals("üŁ", writer.getProblemCharacters());
+        assertEquals("M?ller and Sch?tze ?", new String(out.toByteArray(), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void encodesSurrogatePairSplitAcrossWrites() throws IOException {
+        String text = "clef 𝄞";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        VerifyingWriter writer = new VerifyingWriter(out, StandardCharsets.UTF_8);
+        writer.write(text.substring(0, 6));
+        writer.write(text.substring(6));
+        writer.close();
+
+        assertTrue(writer.couldEncodeAll());
+        assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), out.toByteArray());
+    }
+
+    @Test
+    public void writesTextLargerThanBuffer() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            text.append("été ");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (VerifyingWriter writer = new VerifyingWriter(out, StandardCharsets.UTF_8)) {
+            writer.write(text.toString());
+        }
+
+        assertArrayEquals(text.toString().getBytes(StandardCharsets.UTF_8), out.toByteArray());
+    }
+}
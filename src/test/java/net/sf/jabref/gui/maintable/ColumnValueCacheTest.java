@@ -0,0 +1,108 @@
+package net.sf.jabref.gui.maintable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import net.sf.jabref.model.entry.BibEntry;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ColumnValueCacheTest {
+
+    private AtomicInteger computations;
+    private Function<BibEntry, Object> title;
+
+
+    @Before
+    public void setUp() {
+        computations = new AtomicInteger();
+        title = entry -> {
+            computations.incrementAndGet();
+            return entry.getField("title");
+        };
+    }
+
+    private static BibEntry createEntry(String title) {
+        BibEntry entry = new BibEntry();
+        entry.setField("title", title);
+        return entry;
+    }
+
+    @Test
+    public void getComputesValueOnce() {
+        ColumnValueCache cache = new ColumnValueCache(2, 0);
+        BibEntry entry = createEntry("A");
+
+        assertEquals("A", cache.get(entry, 1, title));
+        assertEquals("A", cache.get(entry, 1, title));
+
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    public void getCachesNullValues() {
+        ColumnValueCache cache = new ColumnValueCache(1, 0);
+        BibEntry entry = new BibEntry();
+
+        assertNull(cache.get(entry, 0, title));
+        assertNull(cache.get(entry, 0, title));
+
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    public void changingFieldDropsValuesOfEntry() {
+        ColumnValueCache cache = new ColumnValueCache(1, 0);
+        BibEntry entry = createEntry("A");
+        BibEntry other = createEntry("B");
+        cache.get(entry, 0, title);
+        cache.get(other, 0, title);
+
+        entry.setField("title", "C");
+
+        assertEquals("C", cache.get(entry, 0, title));
+        assertEquals("B", cache.get(other, 0, title));
+        assertEquals(3, computations.get());
+    }
+
+    @Test
+    public void entriesWithEqualContentAreCachedSeparately() {
+        ColumnValueCache cache = new ColumnValueCache(1, 0);
+        BibEntry entry = createEntry("A");
+        BibEntry copy = createEntry("A");
+        cache.get(entry, 0, title);
+        cache.get(copy, 0, title);
+
+        copy.setField("title", "B");
+
+        assertEquals("A", cache.get(entry, 0, title));
+        assertEquals("B", cache.get(copy, 0, title));
+    }
+
+    @Test
+    public void cacheHoldsAtMostMaximumEntries() {
+        ColumnValueCache cache = new ColumnValueCache(1, 10);
+        for (int i = 0; i < 100; i++) {
+            cache.get(createEntry(String.valueOf(i)), 0, title);
+        }
+
+        assertEquals(10, cache.size());
+    }
+
+    @Test
+    public void invalidateAllDropsAllValues() {
+        ColumnValueCache cache = new ColumnValueCache(1, 0);
+        BibEntry entry = createEntry("A");
+        cache.get(entry, 0, title);
+
+        cache.invalidateAll();
+
+        assertEquals(0, cache.size());
+        assertEquals("A", cache.get(entry, 0, title));
+        assertEquals(2, computations.get());
+    }
+}
@@ -0,0 +1,139 @@
+package net.sf.jabref.gui.maintable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import net.sf.jabref.Globals;
+import net.sf.jabref.JabRefPreferences;
+import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.entry.BibEntry;
+
+import ca.odell.glazedlists.BasicEventList;
+import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.SortedList;
+import ca.odell.glazedlists.TransactionList;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ListSynchronizerTest {
+
+    private BibDatabase database;
+    private EventList<BibEntry> list;
+    private List<Integer> listChanges;
+
+
+    @Before
+    public void setUp() {
+        Globals.prefs = JabRefPreferences.getInstance();
+
+        database = new BibDatabase();
+        TransactionList<BibEntry> transactionList = new TransactionList<>(new BasicEventList<>());
+        list = transactionList;
+        database.addDatabaseChangeListener(new ListSynchronizer(transactionList));
+        listChanges = new ArrayList<>();
+        list.addListEventListener(event -> listChanges.add(list.size()));
+    }
+
+    private static BibEntry createEntry(String title) {
+        BibEntry entry = new BibEntry();
+        entry.setField("title", title);
+        return entry;
+    }
+
+    @Test
+    public void insertEntryAddsEntry() {
+        BibEntry entry = createEntry("A");
+        database.insertEntry(entry);
+
+        assertEquals(Collections.singletonList(entry), list);
+    }
+
+    @Test
+    public void removeEntryRemovesSameEntryOnly() {
+        BibEntry entry = createEntry("A");
+        BibEntry equalEntry = createEntry("A");
+        database.insertEntry(equalEntry);
+        database.insertEntry(entry);
+
+        database.removeEntry(entry);
+
+        assertEquals(1, list.size());
+        assertSame(equalEntry, list.get(0));
+    }
+
+    @Test
+    public void insertEntriesChangesListOnce() {
+        List<BibEntry> entries = Arrays.asList(createEntry("A"), createEntry("B"), createEntry("C"));
+        database.insertEntries(entries);
+
+        assertEquals(entries, list);
+        assertEquals(Collections.singletonList(3), listChanges);
+    }
+
+    @Test
+    public void removeEntriesChangesListOnce() {
+        BibEntry first = createEntry("A");
+        BibEntry second = createEntry("B");
+        BibEntry third = createEntry("C");
+        database.insertEntries(Arrays.asList(first, second, third));
+        listChanges.clear();
+
+        database.removeEntries(Arrays.asList(first, third));
+
+        assertEquals(Collections.singletonList(second), list);
+        assertEquals(Collections.singletonList(1), listChanges);
+    }
+
+    @Test
+    public void runInBatchChangesListOnce() {
+        BibEntry first = createEntry("A");
+        BibEntry second = createEntry("B");
+        database.insertEntry(first);
+        listChanges.clear();
+
+        database.runInBatch(() -> {
+            database.removeEntry(first);
+            database.insertEntry(second);
+            database.notifyEntryChanged(second);
+        });
+
+        assertEquals(Collections.singletonList(second), list);
+        assertEquals(Collections.singletonList(1), listChanges);
+    }
+
+    @Test
+    public void notifyEntryChangedInBatchSortsChangedEntriesAnew() {
+        SortedList<BibEntry> sorted = new SortedList<>(list,
+                (one, other) -> one.getField("title").compareTo(other.getField("title")));
+        BibEntry first = createEntry("A");
+        BibEntry second = createEntry("B");
+        BibEntry third = createEntry("C");
+        database.insertEntries(Arrays.asList(first, second, third));
+        listChanges.clear();
+
+        database.runInBatch(() -> {
+            first.setField("title", "D");
+            database.notifyEntryChanged(first);
+            third.setField("title", "0");
+            database.notifyEntryChanged(third);
+        });
+
+        assertEquals(Arrays.asList(third, second, first), sorted);
+        assertEquals(Collections.singletonList(3), listChanges);
+    }
+
+    @Test
+    public void notifyEntryChangedIgnoresEntryNotInDatabase() {
+        database.insertEntry(createEntry("A"));
+        listChanges.clear();
+
+        database.notifyEntryChanged(createEntry("A"));
+
+        assertEquals(Collections.emptyList(), listChanges);
+    }
+}
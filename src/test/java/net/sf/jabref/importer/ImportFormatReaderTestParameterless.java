@@ -10,6 +10,7 @@ import net.sf.jabref.model.entry.BibEntry;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 
@@ -32,6 +33,20 @@ public class ImportFormatReaderTestParameterless {
         assertNull(unknownFormat);
     }
 
+    @Test
+    public void testImportUnknownFormatMissingFile() {
+        unknownFormat = reader.importUnknownFormat("doesnotexist.bib");
+        assertNull(unknownFormat);
+    }
+
+    @Test
+    public void testImportUnknownFormatDetectsBibtex() {
+        String fileName = ImportFormatReaderTestParameterless.class.getResource("encoding-header.bib").getFile();
+        unknownFormat = reader.importUnknownFormat(fileName);
+        assertEquals(ImportFormatReader.BIBTEX_FORMAT, unknownFormat.format);
+        assertEquals(1, unknownFormat.parserResult.getDatabase().getEntryCount());
+    }
+
     @Test(expected = NullPointerException.class)
     public void testNullImportUnknownFormat() {
         unknownFormat = reader.importUnknownFormat(null);
@@ -5,6 +5,7 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Collection;
 
@@ -97,6 +98,22 @@ public class OpenDatabaseActionTest {
         Assert.assertEquals("2014", db.getEntryByKey("1").getField("year"));
     }
 
+    @Test
+    public void useSpecifiedEncodingOfContent() throws IOException {
+        ParserResult result = OpenDatabaseAction.loadDatabase(Files.readAllBytes(bibHeaderAndSignature.toPath()),
+                StandardCharsets.US_ASCII);
+        Assert.assertEquals(StandardCharsets.UTF_8, result.getEncoding());
+        Assert.assertEquals("2014", result.getDatabase().getEntryByKey("1").getField("year"));
+    }
+
+    @Test
+    public void useFallbackEncodingIfNoHeaderInContent() throws IOException {
+        ParserResult result = OpenDatabaseAction.loadDatabase(Files.readAllBytes(bibNoHeader.toPath()),
+                defaultEncoding);
+        Assert.assertEquals(defaultEncoding, result.getEncoding());
+        Assert.assertEquals(1, result.getDatabase().getEntryCount());
+    }
+
     /**
      * Test for #669
      */
@@ -0,0 +1,133 @@
+package net.sf.jabref.importer;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.jabref.Globals;
+import net.sf.jabref.JabRefPreferences;
+import net.sf.jabref.gui.FindUnlinkedFilesDialog.CheckableTreeNode;
+import net.sf.jabref.gui.FindUnlinkedFilesDialog.FileNodeWrapper;
+import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.entry.BibEntry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class UnlinkedFilesCrawlerTest {
+
+    private static final FileFilter PDF_FILTER = file -> file.getName().endsWith(".pdf");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path root;
+    private BibDatabase database;
+    private UnlinkedPDFFileFilter filter;
+
+
+    @Before
+    public void setUp() throws IOException {
+        Globals.prefs = JabRefPreferences.getInstance();
+
+        root = folder.getRoot().toPath();
+        createFile("linked.pdf");
+        createFile("unlinked.pdf");
+        createFile("notes.txt");
+        createFile("b/second.pdf");
+        createFile("b/c/third.pdf");
+        createFile("a/first.pdf");
+        Files.createDirectories(root.resolve("empty"));
+
+        database = new BibDatabase();
+        BibEntry entry = new BibEntry("id");
+        // linked relative to the file directory, through a detour
+        entry.setField("file", ":b/../linked.pdf:PDF");
+        database.insertEntry(entry);
+
+        filter = new UnlinkedPDFFileFilter(PDF_FILTER,
+                new DatabaseFileLookup(database, Collections.singletonList(root.toString())));
+    }
+
+    @After
+    public void tearDown() {
+        Globals.prefs = null;
+    }
+
+    @Test
+    public void searchFindsUnlinkedFilesSorted() {
+        CheckableTreeNode result = new UnlinkedFilesCrawler(database).searchDirectory(root, filter,
+                new AtomicBoolean(true), null);
+
+        assertEquals(4, ((FileNodeWrapper) result.getUserObject()).fileCount);
+        assertEquals(root.toFile(), ((FileNodeWrapper) result.getUserObject()).file);
+        assertEquals("[a, b, unlinked.pdf]", getChildNames(result).toString());
+        CheckableTreeNode b = (CheckableTreeNode) result.getChildAt(1);
+        assertEquals(2, ((FileNodeWrapper) b.getUserObject()).fileCount);
+        assertEquals("[c, second.pdf]", getChildNames(b).toString());
+    }
+
+    @Test
+    public void searchReportsProgress() {
+        List<Path> found = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger scanned = new AtomicInteger();
+
+        new UnlinkedFilesCrawler(database).searchDirectory(root, filter, new AtomicBoolean(true),
+                new UnlinkedFilesCrawler.SearchListener() {
+
+                    @Override
+                    public void fileFound(Path file) {
+                        found.add(file);
+                    }
+
+                    @Override
+                    public void directoryScanned(Path directory) {
+                        scanned.incrementAndGet();
+                    }
+                });
+
+        Collections.sort(found);
+        assertEquals(4, found.size());
+        assertEquals(root.resolve("a/first.pdf"), found.get(0));
+        assertEquals(5, scanned.get());
+    }
+
+    @Test
+    public void cancelledSearchReturnsNull() {
+        assertNull(new UnlinkedFilesCrawler(database).searchDirectory(root, filter, new AtomicBoolean(false), null));
+    }
+
+    @Test
+    public void searchOfMissingDirectoryReturnsNull() {
+        assertNull(new UnlinkedFilesCrawler(database).searchDirectory(root.resolve("missing"), filter,
+                new AtomicBoolean(true), null));
+    }
+
+    private void createFile(String name) throws IOException {
+        Path file = root.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.createFile(file);
+    }
+
+    private static List<String> getChildNames(CheckableTreeNode node) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < node.getChildCount(); i++) {
+            File file = ((FileNodeWrapper) ((CheckableTreeNode) node.getChildAt(i)).getUserObject()).file;
+            names.add(file.getName());
+        }
+        return names;
+    }
+}
@@ -1320,6 +1320,107 @@ public class BibtexParserTest {
         assertEquals("epilogue", result.getDatabase().getEpilog());
     }
 
+    @Test
+    public void parseSavesEntryWithCorruptedKeyVerbatimInParsedSerialization() throws IOException {
+        String testEntry = "@article{my key author = {Ed von Test}}";
+        ParserResult result = BibtexParser.parse(new StringReader(testEntry));
+        Collection<BibEntry> c = result.getDatabase().getEntries();
+        assertEquals(1, c.size());
+
+        BibEntry e = c.iterator().next();
+        assertEquals("mykey", e.getCiteKey());
+        assertEquals("Ed von Test", e.getField("author"));
+        assertEquals(testEntry, e.getParsedSerialization());
+        assertTrue(result.hasWarnings());
+    }
+
+    @Test
+    public void parseSavesAllEntriesOfLargeInputInParsedSerialization() throws IOException {
+        StringBuilder input = new StringBuilder();
+        List<String> testEntries = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String testEntry = "@article{test" + i + ",author={Ed von Test " + i + "}}" + Globals.NEWLINE;
+            testEntries.add(testEntry);
+            input.append(testEntry);
+        }
+        ParserResult result = BibtexParser.parse(new StringReader(input.toString()));
+        List<BibEntry> entries = result.getDatabase().getEntries();
+        assertEquals(1000, entries.size());
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("test" + i, entries.get(i).getCiteKey());
+            assertEquals(testEntries.get(i), entries.get(i).getParsedSerialization());
+        }
+    }
+
+    @Test
+    public void parseInParallelReturnsSameResultAsSequentialParsing() throws IOException {
+        StringBuilder input = new StringBuilder("% header" + Globals.NEWLINE);
+        input.append("@preamble{some text}" + Globals.NEWLINE);
+        input.append("@string{firstname = \"Ed\"}" + Globals.NEWLINE);
+        input.append("@string{firstname = \"Eddie\"}" + Globals.NEWLINE);
+        for (int i = 0; i < 100; i++) {
+            input.append(Globals.NEWLINE + "@article{test" + (i % 90) + "," + Globals.NEWLINE + "  author = firstname # { von Test},"
+                    + Globals.NEWLINE + "  title = {Title with {braces} and @ sign " + i + "}" + Globals.NEWLINE + "}"
+                    + Globals.NEWLINE);
+        }
+        input.append("@article{my key author = {Ed von Test}}" + Globals.NEWLINE);
+        input.append("@article{, author = {No Key}}" + Globals.NEWLINE);
+        input.append("@comment{some comment}" + Globals.NEWLINE);
+        input.append("@article{broken, author = {Ed von Test" + Globals.NEWLINE);
+        input.append("@comment{jabref-entrytype: Lecturenotes: req[author;title] opt[language;url]}" + Globals.NEWLINE);
+        input.append("@comment{jabref-meta: databaseType:bibtex;}" + Globals.NEWLINE);
+        input.append("epilogue" + Globals.NEWLINE);
+
+        ParserResult sequential = BibtexParser.parse(new StringReader(input.toString()));
+        BibtexParser parser = new BibtexParser(new StringReader(input.toString()));
+        parser.setParallelParsingThresholds(0, 100);
+        ParserResult parallel = parser.parse();
+
+        List<BibEntry> sequentialEntries = sequential.getDatabase().getEntries();
+        List<BibEntry> parallelEntries = parallel.getDatabase().getEntries();
+        assertEquals(sequentialEntries.size(), parallelEntries.size());
+        for (int i = 0; i < sequentialEntries.size(); i++) {
+            BibEntry sequentialEntry = sequentialEntries.get(i);
+            BibEntry parallelEntry = parallelEntries.get(i);
+            assertEquals(sequentialEntry.getCiteKey(), parallelEntry.getCiteKey());
+            assertEquals(sequentialEntry.getFieldMap(), parallelEntry.getFieldMap());
+            assertEquals(sequentialEntry.getParsedSerialization(), parallelEntry.getParsedSerialization());
+            if (i > 0) {
+                assertTrue(parallelEntry.getId().compareTo(parallelEntries.get(i - 1).getId()) > 0);
+            }
+        }
+        assertEquals(sequential.getDatabase().getStringCount(), parallel.getDatabase().getStringCount());
+        BibtexString sequentialString = sequential.getDatabase().getStringValues().iterator().next();
+        BibtexString parallelString = parallel.getDatabase().getStringValues().iterator().next();
+        assertEquals(sequentialString.getContent(), parallelString.getContent());
+        assertEquals(sequentialString.getParsedSerialization(), parallelString.getParsedSerialization());
+        assertEquals(sequential.getDatabase().getPreamble(), parallel.getDatabase().getPreamble());
+        assertEquals(sequential.getDatabase().getEpilog(), parallel.getDatabase().getEpilog());
+        assertEquals(sequential.warnings(), parallel.warnings());
+        assertEquals(Arrays.asList(sequential.getDuplicateKeys()), Arrays.asList(parallel.getDuplicateKeys()));
+        assertEquals(sequential.getEntryTypes().keySet(), parallel.getEntryTypes().keySet());
+        assertEquals(sequential.getMetaData().getData("databaseType"),
+                parallel.getMetaData().getData("databaseType"));
+    }
+
+    @Test
+    public void parseInParallelRecognizesAtSignAtStartOfLineInField() throws IOException {
+        String firstEntry = "@article{test," + Globals.NEWLINE + "  title = {First" + Globals.NEWLINE
+                + "@article{noEntry}" + Globals.NEWLINE + "}}" + Globals.NEWLINE;
+        String secondEntry = "@article{test2,author={Ed von Test}}";
+        BibtexParser parser = new BibtexParser(new StringReader(firstEntry + secondEntry));
+        parser.setParallelParsingThresholds(0, 0);
+        ParserResult result = parser.parse();
+
+        List<BibEntry> entries = result.getDatabase().getEntries();
+        assertEquals(2, entries.size());
+        assertEquals("test", entries.get(0).getCiteKey());
+        assertEquals(firstEntry, entries.get(0).getParsedSerialization());
+        assertEquals("test2", entries.get(1).getCiteKey());
+        assertEquals(secondEntry, entries.get(1).getParsedSerialization());
+    }
+
     @Test
     public void parseRecognizesSaveActionsAfterEntry() throws IOException {
         BibtexParser parser = new BibtexParser(
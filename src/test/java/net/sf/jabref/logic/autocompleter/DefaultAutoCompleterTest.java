@@ -152,6 +152,26 @@ public class DefaultAutoCompleterTest {
         Assert.assertEquals(Arrays.asList("testValueOne", "testValueTwo"), result);
     }
 
+    @Test
+    public void completeReturnsAtMostMaxCompletionsMostFrequentFirst() {
+        AutoCompletePreferences preferences = mock(AutoCompletePreferences.class);
+        DefaultAutoCompleter autoCompleter = new DefaultAutoCompleter("field", preferences);
+
+        for (int i = 0; i < (2 * AbstractAutoCompleter.MAX_COMPLETIONS); i++) {
+            BibEntry entry = new BibEntry();
+            entry.setField("field", "testValue" + i);
+            autoCompleter.addBibtexEntry(entry);
+        }
+        BibEntry entry = new BibEntry();
+        entry.setField("field", "testValue39 TestValueUpper");
+        autoCompleter.addBibtexEntry(entry);
+
+        List<String> result = autoCompleter.complete("testValue");
+        Assert.assertEquals(AbstractAutoCompleter.MAX_COMPLETIONS, result.size());
+        Assert.assertEquals("testValue39", result.get(0));
+        Assert.assertEquals(Collections.singletonList("TestValueUpper"), autoCompleter.complete("TestValue"));
+    }
+
     @Test
     public void completeShortStringReturnsNothing() {
         AutoCompletePreferences preferences = mock(AutoCompletePreferences.class);
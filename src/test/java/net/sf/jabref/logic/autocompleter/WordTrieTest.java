@@ -0,0 +1,163 @@
+package net.sf.jabref.logic.autocompleter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class WordTrieTest {
+
+    private WordTrie trie;
+
+
+    @Before
+    public void setUp() {
+        trie = new WordTrie();
+    }
+
+    private void add(String word) {
+        trie.add(word.toLowerCase(), word);
+    }
+
+    private void remove(String word) {
+        trie.remove(word.toLowerCase(), word);
+    }
+
+    @Test
+    public void getWordsStartingWithReturnsWordsInAlphabeticalOrder() {
+        add("testing");
+        add("test");
+        add("tester");
+        add("other");
+
+        assertEquals(Arrays.asList("test", "tester", "testing"), trie.getWordsStartingWith("te"));
+        assertEquals(Collections.singletonList("tester"), trie.getWordsStartingWith("teste"));
+        assertEquals(Collections.emptyList(), trie.getWordsStartingWith("testa"));
+        assertEquals(Collections.emptyList(), trie.getWordsStartingWith("testings"));
+    }
+
+    @Test
+    public void getWordsStartingWithReturnsMostFrequentWordsFirst() {
+        add("test");
+        add("testing");
+        add("tester");
+        add("testing");
+
+        assertEquals(Arrays.asList("testing", "test", "tester"), trie.getWordsStartingWith("test"));
+    }
+
+    @Test
+    public void getWordsStartingWithReturnsWordsWithSameLowerCaseForm() {
+        add("Test");
+        add("test");
+
+        assertEquals(Arrays.asList("Test", "test"), trie.getWordsStartingWith("te"));
+    }
+
+    @Test
+    public void getWordsStartingWithLimitReturnsMostFrequentWords() {
+        add("test");
+        add("tester");
+        add("testing");
+        add("testing");
+        add("tested");
+        add("tested");
+
+        assertEquals(Arrays.asList("tested", "testing"), trie.getWordsStartingWith("test", 2));
+        assertEquals(Arrays.asList("tested", "testing", "test"), trie.getWordsStartingWith("test", 3));
+        assertEquals(Collections.singletonList("testing"), trie.getWordsStartingWith("testi", 2));
+        assertEquals(Collections.emptyList(), trie.getWordsStartingWith("test", 0));
+    }
+
+    @Test
+    public void getWordsStartingWithLimitFindsWordsBecomingMostFrequentAfterRemove() {
+        add("tested");
+        add("tested");
+        add("tested");
+        add("testing");
+        add("testing");
+        add("tester");
+        remove("tested");
+        remove("tested");
+
+        assertEquals(Collections.singletonList("testing"), trie.getWordsStartingWith("test", 1));
+        assertEquals(Arrays.asList("testing", "tested"), trie.getWordsStartingWith("te", 2));
+    }
+
+    @Test
+    public void getWordsStartingWithLimitReturnsBeginningOfAllWords() {
+        Random random = new Random(42);
+        String[] words = new String[500];
+        for (int i = 0; i < words.length; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 1 + random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ('a' + random.nextInt(4)));
+            }
+            words[i] = word.toString();
+        }
+        for (int i = 0; i < 5000; i++) {
+            String word = words[random.nextInt(words.length)];
+            if (random.nextInt(3) == 0) {
+                remove(word);
+            } else {
+                add(word);
+            }
+        }
+
+        for (String prefix : Arrays.asList("", "a", "ab", "cad", "dddd")) {
+            List<String> all = trie.getWordsStartingWith(prefix);
+            for (int limit : new int[] {1, 5, 20}) {
+                assertEquals(all.subList(0, Math.min(limit, all.size())), trie.getWordsStartingWith(prefix, limit));
+            }
+        }
+    }
+
+    @Test
+    public void removeDecreasesCount() {
+        add("tester");
+        add("testing");
+        add("testing");
+        remove("testing");
+
+        assertEquals(Arrays.asList("tester", "testing"), trie.getWordsStartingWith("test"));
+    }
+
+    @Test
+    public void removeMergesRemainingWords() {
+        add("test");
+        add("tester");
+        add("testing");
+        remove("test");
+        remove("tester");
+
+        assertEquals(Collections.singletonList("testing"), trie.getWordsStartingWith("t"));
+        assertEquals(Collections.singletonList("testing"), trie.getWordsStartingWith("testi"));
+
+        remove("testing");
+        assertEquals(Collections.emptyList(), trie.getWordsStartingWith(""));
+    }
+
+    @Test
+    public void removeIgnoresUnknownWord() {
+        add("testing");
+        remove("test");
+        remove("tested");
+
+        assertEquals(Collections.singletonList("testing"), trie.getWordsStartingWith("test"));
+    }
+
+    @Test
+    public void addReturnsStoredInstance() {
+        String word = "testing";
+        add(word);
+
+        assertSame(word, trie.add("testing", new String("testing")));
+    }
+}
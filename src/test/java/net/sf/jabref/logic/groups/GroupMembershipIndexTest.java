@@ -0,0 +1,108 @@
+package net.sf.jabref.logic.groups;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.entry.BibEntry;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GroupMembershipIndexTest {
+
+    private BibDatabase database;
+    private GroupMembershipIndex index;
+    private BibEntry first;
+    private BibEntry second;
+    private BibEntry third;
+    private GroupTreeNode root;
+    private GroupTreeNode physics;
+    private GroupTreeNode optics;
+
+
+    @Before
+    public void setUp() {
+        database = new BibDatabase();
+        first = addEntry("physics, optics");
+        second = addEntry("physics");
+        third = addEntry("biology");
+        index = new GroupMembershipIndex(database);
+
+        root = new GroupTreeNode(new AllEntriesGroup());
+        physics = root.addSubgroup(getKeywordGroup("physics", GroupHierarchyType.INDEPENDENT));
+        optics = physics.addSubgroup(getKeywordGroup("optics", GroupHierarchyType.REFINING));
+    }
+
+    @Test
+    public void matchesAreSameAsOfSearchRule() {
+        ExplicitGroup explicit = new ExplicitGroup("explicit", GroupHierarchyType.INCLUDING);
+        explicit.addEntry(third);
+        GroupTreeNode including = root.addSubgroup(explicit);
+        including.addSubgroup(getKeywordGroup("optics", GroupHierarchyType.INDEPENDENT));
+
+        for (GroupTreeNode node : Arrays.asList(root, physics, optics, including)) {
+            assertEquals(database.getEntries().stream().filter(node.getSearchRule()::isMatch)
+                    .collect(Collectors.toList()), index.getEntries(index.getMatches(node)));
+        }
+    }
+
+    @Test
+    public void changedEntryIsMatchedAgain() {
+        assertEquals(2, index.getHitCount(physics.getGroup()));
+
+        third.setField("keywords", "physics");
+        database.removeEntry(first);
+
+        assertEquals(Arrays.asList(second, third), index.getEntries(index.getMatches(physics)));
+        assertEquals(0, index.getHitCount(optics.getGroup()));
+        assertEquals(Collections.emptyList(), index.getEntries(index.getMatches(optics)));
+    }
+
+    @Test
+    public void addedEntryReusesIndexOfRemovedEntry() {
+        BitSet before = index.getMembers(optics.getGroup());
+        database.removeEntry(first);
+        BibEntry fourth = addEntry("optics");
+
+        assertEquals(before, index.getMembers(optics.getGroup()));
+        assertTrue(index.contains(index.getMembers(optics.getGroup()), fourth));
+        assertFalse(index.contains(index.getMembers(optics.getGroup()), first));
+        assertEquals(3, index.getAllEntries().cardinality());
+    }
+
+    @Test
+    public void getMatchingGroupsFindsOverlappingGroups() {
+        BitSet matches = new BitSet();
+        matches.set(database.getEntries().indexOf(second));
+
+        assertEquals(Arrays.asList(root, physics), index.getMatchingGroups(root, matches));
+    }
+
+    @Test
+    public void explicitGroupIsMatchedOnEveryQuery() {
+        ExplicitGroup explicit = new ExplicitGroup("explicit", GroupHierarchyType.INDEPENDENT);
+        assertEquals(0, index.getHitCount(explicit));
+
+        explicit.addEntry(second);
+
+        assertEquals(1, index.getHitCount(explicit));
+    }
+
+    private BibEntry addEntry(String keywords) {
+        BibEntry entry = new BibEntry();
+        entry.setField("keywords", keywords);
+        database.insertEntry(entry);
+        return entry;
+    }
+
+    private static AbstractGroup getKeywordGroup(String keyword, GroupHierarchyType context) {
+        return new KeywordGroup(keyword, "keywords", keyword, false, false, context);
+    }
+}
@@ -25,6 +25,8 @@ import org.mockito.Mockito;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.any;
 
 public class IntegrityCheckTest {
@@ -172,6 +174,56 @@ public class IntegrityCheckTest {
         assertWrong(createContext("journal", "&Auml;rling Str&ouml;m for &#8211; &#x2031;"));
     }
 
+    @Test
+    public void testUnchangedEntriesAreNotCheckedAgain() {
+        BibDatabaseContext context = createContext("year", "86");
+        BibEntry entry = context.getDatabase().getEntries().get(0);
+        IntegrityCheck check = new IntegrityCheck(context);
+
+        List<IntegrityMessage> messages = check.checkBibtexDatabase();
+        assertEquals(1, messages.size());
+        assertSame(messages.get(0), check.checkBibtexDatabase().get(0));
+
+        entry.setField("year", "1986");
+        assertEquals(Collections.emptyList(), check.checkBibtexDatabase());
+
+        entry.setField("year", "86");
+        List<IntegrityMessage> newMessages = check.checkBibtexDatabase();
+        assertEquals(1, newMessages.size());
+        assertNotSame(messages.get(0), newMessages.get(0));
+    }
+
+    @Test
+    public void testCheckOfManyEntriesKeepsDatabaseOrder() {
+        BibDatabase database = new BibDatabase();
+        for (int i = 0; i < 1000; i++) {
+            BibEntry entry = new BibEntry();
+            entry.setField("year", String.valueOf(i));
+            database.insertEntry(entry);
+        }
+
+        List<IntegrityMessage> messages = new IntegrityCheck(new BibDatabaseContext(database, new Defaults()))
+                .checkBibtexDatabase();
+
+        assertEquals(1000, messages.size());
+        for (int i = 0; i < 1000; i++) {
+            assertSame(database.getEntries().get(i), messages.get(i).getEntry());
+        }
+    }
+
+    @Test
+    public void testLinkedFilesAreCheckedAgainForUnchangedEntries() throws IOException {
+        File bibFile = testFolder.newFile("lit.bib");
+        BibDatabaseContext context = createContext("file", ":file.pdf:PDF");
+        context.setDatabaseFile(bibFile);
+        IntegrityCheck check = new IntegrityCheck(context);
+
+        assertEquals(1, check.checkBibtexDatabase().size());
+
+        testFolder.newFile("file.pdf");
+        assertEquals(Collections.emptyList(), check.checkBibtexDatabase());
+    }
+
     private BibDatabaseContext createContext(String field, String value, String type) {
         BibEntry entry = new BibEntry();
         entry.setField(field, value);
@@ -0,0 +1,92 @@
+package net.sf.jabref.logic.journals;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JournalAbbreviationIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+
+    @Test
+    public void emptyIndex() {
+        assertEquals(0, JournalAbbreviationIndex.EMPTY.size());
+        assertFalse(JournalAbbreviationIndex.EMPTY.getByName("long name").isPresent());
+        assertFalse(JournalAbbreviationIndex.EMPTY.containsName("Long Name"));
+    }
+
+    @Test
+    public void mappedIndexFindsAbbreviationsByLowerCaseKeys() throws Exception {
+        Path file = folder.newFile("journals.idx").toPath();
+        JournalAbbreviationIndex.write(Arrays.asList(new Abbreviation("Long Name", "L. N."),
+                new Abbreviation("Ärztliche Zeitschrift", "Ärztl. Z."), new Abbreviation("A Name", "A. N.")), file);
+
+        JournalAbbreviationIndex index = JournalAbbreviationIndex.map(file);
+
+        assertEquals(3, index.size());
+        assertEquals("A Name", index.get(0).getName());
+        assertEquals("Ärztliche Zeitschrift", index.get(2).getName());
+        assertTrue(index.containsName("Long Name"));
+        assertFalse(index.containsName("long name"));
+
+        assertEquals("L. N.", index.getByName("long name").get().getIsoAbbreviation());
+        assertEquals("Long Name", index.getByIsoAbbreviation("l. n.").get().getName());
+        assertEquals("Ärztliche Zeitschrift", index.getByMedlineAbbreviation("ärztl z").get().getName());
+        assertFalse(index.getByName("l. n.").isPresent());
+    }
+
+    @Test
+    public void indexKeepsLastOfDuplicates() {
+        JournalAbbreviationIndex index = JournalAbbreviationIndex
+                .of(Arrays.asList(new Abbreviation("Long Name", "L. N."), new Abbreviation("Long Name", "LA. N.")));
+
+        assertEquals(1, index.size());
+        assertEquals("LA. N.", index.getByName("long name").get().getIsoAbbreviation());
+    }
+
+    @Test
+    public void addedAbbreviationsOverwriteBuiltInOnes() {
+        JournalAbbreviationRepository repository = new JournalAbbreviationRepository(JournalAbbreviationIndex
+                .of(Arrays.asList(new Abbreviation("Long Name", "L. N."), new Abbreviation("Other Name", "O. N."))));
+        assertEquals(2, repository.size());
+        assertEquals("L. N.", repository.getIsoAbbreviation("LONG NAME").get());
+
+        repository.addEntry(new Abbreviation("Long Name", "LA. N."));
+        repository.addEntry(new Abbreviation("New Name", "N. N."));
+
+        assertEquals(3, repository.size());
+        assertEquals(3, repository.getAbbreviations().size());
+        assertEquals("LA. N.", repository.getIsoAbbreviation("Long Name").get());
+        assertEquals("O. N.", repository.getIsoAbbreviation("Other Name").get());
+        assertTrue(repository.isAbbreviatedName("N N"));
+    }
+
+    @Test
+    public void indexOfShippedListFindsSameAsRepository() {
+        List<Abbreviation> builtIn = JournalAbbreviationLoader.getBuiltInAbbreviations();
+        JournalAbbreviationRepository expected = new JournalAbbreviationRepository();
+        expected.addEntries(builtIn);
+        JournalAbbreviationRepository actual = new JournalAbbreviationRepository(JournalAbbreviationIndex.of(builtIn));
+
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getAbbreviations(), actual.getAbbreviations());
+        for (Abbreviation abbreviation : builtIn) {
+            for (String key : Arrays.asList(abbreviation.getName(), abbreviation.getIsoAbbreviation(),
+                    abbreviation.getMedlineAbbreviation())) {
+                assertEquals(expected.getAbbreviation(key).get().getName(),
+                        actual.getAbbreviation(key).get().getName());
+                assertEquals(expected.getNextAbbreviation(key), actual.getNextAbbreviation(key));
+            }
+        }
+    }
+}
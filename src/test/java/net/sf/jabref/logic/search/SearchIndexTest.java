@@ -0,0 +1,121 @@
+package net.sf.jabref.logic.search;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import net.sf.jabref.Globals;
+import net.sf.jabref.JabRefPreferences;
+import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.entry.BibEntry;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SearchIndexTest {
+
+    private BibDatabase database;
+    private SearchIndex index;
+    private BibEntry marine;
+    private BibEntry latex;
+
+
+    @Before
+    public void setUp() {
+        Globals.prefs = JabRefPreferences.getInstance();
+
+        database = new BibDatabase();
+        index = new SearchIndex(database);
+
+        marine = new BibEntry();
+        marine.setField("title", "Marine finfish larviculture in Europe");
+        marine.setField("author", "Kevin Shields");
+        database.insertEntry(marine);
+
+        latex = new BibEntry();
+        latex.setField("title", "{\\\"U}ber die {M}athematik");
+        latex.setField("journal", "J. Foo-Bar");
+        database.insertEntry(latex);
+    }
+
+    private List<BibEntry> searchAll(SearchQuery query) {
+        return database.getEntries().stream().filter(query::isMatch).collect(Collectors.toList());
+    }
+
+    @Test
+    public void getMatchesReturnsSameEntriesAsSearchingAllEntries() {
+        for (String query : Arrays.asList("marine", "fish larvi", "\"marine finfish\"", "ber mathe", "j. foo-b", "oo",
+                "europe shields", "europe mathematik", "", ".", "nothing")) {
+            for (boolean caseSensitive : new boolean[] {false, true}) {
+                SearchQuery searchQuery = new SearchQuery(query, caseSensitive, false);
+                assertEquals(query, searchAll(searchQuery), index.getMatches(searchQuery));
+            }
+        }
+    }
+
+    @Test
+    public void getMatchesFindsAddedEntry() {
+        assertEquals(Collections.emptyList(), index.getMatches(new SearchQuery("thesis", false, false)));
+
+        BibEntry thesis = new BibEntry();
+        thesis.setField("title", "My thesis");
+        database.insertEntry(thesis);
+
+        assertEquals(Collections.singletonList(thesis), index.getMatches(new SearchQuery("thesis", false, false)));
+    }
+
+    @Test
+    public void getMatchesIgnoresRemovedEntry() {
+        assertEquals(Collections.singletonList(marine), index.getMatches(new SearchQuery("marine", false, false)));
+
+        database.removeEntry(marine);
+
+        assertEquals(Collections.emptyList(), index.getMatches(new SearchQuery("marine", false, false)));
+    }
+
+    @Test
+    public void getMatchesFindsChangedField() {
+        assertEquals(Collections.singletonList(marine), index.getMatches(new SearchQuery("marine", false, false)));
+
+        marine.setField("title", "Freshwater finfish");
+        latex.setField("note", "Marine");
+
+        assertEquals(Collections.singletonList(latex), index.getMatches(new SearchQuery("marine", false, false)));
+        assertEquals(Collections.singletonList(marine), index.getMatches(new SearchQuery("fresh", false, false)));
+    }
+
+    @Test
+    public void getMatchesFindsSubstringsOfAnyLength() {
+        for (String query : Arrays.asList("e", "j", "ne", "u", "rin", "nfis", "iculture", "er ath", "e fin", "xe",
+                "arinex")) {
+            SearchQuery searchQuery = new SearchQuery(query, false, false);
+            assertEquals(query, searchAll(searchQuery), index.getMatches(searchQuery));
+        }
+    }
+
+    @Test
+    public void getMatchesDoesNotFindSubstringsOfChangedWords() {
+        assertEquals(Collections.singletonList(marine), index.getMatches(new SearchQuery("arin", false, false)));
+
+        marine.setField("title", "Freshwater fish");
+        marine.setField("author", "");
+
+        assertEquals(Collections.emptyList(), index.getMatches(new SearchQuery("arin", false, false)));
+        assertEquals(Collections.singletonList(marine), index.getMatches(new SearchQuery("wat", false, false)));
+    }
+
+    @Test
+    public void getMatchesUsesGrammarBasedSearch() {
+        SearchQuery query = new SearchQuery("title = marine", false, false);
+        assertEquals(Collections.singletonList(marine), index.getMatches(query));
+    }
+
+    @Test
+    public void splitIntoWordsSplitsAtOtherCharacters() {
+        assertEquals(Arrays.asList("j", "foo", "bar"), SearchIndex.splitIntoWords("j. foo-bar"));
+        assertEquals(Collections.emptyList(), SearchIndex.splitIntoWords(" - "));
+    }
+}
@@ -0,0 +1,94 @@
+package net.sf.jabref.logic.search.rules;
+
+import net.sf.jabref.Globals;
+import net.sf.jabref.JabRefPreferences;
+import net.sf.jabref.model.entry.BibEntry;
+import net.sf.jabref.model.entry.BibtexEntryTypes;
+import net.sf.jabref.model.entry.IdGenerator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GrammarBasedSearchRuleTest {
+
+    private BibEntry entry;
+
+
+    @Before
+    public void setUp() {
+        Globals.prefs = JabRefPreferences.getInstance();
+
+        entry = new BibEntry(IdGenerator.next(), BibtexEntryTypes.INCOLLECTION.getName());
+        entry.setField("title", "Marine finfish larviculture in Europe");
+        entry.setField("year", "2001");
+        entry.setField("author", "Kevin Shields");
+    }
+
+    private static boolean matches(String query, boolean caseSensitive, boolean regex, BibEntry entry) {
+        GrammarBasedSearchRule rule = new GrammarBasedSearchRule(caseSensitive, regex);
+        assertTrue(rule.validateSearchStrings(query));
+        return rule.applyRule(query, entry);
+    }
+
+    @Test
+    public void applyRuleMatchesFieldNameIgnoringCase() {
+        assertTrue(matches("TITLE = marine", false, false, entry));
+        assertFalse(matches("TITLE = Marine", true, false, entry));
+        assertTrue(matches("title = Marine", true, false, entry));
+    }
+
+    @Test
+    public void applyRuleEvaluatesOperators() {
+        assertTrue(matches("year == 2001", false, false, entry));
+        assertFalse(matches("year == 200", false, false, entry));
+        assertTrue(matches("author != miller", false, false, entry));
+        assertFalse(matches("author != shields", false, false, entry));
+        assertTrue(matches("journal != miller", false, false, entry));
+        assertFalse(matches("journal = miller", false, false, entry));
+    }
+
+    @Test
+    public void applyRuleEvaluatesBooleanExpressions() {
+        assertTrue(matches("title = marine and (author = miller or year = 2001)", false, false, entry));
+        assertFalse(matches("title = marine and not year = 2001", false, false, entry));
+        assertTrue(matches("not (author = miller)", false, false, entry));
+    }
+
+    @Test
+    public void applyRuleMatchesEntryType() {
+        assertTrue(matches("entrytype = incollection", false, false, entry));
+        assertFalse(matches("entrytype = article", false, false, entry));
+    }
+
+    @Test
+    public void applyRuleMatchesFieldNameAsRegularExpression() {
+        assertTrue(matches("title|author = shields", false, true, entry));
+        assertTrue(matches("t.* = finfish", false, true, entry));
+        assertTrue(matches("y[a-z]+ == 2001", false, true, entry));
+        assertFalse(matches("journal.* = .*", false, true, entry));
+    }
+
+    @Test
+    public void applyRuleWithInvalidRegularExpressionStillEvaluatesOtherAlternative() {
+        assertTrue(matches("year = 2001 or title = [", false, true, entry));
+        assertFalse(matches("year = 2000 or title = [", false, true, entry));
+    }
+
+    @Test
+    public void applyRuleCanBeEvaluatedForManyEntries() {
+        GrammarBasedSearchRule rule = new GrammarBasedSearchRule(false, false);
+        String query = "author = shields and year = 2001";
+        assertTrue(rule.validateSearchStrings(query));
+
+        BibEntry other = new BibEntry(IdGenerator.next(), BibtexEntryTypes.ARTICLE.getName());
+        other.setField("author", "Kevin Shields");
+        other.setField("year", "2002");
+
+        assertTrue(rule.applyRule(query, entry));
+        assertFalse(rule.applyRule(query, other));
+        assertTrue(rule.applyRule(query, entry));
+    }
+}
@@ -0,0 +1,86 @@
+package net.sf.jabref.logic.util.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DirectorySnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File root;
+    private DirectorySnapshot snapshot;
+
+
+    @Before
+    public void setUp() throws IOException {
+        root = folder.getRoot();
+        folder.newFile("key.pdf");
+        folder.newFile("key.TXT");
+        folder.newFolder("sub", "subsub");
+        folder.newFile("sub/other.pdf");
+        folder.newFile("sub/subsub/deep.Pdf");
+        snapshot = new DirectorySnapshot();
+    }
+
+    @Test
+    public void listKeepsContentOfFirstListing() throws IOException {
+        assertEquals(3, snapshot.list(root).size());
+
+        folder.newFile("later.pdf");
+
+        assertEquals(3, snapshot.list(root).size());
+        assertEquals(4, new DirectorySnapshot().list(root).size());
+    }
+
+    @Test
+    public void listReturnsChildrenWithLowerCaseExtensions() {
+        for (DirectorySnapshot.Entry entry : snapshot.list(root)) {
+            assertEquals(root, entry.getFile().getParentFile());
+            if ("sub".equals(entry.getName())) {
+                assertTrue(entry.isDirectory());
+                assertFalse(entry.getExtension().isPresent());
+            } else {
+                assertFalse(entry.isDirectory());
+                assertTrue(Arrays.asList("pdf", "txt").contains(entry.getExtension().get()));
+            }
+        }
+    }
+
+    @Test
+    public void listOfMissingDirectoryIsEmpty() {
+        assertEquals(Collections.emptyList(), snapshot.list(new File(root, "missing")));
+        assertEquals(Collections.emptyList(), snapshot.list(new File(root, "key.pdf")));
+    }
+
+    @Test
+    public void findMatchesMatchesWholeNames() {
+        List<File> matches = snapshot.findMatches(root, Pattern.compile("key\\.(pdf|txt)", Pattern.CASE_INSENSITIVE));
+
+        assertEquals(new HashSet<>(Arrays.asList(new File(root, "key.pdf"), new File(root, "key.TXT"))),
+                new HashSet<>(matches));
+        assertEquals(Collections.emptyList(), snapshot.findMatches(root, Pattern.compile("key")));
+    }
+
+    @Test
+    public void findFilesSearchesSubdirectories() {
+        assertEquals(
+                new HashSet<>(Arrays.asList(new File(root, "key.pdf"), new File(root, "sub/other.pdf"),
+                        new File(root, "sub/subsub/deep.Pdf"))),
+                snapshot.findFiles(Collections.singletonList("pdf"), Collections.singletonList(root)));
+    }
+}
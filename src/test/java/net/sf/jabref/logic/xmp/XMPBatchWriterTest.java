@@ -0,0 +1,112 @@
+package net.sf.jabref.logic.xmp;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.jabref.Globals;
+import net.sf.jabref.JabRefPreferences;
+import net.sf.jabref.model.entry.BibEntry;
+
+import org.apache.pdfbox.exceptions.COSVisitorException;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class XMPBatchWriterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Map<BibEntry, List<File>> filesOfEntries = new LinkedHashMap<>();
+
+
+    @Before
+    public void setUp() throws IOException, COSVisitorException {
+        Globals.prefs = JabRefPreferences.getInstance();
+
+        for (int i = 0; i < 6; i++) {
+            BibEntry entry = new BibEntry("id" + i);
+            entry.setField("title", "Title " + i);
+            entry.setCiteKey("key" + i);
+            entry.setType("misc");
+            filesOfEntries.put(entry, Collections.singletonList(createPdf("file" + i + ".pdf")));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        Globals.prefs = null;
+    }
+
+    @Test
+    public void writeWritesChangedFilesOnly() throws IOException {
+        List<XMPBatchWriter.Result> results = new XMPBatchWriter(3).write(filesOfEntries, null, () -> false, null);
+
+        assertEquals(6, results.size());
+        for (XMPBatchWriter.Result result : results) {
+            assertEquals(XMPBatchWriter.Status.WRITTEN, result.getStatus());
+            assertEquals(result.getEntry().getField("title"),
+                    XMPUtil.readXMP(result.getFile()).get(0).getField("title"));
+        }
+
+        BibEntry changed = filesOfEntries.keySet().iterator().next();
+        changed.setField("title", "Changed title");
+        results = new XMPBatchWriter(3).write(filesOfEntries, null, () -> false, null);
+
+        for (XMPBatchWriter.Result result : results) {
+            if (result.getEntry() == changed) {
+                assertEquals(XMPBatchWriter.Status.WRITTEN, result.getStatus());
+            } else {
+                assertEquals(XMPBatchWriter.Status.UNCHANGED, result.getStatus());
+            }
+        }
+    }
+
+    @Test
+    public void writeReportsFailures() throws IOException {
+        File notAPdf = folder.newFile("notAPdf.pdf");
+        BibEntry entry = new BibEntry("other");
+        entry.setType("misc");
+
+        List<XMPBatchWriter.Result> results = new XMPBatchWriter()
+                .write(Collections.singletonMap(entry, Arrays.asList(notAPdf)), null, () -> false, null);
+
+        assertEquals(1, results.size());
+        assertEquals(XMPBatchWriter.Status.FAILED, results.get(0).getStatus());
+        assertTrue(results.get(0).getError().isPresent());
+    }
+
+    @Test
+    public void cancelledWriteWritesNothing() {
+        int[] notified = new int[1];
+
+        List<XMPBatchWriter.Result> results = new XMPBatchWriter(2).write(filesOfEntries, null, () -> true,
+                result -> notified[0]++);
+
+        assertEquals(6, notified[0]);
+        for (XMPBatchWriter.Result result : results) {
+            assertEquals(XMPBatchWriter.Status.CANCELLED, result.getStatus());
+        }
+    }
+
+    private File createPdf(String name) throws IOException, COSVisitorException {
+        File file = folder.newFile(name);
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage());
+            document.save(file.getPath());
+        }
+        return file;
+    }
+}
@@ -302,6 +302,23 @@ public class XMPUtilTest {
         Assert.assertEquals("misc", e.getType());
     }
 
+    @Test
+    public void testWriteXMPIfChangedSkipsUpToDateFile() throws IOException, TransformerException {
+        BibEntry e = t1BibtexEntry();
+        List<BibEntry> entries = Collections.singletonList(e);
+
+        Assert.assertTrue(XMPUtil.writeXMPIfChanged(pdfFile, entries, null, true));
+        Assert.assertFalse(XMPUtil.writeXMPIfChanged(pdfFile, entries, null, true));
+        Assert.assertFalse(XMPUtil.writeXMPIfChanged(pdfFile, entries, null, false));
+
+        e.setField("year", "2004");
+        Assert.assertTrue(XMPUtil.writeXMPIfChanged(pdfFile, entries, null, true));
+
+        List<BibEntry> l = XMPUtil.readXMP(pdfFile.getAbsoluteFile());
+        Assert.assertEquals(1, l.size());
+        Assert.assertEquals("2004", l.get(0).getField("year"));
+    }
+
     /**
      * Make sure that the privacy filter works.
      *
@@ -0,0 +1,309 @@
+package net.sf.jabref.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import net.sf.jabref.Globals;
+import net.sf.jabref.JabRefPreferences;
+import net.sf.jabref.model.database.BibDatabaseMode;
+import net.sf.jabref.model.entry.BibEntry;
+import net.sf.jabref.model.entry.BibtexEntryTypes;
+import net.sf.jabref.model.entry.IdGenerator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DuplicateFinderTest {
+
+    private static final List<String> WORDS = Arrays.asList("the", "effect", "of", "marine", "larviculture", "on",
+            "fish", "growth", "in", "europe", "a", "study", "model", "analysis", "deep", "learning");
+    private static final List<String> NAMES = Arrays.asList("Shields", "Miller", "Smith", "Doe", "Meier");
+
+    private static final List<String> TITLE_WORDS = Arrays.asList("adaptive", "algorithm", "analysis", "approach",
+            "automated", "bayesian", "benchmark", "classification", "clustering", "comparison", "complexity",
+            "concurrent", "data", "databases", "deep", "design", "detection", "distributed", "dynamic", "efficient",
+            "empirical", "estimation", "evaluation", "evolution", "framework", "genetic", "graph", "heuristics",
+            "inference", "information", "integration", "learning", "linear", "mining", "model", "modeling", "network",
+            "neural", "optimization", "parallel", "performance", "prediction", "probabilistic", "program", "query",
+            "recognition", "retrieval", "robust", "scalable", "search", "semantic", "software", "sparse", "statistical",
+            "structure", "study", "system", "systems", "testing", "theory", "towards", "verification", "web");
+    private static final List<String> FUNCTION_WORDS = Arrays.asList("of", "for", "in", "on", "with", "and", "the",
+            "a", "using", "via");
+    private static final List<String> LAST_NAMES = Arrays.asList("Smith", "M{\\\"u}ller", "Garc{\\'i}a", "Wang",
+            "Li", "Zhang", "Kumar", "Nguyen", "Johnson", "Brown", "Rossi", "Dubois", "Kowalski", "Novak", "Tanaka",
+            "Suzuki", "Silva", "Santos", "Jensen", "Andersson", "Schmidt", "Fischer", "Weber", "Martin", "Bernard",
+            "Lee", "Kim", "Park", "Chen", "Liu", "Yang", "Huang", "Ivanov", "Petrov", "Cohen", "Levi", "O'Brien",
+            "Murphy", "Walsh", "van der Berg");
+    private static final List<String> FIRST_NAMES = Arrays.asList("Anna", "Kevin", "J{\\\"o}rg", "Maria", "Wei",
+            "Hiroshi", "Olga", "Pierre", "Sofia", "Lars", "Ana", "Rahul", "Mei", "Thomas", "Elena", "David", "Sarah",
+            "Jan", "Paula", "Marco", "Yuki", "Ines", "Omar", "Nina", "Peter");
+    private static final List<String> VENUES = Arrays.asList("Journal of Machine Learning Research",
+            "ACM Computing Surveys", "IEEE Transactions on Software Engineering", "Information Systems",
+            "Data Mining and Knowledge Discovery", "Artificial Intelligence", "Theoretical Computer Science");
+
+
+    @Before
+    public void setUp() {
+        Globals.prefs = JabRefPreferences.getInstance();
+    }
+
+    private static BibEntry createArticle(String title, String author, String journal, String year) {
+        BibEntry entry = new BibEntry(IdGenerator.next(), BibtexEntryTypes.ARTICLE.getName());
+        entry.setField("title", title);
+        entry.setField("author", author);
+        entry.setField("journal", journal);
+        entry.setField("year", year);
+        return entry;
+    }
+
+    private static List<BibEntry> createEntries(int count) {
+        Random random = new Random(42);
+        List<BibEntry> entries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            StringBuilder title = new StringBuilder();
+            for (int j = 0; j < (2 + random.nextInt(6)); j++) {
+                title.append(WORDS.get(random.nextInt(WORDS.size()))).append(' ');
+            }
+            String author = "Kevin " + NAMES.get(random.nextInt(NAMES.size())) + " and Jane "
+                    + NAMES.get(random.nextInt(NAMES.size()));
+            BibEntry entry = createArticle(title.toString().trim(), author, "Journal " + random.nextInt(3),
+                    String.valueOf(2000 + random.nextInt(3)));
+            if (random.nextInt(5) == 0) {
+                entry.setType(BibtexEntryTypes.BOOK);
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    private static List<List<BibEntry>> findAllPairs(List<BibEntry> entries) {
+        List<List<BibEntry>> pairs = new ArrayList<>();
+        for (int i = 0; i < (entries.size() - 1); i++) {
+            for (int j = i + 1; j < entries.size(); j++) {
+                if (DuplicateCheck.isDuplicate(entries.get(i), entries.get(j), BibDatabaseMode.BIBTEX)) {
+                    pairs.add(Arrays.asList(entries.get(i), entries.get(j)));
+                }
+            }
+        }
+        return pairs;
+    }
+
+    @Test
+    public void findDuplicatePairsReturnsSamePairsAsComparingAllEntries() {
+        List<BibEntry> entries = createEntries(400);
+        List<List<BibEntry>> expected = findAllPairs(entries);
+
+        List<List<BibEntry>> pairs = new ArrayList<>();
+        new DuplicateFinder(entries, BibDatabaseMode.BIBTEX)
+                .findDuplicatePairs((first, second) -> pairs.add(Arrays.asList(first, second)), () -> false);
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, pairs);
+    }
+
+    /**
+     * Creates entries resembling a real library, a quarter of them followed by a variant as they come from different
+     * sources: with typos or changed case in the title, authors in another format or abbreviated, another year, an
+     * abbreviated venue, or without DOI or pages.
+     */
+    private static List<BibEntry> createRealisticEntries(int count) {
+        Random random = new Random(7);
+        List<BibEntry> entries = new ArrayList<>();
+        while (entries.size() < count) {
+            BibEntry entry = createRealisticEntry(random);
+            entries.add(entry);
+            if (random.nextInt(4) == 0) {
+                entries.add(createVariant(entry, random));
+            }
+        }
+        return entries;
+    }
+
+    private static BibEntry createRealisticEntry(Random random) {
+        String[] types = {"article", "article", "article", "inproceedings", "inproceedings", "book", "techreport"};
+        BibEntry entry = new BibEntry(IdGenerator.next(), types[random.nextInt(types.length)]);
+
+        List<String> title = new ArrayList<>();
+        for (int i = 0; i < (4 + random.nextInt(9)); i++) {
+            List<String> words = (i % 3) == 1 ? FUNCTION_WORDS : TITLE_WORDS;
+            title.add(words.get(random.nextInt(words.size())));
+        }
+        String titleText = String.join(" ", title);
+        entry.setField("title", Character.toUpperCase(titleText.charAt(0)) + titleText.substring(1));
+
+        List<String> authors = new ArrayList<>();
+        for (int i = 0; i < (1 + random.nextInt(5)); i++) {
+            authors.add(FIRST_NAMES.get(random.nextInt(FIRST_NAMES.size())) + ' '
+                    + LAST_NAMES.get(random.nextInt(LAST_NAMES.size())));
+        }
+        entry.setField(entry.getType().equals("book") && random.nextBoolean() ? "editor" : "author",
+                String.join(" and ", authors));
+
+        String venue = VENUES.get(random.nextInt(VENUES.size()));
+        entry.setField("inproceedings".equals(entry.getType()) ? "booktitle" : "journal", venue);
+        entry.setField("year", String.valueOf(1990 + random.nextInt(27)));
+        // BibEntry only accepts numbers as pages of articles
+        entry.setField("pages", String.valueOf(1 + random.nextInt(600)));
+        if (random.nextInt(3) == 0) {
+            entry.setField("doi", "10.1000/" + random.nextInt(1000000));
+        }
+        return entry;
+    }
+
+    private static BibEntry createVariant(BibEntry entry, Random random) {
+        BibEntry variant = (BibEntry) entry.clone();
+        variant.setId(IdGenerator.next());
+        for (int i = 0; i < (1 + random.nextInt(3)); i++) {
+            switch (random.nextInt(7)) {
+            case 0:
+                variant.setField("title", addTypo(variant.getField("title"), random));
+                break;
+            case 1:
+                variant.setField("title", variant.getField("title").toLowerCase(Locale.ENGLISH));
+                break;
+            case 2:
+                String field = variant.hasField("author") ? "author" : "editor";
+                StringBuilder lastFirst = new StringBuilder();
+                for (String author : variant.getField(field).split(" and ")) {
+                    int space = author.indexOf(' ');
+                    if (lastFirst.length() > 0) {
+                        lastFirst.append(" and ");
+                    }
+                    lastFirst.append(author.substring(space + 1)).append(", ")
+                            .append(random.nextBoolean() ? author.substring(0, space) : author.substring(0, 1) + '.');
+                }
+                variant.setField(field, lastFirst.toString());
+                break;
+            case 3:
+                variant.setField("year", String.valueOf(Integer.parseInt(variant.getField("year")) + 1));
+                break;
+            case 4:
+                String venueField = variant.hasField("journal") ? "journal" : "booktitle";
+                variant.setField(venueField, variant.getField(venueField).replaceAll("([A-Z][a-z]{2})[a-z]+", "$1."));
+                break;
+            case 5:
+                variant.clearField("doi");
+                break;
+            default:
+                variant.clearField("pages");
+                break;
+            }
+        }
+        return variant;
+    }
+
+    private static String addTypo(String text, Random random) {
+        int position = random.nextInt(text.length() - 1);
+        switch (random.nextInt(3)) {
+        case 0:
+            return text.substring(0, position) + text.substring(position + 1);
+        case 1:
+            return text.substring(0, position) + text.charAt(position + 1) + text.charAt(position)
+                    + text.substring(position + 2);
+        default:
+            return text.substring(0, position) + 'x' + text.substring(position);
+        }
+    }
+
+    @Test
+    public void findDuplicatePairsMissesLessThanOnePercentOfRealisticDuplicates() {
+        List<BibEntry> entries = createRealisticEntries(1500);
+        Map<BibEntry, Integer> positions = new IdentityHashMap<>();
+        for (BibEntry entry : entries) {
+            positions.put(entry, positions.size());
+        }
+        Set<String> expected = new HashSet<>();
+        for (List<BibEntry> pair : findAllPairs(entries)) {
+            expected.add(positions.get(pair.get(0)) + "-" + positions.get(pair.get(1)));
+        }
+
+        Set<String> found = new HashSet<>();
+        new DuplicateFinder(entries, BibDatabaseMode.BIBTEX).findDuplicatePairs(
+                (first, second) -> found.add(positions.get(first) + "-" + positions.get(second)), () -> false);
+
+        assertTrue(expected.size() > 200);
+        assertTrue(expected.containsAll(found));
+        assertTrue("found " + found.size() + " of " + expected.size(), found.size() >= (0.99 * expected.size()));
+    }
+
+    @Test
+    public void findDuplicateDoesNotReportEntryItself() {
+        BibEntry entry = createArticle("Marine finfish larviculture in Europe", "Kevin Shields", "Aquaculture",
+                "2001");
+        DuplicateFinder finder = new DuplicateFinder(Collections.singletonList(entry), BibDatabaseMode.BIBTEX);
+
+        assertEquals(Optional.empty(), finder.findDuplicate(entry));
+    }
+
+    @Test
+    public void findDuplicateReturnsFirstDuplicateAcceptedByFilter() {
+        BibEntry entry = createArticle("Marine finfish larviculture in Europe", "Kevin Shields", "Aquaculture",
+                "2001");
+        BibEntry copy = createArticle("Marine finfish larviculture in Europe", "Kevin Shields", "Aquaculture",
+                "2001");
+        DuplicateFinder finder = new DuplicateFinder(Arrays.asList(entry, copy), BibDatabaseMode.BIBTEX);
+
+        BibEntry imported = createArticle("Marine finfish larviculture in Europe", "Shields, K.", "Aquaculture",
+                "2001");
+        assertEquals(Optional.of(entry), finder.findDuplicate(imported));
+        assertEquals(Optional.of(copy), finder.findDuplicate(imported, other -> other != entry));
+    }
+
+    @Test
+    public void findDuplicatePairsStopsWhenCancelled() {
+        List<List<BibEntry>> pairs = new ArrayList<>();
+        new DuplicateFinder(createEntries(400), BibDatabaseMode.BIBTEX)
+                .findDuplicatePairs((first, second) -> pairs.add(Arrays.asList(first, second)), () -> true);
+
+        assertEquals(Collections.emptyList(), pairs);
+    }
+
+    @Test
+    public void findDuplicateFindsEntryWithDifferentAuthorFormat() {
+        BibEntry entry = createArticle("Marine finfish larviculture in Europe", "Shields, Kevin", "Aquaculture",
+                "2001");
+        BibEntry other = createArticle("Another title", "Kevin Shields", "Aquaculture", "2001");
+        DuplicateFinder finder = new DuplicateFinder(Arrays.asList(other, entry), BibDatabaseMode.BIBTEX);
+
+        BibEntry imported = createArticle("Marine finfish larviculture in europe", "Kevin Shields", "Aquaculture",
+                "2001");
+        assertEquals(Optional.of(entry), finder.findDuplicate(imported));
+    }
+
+    @Test
+    public void findDuplicateFindsEntryWithTitleTypo() {
+        BibEntry entry = createArticle("Marine finfish larviculture in Europe", "Kevin Shields", "Aquaculture",
+                "2001");
+        DuplicateFinder finder = new DuplicateFinder(Collections.singletonList(entry), BibDatabaseMode.BIBTEX);
+
+        BibEntry imported = createArticle("Marin finfish larvicultur in Europe", "Kevin Shields", "Aquaculture",
+                "2001");
+        assertTrue(DuplicateCheck.isDuplicate(imported, entry, BibDatabaseMode.BIBTEX));
+        assertEquals(Optional.of(entry), finder.findDuplicate(imported));
+    }
+
+    @Test
+    public void findDuplicateIgnoresEntryOfOtherType() {
+        BibEntry entry = createArticle("Marine finfish larviculture in Europe", "Kevin Shields", "Aquaculture",
+                "2001");
+        DuplicateFinder finder = new DuplicateFinder(Collections.singletonList(entry), BibDatabaseMode.BIBTEX);
+
+        BibEntry imported = createArticle("Marine finfish larviculture in Europe", "Kevin Shields", "Aquaculture",
+                "2001");
+        imported.setType(BibtexEntryTypes.BOOK);
+        assertEquals(Optional.empty(), finder.findDuplicate(imported));
+    }
+}
@@ -4,7 +4,10 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import net.sf.jabref.Globals;
 import net.sf.jabref.JabRefPreferences;
@@ -110,6 +113,89 @@ public class BibDatabaseTest {
         assertFalse(database.containsEntryWithId(entry.getId()));
     }
 
+    @Test
+    public void insertEntriesNotifiesListenersInOneBatch() {
+        BibDatabase database = new BibDatabase();
+        List<String> events = new ArrayList<>();
+        database.addDatabaseChangeListener(new DatabaseChangeListener() {
+
+            @Override
+            public void databaseChanged(DatabaseChangeEvent e) {
+                events.add(e.getType().toString());
+            }
+
+            @Override
+            public void batchStarted() {
+                events.add("started");
+            }
+
+            @Override
+            public void batchFinished() {
+                events.add("finished");
+            }
+        });
+
+        List<BibEntry> entries = Arrays.asList(new BibEntry(), new BibEntry());
+        database.insertEntries(entries);
+        assertEquals(entries, database.getEntries());
+
+        database.removeEntries(entries);
+        assertEquals(Collections.emptyList(), database.getEntries());
+
+        assertEquals(Arrays.asList("started", "ADDED_ENTRY", "ADDED_ENTRY", "finished", "started", "REMOVED_ENTRY",
+                "REMOVED_ENTRY", "finished"), events);
+    }
+
+    @Test
+    public void getEntryByKeyFindsInsertedEntry() {
+        BibDatabase database = new BibDatabase();
+        BibEntry entry = new BibEntry();
+        entry.setCiteKey("Smith2016");
+        database.insertEntry(entry);
+
+        assertEquals(entry, database.getEntryByKey("Smith2016"));
+        assertNull(database.getEntryByKey("Smith"));
+
+        database.removeEntry(entry);
+        assertNull(database.getEntryByKey("Smith2016"));
+    }
+
+    @Test
+    public void getEntryByKeyFollowsKeyChangedAtEntry() {
+        BibDatabase database = new BibDatabase();
+        BibEntry entry = new BibEntry();
+        entry.setCiteKey("Smith2016");
+        database.insertEntry(entry);
+
+        entry.setCiteKey("Smith2016a");
+        assertNull(database.getEntryByKey("Smith2016"));
+        assertEquals(entry, database.getEntryByKey("Smith2016a"));
+
+        entry.clearField(BibEntry.KEY_FIELD);
+        assertNull(database.getEntryByKey("Smith2016a"));
+    }
+
+    @Test
+    public void duplicateKeysAreCounted() {
+        BibDatabase database = new BibDatabase();
+        BibEntry first = new BibEntry();
+        first.setCiteKey("Smith2016");
+        BibEntry second = new BibEntry();
+        second.setCiteKey("Jones2016");
+        assertFalse(database.insertEntry(first));
+        assertFalse(database.insertEntry(second));
+
+        assertTrue(database.setCiteKeyForEntry(second, "Smith2016"));
+        assertEquals(2, database.getNumberOfKeyOccurrences("Smith2016"));
+        assertEquals(0, database.getNumberOfKeyOccurrences("Jones2016"));
+        assertEquals(Arrays.asList(first, second), database.getEntriesByKey("Smith2016"));
+        assertEquals(second, database.getEntryByKey("Smith2016"));
+
+        database.removeEntry(first);
+        assertEquals(1, database.getNumberOfKeyOccurrences("Smith2016"));
+        assertFalse(database.setCiteKeyForEntry(second, "Smith2016"));
+    }
+
     @Test(expected = NullPointerException.class)
     public void insertNullEntryThrowsException() {
         BibDatabase database = new BibDatabase();
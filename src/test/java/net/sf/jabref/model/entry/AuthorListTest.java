@@ -35,6 +35,27 @@ public class AuthorListTest {
         Assert.assertFalse(al == AuthorList.parse("Smith"));
     }
 
+    @Test
+    public void parseCountsCacheHits() {
+        String authors = "Jane Cached and John Cached";
+        long hits = AuthorList.getCacheStats().hitCount();
+        long misses = AuthorList.getCacheStats().missCount();
+
+        AuthorList.parse(authors);
+        AuthorList.parse(authors);
+
+        Assert.assertEquals(misses + 1, AuthorList.getCacheStats().missCount());
+        Assert.assertEquals(hits + 1, AuthorList.getCacheStats().hitCount());
+    }
+
+    @Test
+    public void sameAuthorInDifferentListsIsSameInstance() {
+        Author smith = AuthorList.parse("John Smith and Peter Black Brown").getAuthor(0);
+        Assert.assertSame(smith, AuthorList.parse("Smith, John").getAuthor(0));
+        Assert.assertSame(smith, AuthorList.parse("Jane Doe and John Smith").getAuthor(1));
+        Assert.assertNotSame(smith, AuthorList.parse("J. Smith").getAuthor(0));
+    }
+
     @SuppressWarnings("unused")
 	@Test
     public void testFixAuthorFirstNameFirstCommas() {
@@ -0,0 +1,220 @@
+package net.sf.jabref.sql.exporter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.jabref.BibDatabaseContext;
+import net.sf.jabref.Globals;
+import net.sf.jabref.JabRefPreferences;
+import net.sf.jabref.logic.groups.AllEntriesGroup;
+import net.sf.jabref.logic.groups.ExplicitGroup;
+import net.sf.jabref.logic.groups.GroupHierarchyType;
+import net.sf.jabref.logic.groups.GroupTreeNode;
+import net.sf.jabref.logic.groups.KeywordGroup;
+import net.sf.jabref.logic.util.strings.StringUtil;
+import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.entry.BibEntry;
+import net.sf.jabref.model.entry.BibtexString;
+import net.sf.jabref.sql.SQLUtil;
+import net.sf.jabref.sql.database.MySQL;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Exports to an in-memory H2 database running in MySQL compatibility mode.
+ */
+public class DatabaseExporterTest {
+
+    private Connection connection;
+    private DatabaseExporter exporter;
+    private BibDatabase database;
+    private BibDatabaseContext databaseContext;
+
+
+    @Before
+    public void setUp() throws SQLException {
+        Globals.prefs = JabRefPreferences.getInstance();
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:;MODE=MySQL");
+        SQLUtil.processQuery(connection,
+                "CREATE ALIAS md5 FOR \"net.sf.jabref.sql.exporter.DatabaseExporterTest.md5\"");
+        exporter = new DatabaseExporter(new MySQL());
+        exporter.createTables(connection);
+        // smaller than the number of entries to test the batches
+        exporter.setBatchSize(2);
+
+        database = new BibDatabase();
+        for (int i = 0; i < 5; i++) {
+            BibEntry entry = new BibEntry("id" + i);
+            entry.setField("author", "Albert Einstein");
+            entry.setField("title", "Title " + i + " with a 'quote'");
+            entry.setType("article");
+            entry.setCiteKey("einstein" + i);
+            database.insertEntry(entry);
+        }
+        databaseContext = new BibDatabaseContext(database);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        connection.close();
+        Globals.prefs = null;
+    }
+
+    public static String md5(String text) throws NoSuchAlgorithmException {
+        StringBuilder result = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("MD5").digest(text.getBytes(StandardCharsets.UTF_8))) {
+            result.append(String.format("%02x", b));
+        }
+        return result.toString();
+    }
+
+    @Test
+    public void exportsAllEntries() throws Exception {
+        exporter.performExport(databaseContext, database.getEntries(), connection, "test");
+
+        assertEquals("5", querySingleResult("SELECT COUNT(*) FROM entries"));
+        assertEquals("Title 3 with a 'quote'",
+                querySingleResult("SELECT title FROM entries WHERE cite_key = 'einstein3'"));
+        assertEquals("article", querySingleResult("SELECT t.label FROM entries e JOIN entry_types t "
+                + "ON e.entry_types_id = t.entry_types_id WHERE e.cite_key = 'einstein0'"));
+    }
+
+    @Test
+    public void exportAgainReplacesEntries() throws Exception {
+        exporter.performExport(databaseContext, database.getEntries(), connection, "test");
+        exporter.performExport(databaseContext, database.getEntries().subList(0, 3), connection, "test");
+
+        assertEquals("3", querySingleResult("SELECT COUNT(*) FROM entries"));
+        assertEquals("1", querySingleResult("SELECT COUNT(*) FROM jabref_database"));
+    }
+
+    @Test
+    public void exportAgainOnlyChangesDifferingRows() throws Exception {
+        exporter.performExport(databaseContext, database.getEntries(), connection, "test");
+        String unchangedRow = querySingleResult("SELECT entries_id FROM entries WHERE cite_key = 'einstein0'");
+        String changedRow = querySingleResult("SELECT entries_id FROM entries WHERE cite_key = 'einstein1'");
+
+        List<BibEntry> entries = new ArrayList<>(database.getEntries());
+        entries.get(1).setField("title", "Changed title");
+        database.removeEntry(entries.get(2));
+        BibEntry entry = new BibEntry("id5");
+        entry.setField("title", "New title");
+        entry.setType("article");
+        entry.setCiteKey("einstein5");
+        database.insertEntry(entry);
+        exporter.performExport(databaseContext, database.getEntries(), connection, "test");
+
+        assertEquals("5", querySingleResult("SELECT COUNT(*) FROM entries"));
+        assertEquals(unchangedRow, querySingleResult("SELECT entries_id FROM entries WHERE cite_key = 'einstein0'"));
+        assertEquals(changedRow, querySingleResult("SELECT entries_id FROM entries WHERE cite_key = 'einstein1'"));
+        assertEquals("Changed title", querySingleResult("SELECT title FROM entries WHERE cite_key = 'einstein1'"));
+        assertEquals("0", querySingleResult("SELECT COUNT(*) FROM entries WHERE cite_key = 'einstein2'"));
+        assertEquals("New title", querySingleResult("SELECT title FROM entries WHERE cite_key = 'einstein5'"));
+    }
+
+    @Test
+    public void exportsStringsAndPreamble() throws Exception {
+        database.setPreamble("\\newcommand{\\noop}[1]{}");
+        database.addString(new BibtexString("s1", "aps", "American Physical Society"));
+        database.addString(new BibtexString("s2", "mit", "M{\\'I}T's"));
+
+        exporter.performExport(databaseContext, database.getEntries(), connection, "test");
+
+        assertEquals("3", querySingleResult("SELECT COUNT(*) FROM strings"));
+        assertEquals("\\newcommand{\\noop}[1]{}",
+                querySingleResult("SELECT content FROM strings WHERE label = '@PREAMBLE'"));
+        assertEquals("M{\\'I}T's", querySingleResult("SELECT content FROM strings WHERE label = 'mit'"));
+    }
+
+    @Test
+    public void exportsGroupsAndTheirEntries() throws Exception {
+        GroupTreeNode root = new GroupTreeNode(new AllEntriesGroup());
+        ExplicitGroup explicitGroup = new ExplicitGroup("explicit", GroupHierarchyType.INDEPENDENT);
+        explicitGroup.addEntry(database.getEntries().get(1));
+        explicitGroup.addEntry(database.getEntries().get(2));
+        explicitGroup.addEntry(database.getEntries().get(4));
+        GroupTreeNode explicitNode = root.addSubgroup(explicitGroup);
+        explicitNode.addSubgroup(new KeywordGroup("keyword", "keywords", "a'b\\d", false, true,
+                GroupHierarchyType.INCLUDING));
+        databaseContext.getMetaData().setGroups(root);
+
+        exporter.performExport(databaseContext, database.getEntries(), connection, "test");
+
+        assertEquals("3", querySingleResult("SELECT COUNT(*) FROM groups"));
+        assertEquals("3", querySingleResult("SELECT COUNT(*) FROM entry_group eg JOIN groups g "
+                + "ON eg.groups_id = g.groups_id WHERE g.label = 'explicit'"));
+        assertEquals("explicit", querySingleResult("SELECT p.label FROM groups g JOIN groups p "
+                + "ON g.parent_id = p.groups_id WHERE g.label = 'keyword'"));
+        assertEquals("a'b\\d", StringUtil.unquote(
+                querySingleResult("SELECT search_expression FROM groups WHERE label = 'keyword'"), '\\'));
+
+        explicitGroup.removeEntry(database.getEntries().get(4));
+        exporter.performExport(databaseContext, database.getEntries(), connection, "test");
+
+        assertEquals("3", querySingleResult("SELECT COUNT(*) FROM groups"));
+        assertEquals("2", querySingleResult("SELECT COUNT(*) FROM entry_group"));
+    }
+
+    @Test
+    public void exportAgainLinksGroupToInsertedRowOfReusedEntryID() throws Exception {
+        exporter.performExport(databaseContext, database.getEntries(), connection, "test");
+
+        // the row of the unchanged entry keeps the jabref_eid the new entry has now
+        BibEntry unchanged = database.getEntries().get(0);
+        database.removeEntry(unchanged);
+        unchanged.setId("id0renamed");
+        database.insertEntry(unchanged);
+        BibEntry entry = new BibEntry("id0");
+        entry.setField("title", "New title");
+        entry.setType("article");
+        entry.setCiteKey("einstein5");
+        database.insertEntry(entry);
+        GroupTreeNode root = new GroupTreeNode(new AllEntriesGroup());
+        ExplicitGroup explicitGroup = new ExplicitGroup("explicit", GroupHierarchyType.INDEPENDENT);
+        explicitGroup.addEntry(entry);
+        root.addSubgroup(explicitGroup);
+        databaseContext.getMetaData().setGroups(root);
+
+        exporter.performExport(databaseContext, database.getEntries(), connection, "test");
+
+        assertEquals("6", querySingleResult("SELECT COUNT(*) FROM entries"));
+        assertEquals("einstein5", querySingleResult("SELECT e.cite_key FROM entry_group eg JOIN entries e "
+                + "ON eg.entries_id = e.entries_id"));
+    }
+
+    @Test
+    public void failedExportIsRolledBack() throws Exception {
+        exporter.performExport(databaseContext, database.getEntries(), connection, "test");
+        SQLUtil.processQuery(connection, "DROP TABLE strings");
+
+        try {
+            exporter.performExport(databaseContext, database.getEntries().subList(0, 1), connection, "test");
+            fail();
+        } catch (SQLException e) {
+            // expected, the strings cannot be exported
+        }
+
+        assertEquals("5", querySingleResult("SELECT COUNT(*) FROM entries"));
+    }
+
+    private String querySingleResult(String query) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(query)) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+}
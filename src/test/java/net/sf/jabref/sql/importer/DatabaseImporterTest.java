@@ -0,0 +1,130 @@
+package net.sf.jabref.sql.importer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import net.sf.jabref.BibDatabaseContext;
+import net.sf.jabref.Globals;
+import net.sf.jabref.JabRefPreferences;
+import net.sf.jabref.model.database.BibDatabase;
+import net.sf.jabref.model.database.BibDatabaseMode;
+import net.sf.jabref.model.entry.BibEntry;
+import net.sf.jabref.sql.SQLUtil;
+import net.sf.jabref.sql.database.MySQL;
+import net.sf.jabref.sql.exporter.DatabaseExporter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Synchronizes with an in-memory H2 database running in MySQL compatibility mode.
+ */
+public class DatabaseImporterTest {
+
+    private Connection connection;
+    private DatabaseExporter exporter;
+    private DatabaseImporter importer;
+    private BibDatabase remoteDatabase;
+
+
+    @Before
+    public void setUp() throws Exception {
+        Globals.prefs = JabRefPreferences.getInstance();
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:;MODE=MySQL");
+        SQLUtil.processQuery(connection,
+                "CREATE ALIAS md5 FOR \"net.sf.jabref.sql.exporter.DatabaseExporterTest.md5\"");
+        exporter = new DatabaseExporter(new MySQL());
+        exporter.createTables(connection);
+        importer = new DatabaseImporter(new MySQL());
+
+        remoteDatabase = new BibDatabase();
+        for (int i = 0; i < 3; i++) {
+            BibEntry entry = new BibEntry("id" + i);
+            entry.setField("author", "Albert Einstein");
+            entry.setField("title", "Title " + i);
+            entry.setType("article");
+            entry.setCiteKey("einstein" + i);
+            remoteDatabase.insertEntry(entry);
+        }
+        export();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        connection.close();
+        Globals.prefs = null;
+    }
+
+    @Test
+    public void synchronizeEmptyDatabaseAddsAllEntries() throws SQLException {
+        BibDatabase database = new BibDatabase();
+
+        DBSyncResult result = importer.synchronize(connection, "test", database, BibDatabaseMode.BIBTEX);
+
+        assertEquals(3, result.getAddedEntries().size());
+        assertEquals(Collections.emptyList(), result.getChangedEntries());
+        assertEquals(Collections.emptyList(), result.getRemovedEntries());
+        assertEquals(remoteDatabase.getEntries(), database.getEntries());
+    }
+
+    @Test
+    public void synchronizeAgainChangesNothing() throws SQLException {
+        BibDatabase database = new BibDatabase();
+        importer.synchronize(connection, "test", database, BibDatabaseMode.BIBTEX);
+
+        DBSyncResult result = importer.synchronize(connection, "test", database, BibDatabaseMode.BIBTEX);
+
+        assertFalse(result.hasChanges());
+        assertEquals(3, database.getEntryCount());
+    }
+
+    @Test
+    public void synchronizeTransfersOnlyDifferences() throws Exception {
+        BibDatabase database = new BibDatabase();
+        importer.synchronize(connection, "test", database, BibDatabaseMode.BIBTEX);
+        BibEntry localEntry = database.getEntryByKey("einstein1");
+
+        List<BibEntry> remoteEntries = new ArrayList<>(remoteDatabase.getEntries());
+        remoteEntries.get(1).setField("title", "Changed title");
+        remoteEntries.get(1).clearField("author");
+        remoteDatabase.removeEntry(remoteEntries.get(2));
+        BibEntry entry = new BibEntry("id3");
+        entry.setField("title", "New title");
+        entry.setType("article");
+        entry.setCiteKey("einstein3");
+        remoteDatabase.insertEntry(entry);
+        export();
+
+        DBSyncResult result = importer.synchronize(connection, "test", database, BibDatabaseMode.BIBTEX);
+
+        assertEquals(Collections.singletonList(entry), result.getAddedEntries());
+        assertEquals(Collections.singletonList(localEntry), result.getChangedEntries());
+        assertEquals(1, result.getRemovedEntries().size());
+        assertEquals("einstein2", result.getRemovedEntries().get(0).getCiteKey());
+
+        assertSame(localEntry, database.getEntryByKey("einstein1"));
+        assertEquals("Changed title", localEntry.getField("title"));
+        assertFalse(localEntry.hasField("author"));
+        assertEquals(3, database.getEntryCount());
+    }
+
+    @Test(expected = SQLException.class)
+    public void synchronizeUnknownDatabaseThrowsException() throws SQLException {
+        importer.synchronize(connection, "unknown", new BibDatabase(), BibDatabaseMode.BIBTEX);
+    }
+
+    private void export() throws Exception {
+        exporter.performExport(new BibDatabaseContext(remoteDatabase), remoteDatabase.getEntries(), connection,
+                "test");
+    }
+}